@@ -3,10 +3,12 @@ package it.gov.innovazione.ndc.integration;
 import it.gov.innovazione.ndc.config.ElasticConfigurator;
 import it.gov.innovazione.ndc.harvester.AgencyRepositoryService;
 import it.gov.innovazione.ndc.harvester.HarvesterService;
+import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
 import it.gov.innovazione.ndc.harvester.service.RepositoryService;
 import it.gov.innovazione.ndc.harvester.service.SemanticContentStatsService;
 import it.gov.innovazione.ndc.harvester.service.startupjob.StartupJobsRunner;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataLiveSwitcher;
 import it.gov.innovazione.ndc.repository.TripleStoreProperties;
 import org.elasticsearch.client.RestClient;
 import org.junit.jupiter.api.BeforeAll;
@@ -73,6 +75,9 @@ public class BaseIntegrationTest {
     @Autowired
     TripleStoreProperties virtuosoProps;
 
+    @Autowired
+    SemanticAssetMetadataLiveSwitcher liveSwitcher;
+
     @BeforeAll
     public static void beforeAll() {
         virtuoso.start();
@@ -104,6 +109,9 @@ public class BaseIntegrationTest {
 
         harvesterService.harvest(asRepo(REPO_URL));
 
+        // instances are not switched by the harvest itself, the harvested one is made searchable here
+        liveSwitcher.switchLive(REPO_URL, Instance.PRIMARY);
+
         refreshAllIndicesUsedForBulkIndexing();
 
         elasticsearchOperations.indexOps(SemanticAssetMetadata.class).refresh();
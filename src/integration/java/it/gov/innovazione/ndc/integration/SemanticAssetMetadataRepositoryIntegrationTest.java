@@ -5,6 +5,7 @@ import it.gov.innovazione.ndc.config.SynonymsElasticsearchIndexInitializer;
 import it.gov.innovazione.ndc.harvester.SemanticAssetType;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataBulkIndexer;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataDeleter;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
 import it.gov.innovazione.ndc.search.MltProperties;
@@ -37,10 +38,9 @@ public class SemanticAssetMetadataRepositoryIntegrationTest {
     public static void beforeAll() {
         elastic.start();
         elasticsearchOperations = buildElasticsearchOps();
-        InMemoryInstanceManager instanceManager = new InMemoryInstanceManager();
-        instanceManager.setAllInstances(Instance.PRIMARY);
         deleter = new SemanticAssetMetadataDeleter(elasticsearchOperations);
-        repository = new SemanticAssetMetadataRepository(elasticsearchOperations, deleter, instanceManager, new MltProperties());
+        repository = new SemanticAssetMetadataRepository(elasticsearchOperations, deleter,
+                new SemanticAssetMetadataBulkIndexer(elasticsearchOperations, 500), new MltProperties());
     }
 
     @NotNull
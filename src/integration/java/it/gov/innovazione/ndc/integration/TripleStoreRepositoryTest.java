@@ -49,7 +49,7 @@ public class TripleStoreRepositoryTest {
                 .password("")
                 .build();
 
-        repository = new TripleStoreRepository(new VirtuosoClient(properties));
+        repository = new TripleStoreRepository(new VirtuosoClient(properties), properties);
     }
 
     @BeforeEach
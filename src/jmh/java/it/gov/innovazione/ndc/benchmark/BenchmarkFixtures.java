@@ -0,0 +1,145 @@
+package it.gov.innovazione.ndc.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Fixtures of the benchmarks, written to a temporary directory. They are generated from the
+ * samples of the tests, scaled up to the given size, so the benchmarks run offline and always
+ * measure the same input.
+ */
+final class BenchmarkFixtures {
+
+    static final String ONTOLOGY_IRI = "https://w3id.org/italia/onto/CLV";
+    static final String REPO_URL = "https://github.com/italia/daf-ontologie-vocabolari-controllati";
+
+    private static final String ONTOLOGY_SAMPLE = "/Ontologie/CLV/1.0/CLV-AP_IT.ttl";
+    private static final int LEVELS = 3;
+    private static final int BRANCHING = 20;
+
+    private BenchmarkFixtures() {
+    }
+
+    static Path createTempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void deleteRecursively(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the CLV ontology of the tests followed by {@code extraClasses} classes, each with an
+     * object property, labels and comments in two languages.
+     */
+    static Path ontology(Path directory, int extraClasses) throws IOException {
+        Path ttl = directory.resolve("ontology-" + extraClasses + ".ttl");
+        try (InputStream sample = BenchmarkFixtures.class.getResourceAsStream(ONTOLOGY_SAMPLE);
+             BufferedWriter writer = Files.newBufferedWriter(ttl, StandardCharsets.UTF_8)) {
+            if (sample == null) {
+                throw new IllegalStateException("Missing sample " + ONTOLOGY_SAMPLE);
+            }
+            writer.write(new String(sample.readAllBytes(), StandardCharsets.UTF_8));
+            writer.write("""
+
+                    @prefix bench: <https://w3id.org/italia/onto/CLV/bench/> .
+                    @prefix owl: <http://www.w3.org/2002/07/owl#> .
+                    @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+                    """);
+            for (int i = 0; i < extraClasses; i++) {
+                writer.write("""
+                        bench:Class%1$d a owl:Class ;
+                            rdfs:subClassOf bench:Class%2$d ;
+                            rdfs:label "Classe %1$d"@it, "Class %1$d"@en ;
+                            rdfs:comment "Classe generata numero %1$d, con una descrizione di lunghezza realistica."@it .
+                        bench:hasClass%1$d a owl:ObjectProperty ;
+                            rdfs:domain bench:Class%1$d ;
+                            rdfs:range bench:Class%2$d ;
+                            rdfs:label "ha classe %1$d"@it, "has class %1$d"@en .
+                        """.formatted(i, i / 2));
+            }
+        }
+        return ttl;
+    }
+
+    /**
+     * Writes a vocabulary with {@code rows} rows and three levels of codes and labels, laid out
+     * like the CSV files of the controlled vocabularies.
+     */
+    static Path vocabularyCsv(Path directory, int rows) throws IOException {
+        Path csv = directory.resolve("vocabulary-" + rows + ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            StringBuilder header = new StringBuilder();
+            for (int level = 1; level <= LEVELS; level++) {
+                header.append(level == 1 ? "" : ",").append("codice_").append(level).append("_livello,label_level_").append(level);
+            }
+            writer.write(header.append('\n').toString());
+            for (int row = 0; row < rows; row++) {
+                StringBuilder line = new StringBuilder();
+                String code = "";
+                int parent = row;
+                for (int level = 1; level <= LEVELS; level++) {
+                    // the codes of the deepest level are unique, the upper levels group them
+                    parent /= BRANCHING;
+                    String segment = level == LEVELS ? String.valueOf(row) : String.valueOf(parent % BRANCHING);
+                    code = code.isEmpty() ? segment : code + "." + segment;
+                    line.append(level == 1 ? "" : ",").append(code).append(",\"Voce ").append(code).append(", livello ").append(level).append('"');
+                }
+                writer.write(line.append('\n').toString());
+            }
+        }
+        return csv;
+    }
+
+    /**
+     * Writes an APIStore database of a vocabulary, as produced for each vocabulary with a CSV
+     * distribution, with {@code rows} rows.
+     */
+    static Path apiStoreDb(Path directory, String agencyId, String keyConcept, int rows) throws SQLException {
+        Path db = directory.resolve(agencyId + "-" + keyConcept + ".db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath())) {
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE _metadata (vocabulary_uuid TEXT PRIMARY KEY, vocabulary_uri TEXT NOT NULL, "
+                        + "agency_id TEXT NOT NULL, key_concept TEXT NOT NULL, openapi TEXT NOT NULL, catalog TEXT NOT NULL)");
+                st.execute("CREATE TABLE data_table (id TEXT PRIMARY KEY, label TEXT NOT NULL, parent TEXT)");
+                st.execute("INSERT INTO _metadata VALUES ('uuid-" + keyConcept + "', 'https://w3id.org/italia/" + keyConcept + "', '"
+                        + agencyId + "', '" + keyConcept + "', '{\"info\":{\"title\":\"" + keyConcept + "\"}}', '{}')");
+            }
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO data_table(id, label, parent) VALUES (?, ?, ?)")) {
+                for (int row = 0; row < rows; row++) {
+                    ps.setString(1, keyConcept + "-" + row);
+                    ps.setString(2, "Voce " + row + " di " + keyConcept);
+                    ps.setString(3, row == 0 ? null : keyConcept + "-" + row / BRANCHING);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+        return db;
+    }
+}
@@ -0,0 +1,65 @@
+package it.gov.innovazione.ndc.benchmark;
+
+import it.gov.innovazione.ndc.harvester.csv.CsvParser;
+import it.gov.innovazione.ndc.harvester.csv.DeepestLevelExtractor;
+import it.gov.innovazione.ndc.harvester.csv.FirstColumnExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the CSV distribution of a controlled vocabulary, loaded in memory or streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CsvParserBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private final CsvParser csvParser = new CsvParser(List.of(new DeepestLevelExtractor(), new FirstColumnExtractor()));
+    private Path directory;
+    private String csvFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkFixtures.createTempDirectory("csv-benchmark");
+        csvFile = BenchmarkFixtures.vocabularyCsv(directory, rows).toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public CsvParser.CsvData loadCsvData() {
+        return csvParser.loadCsvDataFromFile(csvFile);
+    }
+
+    @Benchmark
+    public long streamCsvRecords() {
+        try (CsvParser.CsvRecords records = csvParser.openCsvFile(csvFile)) {
+            return records.getRecords().count();
+        }
+    }
+}
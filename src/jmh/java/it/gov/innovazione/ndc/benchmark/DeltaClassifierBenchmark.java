@@ -0,0 +1,73 @@
+package it.gov.innovazione.ndc.benchmark;
+
+import it.gov.innovazione.ndc.service.audit.OntologyDeltaClassifier;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classification of the delta between the online and the newly harvested version of an
+ * ontology, where a tenth of the generated classes were added and a tenth removed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DeltaClassifierBenchmark {
+
+    private static final String GENERATED_CLASS = "https://w3id.org/italia/onto/CLV/bench/Class";
+
+    @Param({"1000", "10000"})
+    public int classes;
+
+    private final OntologyDeltaClassifier classifier = new OntologyDeltaClassifier();
+    private Path directory;
+    private Model onlineModel;
+    private Model tmpModel;
+    private Model added;
+    private Model removed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkFixtures.createTempDirectory("delta-benchmark");
+        int changed = classes / 10;
+        onlineModel = RDFDataMgr.loadModel(BenchmarkFixtures.ontology(directory, classes).toString());
+        tmpModel = RDFDataMgr.loadModel(BenchmarkFixtures.ontology(directory, classes + changed).toString());
+        for (int i = 0; i < changed; i++) {
+            tmpModel.removeAll(ResourceFactory.createResource(GENERATED_CLASS + i), null, null);
+        }
+        added = ModelFactory.createDefaultModel().add(tmpModel.difference(onlineModel));
+        removed = ModelFactory.createDefaultModel().add(onlineModel.difference(tmpModel));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Optional<String> classify() {
+        return classifier.classify(BenchmarkFixtures.ONTOLOGY_IRI, added, removed, tmpModel, onlineModel);
+    }
+}
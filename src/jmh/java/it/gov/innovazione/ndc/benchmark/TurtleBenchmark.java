@@ -0,0 +1,81 @@
+package it.gov.innovazione.ndc.benchmark;
+
+import it.gov.innovazione.ndc.harvester.model.SemanticAssetModelFactory;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidationResult;
+import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidator;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syntax validation of an ontology, alone and while loading the model, and extraction of its
+ * metadata from the loaded model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TurtleBenchmark {
+
+    @Param({"0", "5000"})
+    public int extraClasses;
+
+    private final RdfSyntaxValidator validator = new RdfSyntaxValidator();
+    // the models built for validation do not use the instance manager
+    private final SemanticAssetModelFactory modelFactory = new SemanticAssetModelFactory(null);
+    private Path directory;
+    private String ttlFile;
+    private Model model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkFixtures.createTempDirectory("turtle-benchmark");
+        ttlFile = BenchmarkFixtures.ontology(directory, extraClasses).toString();
+        model = ModelFactory.createDefaultModel();
+        RdfSyntaxValidationResult result = validator.validateTurtle(ttlFile, model);
+        if (result.hasErrors()) {
+            throw new IllegalStateException("Invalid ontology fixture: " + result.getErrors());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public RdfSyntaxValidationResult validateTurtle() {
+        return validator.validateTurtle(ttlFile);
+    }
+
+    @Benchmark
+    public Model validateAndLoadTurtle() {
+        Model loaded = ModelFactory.createDefaultModel();
+        validator.validateTurtle(ttlFile, loaded);
+        return loaded;
+    }
+
+    @Benchmark
+    public SemanticAssetMetadata extractMetadata() {
+        return modelFactory.createOntologyForValidation(model, ttlFile, BenchmarkFixtures.REPO_URL).extractMetadata();
+    }
+}
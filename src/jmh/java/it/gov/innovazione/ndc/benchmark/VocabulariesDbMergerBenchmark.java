@@ -0,0 +1,83 @@
+package it.gov.innovazione.ndc.benchmark;
+
+import it.gov.innovazione.ndc.harvester.csvapis.VocabulariesDbMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregation of the APIStore databases of the vocabularies into {@code vocabularies.db}, from
+ * scratch and reusing the previous aggregate when a single vocabulary changed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class VocabulariesDbMergerBenchmark {
+
+    @Param({"20"})
+    public int vocabularies;
+
+    @Param({"5000"})
+    public int rowsPerVocabulary;
+
+    private final VocabulariesDbMerger merger = new VocabulariesDbMerger();
+    private Path directory;
+    private List<VocabulariesDbMerger.Source> sources;
+    private List<VocabulariesDbMerger.Source> sourcesWithOneChange;
+    private Path previousAggregate;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = BenchmarkFixtures.createTempDirectory("merger-benchmark");
+        sources = new ArrayList<>();
+        for (int i = 0; i < vocabularies; i++) {
+            String keyConcept = "vocabulary" + i;
+            Path db = BenchmarkFixtures.apiStoreDb(directory, "agency" + i % 3, keyConcept, rowsPerVocabulary);
+            sources.add(new VocabulariesDbMerger.Source("agency" + i % 3 + "/" + keyConcept, "hash-" + i, db));
+        }
+        sourcesWithOneChange = new ArrayList<>(sources);
+        VocabulariesDbMerger.Source first = sources.get(0);
+        sourcesWithOneChange.set(0, new VocabulariesDbMerger.Source(first.key(), first.hash() + "-changed", first.path()));
+        previousAggregate = directory.resolve("previous-vocabularies.db");
+        merger.merge(sources, null, previousAggregate);
+        output = directory.resolve("vocabularies.db");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Path mergeFully() throws IOException, SQLException {
+        merger.merge(sources, null, output);
+        return output;
+    }
+
+    @Benchmark
+    public Path mergeOneChange() throws IOException, SQLException {
+        merger.merge(sourcesWithOneChange, previousAggregate, output);
+        return output;
+    }
+}
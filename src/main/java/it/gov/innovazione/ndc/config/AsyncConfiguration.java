@@ -11,14 +11,19 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 public class AsyncConfiguration {
 
     public static final String THREAD_PREFIX = "harvesting-";
+    public static final String ASYNC_THREAD_PREFIX = "async-";
 
+    /**
+     * Executor of the {@code @Async} methods (e.g. repository validations); harvests run on the
+     * {@value #THREAD_PREFIX} threads of {@link it.gov.innovazione.ndc.harvester.HarvestScheduler}.
+     */
     @Bean
     public TaskExecutor taskExecutor() {
         ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
         taskExecutor.setCorePoolSize(10);
         taskExecutor.setMaxPoolSize(10);
         taskExecutor.setQueueCapacity(500);
-        taskExecutor.setThreadNamePrefix(THREAD_PREFIX);
+        taskExecutor.setThreadNamePrefix(ASYNC_THREAD_PREFIX);
         taskExecutor.initialize();
         return taskExecutor;
     }
@@ -6,7 +6,7 @@ import it.gov.innovazione.ndc.eventhandler.event.HarvesterStartedEvent;
 import it.gov.innovazione.ndc.harvester.HarvesterService;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContext;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
-import it.gov.innovazione.ndc.harvester.csvapis.VocabulariesDbAggregationService;
+import it.gov.innovazione.ndc.harvester.csvapis.VocabulariesDbAggregationScheduler;
 import it.gov.innovazione.ndc.harvester.exception.HarvesterAlreadyExecutedException;
 import it.gov.innovazione.ndc.harvester.exception.HarvesterAlreadyInProgressException;
 import it.gov.innovazione.ndc.harvester.exception.HarvesterException;
@@ -15,6 +15,7 @@ import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.service.HarvesterRunService;
 import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
 import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.repository.HarvesterRunProfileRepository;
 import it.gov.innovazione.ndc.service.GithubService;
 import it.gov.innovazione.ndc.service.InstanceManager;
 import it.gov.innovazione.ndc.service.logging.HarvesterStage;
@@ -24,13 +25,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ThreadUtils;
 import org.kohsuke.github.GHIssue;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.stereotype.Service;
 
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -55,9 +56,10 @@ public class SimpleHarvestRepositoryProcessor {
     private final HarvesterRunService harvesterRunService;
     private final NdcEventPublisher ndcEventPublisher;
     private final GithubService githubService;
-    private final VocabulariesDbAggregationService vocabulariesDbAggregationService;
+    private final VocabulariesDbAggregationScheduler vocabulariesDbAggregationScheduler;
+    private final HarvesterRunProfileRepository harvesterRunProfileRepository;
 
-    private final List<String> locks = new ArrayList<>();
+    private final Set<String> locks = ConcurrentHashMap.newKeySet();
     private final InstanceManager instanceManager;
 
     public static List<String> getAllRunningHarvestThreadNames() {
@@ -72,7 +74,9 @@ public class SimpleHarvestRepositoryProcessor {
         Thread.currentThread().setName(THREAD_PREFIX + "|" + runId + "|" + repoId + "|" + revision + "|" + status);
     }
 
-    @Async
+    /**
+     * Harvests the repository on the calling thread; jobs are queued and run by {@link it.gov.innovazione.ndc.harvester.HarvestScheduler}.
+     */
     public void execute(String runId, Repository repository, String correlationId, String revision, boolean force, String currentUserLogin) {
         try {
             setThreadName(runId, repository.getId(), revision, "RUNNING");
@@ -109,30 +113,27 @@ public class SimpleHarvestRepositoryProcessor {
                     .message("Starting harvester on repo " + repository.getUrl())
                     .build());
 
-            synchronized (locks) {
-                if (locks.contains(repository.getId() + revision)) {
-                    log.info("Harvesting for repo '{}' is already in progress", repository.getUrl());
-                    publishHarvesterFailedEvent(
-                            repository,
-                            correlationId,
-                            revision,
-                            runId,
-                            ALREADY_RUNNING,
-                            new HarvesterAlreadyInProgressException(
-                                    format("Harvesting for repo %s is already running",
-                                            repository.getUrl())),
-                            currentUserLogin);
-
-                    logSemanticError(LoggingContext.builder()
-                            .harvesterStatus(ALREADY_RUNNING)
-                            .message("Failed harvester on repo " + repository.getUrl())
-                            .details("Harvester on repo " + repository.getUrl() + " is already running")
-                            .build());
+            if (!locks.add(repository.getId() + revision)) {
+                log.info("Harvesting for repo '{}' is already in progress", repository.getUrl());
+                publishHarvesterFailedEvent(
+                        repository,
+                        correlationId,
+                        revision,
+                        runId,
+                        ALREADY_RUNNING,
+                        new HarvesterAlreadyInProgressException(
+                                format("Harvesting for repo %s is already running",
+                                        repository.getUrl())),
+                        currentUserLogin);
+
+                logSemanticError(LoggingContext.builder()
+                        .harvesterStatus(ALREADY_RUNNING)
+                        .message("Failed harvester on repo " + repository.getUrl())
+                        .details("Harvester on repo " + repository.getUrl() + " is already running")
+                        .build());
 
-                    setThreadName(runId, repository.getId(), revision, "IDLE");
-                    return;
-                }
-                locks.add(repository.getId() + revision);
+                setThreadName(runId, repository.getId(), revision, "IDLE");
+                return;
             }
 
             verifyHarvestingIsNotInProgress(runId, repository);
@@ -143,9 +144,9 @@ public class SimpleHarvestRepositoryProcessor {
 
             verifyNoNdcIssuesInRepoIfNecessary(repository);
 
-            harvesterService.harvest(repository, revision, instanceToHarvest);
+            harvesterService.harvest(repository, revision, instanceToHarvest, force);
 
-            vocabulariesDbAggregationService.aggregateIfNeeded();
+            vocabulariesDbAggregationScheduler.requestAggregation();
 
             githubService.openIssueIfNecessary();
 
@@ -162,6 +163,7 @@ public class SimpleHarvestRepositoryProcessor {
         } finally {
             log.info("Cleaning up after processing {}", repository.getUrl());
             harvesterService.clearTempGraphIfExists(repository.getUrl());
+            saveRunProfile(runId);
             NDCHarvesterLoggerUtils.clearContext();
             log.info("Cleaned up after processing {}", repository.getUrl());
 
@@ -175,6 +177,18 @@ public class SimpleHarvestRepositoryProcessor {
         HarvestExecutionContextUtils.clearContext();
     }
 
+    private void saveRunProfile(String runId) {
+        HarvestExecutionContext context = HarvestExecutionContextUtils.getContext();
+        if (context == null || context.getRunProfile().isEmpty()) {
+            return;
+        }
+        try {
+            harvesterRunProfileRepository.saveAll(context.getRunProfile().toEntries(runId));
+        } catch (Exception e) {
+            log.error("Unable to save the profile of run {}", runId, e);
+        }
+    }
+
     private void verifyNoNdcIssuesInRepoIfNecessary(Repository repository) {
         Optional<GHIssue> ndcIssue = githubService.getNdcIssueIfPresent(repository.getUrl());
         boolean hasIssues = ndcIssue.isPresent();
@@ -193,9 +207,7 @@ public class SimpleHarvestRepositoryProcessor {
     }
 
     private void removeLock(Repository repository, String revision) {
-        synchronized (locks) {
-            locks.remove(repository.getId() + revision);
-        }
+        locks.remove(repository.getId() + revision);
     }
 
     private synchronized void verifySameRunWasNotExecuted(Repository repository, String revision) {
@@ -43,7 +43,7 @@ public class SynonymsElasticsearchIndexInitializer {
     @SuppressWarnings("unchecked")
     public void createIndexWithSynonyms() throws Exception {
 
-        // 1) Parse prefix e versione da INDEX_NAME (es. "semantic-asset-metadata-9" -> prefix="semantic-asset-metadata", version=9)
+        // 1) Parse prefix e versione da INDEX_NAME (es. "semantic-asset-metadata-10" -> prefix="semantic-asset-metadata", version=10)
         final Optional<ParsedIndex> optionalParsedIndex = parseIndexName();
         if (optionalParsedIndex.isPresent()) {
             cleanupPreviousIndexes(optionalParsedIndex.get());
@@ -54,7 +54,9 @@ public class SynonymsElasticsearchIndexInitializer {
         IndexOperations indexOps = elasticsearchOperations.indexOps(SemanticAssetMetadata.class);
 
         if (indexOps.exists()) {
-            log.info("Index {} already exists, skipping creation.", INDEX_NAME);
+            // i nuovi campi (es. live) sono additivi: si aggiungono al mapping senza ricreare l'indice
+            indexOps.putMapping(indexOps.createMapping());
+            log.info("Index {} already exists, skipping creation and updating mapping.", INDEX_NAME);
             return;
         }
 
@@ -74,6 +74,19 @@ public class DashboardController {
                 filters);
     }
 
+    @GetMapping("aggregated-profile-data")
+    public AggregateDashboardResponse aggregatedProfile(
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "YEARS") Granularity granularity,
+            @RequestParam(required = false) List<String> repositoryUrl) {
+
+        return dashboardService.getAggregateProfileData(
+                dateParser.parseDateParams(date, startDate, endDate, granularity),
+                getTimeDataFilters(repositoryUrl));
+    }
+
     @GetMapping(value = "raw-data", produces = MediaType.APPLICATION_JSON_VALUE)
     public PagedSemanticContentStats rawJson(
             @RequestParam(required = false) LocalDate startDate,
@@ -5,6 +5,7 @@ import it.gov.innovazione.ndc.alerter.entities.EventCategory;
 import it.gov.innovazione.ndc.alerter.entities.Severity;
 import it.gov.innovazione.ndc.alerter.event.AlertableEvent;
 import it.gov.innovazione.ndc.eventhandler.NdcEventPublisher;
+import it.gov.innovazione.ndc.harvester.HarvestScheduler;
 import it.gov.innovazione.ndc.harvester.HarvesterJob;
 import it.gov.innovazione.ndc.harvester.HarvesterService;
 import it.gov.innovazione.ndc.harvester.JobExecutionResponse;
@@ -39,6 +40,7 @@ public class HarvestJobController {
     private final HarvesterService harvesterService;
     private final HarvesterRunService harvesterRunService;
     private final NdcEventPublisher eventPublisher;
+    private final HarvestScheduler harvestScheduler;
 
     @PostMapping("jobs/harvest")
     @Operation(
@@ -89,6 +91,15 @@ public class HarvestJobController {
         return harvesterRunService.getAllRunningInstances();
     }
 
+    @GetMapping("jobs/harvest/queue")
+    @Operation(
+            operationId = "getHarvestQueue",
+            description = "Get the harvest jobs waiting in the queue and the ones currently running",
+            summary = "Get the harvest queue")
+    public HarvestScheduler.HarvestQueueView getHarvestQueue() {
+        return harvestScheduler.getQueue();
+    }
+
     @DeleteMapping("jobs/harvest/run")
     @Operation(
             operationId = "deletePendingRuns",
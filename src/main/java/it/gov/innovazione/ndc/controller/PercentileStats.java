@@ -1,60 +1,105 @@
 package it.gov.innovazione.ndc.controller;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
 
+/**
+ * Mergeable quantile sketch of non negative long values, with buckets laid out like an HDR histogram:
+ * values below {@code 2^precision} are counted exactly, larger ones in buckets whose width is at
+ * most {@code 2^-precision} of their lower bound. Count, sum, min and max are exact.
+ *
+ * <p>Memory depends on the precision and on the magnitude of the largest value, not on how many
+ * values are added.
+ */
 public class PercentileStats {
-    private final List<Long> values;
+    public static final int DEFAULT_PRECISION = 7;
+    private static final int MAX_PRECISION = 16;
 
-    public PercentileStats(Collection<Long> values) {
-        this.values = new ArrayList<>(values);
-        Collections.sort(this.values);
+    private final int precision;
+    private long[] counts = new long[0];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public PercentileStats() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public PercentileStats(int precision) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
     }
 
     public static <T> Collector<T, ?, PercentileStats> summarizingPercentiles(ToLongFunction<? super T> mapper) {
         return Collector.of(
-                ArrayList::new,
-                (list, element) -> list.add(mapper.applyAsLong(element)),
-                (left, right) -> {
-                    left.addAll(right);
-                    return left;
-                },
-                PercentileStats::new
+                PercentileStats::new,
+                (stats, element) -> stats.add(mapper.applyAsLong(element)),
+                PercentileStats::merge
         );
     }
 
+    public PercentileStats add(long value) {
+        int bucket = bucketOf(Math.max(0, value));
+        ensureCapacity(bucket + 1);
+        counts[bucket]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        return this;
+    }
+
+    /**
+     * Adds to this sketch the values of another one with the same precision.
+     */
+    public PercentileStats merge(PercentileStats other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + other.precision + " into " + precision);
+        }
+        ensureCapacity(other.counts.length);
+        for (int bucket = 0; bucket < other.counts.length; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
     public long getCount() {
-        return values.size();
+        return count;
     }
 
     public long getMin() {
-        return values.stream().min(Long::compareTo).orElse(0L);
+        return count == 0 ? 0L : min;
     }
 
     public long getMax() {
-        return values.stream().max(Long::compareTo).orElse(0L);
+        return count == 0 ? 0L : max;
     }
 
     public double getAverage() {
-        return values.stream().mapToLong(Long::longValue).average().orElse(0.0);
+        return count == 0 ? 0.0 : (double) sum / count;
     }
 
     public double getPercentile(double percentile) {
-        if (values.isEmpty()) {
+        if (count == 0) {
             return Double.NaN;
         }
-        double index = percentile / 100.0 * (values.size() - 1);
-        int lower = (int) Math.floor(index);
-        int upper = (int) Math.ceil(index);
+        double index = percentile / 100.0 * (count - 1);
+        long lower = (long) Math.floor(index);
+        long upper = (long) Math.ceil(index);
+        double lowerValue = valueAtRank(lower);
         if (lower == upper) {
-            return values.get(lower);
+            return lowerValue;
         }
         double fraction = index - lower;
-        return values.get(lower) + fraction * (values.get(upper) - values.get(lower));
+        return lowerValue + fraction * (valueAtRank(upper) - lowerValue);
     }
 
     public double getP25() {
@@ -69,6 +114,55 @@ public class PercentileStats {
         return getPercentile(75);
     }
 
+    private double valueAtRank(long rank) {
+        if (rank == 0) {
+            return min;
+        }
+        if (rank == count - 1) {
+            return max;
+        }
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (rank < seen + counts[bucket]) {
+                // values are assumed evenly spread within the bucket
+                double position = (rank - seen + 0.5) / counts[bucket];
+                double value = lowerBoundOf(bucket) + (widthOf(bucket) - 1) * position;
+                return Math.min(max, Math.max(min, value));
+            }
+            seen += counts[bucket];
+        }
+        return max;
+    }
+
+    private int bucketOf(long value) {
+        long subBuckets = 1L << precision;
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - precision;
+        return (int) ((shift << precision) + (value >>> shift));
+    }
+
+    private long lowerBoundOf(int bucket) {
+        int group = bucket >>> precision;
+        if (group == 0) {
+            return bucket;
+        }
+        long mantissa = (bucket & ((1L << precision) - 1)) + (1L << precision);
+        return mantissa << (group - 1);
+    }
+
+    private long widthOf(int bucket) {
+        int group = bucket >>> precision;
+        return group == 0 ? 1 : 1L << (group - 1);
+    }
+
+    private void ensureCapacity(int size) {
+        if (counts.length < size) {
+            counts = Arrays.copyOf(counts, size);
+        }
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -1,10 +1,12 @@
 package it.gov.innovazione.ndc.controller;
 
-import it.gov.innovazione.ndc.harvester.csvapis.Sha256Hasher;
+import it.gov.innovazione.ndc.harvester.csvapis.VocabulariesDbEncoding;
+import it.gov.innovazione.ndc.harvester.csvapis.VocabulariesDbPublication;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
@@ -18,13 +20,23 @@ import org.springframework.web.bind.annotation.RestController;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Serves the aggregated {@code vocabularies.db} as a static asset, with
  * cache-friendly headers compatible with the upstream {@code apiv1} entrypoint
  * (https-only, no redirect, single 200 response, &le; 100 MB).
+ *
+ * <p>When the client accepts it, one of the {@link VocabulariesDbEncoding} variants
+ * pre-compressed at aggregation time is sent instead, with its own ETag. Byte ranges of the
+ * selected representation are served by Spring's {@link Resource} handling; this controller
+ * only checks {@code If-Range}, sending the whole representation when it does not match.
+ *
+ * <p>Validators and variants come from the in-memory {@link VocabulariesDbPublication}.
  */
 @RestController
 @RequestMapping("/harvest")
@@ -33,61 +45,99 @@ public class VocabulariesDbController {
 
     private static final MediaType SQLITE_MEDIA_TYPE = MediaType.parseMediaType("application/vnd.sqlite3");
 
-    private final String aggregateDbPath;
+    private final VocabulariesDbPublication publication;
     private final long cacheMaxAgeSeconds;
 
     public VocabulariesDbController(
-            @Value("${harvester.csvapis.aggregate-db.path}") String aggregateDbPath,
+            VocabulariesDbPublication publication,
             @Value("${harvester.csvapis.aggregate-db.cache-max-age-seconds:86400}") long cacheMaxAgeSeconds) {
-        this.aggregateDbPath = aggregateDbPath;
+        this.publication = publication;
         this.cacheMaxAgeSeconds = cacheMaxAgeSeconds;
     }
 
     @GetMapping("/vocabularies.db")
     public ResponseEntity<Resource> serve(HttpServletRequest request) throws IOException {
-        Path path = Paths.get(aggregateDbPath);
-        if (!Files.isRegularFile(path)) {
-            log.debug("Aggregate db not yet available at {}", path);
+        Optional<VocabulariesDbPublication.Snapshot> current = publication.current();
+        if (current.isEmpty()) {
+            log.debug("Aggregate db not yet available");
             return ResponseEntity.notFound().build();
         }
 
-        long lastModifiedMillis = Files.getLastModifiedTime(path).toMillis();
-        String etag = "\"" + computeEtag(path) + "\"";
+        VocabulariesDbPublication.Snapshot snapshot = current.get();
+        long lastModifiedMillis = snapshot.lastModified().toMillis();
+        Optional<VocabulariesDbEncoding> encoding = negotiateEncoding(request, snapshot);
+        String hash = snapshot.hash();
+        String etag = encoding.map(e -> "\"" + hash + "-" + e.getContentCoding() + "\"").orElse("\"" + hash + "\"");
 
         if (matchesIfNoneMatch(request, etag) || isNotModifiedSince(request, lastModifiedMillis)) {
             return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
                     .eTag(etag)
                     .lastModified(lastModifiedMillis)
                     .cacheControl(cacheControl())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
                     .build();
         }
 
-        Resource body = new FileSystemResource(path);
-        return ResponseEntity.ok()
+        Path file = encoding.map(e -> snapshot.variants().get(e).path()).orElse(snapshot.path());
+        long size = encoding.map(e -> snapshot.variants().get(e).size()).orElse(snapshot.size());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .contentType(SQLITE_MEDIA_TYPE)
-                .contentLength(Files.size(path))
+                .contentLength(size)
                 .eTag(etag)
                 .lastModified(lastModifiedMillis)
                 .cacheControl(cacheControl())
-                .body(body);
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        encoding.ifPresent(e -> response.header(HttpHeaders.CONTENT_ENCODING, e.getContentCoding()));
+
+        // Spring applies the Range header to any Resource but an InputStreamResource
+        Resource body = request.getHeader(HttpHeaders.RANGE) != null && !matchesIfRange(request, etag, lastModifiedMillis)
+                ? new InputStreamResource(Files.newInputStream(file))
+                : new FileSystemResource(file);
+        return response.body(body);
     }
 
     /**
-     * Read the precomputed aggregate hash from the sidecar file written by
-     * {@code VocabulariesDbAggregationService}. Falls back to hashing the
-     * aggregate file when the sidecar is missing (e.g. file dropped in place
-     * manually or upgrade path), so the endpoint stays usable.
+     * Picks the accepted variant with the highest quality, in declaration order on ties, among
+     * the ones published with the current aggregate.
      */
-    private String computeEtag(Path aggregateDb) throws IOException {
-        Path sidecar = Paths.get(aggregateDb.toString() + ".aggregate-hash");
-        if (Files.isRegularFile(sidecar)) {
-            String content = Files.readString(sidecar).trim();
-            if (!content.isEmpty()) {
-                return content;
+    private Optional<VocabulariesDbEncoding> negotiateEncoding(HttpServletRequest request,
+                                                               VocabulariesDbPublication.Snapshot snapshot) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null || header.isBlank()) {
+            return Optional.empty();
+        }
+        Map<String, Double> qualities = parseQualities(header);
+        VocabulariesDbEncoding selected = null;
+        double selectedQuality = 0;
+        for (VocabulariesDbEncoding encoding : VocabulariesDbEncoding.values()) {
+            double quality = qualities.getOrDefault(encoding.getContentCoding(), qualities.getOrDefault("*", 0.0));
+            if (quality > selectedQuality && snapshot.variants().containsKey(encoding)) {
+                selected = encoding;
+                selectedQuality = quality;
             }
         }
-        log.debug("Aggregate-hash sidecar missing or empty at {}; falling back to file digest", sidecar);
-        return Sha256Hasher.hashFile(aggregateDb);
+        return Optional.ofNullable(selected);
+    }
+
+    private static Map<String, Double> parseQualities(String acceptEncoding) {
+        Map<String, Double> qualities = new HashMap<>();
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            qualities.put(parts[0].trim().toLowerCase(Locale.ROOT), quality);
+        }
+        return qualities;
     }
 
     private CacheControl cacheControl() {
@@ -107,6 +157,22 @@ public class VocabulariesDbController {
         return false;
     }
 
+    private boolean matchesIfRange(HttpServletRequest request, String etag, long lastModifiedMillis) {
+        String header = request.getHeader(HttpHeaders.IF_RANGE);
+        if (header == null) {
+            return true;
+        }
+        if (header.startsWith("\"") || header.startsWith("W/")) {
+            // strong comparison: a weak validator never matches
+            return etag.equals(header.trim());
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModifiedMillis / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     private boolean isNotModifiedSince(HttpServletRequest request, long lastModifiedMillis) {
         long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
         if (ifModifiedSince < 0) {
@@ -4,7 +4,7 @@ import it.gov.innovazione.ndc.gen.api.VocabulariesApi;
 import it.gov.innovazione.ndc.gen.dto.VocabulariesResult;
 import it.gov.innovazione.ndc.gen.dto.VocabularyData;
 import it.gov.innovazione.ndc.service.SemanticAssetSearchService;
-import it.gov.innovazione.ndc.service.VocabularyDataService;
+import it.gov.innovazione.ndc.service.VocabularyDataReader;
 import it.gov.innovazione.ndc.service.VocabularyIdentifier;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -16,18 +16,18 @@ import java.util.Map;
 @RestController
 @RequiredArgsConstructor
 public class VocabularyDataController implements VocabulariesApi {
-    private final VocabularyDataService vocabularyDataService;
+    private final VocabularyDataReader vocabularyDataReader;
     private final SemanticAssetSearchService searchService;
 
     @Override
     public ResponseEntity<VocabularyData> fetchVocabularyData(String agencyId, String keyConcept, Integer limit, Integer offset) {
         Pageable pageable = OffsetBasedPageRequest.of(offset, limit);
-        return AppJsonResponse.ok(vocabularyDataService.getData(new VocabularyIdentifier(agencyId, keyConcept), pageable));
+        return AppJsonResponse.ok(vocabularyDataReader.getData(new VocabularyIdentifier(agencyId, keyConcept), pageable));
     }
 
     @Override
     public ResponseEntity<Map<String, String>> fetchVocabularyItem(String agencyId, String keyConcept, String id) {
-        return AppJsonResponse.ok(vocabularyDataService.getItem(new VocabularyIdentifier(agencyId, keyConcept), id));
+        return AppJsonResponse.ok(vocabularyDataReader.getItem(new VocabularyIdentifier(agencyId, keyConcept), id));
     }
 
     @Override
@@ -58,8 +58,12 @@ public class HarvesterRunUpdatingHandler implements NdcEventHandler {
         if (saved != 1) {
             log.error("*** HarvesterRun not updated: {}", harvesterRun);
         }
-        log.info("invalidating stats cache");
-        dashboardRepo.invalidateCache();
+        try {
+            dashboardRepo.appendRun(harvesterRun.getId());
+        } catch (Exception e) {
+            log.error("Cannot append run {} to stats cache, invalidating it", harvesterRun.getId(), e);
+            dashboardRepo.invalidateCache();
+        }
     }
 
     private void handleHarvesterStartedEvent(NdcEventWrapper<HarvesterStartedEvent> event) {
@@ -5,10 +5,13 @@ import it.gov.innovazione.ndc.eventhandler.NdcEventWrapper;
 import it.gov.innovazione.ndc.eventhandler.event.HarvesterFinishedEvent;
 import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
 import it.gov.innovazione.ndc.service.audit.SemanticDeltaService;
+import it.gov.innovazione.ndc.service.logging.HarvesterStage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.timeStage;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -28,7 +31,8 @@ public class ResourceDeltaHandler implements NdcEventHandler {
     public void handle(NdcEventWrapper<?> event) {
         HarvesterFinishedEvent finished = (HarvesterFinishedEvent) event.getPayload();
         try {
-            semanticDeltaService.computeAndPersistDelta(finished.getRepository(), finished.getRunId());
+            timeStage(HarvesterStage.RESOURCE_DELTA, null,
+                    () -> semanticDeltaService.computeAndPersistDelta(finished.getRepository(), finished.getRunId()));
         } catch (Exception e) {
             log.error("Failed to compute semantic delta for run {}: {}", finished.getRunId(), e.getMessage(), e);
         }
@@ -0,0 +1,234 @@
+package it.gov.innovazione.ndc.harvester;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.gov.innovazione.ndc.config.SimpleHarvestRepositoryProcessor;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import jakarta.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static it.gov.innovazione.ndc.config.AsyncConfiguration.THREAD_PREFIX;
+
+/**
+ * Runs harvest jobs on a dedicated pool of workers, taking them from a bounded priority queue.
+ * Jobs of the same repository never run concurrently: a job waits in the queue while another
+ * job of its repository is running, and the workers pick the next runnable job instead.
+ */
+@Slf4j
+@Service
+public class HarvestScheduler {
+
+    private static final Comparator<HarvestTask> EXECUTION_ORDER = Comparator
+            .comparing(HarvestTask::getPriority, Comparator.reverseOrder())
+            .thenComparingLong(HarvestTask::getSequence);
+
+    private final SimpleHarvestRepositoryProcessor processor;
+    private final int workers;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+
+    private final Object queueLock = new Object();
+    private final NavigableSet<HarvestTask> queue = new TreeSet<>(EXECUTION_ORDER);
+    private final Map<String, HarvestTask> running = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public HarvestScheduler(SimpleHarvestRepositoryProcessor processor,
+                            MeterRegistry meterRegistry,
+                            @Value("${harvester.scheduler.workers:10}") int workers,
+                            @Value("${harvester.scheduler.queue-capacity:500}") int queueCapacity) {
+        this.processor = processor;
+        this.workers = Math.max(1, workers);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.executor = Executors.newFixedThreadPool(this.workers, new CustomizableThreadFactory(THREAD_PREFIX));
+
+        Gauge.builder("harvester.queue.depth", this, HarvestScheduler::getQueueDepth)
+                .description("Harvest jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("harvester.jobs.running", running, Map::size)
+                .description("Harvest jobs currently running")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("harvester.queue.wait")
+                .description("Time spent by harvest jobs in the queue")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("harvester.queue.rejected")
+                .description("Harvest jobs rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a harvest job.
+     *
+     * @return false if the queue is full and the job was rejected
+     */
+    public boolean submit(HarvestJob job, Priority priority) {
+        HarvestTask task = new HarvestTask(job, priority, sequence.incrementAndGet(), Instant.now());
+        synchronized (queueLock) {
+            if (queue.size() >= queueCapacity) {
+                rejectedCounter.increment();
+                log.warn("Harvest queue is full ({} jobs), rejecting run {} for repo {}",
+                        queue.size(), job.getRunId(), job.getRepository().getUrl());
+                return false;
+            }
+            queue.add(task);
+            log.info("Queued harvest run {} for repo {} with priority {} ({} jobs queued)",
+                    job.getRunId(), job.getRepository().getUrl(), priority, queue.size());
+            dispatch();
+        }
+        return true;
+    }
+
+    public HarvestQueueView getQueue() {
+        List<HarvestTaskView> queued;
+        synchronized (queueLock) {
+            queued = queue.stream().map(HarvestTask::toView).toList();
+        }
+        return HarvestQueueView.builder()
+                .workers(workers)
+                .queueCapacity(queueCapacity)
+                .queued(queued)
+                .running(running.values().stream()
+                        .sorted(Comparator.comparing(HarvestTask::getStartedAt))
+                        .map(HarvestTask::toView)
+                        .toList())
+                .build();
+    }
+
+    int getQueueDepth() {
+        synchronized (queueLock) {
+            return queue.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // must be called holding queueLock
+    private void dispatch() {
+        Iterator<HarvestTask> iterator = queue.iterator();
+        while (running.size() < workers && iterator.hasNext()) {
+            HarvestTask task = iterator.next();
+            String repositoryId = task.getJob().getRepository().getId();
+            if (running.containsKey(repositoryId)) {
+                continue;
+            }
+            iterator.remove();
+            task.start();
+            running.put(repositoryId, task);
+            waitTimer.record(Duration.between(task.getEnqueuedAt(), task.getStartedAt()));
+            executor.execute(() -> run(task));
+        }
+    }
+
+    private void run(HarvestTask task) {
+        HarvestJob job = task.getJob();
+        try {
+            processor.execute(job.getRunId(), job.getRepository(), job.getCorrelationId(),
+                    job.getRevision(), job.isForce(), job.getCurrentUserLogin());
+        } catch (Exception e) {
+            log.error("Harvest run {} for repo {} failed", job.getRunId(), job.getRepository().getUrl(), e);
+        } finally {
+            synchronized (queueLock) {
+                running.remove(job.getRepository().getId());
+                dispatch();
+            }
+        }
+    }
+
+    public enum Priority {
+        LOW, NORMAL, HIGH
+    }
+
+    @Data
+    @Builder
+    public static class HarvestJob {
+        private final String runId;
+        private final String correlationId;
+        private final Repository repository;
+        private final String revision;
+        private final boolean force;
+        private final String currentUserLogin;
+    }
+
+    @Data
+    @Builder
+    public static class HarvestTaskView {
+        private final String runId;
+        private final String correlationId;
+        private final String repositoryId;
+        private final String repositoryUrl;
+        private final String revision;
+        private final boolean forced;
+        private final Priority priority;
+        private final Instant enqueuedAt;
+        private final Instant startedAt;
+    }
+
+    @Data
+    @Builder
+    public static class HarvestQueueView {
+        private final int workers;
+        private final int queueCapacity;
+        private final List<HarvestTaskView> queued;
+        private final List<HarvestTaskView> running;
+    }
+
+    @Getter
+    private static class HarvestTask {
+        private final HarvestJob job;
+        private final Priority priority;
+        private final long sequence;
+        private final Instant enqueuedAt;
+        private volatile Instant startedAt;
+
+        HarvestTask(HarvestJob job, Priority priority, long sequence, Instant enqueuedAt) {
+            this.job = job;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        void start() {
+            startedAt = Instant.now();
+        }
+
+        HarvestTaskView toView() {
+            return HarvestTaskView.builder()
+                    .runId(job.getRunId())
+                    .correlationId(job.getCorrelationId())
+                    .repositoryId(job.getRepository().getId())
+                    .repositoryUrl(job.getRepository().getUrl())
+                    .revision(job.getRevision())
+                    .forced(job.isForce())
+                    .priority(priority)
+                    .enqueuedAt(enqueuedAt)
+                    .startedAt(startedAt)
+                    .build();
+        }
+    }
+}
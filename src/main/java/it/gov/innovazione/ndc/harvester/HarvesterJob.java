@@ -1,6 +1,5 @@
 package it.gov.innovazione.ndc.harvester;
 
-import it.gov.innovazione.ndc.config.SimpleHarvestRepositoryProcessor;
 import it.gov.innovazione.ndc.harvester.service.RepositoryService;
 import it.gov.innovazione.ndc.harvester.util.GitUtils;
 import it.gov.innovazione.ndc.model.harvester.Repository;
@@ -24,7 +23,7 @@ import java.util.UUID;
 public class HarvesterJob {
 
     private final RepositoryService repositoryService;
-    private final SimpleHarvestRepositoryProcessor simpleHarvestRepositoryProcessor;
+    private final HarvestScheduler harvestScheduler;
     private final GitUtils gitUtils;
     private final DefaultInstanceManager defaultInstanceManager;
 
@@ -38,7 +37,7 @@ public class HarvesterJob {
         List<JobExecutionResponse> responses = new ArrayList<>();
         for (Repository repository : repositories) {
             try {
-                responses.add(harvest(repository, correlationId, force));
+                responses.add(harvest(repository, correlationId, null, force, HarvestScheduler.Priority.NORMAL));
             } catch (Exception e) {
                 // Una singola failure (es. repo Git irraggiungibile) non deve
                 // abortire l'intero batch: la registriamo come JobExecutionResponse
@@ -67,19 +66,16 @@ public class HarvesterJob {
         return harvest(false);
     }
 
-    private JobExecutionResponse harvest(Repository repository, String correlationId, boolean force) {
-        return harvest(repository, correlationId, null, force);
-    }
-
     public JobExecutionResponse harvest(String repositoryId, String revision, Boolean force) {
         Repository repository = repositoryService.findActiveRepoById(repositoryId)
                 .orElseThrow(() -> new HarvestJobException(String.format("Repository %s not found", repositoryId)));
         String correlationId = UUID.randomUUID().toString();
-        return harvest(repository, correlationId, revision, force);
+        return harvest(repository, correlationId, revision, force, HarvestScheduler.Priority.HIGH);
     }
 
 
-    private JobExecutionResponse harvest(Repository repository, String correlationId, String revision, boolean force) {
+    private JobExecutionResponse harvest(Repository repository, String correlationId, String revision, boolean force,
+                                         HarvestScheduler.Priority priority) {
 
         String runId = UUID.randomUUID().toString();
 
@@ -96,9 +92,23 @@ public class HarvesterJob {
                 .filter(StringUtils::isNotBlank)
                 .orElseGet(() -> gitUtils.getHeadRemoteRevision(repository.getUrl(), repository.getBranch()));
 
-        simpleHarvestRepositoryProcessor.execute(runId, repository, correlationId, revision, force, SecurityUtils.getCurrentUserLogin());
+        boolean queued = harvestScheduler.submit(HarvestScheduler.HarvestJob.builder()
+                        .runId(runId)
+                        .correlationId(correlationId)
+                        .repository(repository)
+                        .revision(revision)
+                        .force(force)
+                        .currentUserLogin(SecurityUtils.getCurrentUserLogin())
+                        .build(),
+                priority);
+        if (!queued) {
+            return responseBuilder
+                    .status("FAILED")
+                    .error("Harvest queue is full")
+                    .build();
+        }
 
-        log.info("Harvest job started at " + LocalDateTime.now());
+        log.info("Harvest job queued at " + LocalDateTime.now());
 
         return responseBuilder.build();
 
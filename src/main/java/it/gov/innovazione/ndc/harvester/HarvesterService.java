@@ -5,6 +5,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContext;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
+import it.gov.innovazione.ndc.harvester.incremental.IncrementalHarvestPlan;
+import it.gov.innovazione.ndc.harvester.incremental.IncrementalHarvestPlanner;
+import it.gov.innovazione.ndc.harvester.incremental.IncrementalHarvestService;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.model.conformance.ConformanceReport;
 import it.gov.innovazione.ndc.harvester.model.index.RightsHolder;
@@ -14,8 +17,10 @@ import it.gov.innovazione.ndc.harvester.service.HarvesterRunService;
 import it.gov.innovazione.ndc.harvester.service.RepositoryService;
 import it.gov.innovazione.ndc.harvester.service.RepositoryStructureValidator;
 import it.gov.innovazione.ndc.harvester.util.FileUtils;
+import it.gov.innovazione.ndc.model.harvester.HarvestAssetSource;
 import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
 import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.repository.HarvestAssetSourceRepository;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
 import it.gov.innovazione.ndc.repository.TripleStoreRepository;
 import it.gov.innovazione.ndc.service.logging.LoggingContext;
@@ -35,9 +40,15 @@ import java.util.stream.Collectors;
 
 import static it.gov.innovazione.ndc.repository.TripleStoreRepository.ONLINE_GRAPH_PREFIX;
 import static it.gov.innovazione.ndc.repository.TripleStoreRepository.TMP_GRAPH_PREFIX;
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.timeStage;
 import static it.gov.innovazione.ndc.service.logging.HarvesterStage.CLEANING_METADATA;
+import static it.gov.innovazione.ndc.service.logging.HarvesterStage.CLEANING_VIRTUOSO;
 import static it.gov.innovazione.ndc.service.logging.HarvesterStage.CLONE_REPO;
+import static it.gov.innovazione.ndc.service.logging.HarvesterStage.CONFORMANCE_CHECK;
+import static it.gov.innovazione.ndc.service.logging.HarvesterStage.INCREMENTAL_CARRY_OVER;
+import static it.gov.innovazione.ndc.service.logging.HarvesterStage.INCREMENTAL_PLANNING;
 import static it.gov.innovazione.ndc.service.logging.HarvesterStage.MAINTAINER_EXTRACTION;
+import static it.gov.innovazione.ndc.service.logging.HarvesterStage.PROCESS_RESOURCE;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logInfrastructureError;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
 import static java.util.stream.Collectors.groupingBy;
@@ -56,6 +67,9 @@ public class HarvesterService {
     private final FileUtils fileUtils;
     private final RepositoryStructureValidator repositoryStructureValidator;
     private final HarvesterRunService harvesterRunService;
+    private final IncrementalHarvestPlanner incrementalHarvestPlanner;
+    private final IncrementalHarvestService incrementalHarvestService;
+    private final HarvestAssetSourceRepository harvestAssetSourceRepository;
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
             .registerModule(new JavaTimeModule());
@@ -94,12 +108,21 @@ public class HarvesterService {
     }
 
     public void harvest(Repository repository, String revision, Instance instance) throws IOException {
+        harvest(repository, revision, instance, true);
+    }
+
+    /**
+     * Harvests a repository into the given instance. Unless {@code force} is set, only the assets
+     * changed since the last successful run are processed when the diff between the two revisions
+     * can be trusted.
+     */
+    public void harvest(Repository repository, String revision, Instance instance, boolean force) throws IOException {
         log.info("Processing repo {}", repository.getUrl());
         Repository normalisedRepo = repository.withUrl(normaliseRepoUrl(repository.getUrl()));
         String repoUrl = normalisedRepo.getUrl();
         log.debug("Normalised repo url {}", repoUrl);
         try {
-            Path path = cloneRepoToTempPath(repoUrl, repository.getBranch(), revision);
+            Path path = timeStage(CLONE_REPO, null, () -> cloneRepoToTempPath(repoUrl, repository.getBranch(), revision));
 
             NDCHarvesterLoggerUtils.overrideContext(LoggingContext.builder()
                     .stage(CLONE_REPO)
@@ -113,7 +136,9 @@ public class HarvesterService {
             try {
                 updateContext(path, instance);
                 runConformanceCheck(path);
-                harvestClonedRepo(normalisedRepo, path);
+                IncrementalHarvestPlan plan = timeStage(INCREMENTAL_PLANNING, null,
+                        () -> incrementalHarvestPlanner.plan(normalisedRepo, path, instance, force)).orElse(null);
+                harvestClonedRepo(normalisedRepo, path, plan);
                 persistValidationReport(normalisedRepo, revision);
             } finally {
                 log.info("Cleaning up pending data for {}", path);
@@ -129,7 +154,7 @@ public class HarvesterService {
 
     private void updateContext(Path path, Instance instance) {
         updateContextWithRootPath(path);
-        updateContextWithMaintainers(fileUtils.getMaintainersIfPossible(path));
+        updateContextWithMaintainers(timeStage(MAINTAINER_EXTRACTION, null, () -> fileUtils.getMaintainersIfPossible(path)));
         updateContextWithInstance(instance);
     }
 
@@ -161,7 +186,7 @@ public class HarvesterService {
 
     private void runConformanceCheck(Path repoPath) {
         try {
-            repositoryStructureValidator.validate(repoPath).ifPresent(report -> {
+            timeStage(CONFORMANCE_CHECK, null, () -> repositoryStructureValidator.validate(repoPath)).ifPresent(report -> {
                 HarvestExecutionContext context = HarvestExecutionContextUtils.getContext();
                 if (context != null) {
                     context.getValidationReportCollector().addRepositoryChecks(report);
@@ -191,14 +216,54 @@ public class HarvesterService {
         }
     }
 
-    private void harvestClonedRepo(Repository repository, Path path) {
-        clearRepo(repository.getUrl(), HarvestExecutionContextUtils.getContext().getInstance());
-        harvestSemanticAssets(repository, path);
+    private void harvestClonedRepo(Repository repository, Path path, IncrementalHarvestPlan plan) {
+        HarvestExecutionContext context = HarvestExecutionContextUtils.getContext();
+        Instance instance = context.getInstance();
+        if (plan == null) {
+            clearRepo(repository.getUrl(), instance);
+        } else {
+            // the harvesters clean up only the stale assets, the others are carried over
+            cleanUpTripleStore(repository.getUrl(), TMP_GRAPH_PREFIX);
+            cleanUpIndexedMetadata(repository.getUrl(), instance);
+            timeStage(INCREMENTAL_CARRY_OVER, null, () -> incrementalHarvestService.prepare(repository, plan));
+        }
+        HarvestExecutionContextUtils.setContext(context.withIncrementalHarvestPlan(plan));
+        tripleStoreRepository.beginBatch(repository.getUrl());
+        semanticAssetMetadataRepository.beginBulkIndexing(repository.getUrl());
+        try {
+            if (plan != null) {
+                timeStage(INCREMENTAL_CARRY_OVER, null, () -> incrementalHarvestService.carryOverMetadata(repository, plan, instance));
+            }
+            harvestSemanticAssets(repository, path);
+            tripleStoreRepository.flushBatch(repository.getUrl());
+            semanticAssetMetadataRepository.flushBulkIndexing(repository.getUrl());
+        } finally {
+            tripleStoreRepository.discardBatch(repository.getUrl());
+            semanticAssetMetadataRepository.discardBulkIndexing(repository.getUrl());
+        }
+        if (plan != null) {
+            timeStage(INCREMENTAL_CARRY_OVER, null, () -> incrementalHarvestService.carryOverRunData(plan));
+        }
+        storeAssetSources();
         storeRightsHolders(repository);
 
         log.info("Repo {} processed", repository);
     }
 
+    private void storeAssetSources() {
+        List<HarvestAssetSource> assetSources = List.copyOf(HarvestExecutionContextUtils.getAssetSources());
+        HarvestExecutionContextUtils.clearAssetSources();
+        if (HarvesterRun.getCurrentRunId() == null) {
+            return;
+        }
+        try {
+            harvestAssetSourceRepository.saveAll(assetSources);
+        } catch (Exception e) {
+            // without the asset sources the next run of the repository is a full harvest
+            log.error("Could not save the asset sources of run {}", HarvesterRun.getCurrentRunId(), e);
+        }
+    }
+
     private void storeRightsHolders(Repository repository) {
         Map<String, Map<String, String>> rightsHolders = Optional.ofNullable(HarvestExecutionContextUtils.getContext())
                 .map(HarvestExecutionContext::getRightsHolders)
@@ -228,7 +293,7 @@ public class HarvesterService {
     private void cleanUpWithHarvesters(String repoUrl, Instance instance) {
         semanticAssetHarvesters.forEach(h -> {
             log.debug("Cleaning for {} before harvesting {}", h.getType(), repoUrl);
-            h.cleanUpBeforeHarvesting(repoUrl, instance);
+            timeStage(CLEANING_METADATA, h.getType(), () -> h.cleanUpBeforeHarvesting(repoUrl, instance));
 
             log.debug("Cleaned for {}", h.getType());
         });
@@ -237,7 +302,7 @@ public class HarvesterService {
     private void harvestSemanticAssets(Repository repository, Path path) {
         semanticAssetHarvesters.forEach(h -> {
             log.debug("Harvesting {} for {} assets", path, h.getType());
-            h.harvest(repository, path);
+            timeStage(PROCESS_RESOURCE, h.getType(), () -> h.harvest(repository, path));
 
             log.debug("Harvested {} for {} assets", path, h.getType());
         });
@@ -251,13 +316,13 @@ public class HarvesterService {
 
     private void cleanUpTripleStore(String repoUrl, String prefix) {
         log.debug("Cleaning up triple store for {}", repoUrl);
-        tripleStoreRepository.clearExistingNamedGraph(repoUrl, prefix);
+        timeStage(CLEANING_VIRTUOSO, null, () -> tripleStoreRepository.clearExistingNamedGraph(repoUrl, prefix));
     }
 
     private void cleanUpIndexedMetadata(String repoUrl, Instance instance) {
         try {
             log.debug("Cleaning up indexed metadata for {}", repoUrl);
-            long deletedCount = semanticAssetMetadataRepository.deleteByRepoUrl(repoUrl, instance);
+            long deletedCount = timeStage(CLEANING_METADATA, null, () -> semanticAssetMetadataRepository.deleteByRepoUrl(repoUrl, instance));
             logSemanticInfo(LoggingContext.builder()
                     .stage(CLEANING_METADATA)
                     .message("Deleted " + deletedCount + " indexed metadata")
@@ -16,8 +16,8 @@ public class JobExecutionResponse {
     private final boolean forced;
     /**
      * Esito dell'avvio del job per questo repo: "STARTED" se l'harvest e' stato
-     * lanciato (lo stato del run finale arriva poi via HarvesterRun.status),
-     * "FAILED" se il job non e' nemmeno partito (es. errore in clone/HEAD).
+     * accettato e messo in coda (lo stato del run finale arriva poi via HarvesterRun.status),
+     * "FAILED" se il job non e' nemmeno partito (es. errore in clone/HEAD, coda piena).
      */
     private final String status;
     /** Messaggio dell'eccezione quando {@code status} = FAILED. */
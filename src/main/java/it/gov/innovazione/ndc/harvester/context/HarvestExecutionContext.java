@@ -1,5 +1,6 @@
 package it.gov.innovazione.ndc.harvester.context;
 
+import it.gov.innovazione.ndc.harvester.incremental.IncrementalHarvestPlan;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.model.index.RightsHolder;
 import it.gov.innovazione.ndc.harvester.model.validation.ValidationReportCollector;
@@ -12,9 +13,9 @@ import lombok.Singular;
 import lombok.With;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import static it.gov.innovazione.ndc.harvester.harvesters.utils.PathUtils.relativizeFile;
@@ -32,16 +33,21 @@ public class HarvestExecutionContext {
     private final String rootPath;
     @With
     private final Instance instance;
+    // set when only the assets changed since the last successful run are harvested
+    @With
+    private final IncrementalHarvestPlan incrementalHarvestPlan;
     @Singular
-    private final List<Repository.Maintainer> maintainers = new ArrayList<>();
+    private final List<Repository.Maintainer> maintainers = new CopyOnWriteArrayList<>();
     @Singular
-    private final List<RightsHolder> rightsHolders = new ArrayList<>();
+    private final List<RightsHolder> rightsHolders = new CopyOnWriteArrayList<>();
     @Singular
-    private final List<HarvesterExecutionError> errors = new ArrayList<>();
+    private final List<HarvesterExecutionError> errors = new CopyOnWriteArrayList<>();
     @Builder.Default
     private final ValidationReportCollector validationReportCollector = new ValidationReportCollector();
+    @Builder.Default
+    private final HarvestRunProfile runProfile = new HarvestRunProfile();
 
-    public void addRightsHolder(RightsHolder agencyId) {
+    public synchronized void addRightsHolder(RightsHolder agencyId) {
         if (agencyId == null) {
             return;
         }
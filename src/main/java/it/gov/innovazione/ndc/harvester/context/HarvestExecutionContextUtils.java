@@ -1,16 +1,21 @@
 package it.gov.innovazione.ndc.harvester.context;
 
+import it.gov.innovazione.ndc.model.harvester.HarvestAssetSource;
 import it.gov.innovazione.ndc.model.harvester.SemanticContentStats;
+import it.gov.innovazione.ndc.service.logging.LoggingContext;
+import it.gov.innovazione.ndc.service.logging.NDCHarvesterLoggerUtils;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
 public class HarvestExecutionContextUtils {
 
     private static final ThreadLocal<HarvestExecutionContext> CONTEXT_HOLDER = new ThreadLocal<>();
     private static final ThreadLocal<List<SemanticContentStats>> SEMANTIC_CONTENT_STATS_HOLDER = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<List<HarvestAssetSource>> ASSET_SOURCES_HOLDER = ThreadLocal.withInitial(ArrayList::new);
 
     public static HarvestExecutionContext getContext() {
         return CONTEXT_HOLDER.get();
@@ -23,6 +28,7 @@ public class HarvestExecutionContextUtils {
     public static void clearContext() {
         CONTEXT_HOLDER.remove();
         clearSemanticContentStats();
+        clearAssetSources();
     }
 
     public static List<SemanticContentStats> getSemanticContentStats() {
@@ -36,4 +42,38 @@ public class HarvestExecutionContextUtils {
     public static void clearSemanticContentStats() {
         SEMANTIC_CONTENT_STATS_HOLDER.get().clear();
     }
+
+    public static List<HarvestAssetSource> getAssetSources() {
+        return ASSET_SOURCES_HOLDER.get();
+    }
+
+    public static void addAssetSource(HarvestAssetSource source) {
+        ASSET_SOURCES_HOLDER.get().add(source);
+    }
+
+    public static void clearAssetSources() {
+        ASSET_SOURCES_HOLDER.get().clear();
+    }
+
+    /**
+     * Wraps a task so that it runs with the harvest and logging contexts of the calling thread.
+     * Meant for tasks handed over to worker threads during a harvest: the previous contexts of
+     * the executing thread are restored once the task completes.
+     */
+    public static <T> Callable<T> withCurrentContext(Callable<T> task) {
+        HarvestExecutionContext context = getContext();
+        LoggingContext loggingContext = NDCHarvesterLoggerUtils.getContext();
+        return () -> {
+            HarvestExecutionContext previousContext = getContext();
+            LoggingContext previousLoggingContext = NDCHarvesterLoggerUtils.getContext();
+            setContext(context);
+            NDCHarvesterLoggerUtils.setInitialContext(loggingContext);
+            try {
+                return task.call();
+            } finally {
+                setContext(previousContext);
+                NDCHarvesterLoggerUtils.setInitialContext(previousLoggingContext);
+            }
+        };
+    }
 }
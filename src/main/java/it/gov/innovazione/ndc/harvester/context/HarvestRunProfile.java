@@ -0,0 +1,60 @@
+package it.gov.innovazione.ndc.harvester.context;
+
+import it.gov.innovazione.ndc.model.harvester.HarvesterRunProfileEntry;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static it.gov.innovazione.ndc.model.harvester.HarvesterRunProfileEntry.MILLIS;
+
+/**
+ * Stage timings and volumes of the run of a {@link HarvestExecutionContext}. It is shared by the
+ * worker threads of the run, and durations of nested or parallel stages overlap.
+ */
+public class HarvestRunProfile {
+
+    private final Map<String, Totals> totalsByName = new ConcurrentHashMap<>();
+
+    public void addDuration(String name, long nanos) {
+        add(name, MILLIS, nanos);
+    }
+
+    public void addAmount(String name, String unit, long amount) {
+        add(name, unit, amount);
+    }
+
+    public boolean isEmpty() {
+        return totalsByName.isEmpty();
+    }
+
+    public List<HarvesterRunProfileEntry> toEntries(String runId) {
+        return totalsByName.entrySet().stream()
+                .map(entry -> HarvesterRunProfileEntry.builder()
+                        .harvesterRunId(runId)
+                        .name(entry.getKey())
+                        .unit(entry.getValue().unit())
+                        .amount(entry.getValue().total())
+                        .invocations(entry.getValue().invocations().sum())
+                        .build())
+                .sorted(Comparator.comparing(HarvesterRunProfileEntry::getName))
+                .toList();
+    }
+
+    private void add(String name, String unit, long amount) {
+        Totals totals = totalsByName.computeIfAbsent(name, n -> new Totals(unit, new LongAdder(), new LongAdder()));
+        totals.amount().add(amount);
+        totals.invocations().increment();
+    }
+
+    private record Totals(String unit, LongAdder amount, LongAdder invocations) {
+
+        // durations are summed in nanoseconds and stored in milliseconds
+        long total() {
+            return MILLIS.equals(unit) ? TimeUnit.NANOSECONDS.toMillis(amount.sum()) : amount.sum();
+        }
+    }
+}
@@ -7,25 +7,33 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 
+import java.io.Closeable;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticError;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.stream.Collectors.toMap;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class CsvParser {
@@ -40,6 +48,21 @@ public class CsvParser {
         private final String idName;
     }
 
+    /**
+     * Lazily parsed content of a CSV file: records are read from disk while the stream is consumed.
+     * The underlying file stays open until {@link #close()} is called.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    public static class CsvRecords implements AutoCloseable {
+        private final Stream<Map<String, String>> records;
+        private final String idName;
+
+        @Override
+        public void close() {
+            records.close();
+        }
+    }
 
     public CsvData loadCsvDataFromFile(String csvFile) {
         try (FileReader csvReader = new FileReader(csvFile, UTF_8)) {
@@ -56,6 +79,50 @@ public class CsvParser {
         }
     }
 
+    public CsvRecords openCsvFile(String csvFile) {
+        FileReader csvReader = null;
+        try {
+            csvReader = new FileReader(csvFile, UTF_8);
+            CSVParser parser = parseReader(csvReader);
+            try {
+                String idName = getIdName(parser, csvFile);
+                Stream<Map<String, String>> records = streamRecords(parser, csvFile)
+                        .onClose(() -> closeQuietly(parser, csvFile));
+                logSemanticInfo(LoggingContext.builder()
+                        .stage(HarvesterStage.PROCESS_RESOURCE)
+                        .harvesterStatus(HarvesterRun.Status.RUNNING)
+                        .message("Streaming CSV file")
+                        .additionalInfo("csvFile", csvFile)
+                        .additionalInfo("idName", idName)
+                        .build());
+                return new CsvRecords(records, idName);
+            } catch (RuntimeException e) {
+                closeQuietly(parser, csvFile);
+                throw e;
+            }
+        } catch (IOException e) {
+            closeQuietly(csvReader, csvFile);
+            logSemanticError(
+                    LoggingContext.builder()
+                            .message(format("Cannot parse CSV file '%s'", csvFile))
+                            .stage(HarvesterStage.PROCESS_RESOURCE)
+                            .harvesterStatus(HarvesterRun.Status.RUNNING)
+                            .build());
+            throw new InvalidCsvException(format("Cannot parse CSV file '%s'", csvFile), e);
+        }
+    }
+
+    private void closeQuietly(Closeable closeable, String csvFile) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.warn("Cannot close CSV file '{}'", csvFile, e);
+        }
+    }
+
     private CsvData tryParseCsv(FileReader csvReader, String csvFile) throws IOException {
         try (CSVParser parser = parseReader(csvReader)) {
             CsvData csvData = buildCsvDataFromParser(parser, csvFile);
@@ -73,7 +140,7 @@ public class CsvParser {
 
     private CsvData buildCsvDataFromParser(CSVParser parser, String csvFile) {
         String idName = getIdName(parser, csvFile);
-        List<Map<String, String>> records = readRecords(parser);
+        List<Map<String, String>> records = readRecords(parser, csvFile);
 
         return new CsvData(records, idName);
     }
@@ -86,26 +153,73 @@ public class CsvParser {
                 .parse(csvReader));
     }
 
-    private List<Map<String, String>> readRecords(CSVParser parser) {
-        return parser.stream()
-                .map(CSVRecord::toMap)
-                .map(this::withSanitizedKeys)
+    private List<Map<String, String>> readRecords(CSVParser parser, String csvFile) {
+        return streamRecords(parser, csvFile)
                 .collect(Collectors.toList());
     }
 
-    private Map<String, String> withSanitizedKeys(Map<String, String> map) {
-        if (map == null || map.isEmpty()) {
-            return map;
+    private Stream<Map<String, String>> streamRecords(CSVParser parser, String csvFile) {
+        String[] sanitizedHeaders = sanitizedHeadersByColumn(parser.getHeaderMap());
+        Iterator<CSVRecord> records = recordsOf(parser, csvFile);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(r -> toSanitizedMap(r, sanitizedHeaders));
+    }
+
+    /**
+     * Iterates the records of the parser, reporting a malformed row met while reading as an
+     * {@link InvalidCsvException} instead of the {@link UncheckedIOException} thrown by commons-csv.
+     */
+    private static Iterator<CSVRecord> recordsOf(CSVParser parser, String csvFile) {
+        Iterator<CSVRecord> records = parser.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return records.hasNext();
+                } catch (UncheckedIOException e) {
+                    throw malformedCsv(parser, csvFile, e.getCause());
+                }
+            }
+
+            @Override
+            public CSVRecord next() {
+                try {
+                    return records.next();
+                } catch (UncheckedIOException e) {
+                    throw malformedCsv(parser, csvFile, e.getCause());
+                }
+            }
+        };
+    }
+
+    private static InvalidCsvException malformedCsv(CSVParser parser, String csvFile, IOException cause) {
+        String message = format("Cannot parse CSV file '%s' at line %d", csvFile, parser.getCurrentLineNumber());
+        logSemanticError(
+                LoggingContext.builder()
+                        .message(message)
+                        .stage(HarvesterStage.PROCESS_RESOURCE)
+                        .harvesterStatus(HarvesterRun.Status.RUNNING)
+                        .details(cause.getMessage())
+                        .build());
+        return new InvalidCsvException(message, cause);
+    }
+
+    private static String[] sanitizedHeadersByColumn(Map<String, Integer> headerMap) {
+        int columns = headerMap.values().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        String[] sanitizedHeaders = new String[columns];
+        headerMap.forEach((header, column) -> sanitizedHeaders[column] = header.replace('.', '_').trim());
+        return sanitizedHeaders;
+    }
+
+    private static Map<String, String> toSanitizedMap(CSVRecord csvRecord, String[] sanitizedHeaders) {
+        int size = Math.min(csvRecord.size(), sanitizedHeaders.length);
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (sanitizedHeaders[i] != null) {
+                map.putIfAbsent(sanitizedHeaders[i], csvRecord.get(i));
+            }
         }
-        return map.entrySet().stream()
-                .collect(toMap(
-                        e -> {
-                            String k = e.getKey();
-                            return k == null ? null : k.replace('.', '_').trim();
-                        },
-                        Map.Entry::getValue,
-                        (v1, v2) -> v1,
-                        LinkedHashMap::new));
+        return map;
     }
 
     private String getIdName(CSVParser parser, String csvFile) {
@@ -0,0 +1,118 @@
+package it.gov.innovazione.ndc.harvester.csvapis;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link VocabulariesDbAggregationService#aggregateIfNeeded()} on a single background thread,
+ * so aggregations never overlap and harvest threads do not wait for them.
+ *
+ * <p>Requests are coalesced: an aggregation starts once no request arrived for the debounce
+ * window, but no later than the max latency after the first request of the burst. Requests
+ * arriving while an aggregation runs schedule a new one after it.
+ */
+@Slf4j
+@Service
+public class VocabulariesDbAggregationScheduler {
+
+    private final VocabulariesDbAggregationService aggregationService;
+    private final long debounceNanos;
+    private final long maxLatencyNanos;
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("vocabularies-db-aggregator-"));
+
+    private final Timer aggregationTimer;
+    private volatile long lastDurationMillis;
+    private volatile long lastSizeBytes;
+
+    // guarded by this
+    private long burstStartedAt;
+    private long requests;
+    private ScheduledFuture<?> scheduled;
+
+    public VocabulariesDbAggregationScheduler(VocabulariesDbAggregationService aggregationService,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${harvester.csvapis.aggregate-db.debounce-seconds:30}") long debounceSeconds,
+                                              @Value("${harvester.csvapis.aggregate-db.max-latency-seconds:300}") long maxLatencySeconds) {
+        this.aggregationService = aggregationService;
+        this.debounceNanos = Duration.ofSeconds(Math.max(0, debounceSeconds)).toNanos();
+        this.maxLatencyNanos = Duration.ofSeconds(Math.max(debounceSeconds, maxLatencySeconds)).toNanos();
+
+        this.aggregationTimer = Timer.builder("harvester.vocabularies-db.aggregation")
+                .description("Time spent aggregating vocabularies.db")
+                .register(meterRegistry);
+        Gauge.builder("harvester.vocabularies-db.aggregation.last-duration", this, s -> s.lastDurationMillis / 1000.0)
+                .description("Duration of the last aggregation of vocabularies.db")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("harvester.vocabularies-db.size", this, s -> s.lastSizeBytes)
+                .description("Size of vocabularies.db after the last aggregation")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Asks for an aggregation, to be run in background once the current burst of requests ends.
+     */
+    public synchronized void requestAggregation() {
+        long now = System.nanoTime();
+        if (scheduled == null) {
+            burstStartedAt = now;
+        } else {
+            // if it already started it completes anyway, and the one scheduled below runs after it
+            scheduled.cancel(false);
+        }
+        long request = ++requests;
+        long delay = Math.min(now + debounceNanos, burstStartedAt + maxLatencyNanos) - now;
+        scheduled = executor.schedule(() -> aggregate(request), Math.max(0, delay), TimeUnit.NANOSECONDS);
+        log.debug("Vocabularies db aggregation scheduled in {} ms", TimeUnit.NANOSECONDS.toMillis(delay));
+    }
+
+    public long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    public long getLastSizeBytes() {
+        return lastSizeBytes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void aggregate(long request) {
+        synchronized (this) {
+            if (request == requests) {
+                scheduled = null;
+            }
+        }
+        long started = System.nanoTime();
+        aggregationService.aggregateIfNeeded();
+        long elapsed = System.nanoTime() - started;
+        aggregationTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        lastDurationMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        Path aggregatePath = aggregationService.getAggregatePath();
+        try {
+            lastSizeBytes = Files.isRegularFile(aggregatePath) ? Files.size(aggregatePath) : 0;
+        } catch (IOException e) {
+            log.warn("Cannot read the size of {}", aggregatePath, e);
+        }
+        log.info("Vocabularies db aggregation took {} ms, aggregate is {} bytes", lastDurationMillis, lastSizeBytes);
+    }
+}
@@ -15,7 +15,9 @@ import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * End-of-run aggregator that, given the latest {@code .db} per asset captured in
@@ -25,7 +27,10 @@ import java.util.List;
  * <p>Idempotent: if the sha256 of the sorted set of source hashes is unchanged
  * since the previous successful aggregation (recorded in a sidecar
  * {@code .aggregate-hash} file), the merge is skipped. Otherwise the new file
- * is built into a {@code .tmp} sibling and atomically renamed into place.
+ * is built into a {@code .tmp} sibling, starting from the published aggregate
+ * so that only the assets whose hash changed are merged again, and atomically
+ * renamed into place together with its {@link VocabulariesDbEncoding} compressed
+ * variants, and {@link VocabulariesDbPublication} is refreshed.
  */
 @Service
 @Slf4j
@@ -43,19 +48,26 @@ public class VocabulariesDbAggregationService {
     private final JdbcTemplate jdbcTemplate;
     private final VocabulariesDbMerger merger;
     private final HarvestAssetStateService stateService;
+    private final VocabulariesDbPublication publication;
     private final Path aggregatePath;
 
     public VocabulariesDbAggregationService(
             JdbcTemplate jdbcTemplate,
             VocabulariesDbMerger merger,
             HarvestAssetStateService stateService,
+            VocabulariesDbPublication publication,
             @Value("${harvester.csvapis.aggregate-db.path}") String aggregatePath) {
         this.jdbcTemplate = jdbcTemplate;
         this.merger = merger;
         this.stateService = stateService;
+        this.publication = publication;
         this.aggregatePath = Path.of(aggregatePath);
     }
 
+    public Path getAggregatePath() {
+        return aggregatePath;
+    }
+
     public void aggregateIfNeeded() {
         try {
             doAggregate();
@@ -71,7 +83,7 @@ public class VocabulariesDbAggregationService {
             return;
         }
 
-        List<Path> sourcePaths = new ArrayList<>();
+        List<VocabulariesDbMerger.Source> sources = new ArrayList<>();
         List<String> hashes = new ArrayList<>();
         for (AssetEntry entry : entries) {
             Path source = stateService.workDirEntryFor(entry.agencyId(), entry.keyConcept());
@@ -80,10 +92,11 @@ public class VocabulariesDbAggregationService {
                         entry.agencyId(), entry.keyConcept(), source);
                 continue;
             }
-            sourcePaths.add(source);
+            sources.add(new VocabulariesDbMerger.Source(
+                    entry.agencyId() + "/" + entry.keyConcept(), entry.sourceDbHash(), source));
             hashes.add(entry.sourceDbHash());
         }
-        if (sourcePaths.isEmpty()) {
+        if (sources.isEmpty()) {
             log.info("No work-dir entries available; skipping aggregation");
             return;
         }
@@ -93,6 +106,7 @@ public class VocabulariesDbAggregationService {
         if (Files.isRegularFile(aggregatePath) && Files.isRegularFile(hashFile)
                 && currentHash.equals(Files.readString(hashFile).trim())) {
             log.info("Aggregate is up-to-date (hash={}); skipping merge", currentHash);
+            publishMissingVariants();
             return;
         }
 
@@ -103,15 +117,68 @@ public class VocabulariesDbAggregationService {
 
         Path tmpAggregate = withSuffix(aggregatePath, ".tmp");
         Files.deleteIfExists(tmpAggregate);
-        merger.merge(sourcePaths, tmpAggregate);
+        merger.merge(sources, aggregatePath, tmpAggregate);
+        Map<VocabulariesDbEncoding, Path> tmpVariants = compressVariants(tmpAggregate, List.of(VocabulariesDbEncoding.values()));
 
         Path tmpHashFile = withSuffix(hashFile, ".tmp");
         Files.writeString(tmpHashFile, currentHash);
 
         moveAtomic(tmpAggregate, aggregatePath);
         moveAtomic(tmpHashFile, hashFile);
+        // the variants of the previous aggregate are older than the new one, so they are not served
+        // until replaced
+        for (VocabulariesDbEncoding encoding : VocabulariesDbEncoding.values()) {
+            Path variant = encoding.variantOf(aggregatePath);
+            if (tmpVariants.containsKey(encoding)) {
+                moveAtomic(tmpVariants.get(encoding), variant);
+            } else {
+                Files.deleteIfExists(variant);
+            }
+        }
+        publication.refresh();
         log.info("Published new aggregate to {} ({} sources, hash={})",
-                aggregatePath, sourcePaths.size(), currentHash);
+                aggregatePath, sources.size(), currentHash);
+    }
+
+    private void publishMissingVariants() throws IOException {
+        List<VocabulariesDbEncoding> missing = new ArrayList<>();
+        for (VocabulariesDbEncoding encoding : VocabulariesDbEncoding.values()) {
+            Path variant = encoding.variantOf(aggregatePath);
+            if (!Files.isRegularFile(variant)
+                    || Files.getLastModifiedTime(variant).compareTo(Files.getLastModifiedTime(aggregatePath)) < 0) {
+                missing.add(encoding);
+            }
+        }
+        for (Map.Entry<VocabulariesDbEncoding, Path> tmpVariant : compressVariants(aggregatePath, missing).entrySet()) {
+            moveAtomic(tmpVariant.getValue(), tmpVariant.getKey().variantOf(aggregatePath));
+        }
+        if (!missing.isEmpty()) {
+            publication.refresh();
+        }
+    }
+
+    private Map<VocabulariesDbEncoding, Path> compressVariants(Path aggregate, List<VocabulariesDbEncoding> encodings) {
+        Map<VocabulariesDbEncoding, Path> variants = new EnumMap<>(VocabulariesDbEncoding.class);
+        for (VocabulariesDbEncoding encoding : encodings) {
+            Path tmpVariant = withSuffix(encoding.variantOf(aggregatePath), ".tmp");
+            try {
+                encoding.compress(aggregate, tmpVariant);
+                variants.put(encoding, tmpVariant);
+            } catch (IOException | LinkageError e) {
+                // LinkageError: the native zstd library is not available on this platform
+                log.warn("Cannot write the {} variant of {}: {}", encoding.getContentCoding(), aggregatePath, e.toString());
+                deleteQuietly(tmpVariant);
+            }
+        }
+        return variants;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete {}", path, e);
+        }
     }
 
     private Path sidecarHashFile() {
@@ -0,0 +1,56 @@
+package it.gov.innovazione.ndc.harvester.csvapis;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-compressed variants of {@code vocabularies.db}, written next to it with their own file
+ * extension. Declared in order of preference when a client accepts more than one.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum VocabulariesDbEncoding {
+    ZSTD("zstd", ".zst") {
+        @Override
+        OutputStream compressing(OutputStream out) throws IOException {
+            return new ZstdCompressorOutputStream(out, ZSTD_LEVEL);
+        }
+    },
+    GZIP("gzip", ".gz") {
+        @Override
+        OutputStream compressing(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+    };
+
+    private static final int ZSTD_LEVEL = 19;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String contentCoding;
+    private final String extension;
+
+    public Path variantOf(Path file) {
+        return Path.of(file.toString() + extension);
+    }
+
+    /**
+     * Writes to {@code target} the compressed content of {@code source}.
+     */
+    public void compress(Path source, Path target) throws IOException {
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream raw = Files.newOutputStream(target);
+             OutputStream out = compressing(raw)) {
+            in.transferTo(out);
+        }
+    }
+
+    abstract OutputStream compressing(OutputStream out) throws IOException;
+}
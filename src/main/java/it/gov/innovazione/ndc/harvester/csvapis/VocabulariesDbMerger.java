@@ -6,6 +6,7 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -13,7 +14,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Merges N per-asset SQLite databases (produced by {@code apistore create}) into
@@ -24,6 +29,15 @@ import java.util.List;
  * UPSERT metadata rows by unique key, copy each source's per-vocabulary data
  * tables, then build the {@code _metadata_fts} FTS5 trigram index over the
  * aggregated metadata.
+ *
+ * <p>The aggregate records in {@code _aggregate_sources} the hash of each source
+ * and the vocabularies and data tables it contributed. Given the previous
+ * aggregate, a merge copies it and replaces only the sources whose hash changed,
+ * dropping the removed ones and updating {@code _metadata_fts} row by row; it
+ * falls back to a full rebuild when the previous aggregate cannot be reused, or
+ * when a vocabulary or table to replace or drop is contributed by another source
+ * too, since only a full merge resolves which one wins. The pages freed by the
+ * dropped tables are given back with {@code VACUUM}.
  */
 @Component
 @Slf4j
@@ -31,11 +45,38 @@ public class VocabulariesDbMerger {
 
     private static final String METADATA_TABLE = "_metadata";
     private static final String METADATA_FTS_TABLE = "_metadata_fts";
+    private static final String SOURCES_TABLE = "_aggregate_sources";
+    private static final String VOCABULARY_OBJECT = "vocabulary";
+    private static final String TABLE_OBJECT = "table";
 
     public void merge(List<Path> sources, Path output) throws IOException, SQLException {
         if (sources == null || sources.isEmpty()) {
             throw new IllegalArgumentException("At least one source database is required");
         }
+        merge(sources.stream().map(Source::of).toList(), null, output);
+    }
+
+    /**
+     * Merges the sources into {@code output}, reusing {@code previousAggregate}
+     * (if not null) for the sources whose hash did not change.
+     */
+    public void merge(List<Source> sources, Path previousAggregate, Path output) throws IOException, SQLException {
+        if (sources == null || sources.isEmpty()) {
+            throw new IllegalArgumentException("At least one source database is required");
+        }
+        if (previousAggregate != null && Files.isRegularFile(previousAggregate)) {
+            try {
+                if (mergeIncrementally(sources, previousAggregate, output)) {
+                    return;
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Incremental merge of {} failed, rebuilding it: {}", previousAggregate, e.getMessage(), e);
+            }
+        }
+        mergeFully(sources, output);
+    }
+
+    private void mergeFully(List<Source> sources, Path output) throws IOException, SQLException {
         Files.deleteIfExists(output);
 
         String jdbcUrl = "jdbc:sqlite:" + output.toAbsolutePath();
@@ -44,15 +85,16 @@ public class VocabulariesDbMerger {
             // SQLite forbids ATTACH inside an explicit transaction. Atomicity
             // of the aggregate file is provided by the upstream swap step (F5).
             boolean metadataSchemaCopied = false;
-            for (Path source : sources) {
-                attachSource(conn, source);
+            createSourcesTable(conn);
+            for (Source source : sources) {
+                attachSource(conn, source.path());
                 try {
                     if (!metadataSchemaCopied) {
                         copyMetadataSchemaFromSource(conn);
                         metadataSchemaCopied = true;
                     }
                     upsertMetadataRows(conn);
-                    copyDataTablesFromSource(conn);
+                    recordSource(conn, source, copyDataTablesFromSource(conn));
                 } finally {
                     detachSource(conn);
                 }
@@ -63,6 +105,229 @@ public class VocabulariesDbMerger {
         }
     }
 
+    private boolean mergeIncrementally(List<Source> sources, Path previousAggregate, Path output) throws IOException, SQLException {
+        Files.copy(previousAggregate, output, StandardCopyOption.REPLACE_EXISTING);
+        String jdbcUrl = "jdbc:sqlite:" + output.toAbsolutePath();
+        try (Connection conn = DriverManager.getConnection(jdbcUrl)) {
+            if (!hasMainTable(conn, SOURCES_TABLE) || !hasMainTable(conn, METADATA_FTS_TABLE)) {
+                log.info("Previous aggregate {} does not record its sources; rebuilding it", previousAggregate);
+                return false;
+            }
+            Map<String, String> previousHashes = readSourceHashes(conn);
+            Set<String> currentKeys = sources.stream().map(Source::key).collect(Collectors.toSet());
+            List<Source> changed = sources.stream()
+                    .filter(source -> source.hash() == null || !source.hash().equals(previousHashes.get(source.key())))
+                    .toList();
+            Set<String> changedKeys = changed.stream().map(Source::key).collect(Collectors.toSet());
+            List<String> removed = previousHashes.keySet().stream()
+                    .filter(key -> !currentKeys.contains(key) || changedKeys.contains(key))
+                    .toList();
+
+            for (String key : removed) {
+                if (sharesObjects(conn, key)) {
+                    log.info("Source {} shares vocabularies or tables with other sources; rebuilding the aggregate", key);
+                    return false;
+                }
+            }
+            for (String key : removed) {
+                removeSource(conn, key);
+            }
+            for (Source source : changed) {
+                attachSource(conn, source.path());
+                try {
+                    if (!replaceSource(conn, source)) {
+                        log.info("Source {} provides vocabularies or tables of other sources; rebuilding the aggregate", source.key());
+                        return false;
+                    }
+                } finally {
+                    detachSource(conn);
+                }
+            }
+            deleteOrphanFtsRows(conn);
+            if (!removed.isEmpty()) {
+                // give back the pages of the dropped tables
+                vacuum(conn);
+            }
+            validateAggregate(conn);
+            log.info("Incrementally aggregated {} source database(s) into {}: {} changed, {} removed",
+                    sources.size(), output, changed.size(), removed.stream().filter(key -> !currentKeys.contains(key)).count());
+            return true;
+        }
+    }
+
+    private void removeSource(Connection conn, String key) throws SQLException {
+        String vocabularies = "SELECT object_name FROM " + quoteIdent(SOURCES_TABLE)
+                + " WHERE source_key = ? AND object_type = '" + VOCABULARY_OBJECT + "'";
+        executeUpdate(conn, "DELETE FROM " + quoteIdent(METADATA_FTS_TABLE)
+                + " WHERE rowid IN (SELECT rowid FROM " + quoteIdent(METADATA_TABLE)
+                + " WHERE vocabulary_uuid IN (" + vocabularies + "))", key);
+        executeUpdate(conn, "DELETE FROM " + quoteIdent(METADATA_TABLE)
+                + " WHERE vocabulary_uuid IN (" + vocabularies + ")", key);
+        for (String table : readSourceObjects(conn, key, TABLE_OBJECT)) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS main." + quoteIdent(table));
+            }
+        }
+        executeUpdate(conn, "DELETE FROM " + quoteIdent(SOURCES_TABLE) + " WHERE source_key = ?", key);
+    }
+
+    /**
+     * Whether any vocabulary or table recorded for {@code key} is recorded for another source too.
+     */
+    private boolean sharesObjects(Connection conn, String key) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM " + quoteIdent(SOURCES_TABLE) + " a JOIN " + quoteIdent(SOURCES_TABLE) + " b"
+                        + " ON a.object_type = b.object_type AND a.object_name = b.object_name"
+                        + " WHERE a.source_key = ? AND b.source_key <> a.source_key LIMIT 1")) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Copies the attached source into the aggregate, unless one of its vocabularies or tables is
+     * recorded for another source: returns false in that case, leaving the aggregate untouched.
+     */
+    private boolean replaceSource(Connection conn, Source source) throws SQLException {
+        String sourceVocabularies = "SELECT vocabulary_uuid FROM src." + quoteIdent(METADATA_TABLE);
+        List<String> sourceTables = listSourceDataTables(conn);
+        if (isRecorded(conn, VOCABULARY_OBJECT, readSourceVocabularies(conn)) || isRecorded(conn, TABLE_OBJECT, sourceTables)) {
+            return false;
+        }
+        // rows of other sources replaced by the upsert lose their index entry, it is added back below
+        try (Statement st = conn.createStatement()) {
+            st.execute("DELETE FROM " + quoteIdent(METADATA_FTS_TABLE)
+                    + " WHERE rowid IN (SELECT rowid FROM main." + quoteIdent(METADATA_TABLE)
+                    + " WHERE vocabulary_uuid IN (" + sourceVocabularies + "))");
+        }
+        upsertMetadataRows(conn);
+        for (String table : sourceTables) {
+            copyDataTable(conn, table);
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute(insertFtsRowsSql() + " WHERE m.vocabulary_uuid IN (" + sourceVocabularies + ")");
+        }
+        recordSource(conn, source, sourceTables);
+        return true;
+    }
+
+    private List<String> readSourceVocabularies(Connection conn) throws SQLException {
+        List<String> vocabularies = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT vocabulary_uuid FROM src." + quoteIdent(METADATA_TABLE))) {
+            while (rs.next()) {
+                vocabularies.add(rs.getString(1));
+            }
+        }
+        return vocabularies;
+    }
+
+    private boolean isRecorded(Connection conn, String objectType, List<String> names) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM main." + quoteIdent(SOURCES_TABLE) + " WHERE object_type = ? AND object_name = ? LIMIT 1")) {
+            ps.setString(1, objectType);
+            for (String name : names) {
+                ps.setString(2, name);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void vacuum(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("VACUUM");
+        }
+    }
+
+    private void deleteOrphanFtsRows(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DELETE FROM " + quoteIdent(METADATA_FTS_TABLE)
+                    + " WHERE rowid NOT IN (SELECT rowid FROM " + quoteIdent(METADATA_TABLE) + ")");
+        }
+    }
+
+    private void createSourcesTable(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE " + quoteIdent(SOURCES_TABLE) + " ("
+                    + "source_key TEXT NOT NULL, "
+                    + "source_hash TEXT, "
+                    + "object_type TEXT NOT NULL, "
+                    + "object_name TEXT NOT NULL)");
+            st.execute("CREATE INDEX " + quoteIdent(SOURCES_TABLE + "_key") + " ON " + quoteIdent(SOURCES_TABLE) + "(source_key)");
+        }
+    }
+
+    private void recordSource(Connection conn, Source source, List<String> tables) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO main." + quoteIdent(SOURCES_TABLE) + "(source_key, source_hash, object_type, object_name) "
+                        + "SELECT ?, ?, '" + VOCABULARY_OBJECT + "', vocabulary_uuid FROM src." + quoteIdent(METADATA_TABLE))) {
+            ps.setString(1, source.key());
+            ps.setString(2, source.hash());
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO main." + quoteIdent(SOURCES_TABLE) + "(source_key, source_hash, object_type, object_name) "
+                        + "VALUES (?, ?, '" + TABLE_OBJECT + "', ?)")) {
+            for (String table : tables) {
+                ps.setString(1, source.key());
+                ps.setString(2, source.hash());
+                ps.setString(3, table);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private Map<String, String> readSourceHashes(Connection conn) throws SQLException {
+        Map<String, String> hashes = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT DISTINCT source_key, source_hash FROM " + quoteIdent(SOURCES_TABLE))) {
+            while (rs.next()) {
+                hashes.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return hashes;
+    }
+
+    private List<String> readSourceObjects(Connection conn, String key, String objectType) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT object_name FROM " + quoteIdent(SOURCES_TABLE) + " WHERE source_key = ? AND object_type = ?")) {
+            ps.setString(1, key);
+            ps.setString(2, objectType);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+
+    private boolean hasMainTable(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM main.sqlite_master WHERE type = 'table' AND name = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private void executeUpdate(Connection conn, String sql, String parameter) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, parameter);
+            ps.executeUpdate();
+        }
+    }
+
     private void attachSource(Connection conn, Path source) throws SQLException {
         try (PreparedStatement ps = conn.prepareStatement("ATTACH DATABASE ? AS src")) {
             ps.setString(1, source.toAbsolutePath().toString());
@@ -95,10 +360,12 @@ public class VocabulariesDbMerger {
         }
     }
 
-    private void copyDataTablesFromSource(Connection conn) throws SQLException {
-        for (String table : listSourceDataTables(conn)) {
+    private List<String> copyDataTablesFromSource(Connection conn) throws SQLException {
+        List<String> tables = listSourceDataTables(conn);
+        for (String table : tables) {
             copyDataTable(conn, table);
         }
+        return tables;
     }
 
     private List<String> listSourceDataTables(Connection conn) throws SQLException {
@@ -108,6 +375,7 @@ public class VocabulariesDbMerger {
                      "SELECT name FROM src.sqlite_master "
                              + "WHERE type='table' "
                              + "  AND name <> '" + METADATA_TABLE + "' "
+                             + "  AND name <> '" + SOURCES_TABLE + "' "
                              + "  AND name NOT LIKE 'sqlite_%' "
                              + "  AND name NOT LIKE '" + METADATA_FTS_TABLE + "%'")) {
             while (rs.next()) {
@@ -165,6 +433,7 @@ public class VocabulariesDbMerger {
                          "SELECT COUNT(*) FROM main.sqlite_master "
                                  + "WHERE type='table' "
                                  + "  AND name <> '" + METADATA_TABLE + "' "
+                                 + "  AND name <> '" + SOURCES_TABLE + "' "
                                  + "  AND name NOT LIKE 'sqlite_%' "
                                  + "  AND name NOT LIKE '" + METADATA_FTS_TABLE + "%'")) {
                 rs.next();
@@ -190,17 +459,20 @@ public class VocabulariesDbMerger {
             st.execute("CREATE VIRTUAL TABLE IF NOT EXISTS " + quoteIdent(METADATA_FTS_TABLE)
                     + " USING fts5(title, description, catalog, tokenize = 'trigram')");
             st.execute("DELETE FROM " + quoteIdent(METADATA_FTS_TABLE));
-            st.execute(
-                    "INSERT INTO " + quoteIdent(METADATA_FTS_TABLE)
-                            + "(rowid, title, description, catalog) "
-                            + "SELECT m.rowid, "
-                            + "       json_extract(m.openapi, '$.info.title'), "
-                            + "       json_extract(m.openapi, '$.info.description'), "
-                            + "       m.catalog "
-                            + "  FROM " + quoteIdent(METADATA_TABLE) + " m");
+            st.execute(insertFtsRowsSql());
         }
     }
 
+    private static String insertFtsRowsSql() {
+        return "INSERT INTO " + quoteIdent(METADATA_FTS_TABLE)
+                + "(rowid, title, description, catalog) "
+                + "SELECT m.rowid, "
+                + "       json_extract(m.openapi, '$.info.title'), "
+                + "       json_extract(m.openapi, '$.info.description'), "
+                + "       m.catalog "
+                + "  FROM main." + quoteIdent(METADATA_TABLE) + " m";
+    }
+
     private String readDdl(Connection conn, String type, String name) throws SQLException {
         try (PreparedStatement ps = conn.prepareStatement(
                 "SELECT sql FROM src.sqlite_master WHERE type = ? AND name = ?")) {
@@ -239,4 +511,15 @@ public class VocabulariesDbMerger {
     private static String quoteIdent(String identifier) {
         return "\"" + identifier.replace("\"", "\"\"") + "\"";
     }
+
+    /**
+     * A source database, identified across aggregations by {@code key} and
+     * reused while its {@code hash} does not change; a null hash is never reused.
+     */
+    public record Source(String key, String hash, Path path) {
+
+        static Source of(Path path) {
+            return new Source(path.toAbsolutePath().toString(), null, path);
+        }
+    }
 }
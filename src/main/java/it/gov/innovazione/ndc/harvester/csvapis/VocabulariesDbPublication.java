@@ -0,0 +1,102 @@
+package it.gov.innovazione.ndc.harvester.csvapis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory view of the published {@code vocabularies.db}: its hash, modification time, size and
+ * the {@link VocabulariesDbEncoding} variants that can be served with it.
+ *
+ * <p>The view is reloaded when {@link VocabulariesDbAggregationService} publishes, or when the
+ * aggregate modification time no longer matches (e.g. file replaced by hand), so requests only
+ * stat the aggregate instead of reading the {@code .aggregate-hash} sidecar and every variant.
+ */
+@Component
+@Slf4j
+public class VocabulariesDbPublication {
+
+    private final Path aggregatePath;
+    private volatile Snapshot snapshot;
+
+    public VocabulariesDbPublication(@Value("${harvester.csvapis.aggregate-db.path}") String aggregatePath) {
+        this.aggregatePath = Path.of(aggregatePath);
+    }
+
+    /**
+     * Returns the view of the published aggregate, or empty when it is not available yet.
+     */
+    public Optional<Snapshot> current() throws IOException {
+        if (!Files.isRegularFile(aggregatePath)) {
+            snapshot = null;
+            return Optional.empty();
+        }
+        Snapshot cached = snapshot;
+        if (cached != null && cached.lastModified().equals(Files.getLastModifiedTime(aggregatePath))) {
+            return Optional.of(cached);
+        }
+        return Optional.of(reload());
+    }
+
+    /**
+     * Drops the cached view, so that the next request reads the newly published files.
+     */
+    public synchronized void refresh() {
+        snapshot = null;
+    }
+
+    private synchronized Snapshot reload() throws IOException {
+        FileTime lastModified = Files.getLastModifiedTime(aggregatePath);
+        Snapshot cached = snapshot;
+        if (cached != null && cached.lastModified().equals(lastModified)) {
+            return cached;
+        }
+        Map<VocabulariesDbEncoding, Variant> variants = new EnumMap<>(VocabulariesDbEncoding.class);
+        for (VocabulariesDbEncoding encoding : VocabulariesDbEncoding.values()) {
+            Path variant = encoding.variantOf(aggregatePath);
+            // variants older than the aggregate are left over from a failed publication
+            if (Files.isRegularFile(variant) && Files.getLastModifiedTime(variant).compareTo(lastModified) >= 0) {
+                variants.put(encoding, new Variant(variant, Files.size(variant)));
+            }
+        }
+        Snapshot loaded = new Snapshot(aggregatePath, lastModified, Files.size(aggregatePath),
+                readHash(), Collections.unmodifiableMap(variants));
+        snapshot = loaded;
+        log.debug("Loaded published aggregate {} (hash={}, variants={})", aggregatePath, loaded.hash(), variants.keySet());
+        return loaded;
+    }
+
+    /**
+     * Read the precomputed aggregate hash from the sidecar file written by
+     * {@link VocabulariesDbAggregationService}. Falls back to hashing the
+     * aggregate file when the sidecar is missing (e.g. file dropped in place
+     * manually or upgrade path), so the endpoint stays usable.
+     */
+    private String readHash() throws IOException {
+        Path sidecar = Path.of(aggregatePath.toString() + ".aggregate-hash");
+        if (Files.isRegularFile(sidecar)) {
+            String content = Files.readString(sidecar).trim();
+            if (!content.isEmpty()) {
+                return content;
+            }
+        }
+        log.debug("Aggregate-hash sidecar missing or empty at {}; falling back to file digest", sidecar);
+        return Sha256Hasher.hashFile(aggregatePath);
+    }
+
+    public record Snapshot(Path path, FileTime lastModified, long size, String hash,
+                           Map<VocabulariesDbEncoding, Variant> variants) {
+    }
+
+    public record Variant(Path path, long size) {
+    }
+}
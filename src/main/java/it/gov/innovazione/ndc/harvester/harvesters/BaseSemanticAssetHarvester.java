@@ -13,16 +13,20 @@ import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContext;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
 import it.gov.innovazione.ndc.harvester.exception.SinglePathProcessingException;
 import it.gov.innovazione.ndc.harvester.harvesters.utils.PathUtils;
+import it.gov.innovazione.ndc.harvester.incremental.IncrementalHarvestPlan;
 import it.gov.innovazione.ndc.harvester.model.HarvesterStatsHolder;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.model.SemanticAssetPath;
 import it.gov.innovazione.ndc.harvester.service.SemanticContentStatsService;
+import it.gov.innovazione.ndc.model.harvester.HarvestAssetSource;
 import it.gov.innovazione.ndc.model.harvester.Repository;
 import it.gov.innovazione.ndc.model.harvester.SemanticContentStats;
+import it.gov.innovazione.ndc.service.logging.HarvesterMetrics;
 import it.gov.innovazione.ndc.service.logging.HarvesterStage;
 import it.gov.innovazione.ndc.service.logging.LoggingContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -32,11 +36,17 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
+import static it.gov.innovazione.ndc.harvester.service.ActualConfigService.ConfigKey.HARVEST_PARALLELISM;
 import static it.gov.innovazione.ndc.harvester.service.ActualConfigService.ConfigKey.MAX_FILE_SIZE_BYTES;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logInfrastructureError;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticError;
+import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticWarn;
 
 @Slf4j
@@ -44,6 +54,7 @@ import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSeman
 public abstract class BaseSemanticAssetHarvester<P extends SemanticAssetPath> implements SemanticAssetHarvester {
 
     private static final List<String> INFRASTRUCTURE_EXCEPTIONS = List.of("java.net", "org.apache.http");
+    private static final long MAX_PARALLELISM = 64;
 
     private final SemanticAssetType type;
     private final NdcEventPublisher eventPublisher;
@@ -63,7 +74,8 @@ public abstract class BaseSemanticAssetHarvester<P extends SemanticAssetPath> im
     public void harvest(Repository repository, Path rootPath) {
         log.debug("Looking for {} paths", type);
 
-        List<P> paths = scanForPaths(rootPath);
+        List<P> paths = skipCarriedOverPaths(rootPath,
+                HarvesterMetrics.timeStage(HarvesterStage.PATH_SCANNING, type, () -> scanForPaths(rootPath)));
 
         Long maxFileSizeBytes = configService.getFromRepoOrGlobalOrDefault(
                 MAX_FILE_SIZE_BYTES, repository.getId(), 0L);
@@ -72,54 +84,140 @@ public abstract class BaseSemanticAssetHarvester<P extends SemanticAssetPath> im
 
         paths.forEach(p -> notifyIfSizeExceed(p, maxFileSizeBytes));
 
-        for (P path : paths) {
-            try {
-                HarvesterStatsHolder harvesterStatsHolder = processPath(repository.getUrl(), path);
-                semanticContentStatsService.updateStats(harvesterStatsHolder);
-                log.debug("Path {} processed correctly for {}", path, type);
-            } catch (SinglePathProcessingException e) {
-                boolean isInfrastuctureError = checkInfrastructureError(e);
-                Optional.ofNullable(HarvestExecutionContextUtils.getContext())
-                        .ifPresent(context -> context.addHarvestingError(repository, e, path.getAllFiles()));
-                eventPublisher.publishAlertableEvent(
-                        "harvester",
-                        DefaultAlertableEvent.builder()
-                                .name("Harvester Single Path Processing Error")
-                                .description("Error processing " + type + " " + path + " in repo " + repository.getUrl())
-                                .category(isInfrastuctureError ? EventCategory.INFRASTRUCTURE : EventCategory.SEMANTIC)
-                                .severity(Severity.ERROR)
-                                .context(Map.of(
-                                        "error", e.getRealErrorMessage(),
-                                        "path", path.getTtlPath(),
-                                        "repo", repository.getUrl(),
-                                        "isFatal", e.isFatal()))
-                                .build());
-                log.error("Error processing {} {} in repo {}", type, path, repository.getUrl(), e);
-                if (isInfrastuctureError) {
-                    logInfrastructureError(
-                            LoggingContext.builder()
-                                    .stage(HarvesterStage.PROCESS_RESOURCE)
-                                    .message("Infrastructure error processing " + type + " " + path)
-                                    .details(e.getRealErrorMessage())
-                                    .additionalInfo("error", e.getRealErrorMessage())
-                                    .build());
-                } else {
-                    logSemanticError(
-                            LoggingContext.builder()
-                                    .stage(HarvesterStage.PROCESS_RESOURCE)
-                                    .message("Error processing " + type + " " + path)
-                                    .details(e.getRealErrorMessage())
-                                    .additionalInfo("error", e.getRealErrorMessage())
-                                    .build());
-                }
-                if (e.isFatal()) {
-                    throw e;
-                }
+        int parallelism = getParallelism(repository);
+        if (parallelism > 1 && paths.size() > 1) {
+            log.debug("Processing {} {} path(s) with parallelism {}", paths.size(), type, parallelism);
+            processInParallel(repository, rootPath, paths, parallelism);
+        } else {
+            for (P path : paths) {
+                tryProcessPath(repository, path).ifPresent(holder -> onPathProcessed(rootPath, path, holder));
             }
         }
         semanticContentStatsService.saveStats();
     }
 
+    private List<P> skipCarriedOverPaths(Path rootPath, List<P> paths) {
+        IncrementalHarvestPlan plan = Optional.ofNullable(HarvestExecutionContextUtils.getContext())
+                .map(HarvestExecutionContext::getIncrementalHarvestPlan)
+                .orElse(null);
+        if (plan == null) {
+            return paths;
+        }
+        Set<String> carriedOverPaths = plan.getCarriedOverPaths();
+        List<P> changedPaths = paths.stream()
+                .filter(path -> !carriedOverPaths.contains(IncrementalHarvestPlan.assetPath(rootPath, path)))
+                .toList();
+        logSemanticInfo(LoggingContext.builder()
+                .stage(HarvesterStage.PATH_SCANNING)
+                .message("Skipping " + (paths.size() - changedPaths.size()) + " unchanged " + type + " path(s)")
+                .additionalInfo("previousRunId", plan.getPreviousRun().getId())
+                .build());
+        return changedPaths;
+    }
+
+    private void onPathProcessed(Path rootPath, P path, HarvesterStatsHolder holder) {
+        semanticContentStatsService.updateStats(holder);
+        HarvestExecutionContext context = HarvestExecutionContextUtils.getContext();
+        if (Objects.nonNull(context) && Objects.nonNull(holder.getMetadata())) {
+            HarvestExecutionContextUtils.addAssetSource(HarvestAssetSource.builder()
+                    .harvesterRunId(context.getRunId())
+                    .assetPath(IncrementalHarvestPlan.assetPath(rootPath, path))
+                    .assetType(type)
+                    .assetIri(holder.getMetadata().getIri())
+                    .build());
+        }
+    }
+
+    private int getParallelism(Repository repository) {
+        Long parallelism = configService.getFromRepoOrGlobalOrDefault(
+                HARVEST_PARALLELISM, repository.getId(), 1L);
+        if (Objects.isNull(parallelism) || parallelism < 1) {
+            return 1;
+        }
+        return (int) Math.min(parallelism, MAX_PARALLELISM);
+    }
+
+    private void processInParallel(Repository repository, Path rootPath, List<P> paths, int parallelism) {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(parallelism, paths.size()),
+                new CustomizableThreadFactory("harvester-" + type.name().toLowerCase() + "-"));
+        try {
+            List<Future<Optional<HarvesterStatsHolder>>> futures = paths.stream()
+                    .map(path -> executor.submit(
+                            HarvestExecutionContextUtils.withCurrentContext(() -> tryProcessPath(repository, path))))
+                    .toList();
+            // stats are collected in submission order on the harvesting thread, which owns the stats holder
+            for (int i = 0; i < futures.size(); i++) {
+                P path = paths.get(i);
+                awaitResult(futures.get(i)).ifPresent(holder -> onPathProcessed(rootPath, path, holder));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Optional<HarvesterStatsHolder> awaitResult(Future<Optional<HarvesterStatsHolder>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SinglePathProcessingException("Interrupted while processing " + type + " paths", e, true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SinglePathProcessingException("Error processing " + type + " paths", e.getCause(), true);
+        }
+    }
+
+    private Optional<HarvesterStatsHolder> tryProcessPath(Repository repository, P path) {
+        try {
+            HarvesterMetrics.countAssetBytes(type, path.getAllFiles().stream().mapToLong(File::length).sum());
+            HarvesterStatsHolder harvesterStatsHolder = HarvesterMetrics.timePath(type, () -> processPath(repository.getUrl(), path));
+            log.debug("Path {} processed correctly for {}", path, type);
+            return Optional.ofNullable(harvesterStatsHolder);
+        } catch (SinglePathProcessingException e) {
+            boolean isInfrastuctureError = checkInfrastructureError(e);
+            Optional.ofNullable(HarvestExecutionContextUtils.getContext())
+                    .ifPresent(context -> context.addHarvestingError(repository, e, path.getAllFiles()));
+            eventPublisher.publishAlertableEvent(
+                    "harvester",
+                    DefaultAlertableEvent.builder()
+                            .name("Harvester Single Path Processing Error")
+                            .description("Error processing " + type + " " + path + " in repo " + repository.getUrl())
+                            .category(isInfrastuctureError ? EventCategory.INFRASTRUCTURE : EventCategory.SEMANTIC)
+                            .severity(Severity.ERROR)
+                            .context(Map.of(
+                                    "error", e.getRealErrorMessage(),
+                                    "path", path.getTtlPath(),
+                                    "repo", repository.getUrl(),
+                                    "isFatal", e.isFatal()))
+                            .build());
+            log.error("Error processing {} {} in repo {}", type, path, repository.getUrl(), e);
+            if (isInfrastuctureError) {
+                logInfrastructureError(
+                        LoggingContext.builder()
+                                .stage(HarvesterStage.PROCESS_RESOURCE)
+                                .message("Infrastructure error processing " + type + " " + path)
+                                .details(e.getRealErrorMessage())
+                                .additionalInfo("error", e.getRealErrorMessage())
+                                .build());
+            } else {
+                logSemanticError(
+                        LoggingContext.builder()
+                                .stage(HarvesterStage.PROCESS_RESOURCE)
+                                .message("Error processing " + type + " " + path)
+                                .details(e.getRealErrorMessage())
+                                .additionalInfo("error", e.getRealErrorMessage())
+                                .build());
+            }
+            if (e.isFatal()) {
+                throw e;
+            }
+            return Optional.empty();
+        }
+    }
+
     private boolean checkInfrastructureError(SinglePathProcessingException e) {
         // checks if in the chain of exceptions there is an infrastructure error (es. java.net, httpException, etc)
         Throwable cause = e;
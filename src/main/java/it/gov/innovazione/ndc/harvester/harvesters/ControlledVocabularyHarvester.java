@@ -6,7 +6,6 @@ import it.gov.innovazione.ndc.harvester.AgencyRepositoryService;
 import it.gov.innovazione.ndc.harvester.SemanticAssetType;
 import it.gov.innovazione.ndc.harvester.model.CvPath;
 import it.gov.innovazione.ndc.harvester.model.HarvesterStatsHolder;
-import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.pathprocessors.ControlledVocabularyPathProcessor;
 import it.gov.innovazione.ndc.harvester.service.SemanticContentStatsService;
 import org.springframework.stereotype.Component;
@@ -39,9 +38,4 @@ public class ControlledVocabularyHarvester extends BaseSemanticAssetHarvester<Cv
     protected List<CvPath> scanForPaths(Path rootPath) {
         return agencyRepositoryService.getControlledVocabularyPaths(rootPath);
     }
-
-    @Override
-    public void cleanUpBeforeHarvesting(String repoUrl, Instance instance) {
-        pathProcessor.dropCsvIndicesForRepo(repoUrl, instance);
-    }
 }
@@ -0,0 +1,58 @@
+package it.gov.innovazione.ndc.harvester.incremental;
+
+import it.gov.innovazione.ndc.harvester.model.SemanticAssetPath;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import it.gov.innovazione.ndc.model.harvester.HarvestAssetSource;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+import org.apache.jena.graph.Triple;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of the comparison between the revision being harvested and the one of the last successful run.
+ *
+ * <p>The assets whose folder did not change are carried over from the online instance: their
+ * documents, triples and stats are copied instead of being processed again. The triples of the
+ * stale assets, i.e. changed or removed since the last run, are deleted from the copied graph.
+ */
+@Data
+@Builder
+public class IncrementalHarvestPlan {
+    private final HarvesterRun previousRun;
+    @ToString.Exclude
+    private final List<HarvestAssetSource> carriedOverSources;
+    @ToString.Exclude
+    private final List<SemanticAssetMetadata> carriedOverMetadata;
+    @ToString.Exclude
+    private final List<SemanticAssetMetadata> staleMetadata;
+    @ToString.Exclude
+    private final List<Triple> staleTriples;
+    @ToString.Exclude
+    private final List<String> staleTriplePatterns;
+    private final int reprocessedAssets;
+
+    /**
+     * Returns the path of the ttl file of an asset relative to the repository root, as recorded in the asset sources.
+     */
+    public static String assetPath(Path rootPath, SemanticAssetPath path) {
+        return rootPath.relativize(Path.of(path.getTtlPath())).toString();
+    }
+
+    public Set<String> getCarriedOverPaths() {
+        return carriedOverSources.stream()
+                .map(HarvestAssetSource::getAssetPath)
+                .collect(Collectors.toSet());
+    }
+
+    public Set<String> getCarriedOverIris() {
+        return carriedOverSources.stream()
+                .map(HarvestAssetSource::getAssetIri)
+                .collect(Collectors.toSet());
+    }
+}
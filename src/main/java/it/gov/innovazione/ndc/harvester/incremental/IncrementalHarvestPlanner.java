@@ -0,0 +1,274 @@
+package it.gov.innovazione.ndc.harvester.incremental;
+
+import it.gov.innovazione.ndc.harvester.AgencyRepositoryService;
+import it.gov.innovazione.ndc.harvester.SemanticAssetType;
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import it.gov.innovazione.ndc.harvester.service.HarvesterRunService;
+import it.gov.innovazione.ndc.harvester.util.GitUtils;
+import it.gov.innovazione.ndc.model.harvester.HarvestAssetSource;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.repository.HarvestAssetSourceRepository;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
+import it.gov.innovazione.ndc.service.logging.HarvesterStage;
+import it.gov.innovazione.ndc.service.logging.LoggingContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
+
+/**
+ * Decides whether a repository can be harvested incrementally, diffing the cloned revision against
+ * the one of the last successful run. An asset is carried over when its ttl file was harvested by
+ * that run and no ttl, csv or db file in its folder changed since; every other asset is processed.
+ * Whenever the outcome of the diff cannot be trusted the repository is harvested in full, as when a
+ * changed asset used relative IRIs: they were resolved against the clone directory of that run.
+ *
+ * <p>Only the carried over assets whose text mentions the IRIs of the changed ones are parsed, to
+ * keep the triples they share with them.
+ */
+@Slf4j
+@Component
+public class IncrementalHarvestPlanner {
+    private static final Set<String> ASSET_FILE_EXTENSIONS = Set.of(".ttl", ".csv", ".db");
+    // base of the previous versions of the stale assets: an IRI starting with it was relative
+    private static final String RELATIVE_IRI_BASE = "http://relative-iri.invalid/";
+
+    private final HarvesterRunService harvesterRunService;
+    private final HarvestAssetSourceRepository harvestAssetSourceRepository;
+    private final SemanticAssetMetadataRepository semanticAssetMetadataRepository;
+    private final AgencyRepositoryService agencyRepositoryService;
+    private final GitUtils gitUtils;
+    private final boolean enabled;
+    private final double maxChangedRatio;
+
+    public IncrementalHarvestPlanner(HarvesterRunService harvesterRunService,
+                                     HarvestAssetSourceRepository harvestAssetSourceRepository,
+                                     SemanticAssetMetadataRepository semanticAssetMetadataRepository,
+                                     AgencyRepositoryService agencyRepositoryService,
+                                     GitUtils gitUtils,
+                                     @Value("${harvester.incremental.enabled:true}") boolean enabled,
+                                     @Value("${harvester.incremental.max-changed-ratio:0.5}") double maxChangedRatio) {
+        this.harvesterRunService = harvesterRunService;
+        this.harvestAssetSourceRepository = harvestAssetSourceRepository;
+        this.semanticAssetMetadataRepository = semanticAssetMetadataRepository;
+        this.agencyRepositoryService = agencyRepositoryService;
+        this.gitUtils = gitUtils;
+        this.enabled = enabled;
+        this.maxChangedRatio = maxChangedRatio;
+    }
+
+    /**
+     * Plans the harvest of a cloned repository into the given instance.
+     *
+     * @return empty if the repository has to be harvested in full
+     */
+    public Optional<IncrementalHarvestPlan> plan(Repository repository, Path rootPath, Instance instance, boolean force) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (force) {
+            return fullHarvest(repository, "the harvest was forced");
+        }
+        try {
+            return doPlan(repository, rootPath, instance);
+        } catch (Exception e) {
+            log.warn("Could not plan an incremental harvest of {}", repository.getUrl(), e);
+            return fullHarvest(repository, "planning failed: " + e.getMessage());
+        }
+    }
+
+    private Optional<IncrementalHarvestPlan> doPlan(Repository repository, Path rootPath, Instance instance) throws IOException {
+        Optional<HarvesterRun> lastSuccessfulRun = harvesterRunService.getLastSuccessfulRun(repository.getId());
+        if (lastSuccessfulRun.isEmpty() || StringUtils.isBlank(lastSuccessfulRun.get().getRevision())) {
+            return fullHarvest(repository, "no previous successful run");
+        }
+        HarvesterRun previousRun = lastSuccessfulRun.get();
+        Instance onlineInstance = instance.switchInstance();
+        if (!onlineInstance.name().equals(previousRun.getInstance())) {
+            return fullHarvest(repository, "the last successful run did not harvest the online instance " + onlineInstance);
+        }
+        List<HarvestAssetSource> previousSources = harvestAssetSourceRepository.findByRun(previousRun.getId());
+        if (previousSources.isEmpty()) {
+            return fullHarvest(repository, "no assets recorded by run " + previousRun.getId());
+        }
+        Optional<Set<String>> changedPaths = gitUtils.getChangedPaths(rootPath, previousRun.getRevision());
+        if (changedPaths.isEmpty()) {
+            return fullHarvest(repository, "cannot diff against revision " + previousRun.getRevision());
+        }
+        Set<String> changedFolders = changedPaths.get().stream()
+                .filter(IncrementalHarvestPlanner::isAssetFile)
+                .map(IncrementalHarvestPlanner::folderOf)
+                .collect(Collectors.toSet());
+
+        Map<String, SemanticAssetType> currentAssets = scanAssets(rootPath);
+        List<HarvestAssetSource> carriedOver = new ArrayList<>();
+        List<HarvestAssetSource> stale = new ArrayList<>();
+        for (HarvestAssetSource source : previousSources) {
+            boolean unchanged = source.getAssetType() == currentAssets.get(source.getAssetPath())
+                    && !changedFolders.contains(folderOf(source.getAssetPath()));
+            if (unchanged) {
+                carriedOver.add(source);
+            } else {
+                stale.add(source);
+            }
+        }
+        int reprocessed = currentAssets.size() - carriedOver.size();
+        if (reprocessed > maxChangedRatio * currentAssets.size()) {
+            return fullHarvest(repository, reprocessed + " of " + currentAssets.size() + " assets changed");
+        }
+
+        Map<String, SemanticAssetMetadata> onlineMetadata = semanticAssetMetadataRepository
+                .findByRepoUrlAndIris(repository.getUrl(), onlineInstance,
+                        previousSources.stream().map(HarvestAssetSource::getAssetIri).toList())
+                .stream()
+                .collect(Collectors.toMap(SemanticAssetMetadata::getIri, Function.identity(), (first, second) -> first));
+        List<SemanticAssetMetadata> carriedOverMetadata = new ArrayList<>();
+        for (HarvestAssetSource source : carriedOver) {
+            SemanticAssetMetadata metadata = onlineMetadata.get(source.getAssetIri());
+            if (metadata == null) {
+                return fullHarvest(repository, "no online document for " + source.getAssetIri());
+            }
+            carriedOverMetadata.add(metadata);
+        }
+        List<SemanticAssetMetadata> staleMetadata = stale.stream()
+                .map(source -> onlineMetadata.get(source.getAssetIri()))
+                .filter(Objects::nonNull)
+                .toList();
+
+        Optional<StaleTriplesCollector.StaleTriples> staleTriples =
+                collectStaleTriples(rootPath, previousRun.getRevision(), stale, carriedOver);
+        if (staleTriples.isEmpty()) {
+            return fullHarvest(repository, "the triples of the changed assets cannot be told apart from the others");
+        }
+
+        IncrementalHarvestPlan plan = IncrementalHarvestPlan.builder()
+                .previousRun(previousRun)
+                .carriedOverSources(carriedOver)
+                .carriedOverMetadata(carriedOverMetadata)
+                .staleMetadata(staleMetadata)
+                .staleTriples(staleTriples.get().groundTriples())
+                .staleTriplePatterns(staleTriples.get().patterns())
+                .reprocessedAssets(reprocessed)
+                .build();
+        logSemanticInfo(LoggingContext.builder()
+                .stage(HarvesterStage.PATH_SCANNING)
+                .message("Incremental harvest of repo " + repository.getUrl())
+                .additionalInfo("previousRunId", previousRun.getId())
+                .additionalInfo("previousRevision", previousRun.getRevision())
+                .additionalInfo("changedFiles", changedPaths.get().size())
+                .additionalInfo("carriedOverAssets", carriedOver.size())
+                .additionalInfo("reprocessedAssets", reprocessed)
+                .additionalInfo("staleAssets", stale.size())
+                .build());
+        return Optional.of(plan);
+    }
+
+    private Map<String, SemanticAssetType> scanAssets(Path rootPath) {
+        Map<String, SemanticAssetType> assets = new HashMap<>();
+        agencyRepositoryService.getOntologyPaths(rootPath)
+                .forEach(path -> assets.put(IncrementalHarvestPlan.assetPath(rootPath, path), SemanticAssetType.ONTOLOGY));
+        agencyRepositoryService.getControlledVocabularyPaths(rootPath)
+                .forEach(path -> assets.put(IncrementalHarvestPlan.assetPath(rootPath, path), SemanticAssetType.CONTROLLED_VOCABULARY));
+        agencyRepositoryService.getSchemaPaths(rootPath)
+                .forEach(path -> assets.put(IncrementalHarvestPlan.assetPath(rootPath, path), SemanticAssetType.SCHEMA));
+        return assets;
+    }
+
+    private Optional<StaleTriplesCollector.StaleTriples> collectStaleTriples(Path rootPath, String previousRevision,
+                                                                             List<HarvestAssetSource> stale,
+                                                                             List<HarvestAssetSource> carriedOver) throws IOException {
+        StaleTriplesCollector collector = new StaleTriplesCollector();
+        if (stale.isEmpty()) {
+            return collector.collect();
+        }
+        List<String> stalePaths = stale.stream().map(HarvestAssetSource::getAssetPath).toList();
+        Optional<Map<String, byte[]>> previousContents = gitUtils.readFilesAtRevision(rootPath, previousRevision, stalePaths);
+        if (previousContents.isEmpty()) {
+            return Optional.empty();
+        }
+        for (HarvestAssetSource source : stale) {
+            byte[] content = previousContents.get().get(source.getAssetPath());
+            if (content == null) {
+                log.info("{} is missing at revision {}", source.getAssetPath(), previousRevision);
+                return Optional.empty();
+            }
+            Model model = ModelFactory.createDefaultModel();
+            RDFParser.source(new ByteArrayInputStream(content))
+                    .lang(Lang.TURTLE)
+                    .base(RELATIVE_IRI_BASE + source.getAssetPath())
+                    .parse(model);
+            if (hasRelativeIris(model)) {
+                // they were resolved against the clone directory of the previous run, which is gone
+                log.info("{} has relative IRIs at revision {}", source.getAssetPath(), previousRevision);
+                return Optional.empty();
+            }
+            collector.remove(source.getAssetIri(), model);
+        }
+
+        Optional<Set<String>> localNames = collector.localNamesToMatch();
+        int parsed = 0;
+        for (HarvestAssetSource source : carriedOver) {
+            Path ttl = rootPath.resolve(source.getAssetPath());
+            if (localNames.isPresent() && !StaleTriplesCollector.mayMention(Files.readString(ttl), localNames.get())) {
+                continue;
+            }
+            collector.keep(RDFDataMgr.loadModel(ttl.toString(), Lang.TURTLE));
+            parsed++;
+        }
+        log.debug("Parsed {} of {} carried over assets to check the stale triples", parsed, carriedOver.size());
+        return collector.collect();
+    }
+
+    private static boolean hasRelativeIris(Model model) {
+        return model.getGraph().stream().anyMatch(triple -> isRelative(triple.getSubject())
+                || isRelative(triple.getPredicate())
+                || isRelative(triple.getObject()));
+    }
+
+    private static boolean isRelative(Node node) {
+        return node.isURI() && node.getURI().startsWith(RELATIVE_IRI_BASE);
+    }
+
+    private static boolean isAssetFile(String path) {
+        String lowerCasePath = path.toLowerCase();
+        return ASSET_FILE_EXTENSIONS.stream().anyMatch(lowerCasePath::endsWith);
+    }
+
+    private static String folderOf(String path) {
+        int separator = path.lastIndexOf('/');
+        return separator < 0 ? "" : path.substring(0, separator);
+    }
+
+    private Optional<IncrementalHarvestPlan> fullHarvest(Repository repository, String reason) {
+        logSemanticInfo(LoggingContext.builder()
+                .stage(HarvesterStage.PATH_SCANNING)
+                .message("Full harvest of repo " + repository.getUrl() + ": " + reason)
+                .additionalInfo("reason", reason)
+                .build());
+        return Optional.empty();
+    }
+}
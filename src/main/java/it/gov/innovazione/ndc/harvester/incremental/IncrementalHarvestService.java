@@ -0,0 +1,89 @@
+package it.gov.innovazione.ndc.harvester.incremental;
+
+import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContext;
+import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.harvester.model.index.RightsHolder;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import it.gov.innovazione.ndc.harvester.service.SemanticContentStatsService;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
+import it.gov.innovazione.ndc.repository.TripleStoreRepository;
+import it.gov.innovazione.ndc.service.logging.HarvesterStage;
+import it.gov.innovazione.ndc.service.logging.LoggingContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
+
+/**
+ * Carries over into the instance being harvested the assets that an {@link IncrementalHarvestPlan}
+ * does not process again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IncrementalHarvestService {
+    private final TripleStoreRepository tripleStoreRepository;
+    private final SemanticAssetMetadataRepository semanticAssetMetadataRepository;
+    private final SemanticContentStatsService semanticContentStatsService;
+
+    /**
+     * Fills the temporary graph of the repository with the online one, minus the triples of the stale
+     * assets. The CSV data indices of the stale controlled vocabularies stay online: the changed ones are
+     * swapped to their new index while harvesting, the removed ones are dropped after the instance switch.
+     */
+    public void prepare(Repository repository, IncrementalHarvestPlan plan) {
+        tripleStoreRepository.copyOnlineGraphToTmp(repository.getUrl());
+        tripleStoreRepository.deleteFromTmpGraph(repository.getUrl(), plan.getStaleTriples(), plan.getStaleTriplePatterns());
+        logSemanticInfo(LoggingContext.builder()
+                .stage(HarvesterStage.CLEANING_VIRTUOSO)
+                .message("Copied online graph of repo " + repository.getUrl() + " without the stale assets")
+                .additionalInfo("staleTriples", plan.getStaleTriples().size())
+                .additionalInfo("staleTriplePatterns", plan.getStaleTriplePatterns().size())
+                .build());
+    }
+
+    /**
+     * Indexes the documents of the carried over assets in the given instance and collects their rights holders.
+     */
+    public void carryOverMetadata(Repository repository, IncrementalHarvestPlan plan, Instance instance) {
+        HarvestExecutionContext context = HarvestExecutionContextUtils.getContext();
+        Map<String, Map<String, String>> rightsHolders = Optional.ofNullable(repository.getRightsHolders()).orElse(Map.of());
+        for (SemanticAssetMetadata metadata : plan.getCarriedOverMetadata()) {
+            semanticAssetMetadataRepository.save(metadata.toBuilder()
+                    .instance(instance.name())
+                    .live(false)
+                    .build());
+            Map<String, String> rightsHolderName = rightsHolders.get(metadata.getAgencyId());
+            if (Objects.nonNull(context) && Objects.nonNull(rightsHolderName)) {
+                context.addRightsHolder(RightsHolder.builder()
+                        .identifier(metadata.getAgencyId())
+                        .name(rightsHolderName)
+                        .build());
+            }
+        }
+        log.info("Carried over {} documents of repo {} into instance {}",
+                plan.getCarriedOverMetadata().size(), repository.getUrl(), instance);
+    }
+
+    /**
+     * Copies to the current run the stats and the asset sources of the carried over assets.
+     */
+    public void carryOverRunData(IncrementalHarvestPlan plan) {
+        HarvestExecutionContext context = HarvestExecutionContextUtils.getContext();
+        if (Objects.isNull(context)) {
+            return;
+        }
+        semanticContentStatsService.copyStats(plan.getPreviousRun().getId(), context.getRunId(), plan.getCarriedOverIris());
+        plan.getCarriedOverSources().forEach(source -> HarvestExecutionContextUtils.addAssetSource(source.toBuilder()
+                .id(null)
+                .harvesterRunId(context.getRunId())
+                .build()));
+    }
+}
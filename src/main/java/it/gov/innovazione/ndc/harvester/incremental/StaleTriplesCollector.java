@@ -0,0 +1,242 @@
+package it.gov.innovazione.ndc.harvester.incremental;
+
+import it.gov.innovazione.ndc.model.profiles.NDC;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.vocabulary.RDF;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Works out which triples of a repository graph belong only to the assets being removed from it.
+ *
+ * <p>The graph holds the union of the models of every asset. The models of the stale assets are
+ * passed to {@link #remove(String, Model)}, then the models of the assets that stay in the graph
+ * are passed to {@link #keep(Model)}. Ground triples are deleted unless a kept asset also states
+ * them. Blank nodes cannot be addressed across requests, so the triples of each group of connected
+ * blank nodes are deleted with a pattern; the result is empty if such a pattern could also match
+ * the content of a kept asset.
+ */
+class StaleTriplesCollector {
+    private static final Node HAS_DATA_SERVICE = NDC.hasDataService.asNode();
+    // characters of a Turtle prefixed local name, also found between the separators of a full IRI
+    private static final String NAME_CHARS = "\\-\\p{L}\\p{N}_%\\u00B7";
+    private static final Pattern LOCAL_NAME = Pattern.compile("[" + NAME_CHARS + "]([" + NAME_CHARS + ".]*[" + NAME_CHARS + "])?");
+    private static final Pattern NAME_TOKEN = Pattern.compile("[" + NAME_CHARS + ".]+");
+
+    private final Set<Triple> groundTriples = new LinkedHashSet<>();
+    private final List<Triple> blankNodeTriples = new ArrayList<>();
+    private final Set<String> assetIris = new LinkedHashSet<>();
+
+    private List<BlankNodeComponent> components;
+    private Set<Node> componentOwners;
+    private Set<Node> componentIris;
+    private boolean reliable = true;
+
+    void remove(String assetIri, Model model) {
+        if (components != null) {
+            throw new IllegalStateException("Stale assets must be collected before the kept ones");
+        }
+        assetIris.add(assetIri);
+        model.getGraph().find().forEachRemaining(triple -> {
+            if (triple.getSubject().isBlank() || triple.getObject().isBlank()) {
+                blankNodeTriples.add(triple);
+            } else {
+                groundTriples.add(triple);
+            }
+        });
+    }
+
+    void keep(Model model) {
+        ensureComponents();
+        model.getGraph().find().forEachRemaining(triple -> {
+            groundTriples.remove(triple);
+            if (componentOwners.contains(triple.getSubject())) {
+                reliable = false;
+            }
+            if (componentIris.contains(triple.getSubject()) || isMentionedObject(triple, componentIris)) {
+                reliable = false;
+            }
+        });
+    }
+
+    /**
+     * Local names of the IRIs that {@link #keep(Model)} matches the kept assets against. A kept asset
+     * whose text does not {@linkplain #mayMention(String, Set) mention} any of them cannot change the
+     * outcome, and does not need to be parsed.
+     *
+     * @return empty if the text of a file cannot tell some of the IRIs apart, and every kept asset has to be parsed
+     */
+    Optional<Set<String>> localNamesToMatch() {
+        ensureComponents();
+        Set<Node> iris = new HashSet<>(componentOwners);
+        iris.addAll(componentIris);
+        groundTriples.forEach(triple -> iris.add(triple.getSubject()));
+        Set<String> localNames = new HashSet<>();
+        for (Node iri : iris) {
+            String localName = localNameOf(iri.getURI());
+            if (!LOCAL_NAME.matcher(localName).matches()) {
+                return Optional.empty();
+            }
+            localNames.add(localName);
+        }
+        return Optional.of(localNames);
+    }
+
+    /**
+     * Tells whether a Turtle document may state a triple about one of the given local names, whether
+     * it writes their IRIs in full, relative or prefixed. It can answer true for a document that does not.
+     */
+    static boolean mayMention(String turtle, Set<String> localNames) {
+        if (localNames.isEmpty()) {
+            return false;
+        }
+        if (turtle.contains("\\u") || turtle.contains("\\U")) {
+            // unicode escapes can spell any IRI
+            return true;
+        }
+        Matcher tokens = NAME_TOKEN.matcher(turtle.replace("\\", ""));
+        while (tokens.find()) {
+            if (localNames.contains(StringUtils.strip(tokens.group(), "."))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String localNameOf(String iri) {
+        int separator = Math.max(iri.lastIndexOf('/'), Math.max(iri.lastIndexOf('#'), iri.lastIndexOf(':')));
+        return iri.substring(separator + 1);
+    }
+
+    Optional<StaleTriples> collect() {
+        ensureComponents();
+        if (!reliable) {
+            return Optional.empty();
+        }
+        List<String> patterns = new ArrayList<>();
+        components.stream().map(BlankNodeComponent::toPattern).forEach(patterns::add);
+        // the data service of a controlled vocabulary is added while harvesting, it is not in its ttl
+        assetIris.stream()
+                .map(iri -> NodeFmtLib.strNT(NodeFactory.createURI(iri)) + " " + NodeFmtLib.strNT(HAS_DATA_SERVICE)
+                        + " ?ds . ?ds ?p ?o .")
+                .forEach(patterns::add);
+        return Optional.of(new StaleTriples(List.copyOf(groundTriples), patterns));
+    }
+
+    private void ensureComponents() {
+        if (components != null) {
+            return;
+        }
+        components = groupByComponent(blankNodeTriples);
+        componentOwners = new HashSet<>();
+        componentIris = new HashSet<>();
+        for (BlankNodeComponent component : components) {
+            if (component.owners.isEmpty()) {
+                // nothing but the IRIs it mentions tells a root component apart from the same content in another asset
+                if (component.iris.isEmpty()) {
+                    reliable = false;
+                }
+                componentIris.addAll(component.iris);
+            } else {
+                componentOwners.addAll(component.owners);
+            }
+        }
+    }
+
+    private static boolean isMentionedObject(Triple triple, Set<Node> iris) {
+        return !RDF.type.asNode().equals(triple.getPredicate()) && iris.contains(triple.getObject());
+    }
+
+    private static List<BlankNodeComponent> groupByComponent(List<Triple> triples) {
+        Map<Node, Node> parents = new HashMap<>();
+        for (Triple triple : triples) {
+            if (triple.getSubject().isBlank() && triple.getObject().isBlank()) {
+                union(parents, triple.getSubject(), triple.getObject());
+            }
+        }
+        Map<Node, BlankNodeComponent> byRoot = new LinkedHashMap<>();
+        for (Triple triple : triples) {
+            Node blankNode = triple.getSubject().isBlank() ? triple.getSubject() : triple.getObject();
+            byRoot.computeIfAbsent(find(parents, blankNode), root -> new BlankNodeComponent())
+                    .add(triple);
+        }
+        return List.copyOf(byRoot.values());
+    }
+
+    private static Node find(Map<Node, Node> parents, Node node) {
+        Node root = node;
+        while (parents.containsKey(root)) {
+            root = parents.get(root);
+        }
+        Node current = node;
+        while (!current.equals(root)) {
+            Node next = parents.get(current);
+            parents.put(current, root);
+            current = next;
+        }
+        return root;
+    }
+
+    private static void union(Map<Node, Node> parents, Node first, Node second) {
+        Node firstRoot = find(parents, first);
+        Node secondRoot = find(parents, second);
+        if (!firstRoot.equals(secondRoot)) {
+            parents.put(firstRoot, secondRoot);
+        }
+    }
+
+    /**
+     * Triples to delete: ground triples and SPARQL triple patterns, one per group of connected blank nodes.
+     */
+    record StaleTriples(List<Triple> groundTriples, List<String> patterns) {
+    }
+
+    private static class BlankNodeComponent {
+        private final List<Triple> triples = new ArrayList<>();
+        // IRI subjects of the triples pointing into the component
+        private final Set<Node> owners = new HashSet<>();
+        private final Set<Node> iris = new HashSet<>();
+
+        void add(Triple triple) {
+            triples.add(triple);
+            if (triple.getSubject().isURI()) {
+                owners.add(triple.getSubject());
+            }
+            if (triple.getObject().isURI() && !RDF.type.asNode().equals(triple.getPredicate())) {
+                iris.add(triple.getObject());
+            }
+        }
+
+        String toPattern() {
+            Map<Node, String> variables = new HashMap<>();
+            return triples.stream()
+                    .map(triple -> format(triple.getSubject(), variables)
+                            + " " + NodeFmtLib.strNT(triple.getPredicate())
+                            + " " + format(triple.getObject(), variables) + " .")
+                    .collect(Collectors.joining(" "));
+        }
+
+        private static String format(Node node, Map<Node, String> variables) {
+            if (node.isBlank()) {
+                return variables.computeIfAbsent(node, n -> "?b" + variables.size());
+            }
+            return NodeFmtLib.strNT(node);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import it.gov.innovazione.ndc.service.InstanceManager;
 import it.gov.innovazione.ndc.service.logging.HarvesterStage;
 import it.gov.innovazione.ndc.service.logging.LoggingContext;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
@@ -18,6 +19,7 @@ import static java.lang.String.format;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class SemanticAssetModelFactory {
 
     private final InstanceManager instanceManager;
@@ -32,28 +34,43 @@ public class SemanticAssetModelFactory {
                 (coreModel, source) -> new ControlledVocabularyModel(coreModel, source, repoUrl, instanceManager.getNextOnlineInstance(repoUrl)));
     }
 
+    public ControlledVocabularyModel createControlledVocabulary(Model rdfModel, String ttlFile, String repoUrl) {
+        return build(rdfModel, ttlFile,
+                (coreModel, source) -> new ControlledVocabularyModel(coreModel, source, repoUrl, instanceManager.getNextOnlineInstance(repoUrl)));
+    }
+
     public OntologyModel createOntology(String ttlFile, String repoUrl) {
         return loadAndBuild(ttlFile,
                 (coreModel, source) -> new OntologyModel(coreModel, source, repoUrl, instanceManager.getNextOnlineInstance(repoUrl)));
     }
 
+    public OntologyModel createOntology(Model rdfModel, String ttlFile, String repoUrl) {
+        return build(rdfModel, ttlFile,
+                (coreModel, source) -> new OntologyModel(coreModel, source, repoUrl, instanceManager.getNextOnlineInstance(repoUrl)));
+    }
+
     public SchemaModel createSchema(String ttlFile, String repoUrl) {
         return loadAndBuild(ttlFile,
                 (coreModel, source) -> new SchemaModel(coreModel, source, repoUrl, instanceManager.getNextOnlineInstance(repoUrl)));
     }
 
-    public OntologyModel createOntologyForValidation(String ttlFile, String repoUrl) {
-        return loadAndBuild(ttlFile,
+    public SchemaModel createSchema(Model rdfModel, String ttlFile, String repoUrl) {
+        return build(rdfModel, ttlFile,
+                (coreModel, source) -> new SchemaModel(coreModel, source, repoUrl, instanceManager.getNextOnlineInstance(repoUrl)));
+    }
+
+    public OntologyModel createOntologyForValidation(Model rdfModel, String ttlFile, String repoUrl) {
+        return build(rdfModel, ttlFile,
                 (coreModel, source) -> OntologyModel.forValidation(coreModel, source, repoUrl, Instance.PRIMARY));
     }
 
-    public ControlledVocabularyModel createControlledVocabularyForValidation(String ttlFile, String repoUrl) {
-        return loadAndBuild(ttlFile,
+    public ControlledVocabularyModel createControlledVocabularyForValidation(Model rdfModel, String ttlFile, String repoUrl) {
+        return build(rdfModel, ttlFile,
                 (coreModel, source) -> ControlledVocabularyModel.forValidation(coreModel, source, repoUrl, Instance.PRIMARY));
     }
 
-    public SchemaModel createSchemaForValidation(String ttlFile, String repoUrl) {
-        return loadAndBuild(ttlFile,
+    public SchemaModel createSchemaForValidation(Model rdfModel, String ttlFile, String repoUrl) {
+        return build(rdfModel, ttlFile,
                 (coreModel, source) -> SchemaModel.forValidation(coreModel, source, repoUrl, Instance.PRIMARY));
     }
 
@@ -80,4 +97,24 @@ public class SemanticAssetModelFactory {
             throw new InvalidModelException(format("Cannot load RDF model from '%s'", source), e);
         }
     }
+
+    /**
+     * Builds a semantic asset model on top of an already parsed RDF model, e.g. the one filled by
+     * {@link it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidator} while checking the syntax.
+     */
+    private <T extends SemanticAssetModel> T build(Model model, String source, ModelConstructor<T> c) {
+        try {
+            log.debug("Reusing parsed RDF model from '{}' ({} triples)", source, model.size());
+            return c.build(model, source);
+        } catch (Exception e) {
+            logSemanticError(
+                    LoggingContext.builder()
+                            .message(format("Cannot build RDF model from '%s'", source))
+                            .harvesterStatus(HarvesterRun.Status.RUNNING)
+                            .details(e.getMessage())
+                            .stage(HarvesterStage.PROCESS_RESOURCE)
+                            .build());
+            throw new InvalidModelException(format("Cannot build RDF model from '%s'", source), e);
+        }
+    }
 }
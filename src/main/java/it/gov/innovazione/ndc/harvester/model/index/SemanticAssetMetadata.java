@@ -33,6 +33,9 @@ public class SemanticAssetMetadata {
     private String repoUrl;
     @Field(type = Keyword)
     private String instance;
+    // true for the documents of the online instance, switched when the instances are swapped
+    @Field(type = FieldType.Boolean)
+    private boolean live;
 
     @Field(index = false, type = Keyword, normalizer = "lowercase_normalizer")
     private String title;
@@ -24,6 +24,7 @@ import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidator;
 import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
 import it.gov.innovazione.ndc.repository.TripleStoreRepository;
+import it.gov.innovazione.ndc.service.logging.HarvesterMetrics;
 import it.gov.innovazione.ndc.service.logging.HarvesterStage;
 import it.gov.innovazione.ndc.service.logging.LoggingContext;
 import java.util.Collections;
@@ -31,6 +32,8 @@ import java.util.Objects;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Resource;
 
 @RequiredArgsConstructor
@@ -55,7 +58,7 @@ public abstract class BaseSemanticAssetPathProcessor<P extends SemanticAssetPath
         SemanticAssetModelValidationContext.ValidationContextStats statsBefore = getStats(model);
         SemanticAssetMetadata meta = indexMetadataForSearch(model);
         SemanticAssetModelValidationContext.ValidationContextStats statsAfter = getStats(model);
-        persistModelToTripleStore(repoUrl, model);
+        persistModelToTripleStore(repoUrl, path, model);
         collectRightsHolderInContext(repoUrl, model);
         return HarvesterStatsHolder.builder()
                 .metadata(meta)
@@ -97,8 +100,10 @@ public abstract class BaseSemanticAssetPathProcessor<P extends SemanticAssetPath
         // maybe call super() in there, anyways.
     }
 
-    private void validateTurtleSyntax(P path) {
-        RdfSyntaxValidationResult result = rdfSyntaxValidator.validateTurtle(path.getTtlPath());
+    private Model parseTurtle(P path) {
+        Model rdfModel = ModelFactory.createDefaultModel();
+        RdfSyntaxValidationResult result = HarvesterMetrics.timeStage(HarvesterStage.SYNTAX_VALIDATION, getAssetType(),
+                () -> rdfSyntaxValidator.validateTurtle(path.getTtlPath(), rdfModel));
 
         collectSyntaxResult(path, result);
 
@@ -129,6 +134,7 @@ public abstract class BaseSemanticAssetPathProcessor<P extends SemanticAssetPath
                 .stage(HarvesterStage.SYNTAX_VALIDATION)
                 .harvesterStatus(HarvesterRun.Status.RUNNING)
                 .build());
+        return rdfModel;
     }
 
     private void collectSyntaxResult(P path, RdfSyntaxValidationResult result) {
@@ -146,18 +152,22 @@ public abstract class BaseSemanticAssetPathProcessor<P extends SemanticAssetPath
         }
     }
 
-    private void collectMetadataResult(P path, String repoUrl) {
-        ValidationReportCollector collector = getCollector();
-        if (collector == null) {
-            return;
+    private SemanticAssetModelValidationContext validateMetadataIfCollecting(P path, Model rdfModel, String repoUrl) {
+        if (getCollector() == null) {
+            return null;
         }
         try {
-            SemanticAssetModelValidationContext ctx = validateMetadataForReport(path.getTtlPath(), repoUrl);
-            if (ctx != null && ctx.getIsValidation()) {
-                collector.addMetadataResult(relativizePath(path), ctx);
-            }
+            return validateMetadataForReport(rdfModel, path.getTtlPath(), repoUrl);
         } catch (Exception e) {
             log.debug("Cannot collect validation report metadata for {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private void collectMetadataResult(P path, SemanticAssetModelValidationContext ctx) {
+        ValidationReportCollector collector = getCollector();
+        if (collector != null && ctx != null && ctx.getIsValidation()) {
+            collector.addMetadataResult(relativizePath(path), ctx);
         }
     }
 
@@ -176,23 +186,25 @@ public abstract class BaseSemanticAssetPathProcessor<P extends SemanticAssetPath
 
     protected abstract SemanticAssetType getAssetType();
 
-    protected abstract SemanticAssetModelValidationContext validateMetadataForReport(String ttlFile, String repoUrl);
+    protected abstract SemanticAssetModelValidationContext validateMetadataForReport(Model rdfModel, String ttlFile, String repoUrl);
 
     @Override
     public HarvesterStatsHolder process(String repoUrl, P path) {
         try {
             log.info("Processing path {}", path);
 
-            validateTurtleSyntax(path);
+            Model rdfModel = parseTurtle(path);
 
             log.debug("Loading model from {}", path);
-            M model = loadModel(path.getTtlPath(), repoUrl);
+            M model = loadModel(rdfModel, path.getTtlPath(), repoUrl);
 
             Resource resource = model.getMainResource();
             log.info("Found resource {}", resource);
 
+            // the report validates the file as committed, so it runs before any enrichment of the shared graph
+            SemanticAssetModelValidationContext reportContext = validateMetadataIfCollecting(path, rdfModel, repoUrl);
             HarvesterStatsHolder harvesterStatsHolder = processWithModel(repoUrl, path, model);
-            collectMetadataResult(path, repoUrl);
+            collectMetadataResult(path, reportContext);
             log.info("Path {} processed", path);
 
             return harvesterStatsHolder;
@@ -247,10 +259,10 @@ public abstract class BaseSemanticAssetPathProcessor<P extends SemanticAssetPath
         }
     }
 
-    private void persistModelToTripleStore(String repoUrl, M model) {
+    private void persistModelToTripleStore(String repoUrl, P path, M model) {
         log.debug("Storing RDF content for {} in Virtuoso", model.getMainResource());
         try {
-            tripleStoreRepository.save(repoUrl, model.getRdfModel());
+            tripleStoreRepository.save(repoUrl, model.getRdfModel(), path.getTtlPath());
             logSemanticInfo(LoggingContext.builder()
                     .message("Saved RDF content for " + model.getMainResource())
                     .stage(HarvesterStage.PROCESS_RESOURCE)
@@ -262,5 +274,5 @@ public abstract class BaseSemanticAssetPathProcessor<P extends SemanticAssetPath
         }
     }
 
-    protected abstract M loadModel(String ttlFile, String repoUrl);
+    protected abstract M loadModel(Model rdfModel, String ttlFile, String repoUrl);
 }
@@ -1,6 +1,5 @@
 package it.gov.innovazione.ndc.harvester.pathprocessors;
 
-import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticError;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticWarn;
 
@@ -8,16 +7,14 @@ import it.gov.innovazione.ndc.harvester.SemanticAssetType;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContext;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
 import it.gov.innovazione.ndc.harvester.csv.CsvParser;
-import it.gov.innovazione.ndc.harvester.csv.CsvParser.CsvData;
+import it.gov.innovazione.ndc.harvester.csv.CsvParser.CsvRecords;
 import it.gov.innovazione.ndc.harvester.csvapis.HarvestAssetStateService;
 import it.gov.innovazione.ndc.harvester.csvapis.Sha256Hasher;
 import it.gov.innovazione.ndc.harvester.model.ControlledVocabularyModel;
 import it.gov.innovazione.ndc.harvester.model.CvPath;
 import it.gov.innovazione.ndc.harvester.model.HarvesterStatsHolder;
-import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.model.SemanticAssetModelValidationContext;
 import it.gov.innovazione.ndc.harvester.model.SemanticAssetModelFactory;
-import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
 import it.gov.innovazione.ndc.harvester.model.validation.ValidationIssue;
 import it.gov.innovazione.ndc.harvester.model.validation.ValidationIssueSeverity;
 import it.gov.innovazione.ndc.harvester.model.validation.ValidationReportCollector;
@@ -31,9 +28,8 @@ import it.gov.innovazione.ndc.service.logging.HarvesterStage;
 import it.gov.innovazione.ndc.service.logging.LoggingContext;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.List;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -116,13 +112,13 @@ public class ControlledVocabularyPathProcessor extends BaseSemanticAssetPathProc
     }
 
     @Override
-    protected ControlledVocabularyModel loadModel(String ttlFile, String repoUrl) {
-        return modelFactory.createControlledVocabulary(ttlFile, repoUrl);
+    protected ControlledVocabularyModel loadModel(Model rdfModel, String ttlFile, String repoUrl) {
+        return modelFactory.createControlledVocabulary(rdfModel, ttlFile, repoUrl);
     }
 
     @Override
-    protected SemanticAssetModelValidationContext validateMetadataForReport(String ttlFile, String repoUrl) {
-        return modelFactory.createControlledVocabularyForValidation(ttlFile, repoUrl).validateMetadata();
+    protected SemanticAssetModelValidationContext validateMetadataForReport(Model rdfModel, String ttlFile, String repoUrl) {
+        return modelFactory.createControlledVocabularyForValidation(rdfModel, ttlFile, repoUrl).validateMetadata();
     }
 
     @Override
@@ -131,8 +127,9 @@ public class ControlledVocabularyPathProcessor extends BaseSemanticAssetPathProc
     }
 
     private void parseAndIndexCsv(VocabularyIdentifier vocabularyIdentifier, String csvPath) {
-        CsvData flatData = csvParser.loadCsvDataFromFile(csvPath);
-        vocabularyDataService.indexData(vocabularyIdentifier, flatData);
+        try (CsvRecords records = csvParser.openCsvFile(csvPath)) {
+            vocabularyDataService.indexData(vocabularyIdentifier, records);
+        }
     }
 
     private void recordApiStoreDbDiscovery(String repoUrl, String dbPath, ControlledVocabularyModel model) {
@@ -170,51 +167,8 @@ public class ControlledVocabularyPathProcessor extends BaseSemanticAssetPathProc
         }
     }
 
-    public void dropCsvIndicesForRepo(String repoUrl, Instance instance) {
-        log.debug("Retrieving vocab metadata for {} to drop indices", repoUrl);
-
-        List<SemanticAssetMetadata> vocabs = metadataRepository.findVocabulariesForRepoUrl(repoUrl, instance);
-
-        if (log.isDebugEnabled()) {
-            log.debug("Found {} vocabs with indices to drop", vocabs.size());
-        }
-
-        if (vocabs.isEmpty()) {
-            return;
-        }
-
-        logSemanticInfo(LoggingContext.builder()
-                .stage(HarvesterStage.CLEANING_METADATA)
-                .message("Cleaning " + vocabs.size() + " found vocabularies")
-                .additionalInfo("vocabs", vocabs.stream().map(SemanticAssetMetadata::getIri).collect(Collectors.joining(",")))
-                .build());
-
-        vocabs.forEach(v -> {
-            VocabularyIdentifier vocabId = new VocabularyIdentifier(v.getAgencyId(), v.getKeyConcept());
-
-            tryToDropIndex(v, vocabId);
-        });
-    }
-
     @Override
     protected SemanticAssetType getAssetType() {
         return SemanticAssetType.CONTROLLED_VOCABULARY;
     }
-
-    private void tryToDropIndex(SemanticAssetMetadata v, VocabularyIdentifier vocabId) {
-        log.info("Dropping {} for {}", vocabId, v.getIri());
-        try {
-            vocabularyDataService.dropIndex(vocabId);
-            log.info("{} dropped", vocabId);
-        } catch (Exception e) {
-            logSemanticError(LoggingContext.builder()
-                    .stage(HarvesterStage.CLEANING_METADATA)
-                    .harvesterStatus(HarvesterRun.Status.RUNNING)
-                    .message("Could not drop index " + vocabId)
-                    .additionalInfo("vocabId", vocabId)
-                    .additionalInfo("iri", v.getIri())
-                    .build());
-            log.error("Could not drop index {}", vocabId, e);
-        }
-    }
 }
@@ -9,6 +9,7 @@ import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidator;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
 import it.gov.innovazione.ndc.repository.TripleStoreRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -24,13 +25,13 @@ public class OntologyPathProcessor extends BaseSemanticAssetPathProcessor<Semant
     }
 
     @Override
-    protected OntologyModel loadModel(String ttlFile, String repoUrl) {
-        return modelFactory.createOntology(ttlFile, repoUrl);
+    protected OntologyModel loadModel(Model rdfModel, String ttlFile, String repoUrl) {
+        return modelFactory.createOntology(rdfModel, ttlFile, repoUrl);
     }
 
     @Override
-    protected SemanticAssetModelValidationContext validateMetadataForReport(String ttlFile, String repoUrl) {
-        return modelFactory.createOntologyForValidation(ttlFile, repoUrl).validateMetadata();
+    protected SemanticAssetModelValidationContext validateMetadataForReport(Model rdfModel, String ttlFile, String repoUrl) {
+        return modelFactory.createOntologyForValidation(rdfModel, ttlFile, repoUrl).validateMetadata();
     }
 
     @Override
@@ -9,6 +9,7 @@ import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidator;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
 import it.gov.innovazione.ndc.repository.TripleStoreRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -27,13 +28,13 @@ public class SchemaPathProcessor
     }
 
     @Override
-    protected SchemaModel loadModel(String ttlFile, String repoUrl) {
-        return modelFactory.createSchema(ttlFile, repoUrl);
+    protected SchemaModel loadModel(Model rdfModel, String ttlFile, String repoUrl) {
+        return modelFactory.createSchema(rdfModel, ttlFile, repoUrl);
     }
 
     @Override
-    protected SemanticAssetModelValidationContext validateMetadataForReport(String ttlFile, String repoUrl) {
-        return modelFactory.createSchemaForValidation(ttlFile, repoUrl).validateMetadata();
+    protected SemanticAssetModelValidationContext validateMetadataForReport(Model rdfModel, String ttlFile, String repoUrl) {
+        return modelFactory.createSchemaForValidation(rdfModel, ttlFile, repoUrl).validateMetadata();
     }
 
     @Override
@@ -302,6 +302,10 @@ public class ActualConfigService extends ConfigService {
                 "Enable the Alerter capability",
                 Validator.IS_BOOLEAN, Parser.TO_BOOLEAN, Type.BOOLEAN,
                 EnumSet.of(Scope.GLOBAL), false, List.of()),
+        HARVEST_PARALLELISM(
+                "The number of semantic assets of the same type processed concurrently by a harvest (1 = sequential)",
+                Validator.IS_LONG, Parser.TO_LONG, Type.LONG,
+                EnumSet.of(Scope.GLOBAL, Scope.REPO), false, List.of()),
         // ACTIVE_INSTANCE e' gestita da DefaultInstanceManager.switchInstances dopo un harvest:
         // scriverla a mano romperebbe il writer atomico. Esposta in lettura, bloccata in scrittura.
         ACTIVE_INSTANCE(
@@ -127,6 +127,19 @@ public class HarvesterRunService {
                 harvesterRun.getId());
     }
 
+    public void updateHarvesterRunsCommittedAt(List<HarvesterRun> harvesterRuns) {
+        if (harvesterRuns.isEmpty()) {
+            return;
+        }
+        String query = "UPDATE HARVESTER_RUN SET "
+                + "REVISION_COMMITTED_AT = ? "
+                + "WHERE ID = ?";
+        List<Object[]> args = harvesterRuns.stream()
+                .map(harvesterRun -> new Object[] {harvesterRun.getRevisionCommittedAt(), harvesterRun.getId()})
+                .toList();
+        jdbcTemplate.batchUpdate(query, args);
+    }
+
     public Stream<HarvesterRun> getRecentRuns(Long days) {
         return getAllRuns().stream()
                 .filter(harvesterRun -> isMoreRecentThan(harvesterRun, days));
@@ -169,6 +182,19 @@ public class HarvesterRunService {
         return jdbcTemplate.query(sqlQuery, harvesterRunRowMapper);
     }
 
+    public Optional<HarvesterRun> getRun(String runId) {
+        String sqlQuery = "SELECT " + HARVESTER_RUN_SELECT_COLUMNS
+                + " FROM HARVESTER_RUN WHERE ID = ?";
+        return jdbcTemplate.query(sqlQuery, harvesterRunRowMapper, runId).stream().findFirst();
+    }
+
+    public Optional<HarvesterRun> getLastSuccessfulRun(String repositoryId) {
+        String sqlQuery = "SELECT " + HARVESTER_RUN_SELECT_COLUMNS
+                + " FROM HARVESTER_RUN WHERE REPOSITORY_ID = ? AND STATUS = 'SUCCESS'"
+                + " ORDER BY STARTED DESC LIMIT 1";
+        return jdbcTemplate.query(sqlQuery, harvesterRunRowMapper, repositoryId).stream().findFirst();
+    }
+
     /**
      * Restituisce i run raggruppati per {@code CORRELATION_ID} con paginazione
      * server-side sul batch (non sul singolo run). Lo step 1 estrae fino a
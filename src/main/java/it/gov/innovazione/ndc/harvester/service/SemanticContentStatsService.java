@@ -13,16 +13,22 @@ import it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Date;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -82,6 +88,21 @@ public class SemanticContentStatsService {
                              JOIN LATEST_HARVESTER_RUN_BY_YEAR LHRBY on SCS.HARVESTER_RUN_ID = LHRBY.ID
                     where YEAR(LHRBY.STARTED) = ? OR YEAR(LHRBY.STARTED) = ?;
                     """;
+    private static final String GET_RUN_STATS_QUERY =
+            """
+                    select SCS.ID,
+                           SCS.HARVESTER_RUN_ID,
+                           SCS.RESOURCE_URI,
+                           SCS.RESOURCE_TYPE,
+                           SCS.RIGHT_HOLDER,
+                           SCS.ISSUED_ON,
+                           SCS.MODIFIED_ON,
+                           SCS.HAS_ERRORS,
+                           SCS.HAS_WARNINGS,
+                           SCS.STATUS as STATUS_TYPE
+                    from SEMANTIC_CONTENT_STATS SCS
+                    where SCS.HARVESTER_RUN_ID = ?""";
+
     public static final RowMapper<SemanticAssetStatSample> SEMANTIC_ASSET_STAT_SAMPLE_ROW_MAPPER =
             (rs, rowNum) ->
                     SemanticAssetStatSample.builder()
@@ -93,32 +114,44 @@ public class SemanticContentStatsService {
                             .statusType(rs.getString("STATUS_TYPE"))
                             .yearOfHarvest(rs.getInt("YEAR_OF_HARVEST"))
                             .build();
+    private static final String INSERT_STATS_STATEMENT =
+            "INSERT INTO SEMANTIC_CONTENT_STATS ("
+                    + "ID, "
+                    + "HARVESTER_RUN_ID, "
+                    + "RESOURCE_URI, "
+                    + "RESOURCE_TYPE, "
+                    + "RIGHT_HOLDER, "
+                    + "ISSUED_ON, "
+                    + "MODIFIED_ON, "
+                    + "HAS_ERRORS,"
+                    + "HAS_WARNINGS, "
+                    + "STATUS ) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
 
+    @Value("${harvester.jdbc.batch-size:500}")
+    private final int batchSize;
+
+    @Transactional
     public void saveStats() {
         List<SemanticContentStats> semanticContentStats =
                 HarvestExecutionContextUtils.getSemanticContentStats();
-        semanticContentStats.forEach(this::save);
+        if (!semanticContentStats.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_STATS_STATEMENT, semanticContentStats, Math.max(1, batchSize),
+                    (ps, stats) -> new ArgumentPreparedStatementSetter(toInsertArgs(stats)).setValues(ps));
+            log.debug("Saved {} semantic content stats", semanticContentStats.size());
+        }
         HarvestExecutionContextUtils.clearSemanticContentStats();
     }
 
     public int save(SemanticContentStats semanticContentStats) {
-        String statement =
-                "INSERT INTO SEMANTIC_CONTENT_STATS ("
-                        + "ID, "
-                        + "HARVESTER_RUN_ID, "
-                        + "RESOURCE_URI, "
-                        + "RESOURCE_TYPE, "
-                        + "RIGHT_HOLDER, "
-                        + "ISSUED_ON, "
-                        + "MODIFIED_ON, "
-                        + "HAS_ERRORS,"
-                        + "HAS_WARNINGS, "
-                        + "STATUS ) "
-                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        return jdbcTemplate.update(
-                statement,
+        return jdbcTemplate.update(INSERT_STATS_STATEMENT, toInsertArgs(semanticContentStats));
+    }
+
+    private Object[] toInsertArgs(SemanticContentStats semanticContentStats) {
+        return new Object[] {
                 UUID.randomUUID().toString(),
                 semanticContentStats.getHarvesterRunId(),
                 semanticContentStats.getResourceUri(),
@@ -128,7 +161,7 @@ public class SemanticContentStatsService {
                 semanticContentStats.getModifiedOn(),
                 semanticContentStats.isHasErrors(),
                 semanticContentStats.isHasWarnings(),
-                toJsonArray(semanticContentStats.getStatus()));
+                toJsonArray(semanticContentStats.getStatus())};
     }
 
     private String toJsonArray(List<String> status) {
@@ -186,30 +219,60 @@ public class SemanticContentStatsService {
     }
 
     public List<SemanticContentStats> getRawStats() {
-        return jdbcTemplate.query(GET_ALL_STATS_QUERY, (rs, rowNum) -> {
-                    try {
-                        return SemanticContentStats.builder()
-                                .id(rs.getString("ID"))
-                                .harvesterRunId(rs.getString("HARVESTER_RUN_ID"))
-                                .resourceUri(rs.getString("RESOURCE_URI"))
-                                .resourceType(SemanticAssetType.valueOf(rs.getString("RESOURCE_TYPE")))
-                                .rightHolder(rs.getString("RIGHT_HOLDER"))
-                                .issuedOn(getOrNull(rs, "ISSUED_ON", java.sql.Date.class, Date::toLocalDate))
-                                .modifiedOn(getOrNull(rs, "MODIFIED_ON", java.sql.Date.class, Date::toLocalDate))
-                                .hasErrors(rs.getBoolean("HAS_ERRORS"))
-                                .hasWarnings(rs.getBoolean("HAS_WARNINGS"))
-                                .status(fromJsonString(rs.getString("STATUS_TYPE")))
-                                .build();
-                    } catch (Exception e) {
-                        log.error("Skipping row " + rowNum + " due to error:", e.getMessage());
-                        return null;
-                    }
-                })
+        return jdbcTemplate.query(GET_ALL_STATS_QUERY, this::toSemanticContentStatsOrNull)
                 .stream()
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    public List<SemanticContentStats> getRawStats(String runId) {
+        return jdbcTemplate.query(GET_RUN_STATS_QUERY, this::toSemanticContentStatsOrNull, runId)
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Copies to {@code toRunId} the stats that {@code fromRunId} recorded for the given resources,
+     * used for the assets that an incremental harvest carries over without processing them.
+     */
+    @Transactional
+    public int copyStats(String fromRunId, String toRunId, Collection<String> resourceUris) {
+        Set<String> uris = Set.copyOf(resourceUris);
+        List<SemanticContentStats> copies = jdbcTemplate.query(GET_RUN_STATS_QUERY, this::toSemanticContentStatsOrNull, fromRunId)
+                .stream()
+                .filter(Objects::nonNull)
+                .filter(stats -> uris.contains(stats.getResourceUri()))
+                .map(stats -> stats.toBuilder().harvesterRunId(toRunId).build())
+                .toList();
+        if (!copies.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_STATS_STATEMENT, copies, Math.max(1, batchSize),
+                    (ps, stats) -> new ArgumentPreparedStatementSetter(toInsertArgs(stats)).setValues(ps));
+        }
+        log.debug("Copied {} semantic content stats from run {} to run {}", copies.size(), fromRunId, toRunId);
+        return copies.size();
+    }
+
+    private SemanticContentStats toSemanticContentStatsOrNull(ResultSet rs, int rowNum) throws SQLException {
+        try {
+            return SemanticContentStats.builder()
+                    .id(rs.getString("ID"))
+                    .harvesterRunId(rs.getString("HARVESTER_RUN_ID"))
+                    .resourceUri(rs.getString("RESOURCE_URI"))
+                    .resourceType(SemanticAssetType.valueOf(rs.getString("RESOURCE_TYPE")))
+                    .rightHolder(rs.getString("RIGHT_HOLDER"))
+                    .issuedOn(getOrNull(rs, "ISSUED_ON", java.sql.Date.class, Date::toLocalDate))
+                    .modifiedOn(getOrNull(rs, "MODIFIED_ON", java.sql.Date.class, Date::toLocalDate))
+                    .hasErrors(rs.getBoolean("HAS_ERRORS"))
+                    .hasWarnings(rs.getBoolean("HAS_WARNINGS"))
+                    .status(fromJsonString(rs.getString("STATUS_TYPE")))
+                    .build();
+        } catch (Exception e) {
+            log.error("Skipping row " + rowNum + " due to error:", e.getMessage());
+            return null;
+        }
+    }
+
     private <T, R> R getOrNull(ResultSet rs, String column, Class<T> originalClazz, Function<T, R> mapper) {
         try {
             return Optional.ofNullable(rs.getObject(column, originalClazz)).map(mapper).orElse(null);
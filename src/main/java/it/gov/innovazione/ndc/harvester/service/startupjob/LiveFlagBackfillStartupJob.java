@@ -0,0 +1,45 @@
+package it.gov.innovazione.ndc.harvester.service.startupjob;
+
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataLiveSwitcher;
+import it.gov.innovazione.ndc.service.InstanceManager;
+import it.gov.innovazione.ndc.service.InstanceManager.RepositoryInstance;
+import it.gov.innovazione.ndc.service.logging.LoggingContext;
+import it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Flags as live the documents of the online instance of every active repository. Searches only
+ * read live documents, so the documents indexed before the flag existed, or left behind by a
+ * switch that did not complete, would otherwise stay hidden until the next harvest of their repo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveFlagBackfillStartupJob implements StartupJob {
+
+    private final InstanceManager instanceManager;
+    private final SemanticAssetMetadataLiveSwitcher liveSwitcher;
+
+    @Override
+    public void run() {
+        List<RepositoryInstance> repositoryInstances = instanceManager.getCurrentInstances();
+        long updated = 0;
+        for (RepositoryInstance repositoryInstance : repositoryInstances) {
+            try {
+                updated += liveSwitcher.switchLive(repositoryInstance.getUrl(), repositoryInstance.getInstance());
+            } catch (Exception e) {
+                log.error("Could not flag the live documents of repo {}", repositoryInstance.getUrl(), e);
+            }
+        }
+        NDCHarvesterLogger.logApplicationInfo(
+                LoggingContext.builder()
+                        .component("LiveFlagBackfillStartupJob")
+                        .message(String.format("Flagged live documents of %d repositories (%d documents updated)",
+                                repositoryInstances.size(), updated))
+                        .build());
+    }
+}
@@ -6,17 +6,17 @@ import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
 import it.gov.innovazione.ndc.service.logging.LoggingContext;
 import it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Service
 @RequiredArgsConstructor
@@ -30,26 +30,17 @@ public class UpdateRevisionCommittedAt implements StartupJob {
         List<HarvesterRun> harvesterRunsToUpdate = harvesterRunService.getAllRuns().stream()
                 .filter(this::hasNoRevisionCommittedAt)
                 .filter(this::isSuccess)
+                .filter(this::hasRepositoryAndRevision)
                 .toList();
         NDCHarvesterLogger.logApplicationInfo(
                 LoggingContext.builder()
                         .component("UpdateRevisionCommittedAt")
                         .message(String.format("Found %d harvester runs to update", harvesterRunsToUpdate.size()))
                         .build());
-    Map<Pair<String, String>, List<HarvesterRun>> byRepositoryAndRevision =
-        harvesterRunsToUpdate.stream()
-            .filter(this::hasNoRevisionCommittedAt)
-            .filter(this::isSuccess)
-            .collect(
-                Collectors.groupingBy(
-                    harvesterRun ->
-                        Pair.of(harvesterRun.getRepositoryUrl(), harvesterRun.getRevision())));
-
-        byRepositoryAndRevision.entrySet().stream()
-                .map(this::withUpdatedRevisionCommittedAt)
-                .flatMap(List::stream)
-                .forEach(this::logAndUpdate);
+        Map<String, List<HarvesterRun>> byRepository = harvesterRunsToUpdate.stream()
+                .collect(Collectors.groupingBy(HarvesterRun::getRepositoryUrl));
 
+        byRepository.forEach(this::updateRevisionCommittedAt);
     }
 
     private boolean hasNoRevisionCommittedAt(HarvesterRun harvesterRun) {
@@ -57,8 +48,12 @@ public class UpdateRevisionCommittedAt implements StartupJob {
     }
 
     private boolean isSuccess(HarvesterRun harvesterRun) {
-    return harvesterRun.getStatus() == HarvesterRun.Status.SUCCESS;
-  }
+        return harvesterRun.getStatus() == HarvesterRun.Status.SUCCESS;
+    }
+
+    private boolean hasRepositoryAndRevision(HarvesterRun harvesterRun) {
+        return isNotBlank(harvesterRun.getRepositoryUrl()) && isNotBlank(harvesterRun.getRevision());
+    }
 
     @Scheduled(cron = "${ndc.harvester.update-revision-committed-at.cron}")
     public void scheduledRun() {
@@ -70,25 +65,21 @@ public class UpdateRevisionCommittedAt implements StartupJob {
         run();
     }
 
-    private void logAndUpdate(HarvesterRun harvesterRun) {
-        Instant revisionCommittedAt = harvesterRun.getRevisionCommittedAt();
-        String repositoryUrl = harvesterRun.getRepositoryUrl();
-        String revision = harvesterRun.getRevision();
-        String harvesterRunId = harvesterRun.getId();
+    private void updateRevisionCommittedAt(String repositoryUrl, List<HarvesterRun> harvesterRuns) {
+        Set<String> revisions = harvesterRuns.stream()
+                .map(HarvesterRun::getRevision)
+                .collect(Collectors.toSet());
+        // all the revisions of a repository are resolved from a single fetch of its git mirror
+        Map<String, Instant> commitDates = gitUtils.getCommitDates(repositoryUrl, revisions);
+        List<HarvesterRun> updatedRuns = harvesterRuns.stream()
+                .filter(harvesterRun -> commitDates.containsKey(harvesterRun.getRevision()))
+                .map(harvesterRun -> harvesterRun.withRevisionCommittedAt(commitDates.get(harvesterRun.getRevision())))
+                .toList();
+        harvesterRunService.updateHarvesterRunsCommittedAt(updatedRuns);
         NDCHarvesterLogger.logApplicationInfo(
                 LoggingContext.builder()
-                        .message(String.format("Updated revisionCommittedAt for harvester run %s with revision %s and repository %s to %s",
-                                harvesterRunId, revision, repositoryUrl, revisionCommittedAt))
+                        .message(String.format("Updated revisionCommittedAt of %d harvester runs for repository %s (%d of %d revisions resolved)",
+                                updatedRuns.size(), repositoryUrl, commitDates.size(), revisions.size()))
                         .build());
-        harvesterRunService.updateHarvesterRunCommittedAt(harvesterRun);
-    }
-
-    private List<HarvesterRun> withUpdatedRevisionCommittedAt(Map.Entry<Pair<String, String>, List<HarvesterRun>> byRepositoryAndRevision) {
-        Pair<String, String> repositoryAndRevision = byRepositoryAndRevision.getKey();
-        Optional<Instant> commitDate = gitUtils.getCommitDate(repositoryAndRevision.getLeft(), null, repositoryAndRevision.getRight());
-        return commitDate.map(instant -> byRepositoryAndRevision.getValue().stream()
-                .map(harvesterRun -> harvesterRun.withRevisionCommittedAt(instant))
-                .toList()).orElseGet(byRepositoryAndRevision::getValue);
     }
 }
-
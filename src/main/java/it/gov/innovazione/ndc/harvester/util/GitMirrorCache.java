@@ -0,0 +1,211 @@
+package it.gov.innovazione.ndc.harvester.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.RefSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Local store of bare mirrors of the harvested repositories, one per repository URL.
+ *
+ * <p>Each use fetches into the mirror only the objects that changed since the previous one, so
+ * clones for harvests and validations and commit lookups read from the local disk instead of
+ * transferring the whole repository. When the mirrors exceed the configured quota the least
+ * recently used ones are deleted.
+ */
+@Slf4j
+@Component
+public class GitMirrorCache {
+    private static final RefSpec MIRROR_REF_SPEC = new RefSpec("+refs/*:refs/*");
+
+    private final FileUtils fileUtils;
+    private final boolean enabled;
+    private final Path mirrorsDir;
+    private final long maxSizeBytes;
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    public GitMirrorCache(FileUtils fileUtils,
+                          @Value("${harvester.git.mirror.enabled:true}") boolean enabled,
+                          @Value("${harvester.git.mirror.dir:/tmp/ndc-git-mirrors}") String mirrorsDir,
+                          @Value("${harvester.git.mirror.max-size-mb:2048}") long maxSizeMb) {
+        this.fileUtils = fileUtils;
+        this.enabled = enabled;
+        this.mirrorsDir = Path.of(mirrorsDir);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Brings the mirror of a repository up to date and runs an action on it. The mirror is not
+     * fetched nor evicted by other threads while the action runs.
+     *
+     * @return empty if mirrors are disabled, or if the mirror cannot be updated or the action fails
+     */
+    public <T> Optional<T> withMirror(String repoUrl, MirrorAction<T> action) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = keyOf(repoUrl);
+        ReentrantLock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            Path mirrorDir = mirrorsDir.resolve(key);
+            Optional<T> result;
+            try (Git mirror = sync(repoUrl, mirrorDir)) {
+                result = Optional.ofNullable(action.apply(mirror.getRepository()));
+            }
+            Files.setLastModifiedTime(mirrorDir, FileTime.from(Instant.now()));
+            tryEvictLeastRecentlyUsed(key);
+            return result;
+        } catch (IOException | GitAPIException e) {
+            log.warn("Cannot use the git mirror of {}", repoUrl, e);
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Git sync(String repoUrl, Path mirrorDir) throws IOException, GitAPIException {
+        if (Files.isDirectory(mirrorDir)) {
+            Optional<Git> existing = openMirror(mirrorDir);
+            if (existing.isPresent()) {
+                log.info("Fetching {} into mirror {}", repoUrl, mirrorDir);
+                try {
+                    existing.get().fetch()
+                            .setRemote(repoUrl)
+                            .setRefSpecs(MIRROR_REF_SPEC)
+                            .setRemoveDeletedRefs(true)
+                            .call();
+                } catch (GitAPIException e) {
+                    existing.get().close();
+                    throw e;
+                }
+                return existing.get();
+            }
+            fileUtils.removeDirectory(mirrorDir);
+        }
+        log.info("Creating mirror of {} at {}", repoUrl, mirrorDir);
+        Files.createDirectories(mirrorsDir);
+        try {
+            return Git.cloneRepository()
+                    .setURI(repoUrl)
+                    .setDirectory(mirrorDir.toFile())
+                    .setBare(true)
+                    .setMirror(true)
+                    .call();
+        } catch (GitAPIException e) {
+            if (Files.exists(mirrorDir)) {
+                fileUtils.removeDirectory(mirrorDir);
+            }
+            throw e;
+        }
+    }
+
+    private Optional<Git> openMirror(Path mirrorDir) {
+        try {
+            Git git = Git.open(mirrorDir.toFile());
+            if (git.getRepository().isBare()) {
+                return Optional.of(git);
+            }
+            git.close();
+        } catch (IOException e) {
+            log.warn("Discarding unreadable mirror {}", mirrorDir, e);
+        }
+        return Optional.empty();
+    }
+
+    private void tryEvictLeastRecentlyUsed(String usedKey) {
+        try {
+            evictLeastRecentlyUsed(usedKey);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Cannot evict git mirrors from {}", mirrorsDir, e);
+        }
+    }
+
+    private void evictLeastRecentlyUsed(String usedKey) throws IOException {
+        List<MirrorUsage> mirrors = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(mirrorsDir)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                mirrors.add(new MirrorUsage(dir, Files.getLastModifiedTime(dir), sizeOf(dir)));
+            }
+        }
+        long totalSize = mirrors.stream().mapToLong(MirrorUsage::size).sum();
+        mirrors.sort(Comparator.comparing(MirrorUsage::lastUsed));
+        for (MirrorUsage mirror : mirrors) {
+            if (totalSize <= maxSizeBytes) {
+                return;
+            }
+            String key = mirror.dir().getFileName().toString();
+            if (key.equals(usedKey)) {
+                continue;
+            }
+            ReentrantLock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
+            // a mirror in use by another thread is skipped, it is the most recently used anyway
+            if (lock.tryLock()) {
+                try {
+                    log.info("Evicting git mirror {} ({} bytes)", mirror.dir(), mirror.size());
+                    fileUtils.removeDirectory(mirror.dir());
+                    totalSize -= mirror.size();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        if (totalSize > maxSizeBytes) {
+            log.warn("Git mirrors in {} use {} bytes, more than the quota of {} bytes", mirrorsDir, totalSize, maxSizeBytes);
+        }
+    }
+
+    private static long sizeOf(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .mapToLong(file -> file.toFile().length())
+                    .sum();
+        }
+    }
+
+    private static String keyOf(String repoUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(repoUrl.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Action run on the up to date mirror of a repository.
+     */
+    @FunctionalInterface
+    public interface MirrorAction<T> {
+        T apply(Repository mirror) throws IOException, GitAPIException;
+    }
+
+    private record MirrorUsage(Path dir, FileTime lastUsed, long size) {
+    }
+}
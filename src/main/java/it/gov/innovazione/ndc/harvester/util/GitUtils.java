@@ -3,47 +3,57 @@ package it.gov.innovazione.ndc.harvester.util;
 import it.gov.innovazione.ndc.service.logging.LoggingContext;
 import it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.errors.RevisionSyntaxException;
 import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.StreamSupport;
 
 import static it.gov.innovazione.ndc.harvester.AgencyRepositoryService.TEMP_DIR_PREFIX;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class GitUtils {
 
     private final FileUtils fileUtils;
+    private final GitMirrorCache gitMirrorCache;
 
     public void cloneRepo(String repoUrl, File destination, String branch, String revision) {
         cloneRepoAndGetLastCommitDate(repoUrl, destination, branch, revision);
     }
 
     public Instant cloneRepoAndGetLastCommitDate(String repoUrl, File destination, String branch, String revision) {
-        try {
-            CloneCommand cloneCommand = Git.cloneRepository()
-                    .setURI(repoUrl)
-                    .setDirectory(destination);
-
-            if (StringUtils.isNotBlank(branch)) {
-                cloneCommand.setBranch(branch);
-            }
-
-            Git call = cloneCommand.call();
-
+        try (Git call = cloneFromMirrorOrRemote(repoUrl, destination, branch)) {
             if (StringUtils.isNotBlank(revision)) {
                 call.checkout().setName(revision).call();
             }
@@ -53,6 +63,40 @@ public class GitUtils {
         }
     }
 
+    private Git cloneFromMirrorOrRemote(String repoUrl, File destination, String branch) throws GitAPIException {
+        Optional<Git> fromMirror = gitMirrorCache.withMirror(repoUrl, mirror -> {
+            try {
+                return newCloneCommand(mirror.getDirectory().toURI().toString(), destination, branch).call();
+            } catch (GitAPIException e) {
+                // leaves the destination empty for the clone from the remote
+                emptyDirectory(destination.toPath());
+                throw e;
+            }
+        });
+        if (fromMirror.isPresent()) {
+            return fromMirror.get();
+        }
+        return newCloneCommand(repoUrl, destination, branch).call();
+    }
+
+    private static CloneCommand newCloneCommand(String uri, File destination, String branch) {
+        CloneCommand cloneCommand = Git.cloneRepository()
+                .setURI(uri)
+                .setDirectory(destination);
+
+        if (StringUtils.isNotBlank(branch)) {
+            cloneCommand.setBranch(branch);
+        }
+        return cloneCommand;
+    }
+
+    private void emptyDirectory(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            fileUtils.removeDirectory(directory);
+        }
+        Files.createDirectories(directory);
+    }
+
     private boolean isHead(Ref ref) {
         return StringUtils.endsWith(ref.getName(), "HEAD");
     }
@@ -84,21 +128,56 @@ public class GitUtils {
         return StringUtils.equals(ref.getName(), "refs/heads/" + branch);
     }
 
-    public Optional<Instant> getCommitDate(String repositoryUrl, String branch, String revision) {
-        Optional<Path> tempDirectory = safelyGetTempDirectory(repositoryUrl, revision);
+    /**
+     * Resolves the author dates of some revisions of a repository with a single walk over its git
+     * mirror, or over a temporary clone when mirrors are disabled. Revisions that cannot be found
+     * are missing from the result.
+     */
+    public Map<String, Instant> getCommitDates(String repositoryUrl, Collection<String> revisions) {
+        if (revisions.isEmpty()) {
+            return Map.of();
+        }
+        if (gitMirrorCache.isEnabled()) {
+            return gitMirrorCache.withMirror(repositoryUrl, mirror -> resolveCommitDates(mirror, revisions))
+                    .orElse(Map.of());
+        }
+        Optional<Path> tempDirectory = safelyGetTempDirectory(repositoryUrl);
         if (tempDirectory.isEmpty()) {
-            return Optional.empty();
+            return Map.of();
         }
-
-        Optional<Git> gitOpt = cloneSafely(repositoryUrl, tempDirectory.get(), branch, revision);
-
-        if (gitOpt.isEmpty()) {
-            return Optional.empty();
+        try (Git git = Git.cloneRepository()
+                .setURI(repositoryUrl)
+                .setDirectory(tempDirectory.get().toFile())
+                .setNoCheckout(true)
+                .call()) {
+            return resolveCommitDates(git.getRepository(), revisions);
+        } catch (GitAPIException e) {
+            NDCHarvesterLogger.logApplicationError(LoggingContext.builder()
+                    .message("Error cloning repository while retrieving commit dates")
+                    .details(e.getMessage())
+                    .additionalInfo("repositoryUrl", repositoryUrl)
+                    .build());
+            return Map.of();
+        } finally {
+            tryRemoveDirectory(tempDirectory.get());
         }
+    }
 
-        Optional<Instant> instant = gitOpt.map(this::safelyGetLastCommitDate);
-        tryRemoveDirectory(tempDirectory.get());
-        return instant;
+    private static Map<String, Instant> resolveCommitDates(Repository repository, Collection<String> revisions) {
+        Map<String, Instant> commitDates = new HashMap<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            for (String revision : revisions) {
+                try {
+                    ObjectId commitId = repository.resolve(revision);
+                    if (commitId != null) {
+                        commitDates.put(revision, revWalk.parseCommit(commitId).getAuthorIdent().getWhenAsInstant());
+                    }
+                } catch (RevisionSyntaxException | IOException e) {
+                    log.info("Cannot resolve revision {}: {}", revision, e.getMessage());
+                }
+            }
+        }
+        return commitDates;
     }
 
     private void tryRemoveDirectory(Path path) {
@@ -112,15 +191,14 @@ public class GitUtils {
         }
     }
 
-    private Optional<Path> safelyGetTempDirectory(String repositoryUrl, String revision) {
+    private Optional<Path> safelyGetTempDirectory(String repositoryUrl) {
         try {
             return Optional.of(fileUtils.createTempDirectory(TEMP_DIR_PREFIX));
         } catch (IOException e) {
             NDCHarvesterLogger.logApplicationError(LoggingContext.builder()
-                    .message("Error creating temp directory while retrieving commit date")
+                    .message("Error creating temp directory while retrieving commit dates")
                     .details(e.getMessage())
                     .additionalInfo("repositoryUrl", repositoryUrl)
-                    .additionalInfo("revision", revision)
                     .build());
             return Optional.empty();
         }
@@ -142,24 +220,74 @@ public class GitUtils {
         }
     }
 
-    private Optional<Git> cloneSafely(String repositoryUrl, Path tempDirectory, String branch, String revision) {
-        try {
-            CloneCommand cloneCommand = Git.cloneRepository()
-                    .setURI(repositoryUrl)
-                    .setDirectory(tempDirectory.toFile());
+    /**
+     * Lists the files added, modified or deleted between {@code fromRevision} and the checked out
+     * revision of a cloned repository, as paths relative to the repository root.
+     *
+     * @return empty if the diff cannot be computed, e.g. because {@code fromRevision} is not part of the clone
+     */
+    public Optional<Set<String>> getChangedPaths(Path repoDir, String fromRevision) {
+        try (Git git = Git.open(repoDir.toFile());
+             ObjectReader reader = git.getRepository().newObjectReader()) {
+            ObjectId oldTree = git.getRepository().resolve(fromRevision + "^{tree}");
+            ObjectId newTree = git.getRepository().resolve(Constants.HEAD + "^{tree}");
+            if (oldTree == null || newTree == null) {
+                log.info("Cannot diff {} against {} in {}: revision not found", fromRevision, Constants.HEAD, repoDir);
+                return Optional.empty();
+            }
+            CanonicalTreeParser oldTreeParser = new CanonicalTreeParser();
+            oldTreeParser.reset(reader, oldTree);
+            CanonicalTreeParser newTreeParser = new CanonicalTreeParser();
+            newTreeParser.reset(reader, newTree);
 
-            if (StringUtils.isNotBlank(branch)) {
-                cloneCommand.setBranch(branch);
+            List<DiffEntry> entries = git.diff()
+                    .setOldTree(oldTreeParser)
+                    .setNewTree(newTreeParser)
+                    .setShowNameAndStatusOnly(true)
+                    .call();
+            Set<String> changedPaths = new HashSet<>();
+            for (DiffEntry entry : entries) {
+                addIfNotNull(changedPaths, entry.getOldPath());
+                addIfNotNull(changedPaths, entry.getNewPath());
             }
+            return Optional.of(changedPaths);
+        } catch (IOException | GitAPIException | RevisionSyntaxException e) {
+            log.warn("Cannot diff {} against {} in {}", fromRevision, Constants.HEAD, repoDir, e);
+            return Optional.empty();
+        }
+    }
 
-            Git git = cloneCommand.call();
+    private static void addIfNotNull(Set<String> paths, String path) {
+        if (!DiffEntry.DEV_NULL.equals(path)) {
+            paths.add(path);
+        }
+    }
 
-            if (StringUtils.isNotBlank(revision)) {
-                git.checkout().setName(revision).call();
+    /**
+     * Reads the content that the given files, relative to the repository root, had at {@code revision}.
+     * Files not present at that revision are missing from the result.
+     *
+     * @return empty if {@code revision} cannot be read from the cloned repository
+     */
+    public Optional<Map<String, byte[]>> readFilesAtRevision(Path repoDir, String revision, Collection<String> paths) {
+        try (Git git = Git.open(repoDir.toFile());
+             RevWalk revWalk = new RevWalk(git.getRepository())) {
+            ObjectId commitId = git.getRepository().resolve(revision);
+            if (commitId == null) {
+                return Optional.empty();
             }
-
-            return Optional.of(git);
-        } catch (GitAPIException e) {
+            RevTree tree = revWalk.parseCommit(commitId).getTree();
+            Map<String, byte[]> contents = new HashMap<>();
+            for (String path : paths) {
+                try (TreeWalk treeWalk = TreeWalk.forPath(git.getRepository(), path, tree)) {
+                    if (treeWalk != null) {
+                        contents.put(path, git.getRepository().open(treeWalk.getObjectId(0)).getBytes(Integer.MAX_VALUE));
+                    }
+                }
+            }
+            return Optional.of(contents);
+        } catch (IOException | RevisionSyntaxException e) {
+            log.warn("Cannot read files at revision {} in {}", revision, repoDir, e);
             return Optional.empty();
         }
     }
@@ -1,9 +1,11 @@
 package it.gov.innovazione.ndc.harvester.validation;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFParser;
 import org.apache.jena.riot.system.ErrorHandler;
+import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.riot.system.StreamRDFLib;
 import org.springframework.stereotype.Component;
 
@@ -16,6 +18,19 @@ import java.util.List;
 public class RdfSyntaxValidator {
 
     public RdfSyntaxValidationResult validateTurtle(String filePath) {
+        return parseTurtle(filePath, StreamRDFLib.sinkNull());
+    }
+
+    /**
+     * Validates the Turtle syntax of {@code filePath} while loading the parsed triples into {@code model}.
+     * The model is complete only when the returned result has no errors, and can then be harvested
+     * without parsing the file a second time.
+     */
+    public RdfSyntaxValidationResult validateTurtle(String filePath, Model model) {
+        return parseTurtle(filePath, StreamRDFLib.graph(model.getGraph()));
+    }
+
+    private RdfSyntaxValidationResult parseTurtle(String filePath, StreamRDF destination) {
         log.debug("Validating Turtle syntax for {}", filePath);
         CollectingErrorHandler errorHandler = new CollectingErrorHandler();
         try {
@@ -23,7 +38,7 @@ public class RdfSyntaxValidator {
                     .lang(Lang.TURTLE)
                     .errorHandler(errorHandler)
                     .checking(true)
-                    .parse(StreamRDFLib.sinkNull());
+                    .parse(destination);
         } catch (Exception e) {
             if (errorHandler.errors.isEmpty()) {
                 errorHandler.errors.add(
@@ -0,0 +1,18 @@
+package it.gov.innovazione.ndc.model.harvester;
+
+import it.gov.innovazione.ndc.harvester.SemanticAssetType;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Asset harvested by a run: the path of its ttl file, relative to the repository root, and its IRI.
+ */
+@Data
+@Builder(toBuilder = true)
+public class HarvestAssetSource {
+    private final String id;
+    private final String harvesterRunId;
+    private final String assetPath;
+    private final SemanticAssetType assetType;
+    private final String assetIri;
+}
@@ -0,0 +1,20 @@
+package it.gov.innovazione.ndc.model.harvester;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Stage timing or volume of a harvester run: the total {@code amount} in {@code unit} over the
+ * {@code invocations} of the stage.
+ */
+@Data
+@Builder(toBuilder = true)
+public class HarvesterRunProfileEntry {
+    public static final String MILLIS = "ms";
+
+    private final String harvesterRunId;
+    private final String name;
+    private final String unit;
+    private final long amount;
+    private final long invocations;
+}
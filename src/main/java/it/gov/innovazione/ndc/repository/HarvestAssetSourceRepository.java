@@ -0,0 +1,78 @@
+package it.gov.innovazione.ndc.repository;
+
+import it.gov.innovazione.ndc.harvester.SemanticAssetType;
+import it.gov.innovazione.ndc.model.harvester.HarvestAssetSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class HarvestAssetSourceRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${harvester.jdbc.batch-size:500}")
+    private final int batchSize;
+
+    private static final String COLUMNS = "ID, HARVESTER_RUN_ID, ASSET_PATH, ASSET_TYPE, ASSET_IRI";
+
+    private static final String INSERT_SOURCE = "INSERT INTO HARVEST_ASSET_SOURCE ("
+            + COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+
+    private static final RowMapper<HarvestAssetSource> ROW_MAPPER = (rs, rowNum) -> HarvestAssetSource.builder()
+            .id(rs.getString("ID"))
+            .harvesterRunId(rs.getString("HARVESTER_RUN_ID"))
+            .assetPath(rs.getString("ASSET_PATH"))
+            .assetType(parseAssetType(rs.getString("ASSET_TYPE")))
+            .assetIri(rs.getString("ASSET_IRI"))
+            .build();
+
+    /**
+     * Inserts the sources with JDBC batches of {@code harvester.jdbc.batch-size} rows, in a single transaction.
+     */
+    @Transactional
+    public void saveAll(List<HarvestAssetSource> sources) {
+        if (sources.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SOURCE, sources, Math.max(1, batchSize),
+                (ps, source) -> new ArgumentPreparedStatementSetter(toInsertArgs(source)).setValues(ps));
+        log.debug("Saved {} harvest asset sources", sources.size());
+    }
+
+    public List<HarvestAssetSource> findByRun(String runId) {
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM HARVEST_ASSET_SOURCE WHERE HARVESTER_RUN_ID = ?",
+                ROW_MAPPER, runId).stream()
+                .filter(source -> Objects.nonNull(source.getAssetType()))
+                .toList();
+    }
+
+    private static Object[] toInsertArgs(HarvestAssetSource source) {
+        return new Object[] {
+                Objects.requireNonNullElseGet(source.getId(), () -> UUID.randomUUID().toString()),
+                source.getHarvesterRunId(),
+                source.getAssetPath(),
+                source.getAssetType().name(),
+                source.getAssetIri()};
+    }
+
+    private static SemanticAssetType parseAssetType(String raw) {
+        try {
+            return raw == null ? null : SemanticAssetType.valueOf(raw);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package it.gov.innovazione.ndc.repository;
+
+import it.gov.innovazione.ndc.model.harvester.HarvesterRunProfileEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class HarvesterRunProfileRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String COLUMNS = "HARVESTER_RUN_ID, NAME, UNIT, AMOUNT, INVOCATIONS";
+
+    private static final String INSERT_ENTRY = "INSERT INTO HARVESTER_RUN_PROFILE ("
+            + COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+
+    private static final RowMapper<HarvesterRunProfileEntry> ROW_MAPPER = (rs, rowNum) -> HarvesterRunProfileEntry.builder()
+            .harvesterRunId(rs.getString("HARVESTER_RUN_ID"))
+            .name(rs.getString("NAME"))
+            .unit(rs.getString("UNIT"))
+            .amount(rs.getLong("AMOUNT"))
+            .invocations(rs.getLong("INVOCATIONS"))
+            .build();
+
+    /**
+     * Inserts the profile of a run with a single JDBC batch.
+     */
+    public void saveAll(List<HarvesterRunProfileEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries.stream()
+                .map(entry -> new Object[] {
+                        entry.getHarvesterRunId(),
+                        entry.getName(),
+                        entry.getUnit(),
+                        entry.getAmount(),
+                        entry.getInvocations()})
+                .toList());
+        log.debug("Saved {} profile entries of run {}", entries.size(), entries.get(0).getHarvesterRunId());
+    }
+
+    /**
+     * Returns the profiles of the runs started in {@code [from, to)}.
+     */
+    public List<HarvesterRunProfileEntry> findByRunsStartedBetween(Instant from, Instant to) {
+        return jdbcTemplate.query(
+                "SELECT P.HARVESTER_RUN_ID, P.NAME, P.UNIT, P.AMOUNT, P.INVOCATIONS "
+                        + "FROM HARVESTER_RUN_PROFILE P JOIN HARVESTER_RUN HR ON HR.ID = P.HARVESTER_RUN_ID "
+                        + "WHERE HR.STARTED >= ? AND HR.STARTED < ?",
+                ROW_MAPPER, Timestamp.from(from), Timestamp.from(to));
+    }
+}
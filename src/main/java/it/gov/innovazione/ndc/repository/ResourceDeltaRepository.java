@@ -5,9 +5,12 @@ import it.gov.innovazione.ndc.model.audit.ChangeKind;
 import it.gov.innovazione.ndc.model.audit.ResourceDelta;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -24,9 +27,15 @@ public class ResourceDeltaRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
+    @Value("${harvester.jdbc.batch-size:500}")
+    private final int batchSize;
+
     private static final String COLUMNS =
             "ID, HARVESTER_RUN_ID, ASSET_IRI, ASSET_TYPE, CHANGE_KIND, SUMMARY_JSON, CREATED_AT";
 
+    private static final String INSERT_DELTA = "INSERT INTO HARVEST_RESOURCE_DELTA ("
+            + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     private static final RowMapper<ResourceDelta> ROW_MAPPER = (rs, rowNum) -> ResourceDelta.builder()
             .id(rs.getString("ID"))
             .harvesterRunId(rs.getString("HARVESTER_RUN_ID"))
@@ -38,20 +47,31 @@ public class ResourceDeltaRepository {
             .build();
 
     public int save(ResourceDelta delta) {
-        String sql = "INSERT INTO HARVEST_RESOURCE_DELTA ("
-                + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
-        return jdbcTemplate.update(sql,
+        return jdbcTemplate.update(INSERT_DELTA, toInsertArgs(delta));
+    }
+
+    /**
+     * Inserts the deltas with JDBC batches of {@code harvester.jdbc.batch-size} rows, in a single transaction.
+     */
+    @Transactional
+    public void saveAll(List<ResourceDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_DELTA, deltas, Math.max(1, batchSize),
+                (ps, delta) -> new ArgumentPreparedStatementSetter(toInsertArgs(delta)).setValues(ps));
+        log.debug("Saved {} resource deltas", deltas.size());
+    }
+
+    private static Object[] toInsertArgs(ResourceDelta delta) {
+        return new Object[] {
                 delta.getId(),
                 delta.getHarvesterRunId(),
                 delta.getAssetIri(),
                 delta.getAssetType().name(),
                 delta.getChangeKind().name(),
                 delta.getSummaryJson(),
-                Timestamp.from(delta.getCreatedAt()));
-    }
-
-    public void saveAll(List<ResourceDelta> deltas) {
-        deltas.forEach(this::save);
+                Timestamp.from(delta.getCreatedAt())};
     }
 
     public DeltaQueryResult findByRun(String runId, DeltaFilters filters, int offset, int limit) {
@@ -0,0 +1,194 @@
+package it.gov.innovazione.ndc.repository;
+
+import it.gov.innovazione.ndc.harvester.exception.SinglePathProcessingException;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import it.gov.innovazione.ndc.service.logging.HarvesterStage;
+import it.gov.innovazione.ndc.service.logging.LoggingContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.ELASTICSEARCH;
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.countDocuments;
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.timeStoreWrite;
+import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logInfrastructureError;
+import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticError;
+import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
+import static java.lang.String.format;
+
+/**
+ * Collects the metadata indexed by a harvest and sends it to Elasticsearch with bulk requests.
+ * Documents are buffered per repository between {@link #begin(String)} and {@link #flush(String)},
+ * sent without forcing a refresh, and made searchable by a single {@link #refresh()}.
+ *
+ * <p>The documents rejected by a bulk request are saved again one by one, as they would be without
+ * a bulk; those that still fail are reported individually and fail the harvest, as a failed save does.
+ * A failure of the whole request fails the harvest right away.
+ */
+@Slf4j
+@Component
+public class SemanticAssetMetadataBulkIndexer {
+    private final ElasticsearchOperations esOps;
+    private final int chunkSize;
+    private final Map<String, Chunk> chunks = new ConcurrentHashMap<>();
+
+    public SemanticAssetMetadataBulkIndexer(ElasticsearchOperations esOps,
+                                            @Value("${harvester.elasticsearch.bulk-size:500}") int chunkSize) {
+        this.esOps = esOps;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public void begin(String repoUrl) {
+        log.info("Starting bulk indexing for {}", repoUrl);
+        chunks.put(repoUrl, new Chunk());
+    }
+
+    /**
+     * Buffers the document if a bulk is open for its repository, sending the chunk once it is full.
+     *
+     * @return false if no bulk is open and the document must be saved directly
+     */
+    public boolean offer(SemanticAssetMetadata metadata) {
+        Chunk chunk = chunks.get(metadata.getRepoUrl());
+        if (chunk == null) {
+            return false;
+        }
+        chunk.add(metadata, chunkSize).ifPresent(this::send);
+        return true;
+    }
+
+    public void flush(String repoUrl) {
+        Chunk chunk = chunks.remove(repoUrl);
+        if (chunk == null) {
+            return;
+        }
+        List<SemanticAssetMetadata> pending = chunk.drain();
+        if (!pending.isEmpty()) {
+            send(pending);
+        }
+        logSemanticInfo(LoggingContext.builder()
+                .stage(HarvesterStage.PROCESS_RESOURCE)
+                .harvesterStatus(HarvesterRun.Status.RUNNING)
+                .message("Bulk indexed metadata for repo " + repoUrl)
+                .additionalInfo("documents", chunk.getTotal())
+                .build());
+    }
+
+    public void discard(String repoUrl) {
+        if (chunks.remove(repoUrl) != null) {
+            log.warn("Discarding unflushed bulk indexing for {}", repoUrl);
+        }
+    }
+
+    public void refresh() {
+        log.info("Refreshing semantic asset metadata index");
+        esOps.indexOps(SemanticAssetMetadata.class).refresh();
+    }
+
+    private void send(List<SemanticAssetMetadata> documents) {
+        List<IndexQuery> queries = documents.stream()
+                .map(metadata -> new IndexQueryBuilder()
+                        .withId(metadata.getElasticsearchId())
+                        .withObject(metadata)
+                        .build())
+                .toList();
+        log.debug("Bulk indexing {} metadata documents", queries.size());
+        try {
+            timeStoreWrite(ELASTICSEARCH, () -> esOps.withRefreshPolicy(RefreshPolicy.NONE).bulkIndex(queries, SemanticAssetMetadata.class));
+            countDocuments(ELASTICSEARCH, queries.size());
+        } catch (BulkFailureException e) {
+            Set<String> failedIds = e.getFailedDocuments().keySet();
+            List<SemanticAssetMetadata> rejected = documents.stream()
+                    .filter(metadata -> failedIds.contains(metadata.getElasticsearchId()))
+                    .toList();
+            if (rejected.isEmpty()) {
+                // the response did not tell which documents were rejected, there is nothing to retry
+                throw bulkFailure(queries.size(), e);
+            }
+            log.warn("Bulk indexing rejected {} of {} metadata documents, saving them one by one", rejected.size(), queries.size());
+            countDocuments(ELASTICSEARCH, queries.size() - rejected.size());
+            saveOneByOne(rejected);
+        } catch (Exception e) {
+            // the request itself failed (e.g. Elasticsearch unreachable or timed out): saving each document would fail too
+            throw bulkFailure(queries.size(), e);
+        }
+    }
+
+    private static SinglePathProcessingException bulkFailure(int documents, Exception e) {
+        log.error("Bulk indexing of {} metadata documents failed", documents, e);
+        LoggingContext loggingContext = LoggingContext.builder()
+                .stage(HarvesterStage.PROCESS_RESOURCE)
+                .harvesterStatus(HarvesterRun.Status.RUNNING)
+                .message(format("Cannot bulk index %d metadata documents", documents))
+                .details(e.getMessage())
+                .build();
+        if (e instanceof BulkFailureException) {
+            logSemanticError(loggingContext);
+        } else {
+            logInfrastructureError(loggingContext);
+        }
+        return new SinglePathProcessingException("Cannot save metadata", e, true);
+    }
+
+    private void saveOneByOne(List<SemanticAssetMetadata> documents) {
+        List<String> failedIris = new ArrayList<>();
+        Exception lastFailure = null;
+        for (SemanticAssetMetadata metadata : documents) {
+            try {
+                timeStoreWrite(ELASTICSEARCH, () -> esOps.withRefreshPolicy(RefreshPolicy.NONE).save(metadata));
+                countDocuments(ELASTICSEARCH, 1);
+            } catch (Exception e) {
+                log.error("Error saving metadata for {}", metadata.getIri(), e);
+                logSemanticError(LoggingContext.builder()
+                        .stage(HarvesterStage.PROCESS_RESOURCE)
+                        .harvesterStatus(HarvesterRun.Status.RUNNING)
+                        .message("Cannot index metadata for " + metadata.getIri())
+                        .details(e.getMessage())
+                        .build());
+                failedIris.add(metadata.getIri());
+                lastFailure = e;
+            }
+        }
+        if (!failedIris.isEmpty()) {
+            throw new SinglePathProcessingException(
+                    format("Cannot save metadata for %s", String.join(", ", failedIris)), lastFailure, true);
+        }
+    }
+
+    private static class Chunk {
+        private List<SemanticAssetMetadata> documents = new ArrayList<>();
+        private int total;
+
+        synchronized Optional<List<SemanticAssetMetadata>> add(SemanticAssetMetadata metadata, int chunkSize) {
+            documents.add(metadata);
+            total++;
+            if (documents.size() >= chunkSize) {
+                return Optional.of(drain());
+            }
+            return Optional.empty();
+        }
+
+        synchronized List<SemanticAssetMetadata> drain() {
+            List<SemanticAssetMetadata> drained = documents;
+            documents = new ArrayList<>();
+            return drained;
+        }
+
+        synchronized int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package it.gov.innovazione.ndc.repository;
+
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Service;
+
+/**
+ * Flags the documents of the online instance of a repository as live, so that searches
+ * filter on a single term instead of matching each repository with its current instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SemanticAssetMetadataLiveSwitcher {
+    private final ElasticsearchOperations esOps;
+
+    public long switchLive(String repoUrl, Instance instance) {
+        long updated = esOps.updateByQuery(
+                SemanticAssetMetadataQuery.getSwitchLiveQuery(repoUrl, instance),
+                esOps.getIndexCoordinatesFor(SemanticAssetMetadata.class)).getUpdated();
+        log.info("Switched live documents of repo {} to instance {} ({} documents updated)", repoUrl, instance, updated);
+        return updated;
+    }
+}
@@ -4,17 +4,25 @@ import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryVariant;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.TermsQuery;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
 
 public class SemanticAssetMetadataQuery {
+    // documents whose flag is already right are not rewritten, so switching again is cheap
+    private static final String SWITCH_LIVE_SCRIPT = "boolean live = params.instance.equals(ctx._source.instance); "
+            + "if (ctx._source.live == live) { ctx.op = 'noop' } else { ctx._source.live = live }";
+
     static BoolQuery getBoolQueryForRepo(String url, Instance instance) {
         List<Query> termsQueries = Stream.of(
                         termsQuery("repoUrl", url),
@@ -43,4 +51,24 @@ public class SemanticAssetMetadataQuery {
                         .withQuery(getBoolQueryForRepo(repoUrl, instance)._toQuery())
                         .build());
     }
+
+    static Query getLiveQuery() {
+        return TermQuery.of(t -> t.field("live").value(true))._toQuery();
+    }
+
+    /**
+     * Marks the documents of the given instance of a repository as live and all the others as not live.
+     */
+    static UpdateQuery getSwitchLiveQuery(String repoUrl, Instance instance) {
+        return UpdateQuery.builder(
+                        NativeQuery.builder()
+                                .withQuery(termsQuery("repoUrl", repoUrl)._toQuery())
+                                .build())
+                .withScriptType(ScriptType.INLINE)
+                .withLang("painless")
+                .withScript(SWITCH_LIVE_SCRIPT)
+                .withParams(Map.of("instance", instance.name()))
+                .withRefresh(true)
+                .build();
+    }
 }
@@ -10,11 +10,10 @@ import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
 import it.gov.innovazione.ndc.search.MltProperties;
-import it.gov.innovazione.ndc.service.InstanceManager;
-import it.gov.innovazione.ndc.service.InstanceManager.RepositoryInstance;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
@@ -25,6 +24,8 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,9 +42,13 @@ import static org.springframework.data.elasticsearch.core.SearchHitSupport.searc
 @RequiredArgsConstructor
 @Slf4j
 public class SemanticAssetMetadataRepository {
+    // only the documents of the online instance of each repository are flagged as live
+    private static final Query LIVE_DOCUMENTS = SemanticAssetMetadataQuery.getLiveQuery();
+    private static final int IRI_LOOKUP_CHUNK_SIZE = 500;
+
     private final ElasticsearchOperations esOps;
     private final SemanticAssetMetadataDeleter semanticAssetMetadataDeleter;
-    private final InstanceManager instanceManager;
+    private final SemanticAssetMetadataBulkIndexer bulkIndexer;
     private final MltProperties mltProperties;
 
     public SearchPage<SemanticAssetMetadata> search(String queryPattern, Set<String> types,
@@ -66,9 +71,7 @@ public class SemanticAssetMetadataRepository {
                 .map(QueryVariant::_toQuery)
                 .forEach(queries::add);
 
-        getConditionForInstances()
-                .map(QueryVariant::_toQuery)
-                .ifPresent(queries::add);
+        queries.add(LIVE_DOCUMENTS);
 
         NativeQuery query = NativeQuery.builder()
                 .withQuery(BoolQuery.of(bq -> bq.must(queries))._toQuery())
@@ -80,23 +83,6 @@ public class SemanticAssetMetadataRepository {
         return searchPageFor(esOps.search(query, SemanticAssetMetadata.class), pageable);
     }
 
-    private Optional<BoolQuery> getConditionForInstances() {
-        List<RepositoryInstance> currentRepoInstances = instanceManager.getCurrentInstances();
-
-        List<Query> repoInstanceQueries = currentRepoInstances.stream()
-                .map(repositoryInstance -> SemanticAssetMetadataQuery.getBoolQueryForRepo(
-                        repositoryInstance.getUrl(),
-                        repositoryInstance.getInstance()))
-                .map(QueryVariant::_toQuery)
-                .toList();
-
-        if (repoInstanceQueries.isEmpty()) {
-            return Optional.empty();
-        }
-
-        return Optional.of(BoolQuery.of(bq -> bq.should(repoInstanceQueries)));
-    }
-
     private List<TermsQuery> getQueriesForParams(Set<String> types, Set<String> themes, Set<String> rightsHolder) {
         return Map.of("type", types, "themes", themes, "agencyId", rightsHolder).entrySet().stream()
                 .filter(e -> nonNull(e.getValue()))
@@ -108,9 +94,7 @@ public class SemanticAssetMetadataRepository {
     public Optional<SemanticAssetMetadata> findByIri(String iri) {
         List<Query> queries = new ArrayList<>();
         queries.add(termQuery("iri", iri)._toQuery());
-        getConditionForInstances()
-                .map(QueryVariant::_toQuery)
-                .ifPresent(queries::add);
+        queries.add(LIVE_DOCUMENTS);
         NativeQuery query = NativeQuery.builder()
                 .withQuery(BoolQuery.of(bq -> bq.must(queries))._toQuery())
                 .build();
@@ -128,9 +112,24 @@ public class SemanticAssetMetadataRepository {
     }
 
     public void save(SemanticAssetMetadata metadata) {
+        if (bulkIndexer.offer(metadata)) {
+            return;
+        }
         esOps.save(metadata);
     }
 
+    public void beginBulkIndexing(String repoUrl) {
+        bulkIndexer.begin(repoUrl);
+    }
+
+    public void flushBulkIndexing(String repoUrl) {
+        bulkIndexer.flush(repoUrl);
+    }
+
+    public void discardBulkIndexing(String repoUrl) {
+        bulkIndexer.discard(repoUrl);
+    }
+
     public List<SemanticAssetMetadata> findVocabulariesForRepoUrl(String repoUrl, Instance instance) {
         BoolQuery boolQuery = BoolQuery.of(
                 bq -> bq.must(
@@ -146,6 +145,33 @@ public class SemanticAssetMetadataRepository {
         return hits.get().map(SearchHit::getContent).collect(Collectors.toList());
     }
 
+    /**
+     * Returns the documents of the given instance of a repository with one of the given IRIs.
+     */
+    public List<SemanticAssetMetadata> findByRepoUrlAndIris(String repoUrl, Instance instance, Collection<String> iris) {
+        List<String> allIris = List.copyOf(new HashSet<>(iris));
+        List<SemanticAssetMetadata> found = new ArrayList<>();
+        for (int from = 0; from < allIris.size(); from += IRI_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = allIris.subList(from, Math.min(from + IRI_LOOKUP_CHUNK_SIZE, allIris.size()));
+            BoolQuery boolQuery = BoolQuery.of(
+                    bq -> bq.must(
+                            List.of(
+                                    termQuery("repoUrl", repoUrl)._toQuery(),
+                                    SemanticAssetMetadataQuery.termsQuery("instance", instance.name())._toQuery(),
+                                    SemanticAssetMetadataQuery.termsQuery("iri", Set.copyOf(chunk))._toQuery())));
+
+            NativeQuery query = NativeQuery.builder()
+                    .withQuery(boolQuery._toQuery())
+                    .withPageable(PageRequest.of(0, chunk.size()))
+                    .build();
+
+            esOps.search(query, SemanticAssetMetadata.class).get()
+                    .map(SearchHit::getContent)
+                    .forEach(found::add);
+        }
+        return found;
+    }
+
     public SearchPage<SemanticAssetMetadata> moreLikeThis(
             String documentId,
             String assetIri,
@@ -165,13 +191,11 @@ public class SemanticAssetMetadataRepository {
                 .minimumShouldMatch(minimumShouldMatch)
         )._toQuery();
 
-        Optional<BoolQuery> instances = getConditionForInstances();
-
         Query excludeSelf = termQuery("iri", assetIri)._toQuery();
 
         List<Query> mustQueries = new ArrayList<>();
         mustQueries.add(mlt);
-        instances.map(QueryVariant::_toQuery).ifPresent(mustQueries::add);
+        mustQueries.add(LIVE_DOCUMENTS);
 
         BoolQuery bool = BoolQuery.of(b -> b
                 .must(mustQueries)
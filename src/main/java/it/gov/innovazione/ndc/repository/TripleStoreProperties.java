@@ -30,4 +30,12 @@ public class TripleStoreProperties {
 
     private String username;
     private String password;
+
+    /**
+     * Maximum number of triples buffered for a graph while a write batch is open,
+     * before they are sent to the Graph Store endpoint in a single request.
+     * Zero or negative values disable the intermediate loads: the graph is sent only on flush.
+     */
+    @Builder.Default
+    private long writeBatchMaxTriples = 200_000;
 }
@@ -7,6 +7,7 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QueryFactory;
@@ -16,13 +17,21 @@ import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdfconnection.RDFConnection;
+import org.apache.jena.riot.out.NodeFmtLib;
 import org.apache.jena.update.UpdateExecution;
 import org.springframework.stereotype.Repository;
 
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.VIRTUOSO;
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.countTriples;
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.timeStoreWrite;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logInfrastructureError;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticError;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
@@ -35,11 +44,18 @@ public class TripleStoreRepository {
     public static final String TMP_GRAPH_PREFIX = "tmp";
     public static final String ONLINE_GRAPH_PREFIX = "";
     private static final String RENAME_GRAPH = "DEFINE sql:log-enable 3%nMOVE SILENT GRAPH <%s> to <%s>%n";
+    private static final String COPY_GRAPH = "DEFINE sql:log-enable 3%nCOPY SILENT GRAPH <%s> TO <%s>%n";
+    private static final String LOG_ENABLE_3 = "DEFINE sql:log-enable 3\n";
+    private static final int DELETE_DATA_MAX_TRIPLES = 1000;
+    private static final int DELETE_WHERE_MAX_PATTERNS = 50;
 
     private final VirtuosoClient virtuosoClient;
+    private final TripleStoreProperties properties;
+    private final Map<String, WriteBuffer> writeBuffers = new ConcurrentHashMap<>();
 
-    public TripleStoreRepository(VirtuosoClient virtuosoClient) {
+    public TripleStoreRepository(VirtuosoClient virtuosoClient, TripleStoreProperties properties) {
         this.virtuosoClient = virtuosoClient;
+        this.properties = properties;
     }
 
     private static String getCommandAndLog(String command) {
@@ -120,11 +136,89 @@ public class TripleStoreRepository {
         }
     }
 
-    public void save(String graphName, Model model) {
-        log.info("Saving model to Virtuoso");
-        try (RDFConnection connection = virtuosoClient.getConnection()) {
-            saveWithConnection(reworkRepoUrlIfNecessary(graphName, TMP_GRAPH_PREFIX), model, connection);
+    /**
+     * Saves the model read from {@code path} into the temporary graph of {@code graphName}; while a batch
+     * is open the model is buffered and a failing load is reported against every path of the batch.
+     */
+    public void save(String graphName, Model model, String path) {
+        String tmpGraphName = reworkRepoUrlIfNecessary(graphName, TMP_GRAPH_PREFIX);
+        WriteBuffer writeBuffer = writeBuffers.get(tmpGraphName);
+        if (writeBuffer != null) {
+            log.debug("Buffering {} triples of {} for {}", model.size(), path, tmpGraphName);
+            writeBuffer.add(model, path, properties.getWriteBatchMaxTriples())
+                    .ifPresent(full -> loadBatch(tmpGraphName, full));
+            return;
+        }
+        load(tmpGraphName, model);
+    }
+
+    /**
+     * Starts buffering the models saved for {@code repoUrl}: until {@link #flushBatch(String)} is called
+     * they are accumulated in memory and sent to Virtuoso in as few Graph Store requests as possible.
+     */
+    public void beginBatch(String repoUrl) {
+        String tmpGraphName = reworkRepoUrlIfNecessary(repoUrl, TMP_GRAPH_PREFIX);
+        log.info("Starting write batch for {}", tmpGraphName);
+        writeBuffers.put(tmpGraphName, new WriteBuffer());
+    }
+
+    public void flushBatch(String repoUrl) {
+        String tmpGraphName = reworkRepoUrlIfNecessary(repoUrl, TMP_GRAPH_PREFIX);
+        WriteBuffer writeBuffer = writeBuffers.remove(tmpGraphName);
+        if (writeBuffer == null) {
+            return;
+        }
+        Batch pending = writeBuffer.drain();
+        logSemanticInfo(LoggingContext.builder()
+                .stage(HarvesterStage.PROCESS_RESOURCE)
+                .message("Flushing buffered RDF content for repo " + repoUrl)
+                .additionalInfo("triples", pending.model().size())
+                .additionalInfo("loads", writeBuffer.getLoads() + (pending.model().isEmpty() ? 0 : 1))
+                .build());
+        if (!pending.model().isEmpty()) {
+            loadBatch(tmpGraphName, pending);
+        }
+    }
+
+    public void discardBatch(String repoUrl) {
+        WriteBuffer writeBuffer = writeBuffers.remove(reworkRepoUrlIfNecessary(repoUrl, TMP_GRAPH_PREFIX));
+        if (writeBuffer != null) {
+            log.warn("Discarding unflushed write batch for {}", repoUrl);
+        }
+    }
+
+    private void loadBatch(String tmpGraphName, Batch batch) {
+        try {
+            load(tmpGraphName, batch.model());
+        } catch (TripleStoreRepositoryException e) {
+            boolean isHttpException = e.getCause() instanceof HttpException;
+            for (String path : batch.paths()) {
+                LoggingContext loggingContext = LoggingContext.builder()
+                        .stage(HarvesterStage.PROCESS_RESOURCE)
+                        .message("Could not save buffered RDF content for " + path)
+                        .details(e.getMessage())
+                        .additionalInfo("path", path)
+                        .additionalInfo("batchPaths", batch.paths().size())
+                        .build();
+                if (isHttpException) {
+                    logInfrastructureError(loggingContext);
+                } else {
+                    logSemanticError(loggingContext);
+                }
+            }
+            throw new TripleStoreRepositoryException(
+                    format("Could not save model to '%s' for paths %s", tmpGraphName, batch.paths()), e);
         }
+    }
+
+    private void load(String tmpGraphName, Model model) {
+        log.info("Saving model to Virtuoso");
+        timeStoreWrite(VIRTUOSO, () -> {
+            try (RDFConnection connection = virtuosoClient.getConnection()) {
+                saveWithConnection(tmpGraphName, model, connection);
+            }
+        });
+        countTriples(VIRTUOSO, model.size());
         log.info("Model saved to Virtuoso");
     }
 
@@ -150,6 +244,64 @@ public class TripleStoreRepository {
         }
     }
 
+    /**
+     * Copies the online graph of a repository into its temporary graph, server side.
+     */
+    public void copyOnlineGraphToTmp(String repoUrl) {
+        String tmpGraphName = reworkRepoUrlIfNecessary(repoUrl, TMP_GRAPH_PREFIX);
+        try {
+            log.info("Copying {} into {}", repoUrl, tmpGraphName);
+            UpdateExecution
+                    .service(virtuosoClient.getSparqlEndpoint())
+                    .updateString(getCommandAndLog(format(COPY_GRAPH, repoUrl, tmpGraphName)))
+                    .execute();
+            log.info("Copied {} into {}", repoUrl, tmpGraphName);
+        } catch (Exception e) {
+            log.error(format("Could not copy %s into %s", repoUrl, tmpGraphName), e);
+            throw new TripleStoreRepositoryException(format("Could not copy - '%s' -> '%s'", repoUrl, tmpGraphName), e);
+        }
+    }
+
+    /**
+     * Deletes from the temporary graph of a repository the given ground triples and every match of
+     * the given triple patterns, each one applied with its own DELETE WHERE.
+     */
+    public void deleteFromTmpGraph(String repoUrl, List<Triple> triples, List<String> patterns) {
+        String tmpGraphName = reworkRepoUrlIfNecessary(repoUrl, TMP_GRAPH_PREFIX);
+        String graph = "<" + tmpGraphName + ">";
+        try {
+            for (int from = 0; from < triples.size(); from += DELETE_DATA_MAX_TRIPLES) {
+                String data = triples.subList(from, Math.min(from + DELETE_DATA_MAX_TRIPLES, triples.size())).stream()
+                        .map(TripleStoreRepository::toNTriple)
+                        .collect(Collectors.joining("\n"));
+                timeStoreWrite(VIRTUOSO, () -> executeUpdate(LOG_ENABLE_3 + "DELETE DATA { GRAPH " + graph + " {\n" + data + "\n} }"));
+            }
+            for (int from = 0; from < patterns.size(); from += DELETE_WHERE_MAX_PATTERNS) {
+                String deletes = patterns.subList(from, Math.min(from + DELETE_WHERE_MAX_PATTERNS, patterns.size())).stream()
+                        .map(pattern -> "DELETE WHERE { GRAPH " + graph + " { " + pattern + " } }")
+                        .collect(Collectors.joining(" ;\n"));
+                timeStoreWrite(VIRTUOSO, () -> executeUpdate(LOG_ENABLE_3 + deletes));
+            }
+            log.info("Deleted {} triples and {} patterns from {}", triples.size(), patterns.size(), tmpGraphName);
+        } catch (Exception e) {
+            log.error(format("Could not delete stale triples from %s", tmpGraphName), e);
+            throw new TripleStoreRepositoryException(format("Could not delete stale triples from '%s'", tmpGraphName), e);
+        }
+    }
+
+    private void executeUpdate(String command) {
+        UpdateExecution
+                .service(virtuosoClient.getSparqlEndpoint())
+                .updateString(command)
+                .execute();
+    }
+
+    private static String toNTriple(Triple triple) {
+        return NodeFmtLib.strNT(triple.getSubject())
+                + " " + NodeFmtLib.strNT(triple.getPredicate())
+                + " " + NodeFmtLib.strNT(triple.getObject()) + " .";
+    }
+
     public QueryExecution select(SelectBuilder selectBuilder) {
         try (RDFConnection connection = virtuosoClient.getConnection()) {
             Query query = selectBuilder.build();
@@ -174,6 +326,19 @@ public class TripleStoreRepository {
         }
     }
 
+    /**
+     * Reads a whole named graph through the Graph Store protocol, which unlike a CONSTRUCT is not
+     * truncated by the ResultSetMaxRows limit of the SPARQL endpoint.
+     */
+    public Model fetchGraph(String graphIri) {
+        try (RDFConnection connection = virtuosoClient.getConnection()) {
+            return connection.fetch(graphIri);
+        } catch (Exception e) {
+            log.error("Could not fetch graph {}", graphIri, e);
+            throw new TripleStoreRepositoryException(format("Could not fetch graph '%s'", graphIri), e);
+        }
+    }
+
     public List<String> selectStrings(String sparqlQuery, String varName) {
         try (RDFConnection connection = virtuosoClient.getConnection()) {
             Query query = QueryFactory.create(sparqlQuery);
@@ -195,6 +360,18 @@ public class TripleStoreRepository {
         }
     }
 
+    public long countTriples(String graphIri) {
+        String sparqlQuery = format("SELECT (COUNT(*) AS ?triples) WHERE { GRAPH <%s> { ?s ?p ?o } }", graphIri);
+        try (RDFConnection connection = virtuosoClient.getConnection();
+             QueryExecution qe = connection.query(QueryFactory.create(sparqlQuery))) {
+            ResultSet rs = qe.execSelect();
+            return rs.hasNext() ? rs.next().getLiteral("triples").getLong() : 0;
+        } catch (Exception e) {
+            log.error("Could not count triples in graph {}", graphIri, e);
+            throw new TripleStoreRepositoryException(format("Could not count triples in graph '%s'", graphIri), e);
+        }
+    }
+
     public Model emptyModel() {
         return ModelFactory.createDefaultModel();
     }
@@ -208,4 +385,34 @@ public class TripleStoreRepository {
             log.error(format("Could not clear temp graph for %s", repoUrl), e);
         }
     }
+
+    private record Batch(Model model, List<String> paths) {
+    }
+
+    private static class WriteBuffer {
+        private Model model = ModelFactory.createDefaultModel();
+        private List<String> paths = new ArrayList<>();
+        private int loads;
+
+        synchronized Optional<Batch> add(Model toAdd, String path, long maxTriples) {
+            model.add(toAdd);
+            paths.add(path);
+            if (maxTriples > 0 && model.size() >= maxTriples) {
+                loads++;
+                return Optional.of(drain());
+            }
+            return Optional.empty();
+        }
+
+        synchronized Batch drain() {
+            Batch drained = new Batch(model, List.copyOf(paths));
+            model = ModelFactory.createDefaultModel();
+            paths = new ArrayList<>();
+            return drained;
+        }
+
+        synchronized int getLoads() {
+            return loads;
+        }
+    }
 }
@@ -0,0 +1,560 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.controller.PercentileStats;
+import it.gov.innovazione.ndc.controller.date.DateParameter;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.model.harvester.SemanticContentStats;
+import it.gov.innovazione.ndc.service.DimensionalItem.CountDataDimensionalItem;
+import it.gov.innovazione.ndc.service.DimensionalItem.Filter;
+import it.gov.innovazione.ndc.service.DimensionalItem.TimeDataDimensionalItem;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import static java.util.Comparator.comparing;
+
+/**
+ * Column oriented, dictionary encoded copy of the harvester runs and of the semantic content stats
+ * shown by the dashboard.
+ *
+ * <p>Runs are sorted by start time and the stats are grouped by run, so each aggregate is computed
+ * with a single sweep over the run timeline. Every dimension is an array of codes into the
+ * dictionary of its values, and filters become bitsets of the accepted codes.
+ *
+ * <p>Run durations are also summarized in advance into one {@link PercentileStats} sketch per day
+ * and combination of run dimensions, so duration aggregates merge those sketches instead of
+ * visiting every run.
+ *
+ * <p>A store is never modified once built: {@link #withRun} returns a new one with a finished run
+ * appended, copying the columns and sharing the dictionaries and sketches that did not change.
+ */
+public class DashboardColumnStore {
+    // above this number of dimension combinations counters are kept in a map instead of an array
+    private static final int DENSE_COUNTS_LIMIT = 4096;
+
+    private final HarvesterRun[] runs;
+    private final long[] runStartedAt;
+    private final long[] runDurationSeconds;
+    private final BitSet runsWithDates;
+    private final Set<String> activeRepoIds;
+    private final Column runRepositorySlots;
+    private final Map<TimeDataDimensionalItem, Column> runColumns = new EnumMap<>(TimeDataDimensionalItem.class);
+
+    private final int durationPrecision;
+    private final long[] dayStartedAt;
+    private final int[] dayCellOffsets;
+    private final int[] cellRun;
+    private final PercentileStats[] cellDurations;
+
+    private final SemanticContentStats[] stats;
+    private final int[] runStatsOffsets;
+    private final int[] statsByRun;
+    private final Map<CountDataDimensionalItem, Column> statsColumns = new EnumMap<>(CountDataDimensionalItem.class);
+
+    public DashboardColumnStore(List<HarvesterRun> allRuns, List<SemanticContentStats> allStats, Map<String, Repository> activeRepoById) {
+        this(allRuns, allStats, activeRepoById, PercentileStats.DEFAULT_PRECISION);
+    }
+
+    public DashboardColumnStore(List<HarvesterRun> allRuns, List<SemanticContentStats> allStats, Map<String, Repository> activeRepoById,
+                                int durationPrecision) {
+        this.durationPrecision = durationPrecision;
+        runs = allRuns.stream()
+                .filter(run -> Objects.nonNull(run.getStartedAt()))
+                .sorted(comparing(HarvesterRun::getStartedAt))
+                .toArray(HarvesterRun[]::new);
+        runStartedAt = new long[runs.length];
+        runDurationSeconds = new long[runs.length];
+        runsWithDates = new BitSet(runs.length);
+        activeRepoIds = new HashSet<>(activeRepoById.keySet());
+        Map<String, Integer> runIndexById = new HashMap<>();
+        for (int run = 0; run < runs.length; run++) {
+            HarvesterRun harvesterRun = runs[run];
+            runStartedAt[run] = epochNanos(harvesterRun.getStartedAt());
+            if (harvesterRun.hasDatesSet()) {
+                runsWithDates.set(run);
+                runDurationSeconds[run] = Duration.between(harvesterRun.getStartedAt(), harvesterRun.getEndedAt()).getSeconds();
+            }
+            runIndexById.put(harvesterRun.getId(), run);
+        }
+        runRepositorySlots = Column.of(runs.length, this::repositorySlotOf);
+        for (TimeDataDimensionalItem item : TimeDataDimensionalItem.values()) {
+            runColumns.put(item, Column.of(runs.length, run -> String.valueOf(item.extract(runs[run]))));
+        }
+
+        // runs are sorted, so the cells of each day are built before moving to the next one
+        List<Long> days = new ArrayList<>();
+        List<Integer> dayOffsets = new ArrayList<>();
+        List<Integer> cellRuns = new ArrayList<>();
+        List<PercentileStats> cells = new ArrayList<>();
+        Map<List<Integer>, PercentileStats> cellsOfDay = new HashMap<>();
+        LocalDate day = null;
+        for (int run = runsWithDates.nextSetBit(0); run >= 0; run = runsWithDates.nextSetBit(run + 1)) {
+            LocalDate runDay = LocalDate.ofInstant(runs[run].getStartedAt(), ZoneId.systemDefault());
+            if (!runDay.equals(day)) {
+                day = runDay;
+                days.add(epochNanos(runDay));
+                dayOffsets.add(cells.size());
+                cellsOfDay.clear();
+            }
+            int cellRunIndex = run;
+            List<Integer> dimensionCodes = runColumns.values().stream().map(column -> column.codes()[cellRunIndex]).toList();
+            PercentileStats cell = cellsOfDay.get(dimensionCodes);
+            if (cell == null) {
+                cell = new PercentileStats(durationPrecision);
+                cellsOfDay.put(dimensionCodes, cell);
+                cellRuns.add(run);
+                cells.add(cell);
+            }
+            cell.add(runDurationSeconds[run]);
+        }
+        dayOffsets.add(cells.size());
+        dayStartedAt = days.stream().mapToLong(Long::longValue).toArray();
+        dayCellOffsets = dayOffsets.stream().mapToInt(Integer::intValue).toArray();
+        cellRun = cellRuns.stream().mapToInt(Integer::intValue).toArray();
+        cellDurations = cells.toArray(PercentileStats[]::new);
+
+        stats = allStats.toArray(SemanticContentStats[]::new);
+        int[] statsRun = new int[stats.length];
+        runStatsOffsets = new int[runs.length + 1];
+        for (int stat = 0; stat < stats.length; stat++) {
+            statsRun[stat] = runIndexById.getOrDefault(stats[stat].getHarvesterRunId(), -1);
+            if (statsRun[stat] >= 0) {
+                runStatsOffsets[statsRun[stat] + 1]++;
+            }
+        }
+        for (int run = 0; run < runs.length; run++) {
+            runStatsOffsets[run + 1] += runStatsOffsets[run];
+        }
+        statsByRun = new int[runStatsOffsets[runs.length]];
+        int[] nextPosition = Arrays.copyOf(runStatsOffsets, runs.length);
+        for (int stat = 0; stat < stats.length; stat++) {
+            if (statsRun[stat] >= 0) {
+                statsByRun[nextPosition[statsRun[stat]]++] = stat;
+            }
+        }
+        for (CountDataDimensionalItem item : CountDataDimensionalItem.values()) {
+            statsColumns.put(item, Column.of(stats.length, stat -> statsValue(item, stat, statsRun[stat])));
+        }
+    }
+
+    private DashboardColumnStore(DashboardColumnStore base, HarvesterRun run, List<SemanticContentStats> runStats, boolean replacesLast) {
+        durationPrecision = base.durationPrecision;
+        activeRepoIds = base.activeRepoIds;
+        int row = replacesLast ? base.runs.length - 1 : base.runs.length;
+        int length = row + 1;
+        runs = Arrays.copyOf(base.runs, length);
+        runs[row] = run;
+        runStartedAt = Arrays.copyOf(base.runStartedAt, length);
+        runStartedAt[row] = epochNanos(run.getStartedAt());
+        runDurationSeconds = Arrays.copyOf(base.runDurationSeconds, length);
+        runsWithDates = (BitSet) base.runsWithDates.clone();
+        runsWithDates.set(row, run.hasDatesSet());
+        runDurationSeconds[row] = run.hasDatesSet() ? Duration.between(run.getStartedAt(), run.getEndedAt()).getSeconds() : 0;
+        runRepositorySlots = base.runRepositorySlots.extended(length, row, this::repositorySlotOf);
+        for (TimeDataDimensionalItem item : TimeDataDimensionalItem.values()) {
+            runColumns.put(item, base.runColumns.get(item).extended(length, row, r -> String.valueOf(item.extract(runs[r]))));
+        }
+
+        long[] days = base.dayStartedAt;
+        int[] dayOffsets = base.dayCellOffsets;
+        int[] cellRuns = base.cellRun;
+        PercentileStats[] cells = base.cellDurations;
+        if (run.hasDatesSet()) {
+            long day = epochNanos(LocalDate.ofInstant(run.getStartedAt(), ZoneId.systemDefault()));
+            boolean newDay = days.length == 0 || days[days.length - 1] != day;
+            if (newDay) {
+                days = Arrays.copyOf(days, days.length + 1);
+                days[days.length - 1] = day;
+            }
+            dayOffsets = Arrays.copyOf(dayOffsets, days.length + 1);
+            if (newDay) {
+                dayOffsets[days.length] = cells.length;
+            }
+            int cell = cellOf(row, cellRuns, dayOffsets[days.length - 1], dayOffsets[days.length]);
+            if (cell >= 0) {
+                // the sketch is shared with the base store, so it is replaced by an updated copy
+                cells = cells.clone();
+                cells[cell] = new PercentileStats(durationPrecision).merge(cells[cell]).add(runDurationSeconds[row]);
+            } else {
+                cellRuns = Arrays.copyOf(cellRuns, cellRuns.length + 1);
+                cellRuns[cellRuns.length - 1] = row;
+                cells = Arrays.copyOf(cells, cells.length + 1);
+                cells[cells.length - 1] = new PercentileStats(durationPrecision).add(runDurationSeconds[row]);
+                dayOffsets[days.length] = cells.length;
+            }
+        }
+        dayStartedAt = days;
+        dayCellOffsets = dayOffsets;
+        cellRun = cellRuns;
+        cellDurations = cells;
+
+        int firstStat = base.stats.length;
+        stats = Arrays.copyOf(base.stats, firstStat + runStats.size());
+        statsByRun = Arrays.copyOf(base.statsByRun, base.statsByRun.length + runStats.size());
+        for (int i = 0; i < runStats.size(); i++) {
+            stats[firstStat + i] = runStats.get(i);
+            statsByRun[base.statsByRun.length + i] = firstStat + i;
+        }
+        runStatsOffsets = Arrays.copyOf(base.runStatsOffsets, length + 1);
+        runStatsOffsets[length] = runStatsOffsets[row] + runStats.size();
+        for (CountDataDimensionalItem item : CountDataDimensionalItem.values()) {
+            statsColumns.put(item, base.statsColumns.get(item).extended(stats.length, firstStat, stat -> statsValue(item, stat, row)));
+        }
+    }
+
+    /**
+     * Returns a store with a finished run and its stats appended, or empty when the run cannot be
+     * appended and the store has to be built again. A run is appended when it started after all
+     * the others, or when it replaces the row it had while running and that row is the last one;
+     * so a run finishing after a later one started, or a change of the active repositories, needs
+     * a new store.
+     *
+     * @param previousRow the row the run had in this store, if any
+     */
+    public Optional<DashboardColumnStore> withRun(HarvesterRun run, List<SemanticContentStats> runStats, HarvesterRun previousRow,
+                                                  Map<String, Repository> activeRepoById) {
+        if (run.getStartedAt() == null || !activeRepoIds.equals(activeRepoById.keySet())) {
+            return Optional.empty();
+        }
+        int last = runs.length - 1;
+        long startedAt = epochNanos(run.getStartedAt());
+        boolean replacesLast = previousRow != null && previousRow.getStartedAt() != null;
+        if (replacesLast) {
+            boolean replaceable = last >= 0
+                    && runs[last].getId().equals(run.getId())
+                    && !runsWithDates.get(last)
+                    && runStatsOffsets[last + 1] == runStatsOffsets[last]
+                    && (last == 0 || runStartedAt[last - 1] <= startedAt);
+            if (!replaceable) {
+                return Optional.empty();
+            }
+        } else if (last >= 0 && runStartedAt[last] > startedAt) {
+            return Optional.empty();
+        }
+        return Optional.of(new DashboardColumnStore(this, run, runStats, replacesLast));
+    }
+
+    // the latest run is picked per active repository, runs of repositories no longer active share a single slot
+    private String repositorySlotOf(int run) {
+        String repositoryId = runs[run].getRepositoryId();
+        return activeRepoIds.contains(repositoryId) ? repositoryId : null;
+    }
+
+    /**
+     * Returns the cell among {@code [from, to)} holding runs with the same dimension values as the
+     * given run, or -1.
+     */
+    private int cellOf(int run, int[] cellRuns, int from, int to) {
+        for (int cell = from; cell < to; cell++) {
+            int cellRunIndex = cellRuns[cell];
+            if (runColumns.values().stream().allMatch(column -> column.codes()[cellRunIndex] == column.codes()[run])) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    private String statsValue(CountDataDimensionalItem item, int stat, int run) {
+        if (item == CountDataDimensionalItem.REPOSITORY_URL) {
+            // the run is taken from all the runs, the one attached to the stats is set only for successful runs
+            return run < 0 ? null : String.valueOf(runs[run].getRepositoryUrl());
+        }
+        if (item == CountDataDimensionalItem.STATUS && Objects.isNull(stats[stat].getStatus())) {
+            return null;
+        }
+        return String.valueOf(item.extract(stats[stat]));
+    }
+
+    /**
+     * Counts, for each date, the stats of the latest run of each repository started before the next date.
+     */
+    public Map<LocalDate, Map<List<String>, Long>> countLatestStats(
+            DateParameter dateParameter,
+            List<CountDataDimensionalItem> dimensions,
+            List<Filter<SemanticContentStats>> filters) {
+        IntPredicate accepted = accepting(filters, statsColumns, stats);
+        Key key = new Key(dimensions.stream().map(statsColumns::get).toList());
+        Counts counts = new Counts(key.cardinality());
+        int[] runRepositorySlot = runRepositorySlots.codes();
+        int[] latestRunBySlot = new int[runRepositorySlots.dictionary().size()];
+        Arrays.fill(latestRunBySlot, -1);
+        int nextRun = 0;
+
+        Map<LocalDate, Map<List<String>, Long>> countsByDate = new LinkedHashMap<>();
+        for (LocalDate date : dateParameter.getDates()) {
+            long end = epochNanos(dateParameter.getDateIncrement().apply(date));
+            while (nextRun < runs.length && runStartedAt[nextRun] < end) {
+                latestRunBySlot[runRepositorySlot[nextRun]] = nextRun;
+                nextRun++;
+            }
+            for (int run : latestRunBySlot) {
+                if (run < 0) {
+                    continue;
+                }
+                for (int i = runStatsOffsets[run]; i < runStatsOffsets[run + 1]; i++) {
+                    int stat = statsByRun[i];
+                    if (accepted.test(stat)) {
+                        counts.increment(key.of(stat));
+                    }
+                }
+            }
+            countsByDate.put(date, counts.drain(key));
+        }
+        return countsByDate;
+    }
+
+    /**
+     * Summarizes the durations of the runs started in each date interval; runs started after the
+     * last date fall in its interval. Each cell of the daily sketches holds runs with the same
+     * dimension values, so its first run stands for all of them when filtering and grouping.
+     */
+    public Map<LocalDate, Map<List<String>, PercentileStats>> summarizeRunDurations(
+            DateParameter dateParameter,
+            List<TimeDataDimensionalItem> dimensions,
+            List<Filter<HarvesterRun>> filters) {
+        List<LocalDate> dates = dateParameter.getDates();
+        long[] starts = dates.stream().mapToLong(DashboardColumnStore::epochNanos).toArray();
+        IntPredicate accepted = accepting(filters, runColumns, runs);
+        Key key = new Key(dimensions.stream().map(runColumns::get).toList());
+        List<Map<Long, PercentileStats>> durationsByDate = new ArrayList<>();
+        dates.forEach(date -> durationsByDate.add(new HashMap<>()));
+
+        int date = -1;
+        for (int day = 0; day < dayStartedAt.length; day++) {
+            while (date + 1 < starts.length && dayStartedAt[day] >= starts[date + 1]) {
+                date++;
+            }
+            if (date < 0) {
+                continue;
+            }
+            Map<Long, PercentileStats> durations = durationsByDate.get(date);
+            for (int cell = dayCellOffsets[day]; cell < dayCellOffsets[day + 1]; cell++) {
+                if (accepted.test(cellRun[cell])) {
+                    durations.computeIfAbsent(key.of(cellRun[cell]), k -> new PercentileStats(durationPrecision))
+                            .merge(cellDurations[cell]);
+                }
+            }
+        }
+
+        Map<LocalDate, Map<List<String>, PercentileStats>> statsByDate = new LinkedHashMap<>();
+        for (int i = 0; i < dates.size(); i++) {
+            Map<List<String>, PercentileStats> byDimensions = new HashMap<>();
+            durationsByDate.get(i).forEach((dimensionsKey, durations) -> byDimensions.put(key.decode(dimensionsKey), durations));
+            statsByDate.put(dates.get(i), byDimensions);
+        }
+        return statsByDate;
+    }
+
+    /**
+     * Returns the stats of the runs started strictly between the two instants, sorted by run start.
+     */
+    public List<SemanticContentStats> getStatsOfRunsStartedBetween(Instant from, Instant to, List<Filter<SemanticContentStats>> filters) {
+        IntPredicate accepted = accepting(filters, statsColumns, stats);
+        long fromNanos = epochNanos(from);
+        long toNanos = epochNanos(to);
+        List<SemanticContentStats> result = new ArrayList<>();
+        for (int run = firstRunStartedAfter(fromNanos); run < runs.length && runStartedAt[run] < toNanos; run++) {
+            for (int i = runStatsOffsets[run]; i < runStatsOffsets[run + 1]; i++) {
+                if (accepted.test(statsByRun[i])) {
+                    result.add(stats[statsByRun[i]]);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int firstRunStartedAfter(long nanos) {
+        int low = 0;
+        int high = runs.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (runStartedAt[middle] <= nanos) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static <T> IntPredicate accepting(List<Filter<T>> filters, Map<?, Column> columns, T[] rows) {
+        IntPredicate accepted = row -> true;
+        for (Filter<T> filter : filters) {
+            Column column = columns.get(filter.getDimensionalItem());
+            if (column == null) {
+                accepted = accepted.and(row -> filter.test(rows[row]));
+            } else {
+                BitSet acceptedCodes = column.dictionary().matching(filter.getValues());
+                int[] codes = column.codes();
+                accepted = accepted.and(row -> acceptedCodes.get(codes[row]));
+            }
+        }
+        return accepted;
+    }
+
+    private static long epochNanos(LocalDate localDate) {
+        return epochNanos(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static long epochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private record Column(int[] codes, Dictionary dictionary) {
+
+        static Column of(int rows, IntFunction<String> value) {
+            return new Column(new int[0], new Dictionary()).extended(rows, 0, value);
+        }
+
+        /**
+         * Returns a column of {@code rows} rows, with the codes of this one up to {@code from}.
+         * The dictionary is shared until a new value is found, then it is copied.
+         */
+        Column extended(int rows, int from, IntFunction<String> value) {
+            int[] extendedCodes = Arrays.copyOf(codes, rows);
+            Dictionary extendedDictionary = dictionary;
+            for (int row = from; row < rows; row++) {
+                String rowValue = value.apply(row);
+                if (extendedDictionary == dictionary && !dictionary.contains(rowValue)) {
+                    extendedDictionary = dictionary.copy();
+                }
+                extendedCodes[row] = extendedDictionary.encode(rowValue);
+            }
+            return new Column(extendedCodes, extendedDictionary);
+        }
+    }
+
+    private static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        boolean contains(String value) {
+            return codes.containsKey(value);
+        }
+
+        Dictionary copy() {
+            Dictionary copy = new Dictionary();
+            copy.codes.putAll(codes);
+            copy.values.addAll(values);
+            return copy;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        BitSet matching(Collection<String> accepted) {
+            BitSet matching = new BitSet(values.size());
+            for (int code = 0; code < values.size(); code++) {
+                String value = values.get(code);
+                if (accepted.stream().anyMatch(acceptedValue -> acceptedValue.equalsIgnoreCase(value))) {
+                    matching.set(code);
+                }
+            }
+            return matching;
+        }
+    }
+
+    /**
+     * Mixed radix encoding of the codes of the grouping dimensions of a row.
+     */
+    private static class Key {
+        private final List<Column> columns;
+        private final long[] radixes;
+        private final long cardinality;
+
+        Key(List<Column> columns) {
+            this.columns = columns;
+            this.radixes = new long[columns.size()];
+            long radix = 1;
+            for (int i = 0; i < columns.size(); i++) {
+                radixes[i] = radix;
+                radix = Math.multiplyExact(radix, Math.max(1, columns.get(i).dictionary().size()));
+            }
+            this.cardinality = radix;
+        }
+
+        long cardinality() {
+            return cardinality;
+        }
+
+        long of(int row) {
+            long key = 0;
+            for (int i = 0; i < radixes.length; i++) {
+                key += columns.get(i).codes()[row] * radixes[i];
+            }
+            return key;
+        }
+
+        List<String> decode(long key) {
+            List<String> dimensions = new ArrayList<>(radixes.length);
+            for (int i = 0; i < radixes.length; i++) {
+                Dictionary dictionary = columns.get(i).dictionary();
+                dimensions.add(dictionary.decode((int) (key / radixes[i] % dictionary.size())));
+            }
+            return dimensions;
+        }
+    }
+
+    private static class Counts {
+        private final long[] dense;
+        private final Map<Long, long[]> sparse = new HashMap<>();
+
+        Counts(long cardinality) {
+            dense = cardinality <= DENSE_COUNTS_LIMIT ? new long[(int) cardinality] : null;
+        }
+
+        void increment(long key) {
+            if (dense != null) {
+                dense[(int) key]++;
+            } else {
+                sparse.computeIfAbsent(key, k -> new long[1])[0]++;
+            }
+        }
+
+        Map<List<String>, Long> drain(Key key) {
+            Map<List<String>, Long> counts = new HashMap<>();
+            if (dense != null) {
+                for (int i = 0; i < dense.length; i++) {
+                    if (dense[i] > 0) {
+                        counts.put(key.decode(i), dense[i]);
+                        dense[i] = 0;
+                    }
+                }
+            } else {
+                sparse.forEach((k, count) -> counts.put(key.decode(k), count[0]));
+                sparse.clear();
+            }
+            return counts;
+        }
+    }
+}
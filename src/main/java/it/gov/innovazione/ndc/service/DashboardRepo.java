@@ -8,71 +8,185 @@ import it.gov.innovazione.ndc.model.harvester.Repository;
 import it.gov.innovazione.ndc.model.harvester.SemanticContentStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import static it.gov.innovazione.ndc.model.harvester.HarvesterRun.Status.SUCCESS;
 import static java.util.stream.Collectors.toMap;
 
+/**
+ * Cache of the rows the dashboard aggregates. Readers get an immutable snapshot without locking;
+ * finished runs are appended to a copy of it, extending the {@link DashboardColumnStore} rather
+ * than building it again, and a scheduled job reloads it in full to pick up any change made
+ * outside the harvester.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DashboardRepo {
 
+    private static final Comparator<HarvesterRun> STARTED_DESC =
+            Comparator.comparing(HarvesterRun::getStartedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
     private final RepositoryService repositoryService;
     private final HarvesterRunService harvesterRunService;
     private final SemanticContentStatsService semanticContentStatsService;
 
-    private List<HarvesterRun> allRuns;
-    private Map<String, HarvesterRun> runById;
-    private List<SemanticContentStats> allStats;
-    private Map<String, Repository> repoById;
+    @Value("${ndc.dashboard.duration-sketch.precision:7}")
+    private final int durationSketchPrecision;
 
-    public synchronized List<HarvesterRun> getAllRuns() {
-        if (allRuns == null) {
-            log.info("Getting all runs");
-            allRuns = harvesterRunService.getAllRuns();
-        }
-        return allRuns;
+    private volatile Snapshot snapshot;
+
+    public List<HarvesterRun> getAllRuns() {
+        return snapshot().allRuns();
+    }
+
+    public Map<String, HarvesterRun> getRunById() {
+        return snapshot().runById();
+    }
+
+    public List<SemanticContentStats> getAllStats() {
+        return snapshot().allStats();
+    }
+
+    public Map<String, Repository> getRepoById() {
+        return snapshot().repoById();
     }
 
-    public synchronized Map<String, HarvesterRun> getRunById() {
-        if (runById == null) {
-            log.info("Building runById");
-            runById = getAllRuns().stream()
-                    .filter(run -> SUCCESS.equals(run.getStatus()))
-                    .collect(toMap(HarvesterRun::getId, Function.identity()));
+    public DashboardColumnStore getColumnStore() {
+        return snapshot().columnStore();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+            return snapshot;
         }
-        return runById;
     }
 
-    public synchronized List<SemanticContentStats> getAllStats() {
-        if (allStats == null) {
-            log.info("Getting raw stats");
-            allStats = semanticContentStatsService.getRawStats().stream()
-                    .map(s -> s.withHarvesterRun(getRunById().get(s.getHarvesterRunId())))
-                    .toList();
+    /**
+     * Adds to the cache a finished run and, if it succeeded, its stats, replacing the row the run
+     * had while it was running. Nothing is done if the cache has not been loaded yet.
+     */
+    public synchronized void appendRun(String runId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
         }
-        return allStats;
+        Optional<HarvesterRun> run = harvesterRunService.getRun(runId);
+        if (run.isEmpty()) {
+            log.warn("Run {} not found, invalidating dashboard cache", runId);
+            snapshot = null;
+            return;
+        }
+        List<SemanticContentStats> runStats = SUCCESS.equals(run.get().getStatus())
+                ? semanticContentStatsService.getRawStats(runId)
+                : List.of();
+        snapshot = current.withRun(run.get(), runStats, getActiveRepoById(), durationSketchPrecision);
+        log.info("Appended run {} with {} stats to dashboard cache", runId, runStats.size());
     }
 
-    public synchronized Map<String, Repository> getRepoById() {
-        if (repoById == null) {
-            log.info("Building repoById");
-            repoById = repositoryService.getActiveRepos()
-                    .stream()
-                    .collect(toMap(Repository::getId, Function.identity()));
+    @Scheduled(cron = "${ndc.dashboard.cache.reconcile.cron}")
+    public synchronized void reconcile() {
+        if (snapshot != null) {
+            log.info("Reconciling dashboard cache");
+            snapshot = load();
         }
-        return repoById;
     }
 
     public synchronized void invalidateCache() {
-        allRuns = null;
-        runById = null;
-        allStats = null;
-        repoById = null;
+        snapshot = null;
+    }
+
+    private Snapshot load() {
+        log.info("Loading dashboard cache");
+        List<HarvesterRun> allRuns = harvesterRunService.getAllRuns();
+        Map<String, HarvesterRun> runById = allRuns.stream()
+                .filter(run -> SUCCESS.equals(run.getStatus()))
+                .collect(toMap(HarvesterRun::getId, Function.identity()));
+        List<SemanticContentStats> allStats = semanticContentStatsService.getRawStats().stream()
+                .map(s -> s.withHarvesterRun(runById.get(s.getHarvesterRunId())))
+                .toList();
+        return Snapshot.of(allRuns, runById, allStats, getActiveRepoById(), durationSketchPrecision);
+    }
+
+    private Map<String, Repository> getActiveRepoById() {
+        return repositoryService.getActiveRepos()
+                .stream()
+                .collect(toMap(Repository::getId, Function.identity()));
+    }
+
+    private record Snapshot(List<HarvesterRun> allRuns,
+                            Map<String, HarvesterRun> runById,
+                            List<SemanticContentStats> allStats,
+                            Map<String, Repository> repoById,
+                            DashboardColumnStore columnStore) {
+
+        static Snapshot of(List<HarvesterRun> allRuns,
+                           Map<String, HarvesterRun> runById,
+                           List<SemanticContentStats> allStats,
+                           Map<String, Repository> repoById,
+                           int durationSketchPrecision) {
+            return new Snapshot(
+                    Collections.unmodifiableList(allRuns),
+                    Collections.unmodifiableMap(runById),
+                    Collections.unmodifiableList(allStats),
+                    Collections.unmodifiableMap(repoById),
+                    new DashboardColumnStore(allRuns, allStats, repoById, durationSketchPrecision));
+        }
+
+        Snapshot withRun(HarvesterRun run, List<SemanticContentStats> runStats, Map<String, Repository> repoById,
+                         int durationSketchPrecision) {
+            List<HarvesterRun> runs = new ArrayList<>(allRuns.size() + 1);
+            runs.add(run);
+            HarvesterRun previousRow = null;
+            for (HarvesterRun existing : allRuns) {
+                if (existing.getId().equals(run.getId())) {
+                    previousRow = existing;
+                } else {
+                    runs.add(existing);
+                }
+            }
+            // almost sorted already, as runs usually finish in the order they started
+            runs.sort(STARTED_DESC);
+
+            Map<String, HarvesterRun> successfulRuns = new HashMap<>(runById);
+            List<SemanticContentStats> stats = new ArrayList<>(allStats.size() + runStats.size());
+            allStats.stream()
+                    .filter(s -> !run.getId().equals(s.getHarvesterRunId()))
+                    .forEach(stats::add);
+            List<SemanticContentStats> appendedStats = new ArrayList<>(runStats.size());
+            if (SUCCESS.equals(run.getStatus())) {
+                successfulRuns.put(run.getId(), run);
+                runStats.forEach(s -> appendedStats.add(s.withHarvesterRun(run)));
+                stats.addAll(appendedStats);
+            } else {
+                successfulRuns.remove(run.getId());
+            }
+            DashboardColumnStore store = columnStore.withRun(run, appendedStats, previousRow, repoById)
+                    .orElseGet(() -> new DashboardColumnStore(runs, stats, repoById, durationSketchPrecision));
+            return new Snapshot(
+                    Collections.unmodifiableList(runs),
+                    Collections.unmodifiableMap(successfulRuns),
+                    Collections.unmodifiableList(stats),
+                    Collections.unmodifiableMap(repoById),
+                    store);
+        }
     }
 }
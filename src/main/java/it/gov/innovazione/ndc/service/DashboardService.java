@@ -4,42 +4,37 @@ import it.gov.innovazione.ndc.controller.AggregateDashboardResponse;
 import it.gov.innovazione.ndc.controller.PercentileStats;
 import it.gov.innovazione.ndc.controller.date.DateParameter;
 import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
-import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRunProfileEntry;
 import it.gov.innovazione.ndc.model.harvester.SemanticContentStats;
+import it.gov.innovazione.ndc.repository.HarvesterRunProfileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static it.gov.innovazione.ndc.controller.PercentileStats.summarizingPercentiles;
-import static java.util.Comparator.comparing;
-import static java.util.function.BinaryOperator.maxBy;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toMap;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DashboardService {
 
     private final DashboardRepo dashboardRepo;
+    private final HarvesterRunProfileRepository harvesterRunProfileRepository;
+
+    @Value("${ndc.dashboard.duration-sketch.precision:7}")
+    private final int durationSketchPrecision;
 
     public static List<List<Object>> convertCountEntryToRow(Map.Entry<LocalDate, Map<List<String>, Long>> entry, Function<LocalDate, String> dateFormatter) {
         return convertEntryToRow(entry, dateFormatter, List::add);
@@ -60,6 +55,9 @@ public class DashboardService {
                         return;
                     }
                     row.add(0L);
+                    row.add(0.0);
+                    row.add(0.0);
+                    row.add(0.0);
                     row.add(0L);
                     row.add(0.0);
                     row.add(0L);
@@ -84,67 +82,15 @@ public class DashboardService {
         return localDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
     }
 
-    public Map<List<String>, Long> disaggregate(
-            List<DimensionalItem.CountDataDimensionalItem> countDataDimensionalItems,
-            List<DimensionalItem.Filter<SemanticContentStats>> filters,
-            List<SemanticContentStats> rawRecords) {
-        return rawRecords.stream()
-                .filter(stats -> filters.stream().allMatch(filter -> filter.test(stats)))
-                .collect(groupingBy(
-                        stats -> toDimensions(stats, countDataDimensionalItems),
-                        Collectors.counting()));
-    }
-
-    public Map<List<String>, PercentileStats> disaggregateTimes(
-            List<DimensionalItem.TimeDataDimensionalItem> countDataDimensionalItems,
-            List<DimensionalItem.Filter<HarvesterRun>> filters,
-            List<HarvesterRun> rawRecords) {
-        return rawRecords.stream()
-                .filter(stats -> filters.stream().allMatch(filter -> filter.test(stats)))
-                .filter(HarvesterRun::hasDatesSet)
-                .collect(groupingBy(
-                        stats -> toDimensions(stats, countDataDimensionalItems),
-                        Collectors.collectingAndThen(
-                                summarizingPercentiles(value -> Duration.between(value.getStartedAt(), value.getEndedAt()).getSeconds()),
-                                stats -> stats)));
-    }
-
-    private List<String> toDimensions(SemanticContentStats stats, List<DimensionalItem.CountDataDimensionalItem> countDataDimensionalItems) {
-        return countDataDimensionalItems.stream()
-                .map(countDataDimensionalItem -> countDataDimensionalItem.extract(stats))
-                .map(Object::toString)
-                .toList();
-    }
-
-    private List<String> toDimensions(HarvesterRun stats, List<DimensionalItem.TimeDataDimensionalItem> timeDataDimensionalItems) {
-        return timeDataDimensionalItems.stream()
-                .map(countDataDimensionalItem -> countDataDimensionalItem.extract(stats))
-                .map(Object::toString)
-                .toList();
-    }
-
-    public Map<LocalDate, List<SemanticContentStats>> getSnapshotAt(DateParameter dateParameter) {
-        Map<LocalDate, List<SemanticContentStats>> statsByDate = new LinkedHashMap<>();
-        for (LocalDate date : dateParameter.getDates()) {
-            LocalDate nextDate = dateParameter.getDateIncrement().apply(date);
-            Set<String> harvesterRunIds = getLatestRunsByRepoAt(nextDate).values()
-                    .stream()
-                    .map(HarvesterRun::getId)
-                    .collect(Collectors.toSet());
-            statsByDate.put(date, dashboardRepo.getAllStats().stream()
-                    .filter(stats -> harvesterRunIds.contains(stats.getHarvesterRunId()))
-                    .toList());
+    private static LocalDate intervalOf(Instant instant, List<LocalDate> sortedDates) {
+        LocalDate interval = sortedDates.get(0);
+        for (LocalDate date : sortedDates) {
+            if (fromLocalDate(date).isAfter(instant)) {
+                break;
+            }
+            interval = date;
         }
-        return statsByDate;
-    }
-
-    private Map<Repository, HarvesterRun> getLatestRunsByRepoAt(LocalDate localDate) {
-        Instant localDateInstant = localDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-        return dashboardRepo.getAllRuns().stream()
-                .filter(run -> run.getStartedAt().isBefore(localDateInstant))
-                .collect(toMap(run -> dashboardRepo.getRepoById().get(run.getRepositoryId()),
-                        Function.identity(),
-                        maxBy(comparing(HarvesterRun::getStartedAt))));
+        return interval;
     }
 
     public AggregateDashboardResponse getAggregateTimeData(
@@ -153,17 +99,8 @@ public class DashboardService {
             List<DimensionalItem.Filter<HarvesterRun>> filters) {
         List<LocalDate> dates = dateParams.getDates();
 
-        Map<LocalDate, List<HarvesterRun>> statsByDate = getRunSnapshotAt(dateParams);
-
-        Map<LocalDate, Map<List<String>, PercentileStats>> byDate = withFilledGaps(statsByDate.entrySet()
-                        .stream()
-                        .collect(toMap(
-                                Map.Entry::getKey,
-                                entry ->
-                                        disaggregateTimes(
-                                                timeDataDimensionalItems,
-                                                filters,
-                                                entry.getValue()))),
+        Map<LocalDate, Map<List<String>, PercentileStats>> byDate = withFilledGaps(
+                dashboardRepo.getColumnStore().summarizeRunDurations(dateParams, timeDataDimensionalItems, filters),
                 dates,
                 null);
 
@@ -188,34 +125,43 @@ public class DashboardService {
                 .build();
     }
 
-    private Map<LocalDate, List<HarvesterRun>> getRunSnapshotAt(DateParameter dateParams) {
+    /**
+     * Summarizes, for each date interval, the stage timings and volumes of the successful runs
+     * started in it, grouped by repository and stage: each run adds its total of the stage once.
+     */
+    public AggregateDashboardResponse getAggregateProfileData(
+            DateParameter dateParams,
+            List<DimensionalItem.Filter<HarvesterRun>> filters) {
         List<LocalDate> dates = dateParams.getDates();
-        Map<LocalDate, List<HarvesterRun>> statsByDate = new LinkedHashMap<>();
-        for (LocalDate date : dates) {
-            statsByDate.put(date, new ArrayList<>());
-        }
-        LocalDate maxDate = dates.get(dates.size() - 1);
-        for (HarvesterRun run : dashboardRepo.getAllRuns()) {
-            Instant startedAt = run.getStartedAt();
-            boolean added = false;
-            for (int i = 0; i < dates.size(); i++) {
-                LocalDate upperBound = dateParams.getDateIncrement().apply(dates.get(i));
-                LocalDate lowerBound = dates.get(i);
-
-                Instant upperBoundInstant = fromLocalDate(upperBound);
-                Instant lowerBoundInstant = fromLocalDate(lowerBound);
 
-                if (!startedAt.isBefore(lowerBoundInstant) && startedAt.isBefore(upperBoundInstant)) {
-                    statsByDate.get(lowerBound).add(run);
-                    added = true;
-                    break;
+        Map<LocalDate, Map<List<String>, PercentileStats>> profiles = new HashMap<>();
+        if (!dates.isEmpty()) {
+            Map<String, HarvesterRun> runById = dashboardRepo.getRunById();
+            Instant from = fromLocalDate(dates.get(0));
+            Instant to = fromLocalDate(dateParams.getDateIncrement().apply(dates.get(dates.size() - 1)));
+            for (HarvesterRunProfileEntry entry : harvesterRunProfileRepository.findByRunsStartedBetween(from, to)) {
+                HarvesterRun run = runById.get(entry.getHarvesterRunId());
+                if (run == null || !filters.stream().allMatch(filter -> filter.test(run))) {
+                    continue;
                 }
-            }
-            if (!added && startedAt.isAfter(fromLocalDate(maxDate))) {
-                statsByDate.get(maxDate).add(run);
+                profiles.computeIfAbsent(intervalOf(run.getStartedAt(), dates), date -> new HashMap<>())
+                        .computeIfAbsent(List.of(run.getRepositoryUrl(), entry.getName(), entry.getUnit()), key -> new PercentileStats(durationSketchPrecision))
+                        .add(entry.getAmount());
             }
         }
-        return statsByDate;
+
+        List<List<Object>> data = withFilledGaps(profiles, dates, null)
+                .entrySet()
+                .stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> convertTimeEntryToRow(entry, dateParams.getDateFormatter()))
+                .flatMap(List::stream)
+                .toList();
+
+        return AggregateDashboardResponse.builder()
+                .headers(List.of("DATE", "REPOSITORY_URL", "STAGE", "UNIT", "MIN", "P25", "MEDIAN", "P75", "MAX", "AVERAGE", "COUNT"))
+                .rows(data)
+                .build();
     }
 
     public AggregateDashboardResponse getAggregateCountData(
@@ -223,17 +169,10 @@ public class DashboardService {
             List<DimensionalItem.CountDataDimensionalItem> countDataDimensionalItems,
             List<DimensionalItem.Filter<SemanticContentStats>> filters) {
 
-        Map<LocalDate, List<SemanticContentStats>> statsByDate = getSnapshotAt(dateParams);
-
         List<LocalDate> dates = dateParams.getDates();
 
-        Map<LocalDate, Map<List<String>, Long>> byDate = withFilledGaps(statsByDate.entrySet()
-                        .stream()
-                        .collect(toMap(Map.Entry::getKey, entry ->
-                                disaggregate(
-                                        countDataDimensionalItems,
-                                        filters,
-                                        entry.getValue()))),
+        Map<LocalDate, Map<List<String>, Long>> byDate = withFilledGaps(
+                dashboardRepo.getColumnStore().countLatestStats(dateParams, countDataDimensionalItems, filters),
                 dates,
                 0L);
 
@@ -282,30 +221,9 @@ public class DashboardService {
     }
 
     public List<SemanticContentStats> getRawData(LocalDate startDate, LocalDate endDate, List<DimensionalItem.Filter<SemanticContentStats>> filters) {
-        List<String> runIdWithinDates = dashboardRepo.getAllRuns().stream()
-                .filter(run -> run.getStartedAt().isAfter(
-                        Optional.ofNullable(startDate)
-                                .orElse(LocalDate.of(1970, 1, 1))
-                                .atStartOfDay(ZoneId.systemDefault()).toInstant()))
-                .filter(run -> run.getStartedAt().isBefore(
-                        Optional.ofNullable(endDate)
-                                .orElse(LocalDate.now())
-                                .atStartOfDay(ZoneId.systemDefault()).toInstant()))
-                .map(HarvesterRun::getId)
-                .toList();
-        return dashboardRepo.getAllStats().stream()
-                .filter(stats -> runIdWithinDates.contains(stats.getHarvesterRunId()))
-                .filter(stats -> filters.stream().allMatch(filter -> filter.test(stats)))
-                .map(scs -> Pair.of(
-                        dashboardRepo.getRunById().get(scs.getHarvesterRunId()).getStartedAt(),
-                        scs))
-                .sorted(comparing(Pair::getLeft))
-                .map(Pair::getRight)
-                .map(this::enrichWithRun)
-                .toList();
-    }
-
-    private SemanticContentStats enrichWithRun(SemanticContentStats semanticContentStats) {
-        return semanticContentStats.withHarvesterRun(dashboardRepo.getRunById().get(semanticContentStats.getHarvesterRunId()));
+        return dashboardRepo.getColumnStore().getStatsOfRunsStartedBetween(
+                fromLocalDate(Optional.ofNullable(startDate).orElse(LocalDate.of(1970, 1, 1))),
+                fromLocalDate(Optional.ofNullable(endDate).orElse(LocalDate.now())),
+                filters);
     }
 }
@@ -4,7 +4,9 @@ import it.gov.innovazione.ndc.eventhandler.event.ConfigService;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.service.RepositoryService;
 import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataBulkIndexer;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataDeleter;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataLiveSwitcher;
 import it.gov.innovazione.ndc.repository.TripleStoreRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +27,9 @@ public class DefaultInstanceManager implements InstanceManager {
     private final RepositoryService repositoryService;
     private final TripleStoreRepository tripleStoreRepository;
     private final SemanticAssetMetadataDeleter deleter;
+    private final SemanticAssetMetadataBulkIndexer bulkIndexer;
+    private final SemanticAssetMetadataLiveSwitcher liveSwitcher;
+    private final VocabularyIndexCleaner vocabularyIndexCleaner;
 
     public Instance getNextOnlineInstance(String repoUrl) {
         Optional<Repository> repository = repositoryService.findActiveRepoByUrl(repoUrl);
@@ -52,10 +57,17 @@ public class DefaultInstanceManager implements InstanceManager {
         log.info("Switching instance for repository {}", repository.getUrl());
         Instance newInstance = getNextOnlineInstance(repository);
 
+        // bulk indexing does not refresh, the new instance must be searchable before it goes online
+        bulkIndexer.refresh();
+
         log.info("Switching Elastic search to instance {} for repo {}", newInstance, repository.getUrl());
 
+        liveSwitcher.switchLive(repository.getUrl(), newInstance);
         configService.writeConfigKey(ACTIVE_INSTANCE, "system", newInstance, repository.getId());
 
+        // the vocabularies still in the repo are already served by their new index
+        vocabularyIndexCleaner.dropRemovedCsvIndices(repository.getUrl(), newInstance);
+
         Instance instanceToDelete = newInstance.switchInstance();
 
         log.info("Deleting metadata for instance {} for repo {}", instanceToDelete, repository.getUrl());
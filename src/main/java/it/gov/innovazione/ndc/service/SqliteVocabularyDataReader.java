@@ -0,0 +1,377 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.controller.exception.VocabularyItemNotFoundException;
+import it.gov.innovazione.ndc.gen.dto.VocabularyData;
+import it.gov.innovazione.ndc.harvester.csv.HeadersToIdNameExtractor;
+import it.gov.innovazione.ndc.model.Builders;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.sqlite.SQLiteConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads vocabulary data from the aggregated {@code vocabularies.db} published by
+ * {@code VocabulariesDbAggregationService}, through a small pool of read-only, memory-mapped
+ * connections.
+ *
+ * <p>The aggregate is replaced by an atomic rename: when its size or modification time change,
+ * a new pool is opened on the new file, while the connections borrowed from the previous one keep
+ * reading the file they opened and are closed when returned. Vocabularies that are not in the
+ * aggregate (e.g. harvested without an apistore database, or not aggregated yet) and any read
+ * error are served by {@link VocabularyDataService}.
+ *
+ * <p>Items are looked up by the column that {@link HeadersToIdNameExtractor} picks among the
+ * table columns, the same rule that gives the Elasticsearch document id of a CSV record.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "ndc.vocabulary-data.backend", havingValue = "sqlite")
+@Slf4j
+public class SqliteVocabularyDataReader implements VocabularyDataReader {
+
+    private static final String METADATA_TABLE = "_metadata";
+    private static final String SOURCES_TABLE = "_aggregate_sources";
+    private static final String FIND_TABLES_QUERY =
+            "SELECT m.vocabulary_uuid, t.object_name "
+                    + "  FROM " + METADATA_TABLE + " m "
+                    + "  JOIN " + SOURCES_TABLE + " v ON v.object_type = 'vocabulary' AND v.object_name = m.vocabulary_uuid "
+                    + "  JOIN " + SOURCES_TABLE + " t ON t.source_key = v.source_key AND t.object_type = 'table' "
+                    + " WHERE lower(m.agency_id) = ? AND lower(m.key_concept) = ?";
+
+    private final VocabularyDataService fallback;
+    private final List<HeadersToIdNameExtractor> idNameExtractors;
+    private final Path aggregatePath;
+    private final int poolSize;
+    private final long mmapSizeBytes;
+
+    private volatile Generation generation;
+
+    public SqliteVocabularyDataReader(VocabularyDataService fallback,
+                                      List<HeadersToIdNameExtractor> idNameExtractors,
+                                      @Value("${harvester.csvapis.aggregate-db.path}") String aggregatePath,
+                                      @Value("${ndc.vocabulary-data.sqlite.pool-size:4}") int poolSize,
+                                      @Value("${ndc.vocabulary-data.sqlite.mmap-size-mb:256}") long mmapSizeMb) {
+        this.fallback = fallback;
+        this.idNameExtractors = idNameExtractors;
+        this.aggregatePath = Path.of(aggregatePath);
+        this.poolSize = Math.max(1, poolSize);
+        this.mmapSizeBytes = Math.max(0, mmapSizeMb) * 1024 * 1024;
+    }
+
+    @Override
+    public VocabularyData getData(VocabularyIdentifier vocabularyIdentifier, Pageable pageable) {
+        Optional<Generation> current = currentGeneration();
+        if (current.isEmpty()) {
+            return fallback.getData(vocabularyIdentifier, pageable);
+        }
+        Connection conn = null;
+        try {
+            conn = current.get().borrow();
+            Optional<VocabularyTable> table = current.get().table(conn, vocabularyIdentifier);
+            if (table.isEmpty()) {
+                return fallback.getData(vocabularyIdentifier, pageable);
+            }
+            return Builders.vocabularyData()
+                    .totalResults((int) table.get().rows())
+                    .offset((int) pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .data(readPage(conn, table.get(), pageable))
+                    .build();
+        } catch (SQLException e) {
+            log.warn("Cannot read {} from {}, falling back to Elasticsearch", vocabularyIdentifier, aggregatePath, e);
+            return fallback.getData(vocabularyIdentifier, pageable);
+        } finally {
+            current.get().release(conn);
+        }
+    }
+
+    @Override
+    public Map<String, String> getItem(VocabularyIdentifier vocabularyIdentifier, String id) {
+        Optional<Generation> current = currentGeneration();
+        if (current.isEmpty()) {
+            return fallback.getItem(vocabularyIdentifier, id);
+        }
+        Connection conn = null;
+        try {
+            conn = current.get().borrow();
+            Optional<VocabularyTable> table = current.get().table(conn, vocabularyIdentifier)
+                    .filter(t -> t.idColumn() != null);
+            if (table.isEmpty()) {
+                return fallback.getItem(vocabularyIdentifier, id);
+            }
+            return readItem(conn, table.get(), id)
+                    .orElseThrow(() -> new VocabularyItemNotFoundException(vocabularyIdentifier.getIndexName(), id));
+        } catch (SQLException e) {
+            log.warn("Cannot read {} from {}, falling back to Elasticsearch", vocabularyIdentifier, aggregatePath, e);
+            return fallback.getItem(vocabularyIdentifier, id);
+        } finally {
+            current.get().release(conn);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (generation != null) {
+            generation.retire();
+            generation = null;
+        }
+    }
+
+    private List<Map<String, String>> readPage(Connection conn, VocabularyTable table, Pageable pageable) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM " + quoteIdent(table.name())
+                + " ORDER BY " + table.orderBy() + " LIMIT ? OFFSET ?")) {
+            ps.setInt(1, pageable.getPageSize());
+            ps.setLong(2, pageable.getOffset());
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Map<String, String>> rows = new ArrayList<>(pageable.getPageSize());
+                while (rs.next()) {
+                    rows.add(toRecord(rs));
+                }
+                return rows;
+            }
+        }
+    }
+
+    private Optional<Map<String, String>> readItem(Connection conn, VocabularyTable table, String id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM " + quoteIdent(table.name())
+                + " WHERE " + quoteIdent(table.idColumn()) + " = ?")) {
+            ps.setString(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(toRecord(rs)) : Optional.empty();
+            }
+        }
+    }
+
+    private static Map<String, String> toRecord(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Map<String, String> record = new HashMap<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String value = rs.getString(i);
+            if (value != null) {
+                record.put(metaData.getColumnLabel(i), value);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Returns the pool of the published aggregate, replacing it if the file changed since it was
+     * opened; empty if the aggregate has not been published yet.
+     */
+    private Optional<Generation> currentGeneration() {
+        FileTime lastModified;
+        long size;
+        try {
+            if (!Files.isRegularFile(aggregatePath)) {
+                return Optional.empty();
+            }
+            lastModified = Files.getLastModifiedTime(aggregatePath);
+            size = Files.size(aggregatePath);
+        } catch (IOException e) {
+            log.warn("Cannot read {}, falling back to Elasticsearch", aggregatePath, e);
+            return Optional.empty();
+        }
+        Generation current = generation;
+        if (current != null && current.isOf(lastModified, size)) {
+            return Optional.of(current);
+        }
+        synchronized (this) {
+            if (generation == null || !generation.isOf(lastModified, size)) {
+                if (generation != null) {
+                    generation.retire();
+                }
+                generation = new Generation(lastModified, size);
+                log.info("Reading vocabulary data from {} (modified at {}, {} bytes)", aggregatePath, lastModified, size);
+            }
+            return Optional.of(generation);
+        }
+    }
+
+    private Connection open() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + aggregatePath.toAbsolutePath(), config.toProperties());
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            st.execute("PRAGMA query_only = 1");
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        return conn;
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            log.warn("Cannot close connection to the vocabularies db", e);
+        }
+    }
+
+    private static String quoteIdent(String ident) {
+        return "\"" + ident.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Connections and table lookups of one published version of the aggregate.
+     */
+    private final class Generation {
+        private final FileTime lastModified;
+        private final long size;
+        private final BlockingQueue<Connection> idle = new ArrayBlockingQueue<>(poolSize);
+        private final Map<VocabularyIdentifier, Optional<VocabularyTable>> tables = new ConcurrentHashMap<>();
+        private volatile boolean retired;
+
+        private Generation(FileTime lastModified, long size) {
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        boolean isOf(FileTime lastModified, long size) {
+            return this.lastModified.equals(lastModified) && this.size == size;
+        }
+
+        Connection borrow() throws SQLException {
+            Connection conn = idle.poll();
+            return conn != null ? conn : open();
+        }
+
+        void release(Connection conn) {
+            if (conn == null) {
+                return;
+            }
+            if (retired || !idle.offer(conn)) {
+                closeQuietly(conn);
+            } else if (retired) {
+                // retired while being returned: do not leave it open on a replaced file
+                closeIdle();
+            }
+        }
+
+        void retire() {
+            retired = true;
+            closeIdle();
+        }
+
+        private void closeIdle() {
+            Connection conn;
+            while ((conn = idle.poll()) != null) {
+                closeQuietly(conn);
+            }
+        }
+
+        Optional<VocabularyTable> table(Connection conn, VocabularyIdentifier vocabularyIdentifier) throws SQLException {
+            Optional<VocabularyTable> table = tables.get(vocabularyIdentifier);
+            if (table == null) {
+                table = findTable(conn, vocabularyIdentifier);
+                tables.put(vocabularyIdentifier, table);
+            }
+            return table;
+        }
+
+        private Optional<VocabularyTable> findTable(Connection conn, VocabularyIdentifier vocabularyIdentifier) throws SQLException {
+            String vocabularyUuid = null;
+            List<String> candidates = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(FIND_TABLES_QUERY)) {
+                ps.setString(1, vocabularyIdentifier.getAgencyId().toLowerCase(Locale.ROOT));
+                ps.setString(2, vocabularyIdentifier.getKeyConcept().toLowerCase(Locale.ROOT));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        vocabularyUuid = rs.getString(1);
+                        candidates.add(rs.getString(2));
+                    }
+                }
+            } catch (SQLException e) {
+                // an aggregate written before its sources were recorded
+                log.debug("Cannot look up {} in {}: {}", vocabularyIdentifier, aggregatePath, e.getMessage());
+                return Optional.empty();
+            }
+            // a source holds a single vocabulary; otherwise its table is expected to be named after it
+            String tableName = candidates.size() == 1 ? candidates.get(0)
+                    : candidates.contains(vocabularyUuid) ? vocabularyUuid
+                    : null;
+            if (tableName == null) {
+                log.debug("No data table for {} in {}: {}", vocabularyIdentifier, aggregatePath, candidates);
+                return Optional.empty();
+            }
+            return Optional.of(describeTable(conn, tableName));
+        }
+
+        private VocabularyTable describeTable(Connection conn, String tableName) throws SQLException {
+            List<String> columns = new ArrayList<>();
+            List<String> primaryKey = new ArrayList<>();
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("PRAGMA table_info(" + quoteIdent(tableName) + ")")) {
+                while (rs.next()) {
+                    String column = rs.getString("name");
+                    columns.add(column);
+                    if (rs.getInt("pk") > 0) {
+                        primaryKey.add(column);
+                    }
+                }
+            }
+            String idColumn = idColumnOf(columns);
+            String orderBy = hasRowid(conn, tableName) ? "rowid" : String.join(", ", primaryKey.stream().map(SqliteVocabularyDataReader::quoteIdent).toList());
+            long rows;
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + quoteIdent(tableName))) {
+                rs.next();
+                rows = rs.getLong(1);
+            }
+            return new VocabularyTable(tableName, idColumn, orderBy, rows);
+        }
+
+        /**
+         * The column holding the Elasticsearch document id: the table keeps the CSV columns in
+         * order, so the extractors pick the same one as for the CSV headers.
+         */
+        private String idColumnOf(List<String> columns) {
+            if (columns.isEmpty()) {
+                return null;
+            }
+            return idNameExtractors.stream()
+                    .map(e -> e.extract(columns))
+                    .filter(columns::contains)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        private boolean hasRowid(Connection conn, String tableName) {
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT rowid FROM " + quoteIdent(tableName) + " LIMIT 0")) {
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+
+    private record VocabularyTable(String name, String idColumn, String orderBy, long rows) {
+    }
+}
@@ -0,0 +1,18 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.gen.dto.VocabularyData;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+
+/**
+ * Read side of the controlled vocabulary data API. {@link VocabularyDataService} reads the
+ * Elasticsearch indices; {@link SqliteVocabularyDataReader} can be selected per deployment to
+ * read the aggregated {@code vocabularies.db} instead.
+ */
+public interface VocabularyDataReader {
+
+    VocabularyData getData(VocabularyIdentifier vocabularyIdentifier, Pageable pageable);
+
+    Map<String, String> getItem(VocabularyIdentifier vocabularyIdentifier, String id);
+}
@@ -13,24 +13,40 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexInformation;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import org.springframework.data.elasticsearch.core.query.IndexQuery;
 import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.ELASTICSEARCH;
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.countDocuments;
+import static it.gov.innovazione.ndc.service.logging.HarvesterMetrics.timeStoreWrite;
 import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logInfrastructureInfo;
 
 @Service
 @Slf4j
-public class VocabularyDataService {
+public class VocabularyDataService implements VocabularyDataReader {
+
+    // documents sent per bulk request, so that large vocabularies never sit in memory as a whole
+    static final int BULK_SIZE = 1000;
+    // vocabulary data lives in "<indexName>__v<timestamp>" indices, read through the "<indexName>" alias
+    static final String VERSION_SEPARATOR = "__v";
 
     private final ElasticsearchOperations elasticsearchOperations;
 
@@ -40,6 +56,7 @@ public class VocabularyDataService {
         this.elasticsearchOperations = elasticsearchOperations;
     }
 
+    @Override
     public VocabularyData getData(VocabularyIdentifier vocabularyIdentifier, Pageable pageable) {
         String indexName = vocabularyIdentifier.getIndexName();
         requireIndex(vocabularyIdentifier, indexName);
@@ -69,23 +86,118 @@ public class VocabularyDataService {
 
     public void indexData(VocabularyIdentifier vocabularyIdentifier,
                           CsvParser.CsvData data) {
-        String indexName = vocabularyIdentifier.getIndexName();
-        ensureCleanIndex(indexName);
-        String idName = data.getIdName();
+        indexRecords(vocabularyIdentifier, data.getIdName(), data.getRecords().stream());
+    }
 
-        List<IndexQuery> indexQueries = data.getRecords().stream()
-                .map(r -> buildIndexQuery(idName, r))
-                .collect(Collectors.toList());
+    public void indexData(VocabularyIdentifier vocabularyIdentifier,
+                          CsvParser.CsvRecords records) {
+        indexRecords(vocabularyIdentifier, records.getIdName(), records.getRecords());
+    }
+
+    /**
+     * Loads the records into a new versioned index and, once complete, atomically points the
+     * vocabulary alias to it: readers keep seeing the previous data until the swap.
+     */
+    private void indexRecords(VocabularyIdentifier vocabularyIdentifier, String idName,
+                              Stream<Map<String, String>> records) {
+        String alias = vocabularyIdentifier.getIndexName();
+        String versionedIndex = alias + VERSION_SEPARATOR + System.currentTimeMillis();
+        elasticsearchOperations.indexOps(IndexCoordinates.of(versionedIndex)).create();
+        try {
+            long indexed = bulkIndex(versionedIndex, idName, records);
+            swapAlias(alias, versionedIndex);
+
+            logInfrastructureInfo(LoggingContext.builder()
+                    .stage(HarvesterStage.PROCESS_RESOURCE)
+                    .harvesterStatus(HarvesterRun.Status.RUNNING)
+                    .message("Indexed CSV for " + vocabularyIdentifier)
+                    .additionalInfo("vocabularyIdentifier", vocabularyIdentifier)
+                    .additionalInfo("index", versionedIndex)
+                    .additionalInfo("records", indexed)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Could not index {} into {}, dropping it", vocabularyIdentifier, versionedIndex, e);
+            deleteQuietly(versionedIndex);
+            throw e;
+        }
+    }
 
-        elasticsearchOperations.bulkIndex(indexQueries, IndexCoordinates.of(indexName));
+    private long bulkIndex(String indexName, String idName, Stream<Map<String, String>> records) {
+        IndexCoordinates indexCoordinates = IndexCoordinates.of(indexName);
+
+        List<IndexQuery> batch = new ArrayList<>(BULK_SIZE);
+        long indexed = 0;
+        Iterator<Map<String, String>> iterator = records.iterator();
+        while (iterator.hasNext()) {
+            batch.add(buildIndexQuery(idName, iterator.next()));
+            if (batch.size() == BULK_SIZE) {
+                indexed += sendBatch(batch, indexCoordinates);
+                batch = new ArrayList<>(BULK_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            indexed += sendBatch(batch, indexCoordinates);
+        }
+        elasticsearchOperations.indexOps(indexCoordinates).refresh();
+        return indexed;
+    }
 
-        logInfrastructureInfo(LoggingContext.builder()
-                .stage(HarvesterStage.PROCESS_RESOURCE)
-                .harvesterStatus(HarvesterRun.Status.RUNNING)
-                .message("Indexed CSV for " + vocabularyIdentifier)
-                .additionalInfo("vocabularyIdentifier", vocabularyIdentifier)
-                .additionalInfo("records", indexQueries.size())
-                .build());
+    private int sendBatch(List<IndexQuery> batch, IndexCoordinates indexCoordinates) {
+        timeStoreWrite(ELASTICSEARCH, () -> elasticsearchOperations.bulkIndex(batch, indexCoordinates));
+        countDocuments(ELASTICSEARCH, batch.size());
+        return batch.size();
+    }
+
+    private void swapAlias(String alias, String versionedIndex) {
+        List<IndexInformation> previous = getPhysicalIndices(alias);
+
+        AliasActions aliasActions = new AliasActions();
+        previous.stream()
+                .filter(info -> info.getName().equals(alias))
+                .findFirst()
+                .ifPresent(legacy -> aliasActions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                        .withIndices(legacy.getName())
+                        .build())));
+        String[] aliasHolders = previous.stream()
+                .filter(info -> Optional.ofNullable(info.getAliases()).orElse(List.of()).stream()
+                        .anyMatch(a -> a.getAlias().equals(alias)))
+                .map(IndexInformation::getName)
+                .toArray(String[]::new);
+        if (aliasHolders.length > 0) {
+            aliasActions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(aliasHolders)
+                    .withAliases(alias)
+                    .build()));
+        }
+        aliasActions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(versionedIndex)
+                .withAliases(alias)
+                .build()));
+        elasticsearchOperations.indexOps(IndexCoordinates.of(versionedIndex)).alias(aliasActions);
+
+        previous.stream()
+                .map(IndexInformation::getName)
+                .filter(name -> !name.equals(alias) && !name.equals(versionedIndex))
+                .forEach(this::deleteQuietly);
+    }
+
+    private List<IndexInformation> getPhysicalIndices(String alias) {
+        List<IndexInformation> indices = new ArrayList<>();
+        if (exists(alias)) {
+            indices.addAll(elasticsearchOperations.indexOps(IndexCoordinates.of(alias)).getInformation());
+        }
+        elasticsearchOperations.indexOps(IndexCoordinates.of(alias + VERSION_SEPARATOR + "*")).getInformation().stream()
+                .filter(info -> indices.stream().noneMatch(i -> i.getName().equals(info.getName())))
+                .forEach(indices::add);
+        return indices;
+    }
+
+    private void deleteQuietly(String indexName) {
+        try {
+            elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).delete();
+        } catch (Exception e) {
+            log.warn("Could not delete index {}", indexName, e);
+        }
     }
 
     private IndexQuery buildIndexQuery(String idName, Map<String, String> record) {
@@ -97,15 +209,8 @@ public class VocabularyDataService {
     }
 
     public void dropIndex(VocabularyIdentifier vocabularyIdentifier) {
-        elasticsearchOperations.indexOps(IndexCoordinates.of(vocabularyIdentifier.getIndexName())).delete();
-    }
-
-    @SneakyThrows
-    private void ensureCleanIndex(String indexName) {
-        if (exists(indexName)) {
-            elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).delete();
-        }
-        elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).create();
+        getPhysicalIndices(vocabularyIdentifier.getIndexName()).forEach(info ->
+                elasticsearchOperations.indexOps(IndexCoordinates.of(info.getName())).delete());
     }
 
     @SneakyThrows
@@ -113,6 +218,7 @@ public class VocabularyDataService {
         return elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).exists();
     }
 
+    @Override
     public Map<String, String> getItem(VocabularyIdentifier vocabularyIdentifier, String id) {
         String indexName = vocabularyIdentifier.getIndexName();
         requireIndex(vocabularyIdentifier, indexName);
@@ -15,6 +15,14 @@ public class VocabularyIdentifier {
         this.indexName = String.join(".", agencyId, keyConcept).toLowerCase();
     }
 
+    public String getAgencyId() {
+        return agencyId;
+    }
+
+    public String getKeyConcept() {
+        return keyConcept;
+    }
+
     public String getIndexName() {
         return indexName;
     }
@@ -0,0 +1,84 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
+import it.gov.innovazione.ndc.service.logging.HarvesterStage;
+import it.gov.innovazione.ndc.service.logging.LoggingContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticError;
+import static it.gov.innovazione.ndc.service.logging.NDCHarvesterLogger.logSemanticInfo;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VocabularyIndexCleaner {
+
+    private final SemanticAssetMetadataRepository metadataRepository;
+    private final VocabularyDataService vocabularyDataService;
+
+    /**
+     * Drops the CSV data indices of the vocabularies of the repo that are no longer in the online
+     * instance. It runs once the instances have been switched: the vocabularies that are still there
+     * have already been swapped to their new index during the harvest and must keep serving data.
+     */
+    public void dropRemovedCsvIndices(String repoUrl, Instance onlineInstance) {
+        log.debug("Retrieving vocab metadata for {} to drop the indices of removed vocabularies", repoUrl);
+
+        Set<VocabularyIdentifier> onlineVocabs = metadataRepository.findVocabulariesForRepoUrl(repoUrl, onlineInstance).stream()
+                .map(VocabularyIndexCleaner::vocabularyIdentifierOf)
+                .collect(Collectors.toSet());
+        List<SemanticAssetMetadata> removedVocabs = metadataRepository.findVocabulariesForRepoUrl(repoUrl, onlineInstance.switchInstance()).stream()
+                .filter(v -> !onlineVocabs.contains(vocabularyIdentifierOf(v)))
+                .toList();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} removed vocabs with indices to drop", removedVocabs.size());
+        }
+
+        dropCsvIndices(removedVocabs);
+    }
+
+    private void dropCsvIndices(List<SemanticAssetMetadata> vocabs) {
+        if (vocabs.isEmpty()) {
+            return;
+        }
+
+        logSemanticInfo(LoggingContext.builder()
+                .stage(HarvesterStage.CLEANING_METADATA)
+                .message("Cleaning " + vocabs.size() + " found vocabularies")
+                .additionalInfo("vocabs", vocabs.stream().map(SemanticAssetMetadata::getIri).collect(Collectors.joining(",")))
+                .build());
+
+        vocabs.forEach(v -> tryToDropIndex(v, vocabularyIdentifierOf(v)));
+    }
+
+    private static VocabularyIdentifier vocabularyIdentifierOf(SemanticAssetMetadata metadata) {
+        return new VocabularyIdentifier(metadata.getAgencyId(), metadata.getKeyConcept());
+    }
+
+    private void tryToDropIndex(SemanticAssetMetadata v, VocabularyIdentifier vocabId) {
+        log.info("Dropping {} for {}", vocabId, v.getIri());
+        try {
+            vocabularyDataService.dropIndex(vocabId);
+            log.info("{} dropped", vocabId);
+        } catch (Exception e) {
+            logSemanticError(LoggingContext.builder()
+                    .stage(HarvesterStage.CLEANING_METADATA)
+                    .harvesterStatus(HarvesterRun.Status.RUNNING)
+                    .message("Could not drop index " + vocabId)
+                    .additionalInfo("vocabId", vocabId)
+                    .additionalInfo("iri", v.getIri())
+                    .build());
+            log.error("Could not drop index {}", vocabId, e);
+        }
+    }
+}
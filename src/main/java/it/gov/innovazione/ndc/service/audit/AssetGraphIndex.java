@@ -0,0 +1,59 @@
+package it.gov.innovazione.ndc.service.audit;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.LinkedHashSet;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Read-only, in-memory copy of a named graph that answers the asset neighbourhood query of
+ * {@link SemanticDeltaService} locally. An asset is described by the triples of every IRI subject
+ * that is the asset itself, starts with the asset IRI, is rdfs:isDefinedBy the asset, links to the
+ * asset or is linked by it.
+ *
+ * <p>The graph is only read after construction, so the index can be shared by concurrent callers.
+ */
+class AssetGraphIndex {
+    private final Model graph;
+    private final NavigableSet<String> subjectIris = new TreeSet<>();
+
+    AssetGraphIndex(Model graph) {
+        this.graph = graph;
+        graph.listSubjects()
+                .filterKeep(Resource::isURIResource)
+                .forEachRemaining(subject -> subjectIris.add(subject.getURI()));
+    }
+
+    long size() {
+        return graph.size();
+    }
+
+    Model describe(String assetIri) {
+        Resource asset = ResourceFactory.createResource(assetIri);
+
+        Set<Resource> subjects = new LinkedHashSet<>();
+        subjects.add(asset);
+        subjectIris.subSet(assetIri, true, assetIri + Character.MAX_VALUE, false)
+                .forEach(iri -> subjects.add(ResourceFactory.createResource(iri)));
+        graph.listSubjectsWithProperty(RDFS.isDefinedBy, asset).forEachRemaining(subjects::add);
+        graph.listStatements(null, null, asset).mapWith(Statement::getSubject).forEachRemaining(subjects::add);
+        graph.listObjectsOfProperty(asset, null)
+                .filterKeep(RDFNode::isURIResource)
+                .mapWith(RDFNode::asResource)
+                .forEachRemaining(subjects::add);
+
+        Model result = ModelFactory.createDefaultModel();
+        subjects.stream()
+                .filter(Resource::isURIResource)
+                .forEach(subject -> result.add(graph.listStatements(subject, null, (RDFNode) null)));
+        return result;
+    }
+}
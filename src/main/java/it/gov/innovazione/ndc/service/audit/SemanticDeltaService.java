@@ -12,6 +12,8 @@ import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import java.net.MalformedURLException;
@@ -23,6 +25,11 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import static it.gov.innovazione.ndc.repository.TripleStoreRepository.TMP_GRAPH_PREFIX;
 
@@ -43,32 +50,86 @@ public class SemanticDeltaService {
     private final ResourceDeltaRepository resourceDeltaRepository;
     private final List<AssetDeltaClassifier> classifiers;
 
+    // grafi piu' grandi di questa soglia non vengono caricati in memoria: si torna alle CONSTRUCT per asset
+    @Value("${harvester.delta.max-graph-triples:500000}")
+    private final long maxGraphTriples;
+
     public int computeAndPersistDelta(Repository repository, String runId) {
         String repoUrl = normalize(repository.getUrl());
         String onlineGraph = repoUrl;
         String tmpGraph = withPrefix(repoUrl, TMP_GRAPH_PREFIX);
         log.info("Computing semantic delta for run {} on repo {}", runId, repoUrl);
 
-        int totalRows = 0;
-        for (SemanticAssetType type : SUPPORTED_TYPES) {
-            try {
-                totalRows += computeForType(runId, type, tmpGraph, onlineGraph);
-            } catch (Exception e) {
-                log.error("Failed delta computation for run {} type {}: {}", runId, type, e.getMessage(), e);
+        Function<String, Model> tmpAssets = assetDescriber(tmpGraph);
+        Function<String, Model> onlineAssets = assetDescriber(onlineGraph);
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                SUPPORTED_TYPES.length, new CustomizableThreadFactory("semantic-delta-"));
+        List<ResourceDelta> rows = new ArrayList<>();
+        try {
+            List<Future<List<ResourceDelta>>> futures = new ArrayList<>();
+            for (SemanticAssetType type : SUPPORTED_TYPES) {
+                futures.add(executor.submit(() -> computeForType(runId, type, tmpGraph, onlineGraph, tmpAssets, onlineAssets)));
+            }
+            for (int i = 0; i < SUPPORTED_TYPES.length; i++) {
+                rows.addAll(awaitRows(runId, SUPPORTED_TYPES[i], futures.get(i)));
             }
+        } finally {
+            executor.shutdownNow();
+        }
+        // all the rows of a run are written together, in a single batched transaction
+        resourceDeltaRepository.saveAll(rows);
+        log.info("Delta computation for run {} produced {} rows", runId, rows.size());
+        return rows.size();
+    }
+
+    private List<ResourceDelta> awaitRows(String runId, SemanticAssetType type, Future<List<ResourceDelta>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted delta computation for run {} type {}", runId, type);
+        } catch (ExecutionException e) {
+            log.error("Failed delta computation for run {} type {}: {}", runId, type, e.getCause().getMessage(), e.getCause());
         }
-        log.info("Delta computation for run {} produced {} rows", runId, totalRows);
-        return totalRows;
+        return List.of();
     }
 
-    private int computeForType(String runId, SemanticAssetType type, String tmpGraph, String onlineGraph) {
+    /**
+     * Loads the whole graph once and describes assets from memory, unless the graph exceeds
+     * {@code harvester.delta.max-graph-triples}: in that case every asset is described by its own CONSTRUCT.
+     * The graph is read through the Graph Store protocol and used only if it has as many triples as
+     * counted, so that a truncated read never shows up as removed or modified assets.
+     */
+    Function<String, Model> assetDescriber(String graphIri) {
+        try {
+            long triples = tripleStoreRepository.countTriples(graphIri);
+            if (triples > maxGraphTriples) {
+                log.info("Graph {} has {} triples (max {}), describing assets one by one", graphIri, triples, maxGraphTriples);
+                return assetIri -> describeAsset(graphIri, assetIri);
+            }
+            AssetGraphIndex index = new AssetGraphIndex(tripleStoreRepository.fetchGraph(graphIri));
+            if (index.size() != triples) {
+                log.warn("Loaded {} of the {} triples of graph {}, describing assets one by one", index.size(), triples, graphIri);
+                return assetIri -> describeAsset(graphIri, assetIri);
+            }
+            log.info("Loaded graph {} in memory for delta computation ({} triples)", graphIri, index.size());
+            return index::describe;
+        } catch (Exception e) {
+            log.warn("Could not load graph {} in memory, describing assets one by one: {}", graphIri, e.getMessage());
+            return assetIri -> describeAsset(graphIri, assetIri);
+        }
+    }
+
+    private List<ResourceDelta> computeForType(String runId, SemanticAssetType type, String tmpGraph, String onlineGraph,
+                               Function<String, Model> tmpAssets, Function<String, Model> onlineAssets) {
         AssetDeltaClassifier classifier = classifiers.stream()
                 .filter(c -> c.supports(type))
                 .findFirst()
                 .orElse(null);
         if (classifier == null) {
             log.debug("No classifier for {}, skipping", type);
-            return 0;
+            return List.of();
         }
 
         Set<String> tmpIris = new HashSet<>(listAssetIris(tmpGraph, type));
@@ -83,7 +144,7 @@ public class SemanticDeltaService {
             if (onlineIris.contains(iri)) {
                 continue;
             }
-            Model assetModel = stripBlankNodes(describeAsset(tmpGraph, iri));
+            Model assetModel = stripBlankNodes(tmpAssets.apply(iri));
             classifier.classify(iri, assetModel, emptyModel, assetModel, emptyModel)
                     .ifPresent(s -> rows.add(buildRow(runId, iri, type, ChangeKind.ADDED, s)));
         }
@@ -93,7 +154,7 @@ public class SemanticDeltaService {
             if (tmpIris.contains(iri)) {
                 continue;
             }
-            Model assetModel = stripBlankNodes(describeAsset(onlineGraph, iri));
+            Model assetModel = stripBlankNodes(onlineAssets.apply(iri));
             classifier.classify(iri, emptyModel, assetModel, emptyModel, assetModel)
                     .ifPresent(s -> rows.add(buildRow(runId, iri, type, ChangeKind.REMOVED, s)));
         }
@@ -103,8 +164,8 @@ public class SemanticDeltaService {
             if (!onlineIris.contains(iri)) {
                 continue;
             }
-            Model tmpModel = stripBlankNodes(describeAsset(tmpGraph, iri));
-            Model onlineModel = stripBlankNodes(describeAsset(onlineGraph, iri));
+            Model tmpModel = stripBlankNodes(tmpAssets.apply(iri));
+            Model onlineModel = stripBlankNodes(onlineAssets.apply(iri));
             Model added = tmpModel.difference(onlineModel);
             Model removed = onlineModel.difference(tmpModel);
             Optional<String> summary = classifier.classify(iri, added, removed, tmpModel, onlineModel);
@@ -114,8 +175,7 @@ public class SemanticDeltaService {
             rows.add(buildRow(runId, iri, type, ChangeKind.MODIFIED, summary.get()));
         }
 
-        resourceDeltaRepository.saveAll(rows);
-        return rows.size();
+        return rows;
     }
 
     private List<String> listAssetIris(String graphIri, SemanticAssetType type) {
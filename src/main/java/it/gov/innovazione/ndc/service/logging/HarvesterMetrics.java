@@ -0,0 +1,144 @@
+package it.gov.innovazione.ndc.service.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import it.gov.innovazione.ndc.harvester.SemanticAssetType;
+import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContext;
+import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
+import it.gov.innovazione.ndc.harvester.context.HarvestRunProfile;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers and counters of the harvest, tagged with the repository of the current
+ * {@link HarvestExecutionContext}. Like {@link NDCHarvesterLogger} they are recorded from static
+ * methods, into the global registry the actuator registry is bound to.
+ *
+ * <p>Timers are tagged with the {@code outcome} of the timed step, {@code success} or {@code failure}
+ * if it threw. They publish no percentile histogram: with the repo, stage, asset type and outcome
+ * tags the buckets would multiply the series. Timings and volumes are also added to the
+ * {@link HarvestRunProfile} of the current run, which is persisted when the run ends.
+ */
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class HarvesterMetrics {
+
+    public static final String STAGE_TIMER = "harvester.stage";
+    public static final String PATH_TIMER = "harvester.path";
+    public static final String STORE_WRITE_TIMER = "harvester.store.write";
+    public static final String STORE_TRIPLES_COUNTER = "harvester.store.triples";
+    public static final String STORE_DOCUMENTS_COUNTER = "harvester.store.documents";
+    public static final String ASSET_BYTES_COUNTER = "harvester.asset.bytes";
+
+    public static final String VIRTUOSO = "virtuoso";
+    public static final String ELASTICSEARCH = "elasticsearch";
+
+    private static final String NONE = "none";
+    private static final String PATH_PROCESSING = "PATH_PROCESSING";
+    private static final String STORE_WRITE = "STORE_WRITE_";
+
+    private static final MeterRegistry REGISTRY = Metrics.globalRegistry;
+
+    @FunctionalInterface
+    public interface Step<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    @FunctionalInterface
+    public interface VoidStep<E extends Exception> {
+        void run() throws E;
+    }
+
+    public static <T, E extends Exception> T timeStage(HarvesterStage stage, SemanticAssetType assetType, Step<T, E> step) throws E {
+        return time(STAGE_TIMER, "Duration of a harvest stage",
+                Tags.of("stage", stage.name(), "asset_type", orNone(assetType)), stage.name(), step);
+    }
+
+    public static <E extends Exception> void timeStage(HarvesterStage stage, SemanticAssetType assetType, VoidStep<E> step) throws E {
+        timeStage(stage, assetType, asStep(step));
+    }
+
+    public static <T, E extends Exception> T timePath(SemanticAssetType assetType, Step<T, E> step) throws E {
+        currentProfile().ifPresent(profile -> profile.addAmount("ASSETS", "assets", 1));
+        return time(PATH_TIMER, "Duration of the processing of a semantic asset path",
+                Tags.of("asset_type", orNone(assetType)), PATH_PROCESSING, step);
+    }
+
+    public static <E extends Exception> void timeStoreWrite(String store, VoidStep<E> step) throws E {
+        time(STORE_WRITE_TIMER, "Duration of a write to a store", Tags.of("store", store),
+                STORE_WRITE + store.toUpperCase(Locale.ROOT), asStep(step));
+    }
+
+    public static void countTriples(String store, long triples) {
+        count(STORE_TRIPLES_COUNTER, "Triples written to a store", "triples", Tags.of("store", store), "TRIPLES", triples);
+    }
+
+    public static void countDocuments(String store, long documents) {
+        count(STORE_DOCUMENTS_COUNTER, "Documents written to a store", "documents", Tags.of("store", store), "DOCUMENTS", documents);
+    }
+
+    public static void countAssetBytes(SemanticAssetType assetType, long bytes) {
+        count(ASSET_BYTES_COUNTER, "Size of the semantic asset files processed", "bytes",
+                Tags.of("asset_type", orNone(assetType)), "ASSET_BYTES", bytes);
+    }
+
+    private static <T, E extends Exception> T time(String name, String description, Tags tags, String profileName, Step<T, E> step) throws E {
+        long started = System.nanoTime();
+        String outcome = "failure";
+        try {
+            T result = step.run();
+            outcome = "success";
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            currentProfile().ifPresent(profile -> profile.addDuration(profileName, elapsed));
+            Timer.builder(name)
+                    .description(description)
+                    .tags(tags.and("repo", currentRepo(), "outcome", outcome))
+                    .register(REGISTRY)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void count(String name, String description, String baseUnit, Tags tags, String profileName, long amount) {
+        if (amount <= 0) {
+            return;
+        }
+        currentProfile().ifPresent(profile -> profile.addAmount(profileName, baseUnit, amount));
+        Counter.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tags(tags.and("repo", currentRepo()))
+                .register(REGISTRY)
+                .increment(amount);
+    }
+
+    private static <E extends Exception> Step<Void, E> asStep(VoidStep<E> step) {
+        return () -> {
+            step.run();
+            return null;
+        };
+    }
+
+    private static Optional<HarvestRunProfile> currentProfile() {
+        return Optional.ofNullable(HarvestExecutionContextUtils.getContext())
+                .map(HarvestExecutionContext::getRunProfile);
+    }
+
+    private static String currentRepo() {
+        return Optional.ofNullable(HarvestExecutionContextUtils.getContext())
+                .map(HarvestExecutionContext::getRepository)
+                .map(Repository::getUrl)
+                .orElse(NONE);
+    }
+
+    private static String orNone(SemanticAssetType assetType) {
+        return assetType == null ? NONE : assetType.name();
+    }
+}
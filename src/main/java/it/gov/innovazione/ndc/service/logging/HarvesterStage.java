@@ -4,9 +4,13 @@ public enum HarvesterStage {
     START,
     CLONE_REPO,
     MAINTAINER_EXTRACTION,
+    CONFORMANCE_CHECK,
+    INCREMENTAL_PLANNING,
+    INCREMENTAL_CARRY_OVER,
     CLEANING_VIRTUOSO,
     CLEANING_METADATA,
     PATH_SCANNING,
     SYNTAX_VALIDATION,
-    PROCESS_RESOURCE
+    PROCESS_RESOURCE,
+    RESOURCE_DELTA
 }
@@ -10,12 +10,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.boot.logging.LogLevel;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Builder(toBuilder = true)
 @With
@@ -37,15 +35,14 @@ public class LoggingContext {
         return maxValueLength;
     }
 
-    private static final Map<Integer, Pair<String, Function<LoggingContext, Object>>> contextMapper =
-            Map.of(
-                    2, Pair.of("RepoUrl", LoggingContext::getRepoUrl),
-                    3, Pair.of("Path", LoggingContext::getPath),
-                    4, Pair.of("MainResource", LoggingContext::getMainResource),
-                    5, Pair.of("Message", LoggingContext::getMessage),
-                    6, Pair.of("Status", LoggingContext::getHarvesterStatus),
-                    7, Pair.of("Details", LoggingContext::getDetails),
-                    8, Pair.of("EventCategory", LoggingContext::getEventCategory));
+    private static final List<Pair<String, Function<LoggingContext, Object>>> contextMapper =
+            List.of(
+                    Pair.of("RepoUrl", LoggingContext::getRepoUrl),
+                    Pair.of("Path", LoggingContext::getPath),
+                    Pair.of("MainResource", LoggingContext::getMainResource),
+                    Pair.of("Message", LoggingContext::getMessage),
+                    Pair.of("Status", LoggingContext::getHarvesterStatus),
+                    Pair.of("Details", LoggingContext::getDetails));
     @Builder.Default
     private final LogLevel level = LogLevel.INFO;
     private final String component;
@@ -62,35 +59,85 @@ public class LoggingContext {
     private final EventCategory eventCategory;
 
     String makeLogEntry() {
-        String logMessage =
-                Stream.concat(contextMapper.entrySet().stream()
-                                        .sorted(Map.Entry.comparingByKey())
-                                        .map(Map.Entry::getValue)
-                                        .map(pair -> Pair.of(pair.getKey(), pair.getRight().apply(this))),
-                                additionalInfos.entrySet().stream())
-                        .filter(pair -> Objects.nonNull(pair.getValue()))
-                        .filter(pair -> StringUtils.isNoneBlank(pair.getValue().toString()))
-                        .map(e -> e.getKey() + ": " + abbreviate(e.getValue()))
-                        .collect(Collectors.joining(" "));
-
-        String logHeaders =
-                Stream.of("NDC_HARVESTER_LOGGER",
-                                Optional.ofNullable(component).orElse("NO_COMPONENT"),
-                                Optional.ofNullable(stage).map(HarvesterStage::name).orElse("NO_STAGE"),
-                                Optional.ofNullable(jobId).orElse("NO_JOB_ID"))
-                        .map(s -> Objects.isNull(s) ? "" : s)
-                        .map(String::toUpperCase)
-                        .map(String::trim)
-                        .map(s -> "[" + s + "]")
-                        .collect(Collectors.joining(" "));
-
-        return logHeaders + " " + logMessage;
+        return appendLogEntry(new StringBuilder(), null, this, eventCategory).toString();
     }
 
-    private static String abbreviate(Object value) {
-        String s = String.valueOf(value);
+    /**
+     * Appends to {@code sb} the log entry of {@code context} over the thread context {@code base}:
+     * every field of {@code context} that is not null wins over the one of {@code base}, as in
+     * {@link NDCHarvesterLoggerUtils#mergeContexts}, but without building the merged context.
+     */
+    static StringBuilder appendLogEntry(StringBuilder sb, LoggingContext base, LoggingContext context, EventCategory eventCategory) {
+        appendHeader(sb.append('['), "NDC_HARVESTER_LOGGER");
+        appendHeader(sb.append("] ["), Objects.requireNonNullElse(pick(base, context, LoggingContext::getComponent), "NO_COMPONENT"));
+        HarvesterStage stage = pick(base, context, LoggingContext::getStage);
+        appendHeader(sb.append("] ["), stage == null ? "NO_STAGE" : stage.name());
+        appendHeader(sb.append("] ["), Objects.requireNonNullElse(pick(base, context, LoggingContext::getJobId), "NO_JOB_ID"));
+        sb.append("] ");
+
+        boolean first = true;
+        for (Pair<String, Function<LoggingContext, Object>> field : contextMapper) {
+            first = appendEntry(sb, first, field.getKey(), pick(base, context, field.getValue()));
+        }
+        first = appendEntry(sb, first, "EventCategory", eventCategory != null ? eventCategory : pick(base, context, LoggingContext::getEventCategory));
+
+        Map<String, Object> contextInfos = infosOf(context);
+        for (Map.Entry<String, Object> entry : infosOf(base).entrySet()) {
+            Object value = contextInfos.get(entry.getKey());
+            first = appendEntry(sb, first, entry.getKey(), value != null ? value : entry.getValue());
+        }
+        Map<String, Object> baseInfos = infosOf(base);
+        for (Map.Entry<String, Object> entry : contextInfos.entrySet()) {
+            if (!baseInfos.containsKey(entry.getKey())) {
+                first = appendEntry(sb, first, entry.getKey(), entry.getValue());
+            }
+        }
+        return sb;
+    }
+
+    private static <T> T pick(LoggingContext base, LoggingContext context, Function<LoggingContext, T> getter) {
+        T value = getter.apply(context);
+        return value != null || base == null ? value : getter.apply(base);
+    }
+
+    private static Map<String, Object> infosOf(LoggingContext context) {
+        return context == null || context.additionalInfos == null ? Map.of() : context.additionalInfos;
+    }
+
+    // upper case and trim without the intermediate strings
+    private static void appendHeader(StringBuilder sb, String header) {
+        int start = 0;
+        int end = header.length();
+        while (start < end && header.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && header.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        for (int i = start; i < end; i++) {
+            sb.append(Character.toUpperCase(header.charAt(i)));
+        }
+    }
+
+    private static boolean appendEntry(StringBuilder sb, boolean first, String key, Object value) {
+        if (value == null) {
+            return first;
+        }
+        String s = value.toString();
+        if (StringUtils.isBlank(s)) {
+            return first;
+        }
+        if (!first) {
+            sb.append(' ');
+        }
+        sb.append(key).append(": ");
         int max = maxValueLength;
-        return s.length() > max ? s.substring(0, max) + "..." : s;
+        if (s.length() > max) {
+            sb.append(s, 0, max).append("...");
+        } else {
+            sb.append(s);
+        }
+        return false;
     }
 
     public LoggingContext semantic() {
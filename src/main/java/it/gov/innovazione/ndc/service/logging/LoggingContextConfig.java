@@ -6,7 +6,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Wire {@code harvester.logging.max-value-length} into {@link LoggingContext}'s static field.
+ * Wire {@code harvester.logging.max-value-length} into {@link LoggingContext}'s static field
+ * and {@code harvester.logging.dedup-slots} into {@link NDCHarvesterLoggerUtils}.
  * {@link LoggingContext} e' una value class (@Data/@Builder), non puo' iniettare property
  * direttamente; questo bean fa da ponte all'avvio.
  */
@@ -17,8 +18,12 @@ public class LoggingContextConfig {
     @Value("${harvester.logging.max-value-length:120}")
     private int maxValueLength;
 
+    @Value("${harvester.logging.dedup-slots:4096}")
+    private int dedupSlots;
+
     @PostConstruct
     void wire() {
         LoggingContext.setMaxValueLength(maxValueLength);
+        NDCHarvesterLoggerUtils.setDedupSlots(dedupSlots);
     }
 }
@@ -1,77 +1,97 @@
 package it.gov.innovazione.ndc.service.logging;
 
+import it.gov.innovazione.ndc.alerter.entities.EventCategory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.logging.LogLevel;
 
-import java.io.IOException;
-import java.util.Map;
-import java.util.function.Consumer;
-
 @Slf4j
 public class NDCHarvesterLogger {
 
-    private static final Map<LogLevel, Consumer<String>> mapper = Map.of(
-            LogLevel.ERROR, log::error,
-            LogLevel.WARN, log::warn,
-            LogLevel.INFO, log::info,
-            LogLevel.DEBUG, log::debug,
-            LogLevel.TRACE, log::trace
-    );
+    // oltre questa capacita' il buffer del thread non viene riusato, per non trattenere messaggi enormi
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
 
-    private static void log(LoggingContext loggingContext) {
-        LoggingContext context = NDCHarvesterLoggerUtils.getContext();
-        if (context != null) {
-            loggingContext = NDCHarvesterLoggerUtils.mergeContexts(context, loggingContext);
+    private static void log(LoggingContext loggingContext, LogLevel level, EventCategory eventCategory) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        StringBuilder buffer = BUFFER.get();
+        // a value whose toString() logs again must not write into the buffer being filled
+        boolean reused = buffer.isEmpty();
+        if (!reused) {
+            buffer = new StringBuilder();
         }
         try {
-            Consumer<String> logMethod = mapper.get(loggingContext.getLevel());
-            String message = loggingContext.makeLogEntry();
-            logIfNecessary(logMethod, message);
+            LoggingContext.appendLogEntry(buffer, NDCHarvesterLoggerUtils.getContext(), loggingContext, eventCategory);
+            if (NDCHarvesterLoggerUtils.notSeen(NDCHarvesterLoggerUtils.fingerprint(buffer))) {
+                emit(level, buffer.toString());
+            }
         } catch (Exception e) {
             log.error("There was an exception while logging", e);
+        } finally {
+            if (reused) {
+                buffer.setLength(0);
+                if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                    BUFFER.remove();
+                }
+            }
         }
     }
 
-    private static void logIfNecessary(Consumer<String> logMethod, String message) {
-        if (NDCHarvesterLoggerUtils.notSeen(message)) {
-            logMethod.accept(message);
+    private static boolean isEnabled(LogLevel level) {
+        return switch (level) {
+            case TRACE -> log.isTraceEnabled();
+            case DEBUG -> log.isDebugEnabled();
+            case INFO -> log.isInfoEnabled();
+            case WARN -> log.isWarnEnabled();
+            case ERROR, FATAL -> log.isErrorEnabled();
+            case OFF -> false;
+        };
+    }
+
+    private static void emit(LogLevel level, String message) {
+        switch (level) {
+            case TRACE -> log.trace(message);
+            case DEBUG -> log.debug(message);
+            case INFO -> log.info(message);
+            case WARN -> log.warn(message);
+            default -> log.error(message);
         }
     }
 
     public static void logSemanticInfo(LoggingContext loggingContext) {
-        log(loggingContext.semantic().withLevel(LogLevel.INFO));
+        log(loggingContext, LogLevel.INFO, EventCategory.SEMANTIC);
     }
 
     public static void logInfrastructureInfo(LoggingContext loggingContext) {
-        log(loggingContext.infrastructure().withLevel(LogLevel.INFO));
+        log(loggingContext, LogLevel.INFO, EventCategory.INFRASTRUCTURE);
     }
 
     public static void logSemanticError(LoggingContext loggingContext) {
-        log(loggingContext.error().semantic());
+        log(loggingContext, LogLevel.ERROR, EventCategory.SEMANTIC);
     }
 
     public static void logInfrastructureError(LoggingContext loggingContext) {
-        log(loggingContext.error().infrastructure());
+        log(loggingContext, LogLevel.ERROR, EventCategory.INFRASTRUCTURE);
     }
 
     public static void logSemanticWarn(LoggingContext loggingContext) {
-        log(loggingContext.warn().semantic());
+        log(loggingContext, LogLevel.WARN, EventCategory.SEMANTIC);
     }
 
     public static void logSemanticTrace(LoggingContext loggingContext) {
-        log(loggingContext.trace().semantic());
+        log(loggingContext, LogLevel.TRACE, EventCategory.SEMANTIC);
     }
 
     public static void logApplicationInfo(LoggingContext loggingContext) {
-        log(loggingContext.withLevel(LogLevel.INFO).application());
-
+        log(loggingContext, LogLevel.INFO, EventCategory.APPLICATION);
     }
 
     public static void logApplicationWarn(LoggingContext build) {
-        log(build.withLevel(LogLevel.WARN).application());
+        log(build, LogLevel.WARN, EventCategory.APPLICATION);
     }
 
     public static void logApplicationError(LoggingContext build) {
-        log(build.withLevel(LogLevel.ERROR).application());
+        log(build, LogLevel.ERROR, EventCategory.APPLICATION);
     }
 }
@@ -1,9 +1,8 @@
 package it.gov.innovazione.ndc.service.logging;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import lombok.NoArgsConstructor;
@@ -14,7 +13,24 @@ import lombok.extern.slf4j.Slf4j;
 public class NDCHarvesterLoggerUtils {
 
     private static final ThreadLocal<LoggingContext> CONTEXT_HOLDER = new ThreadLocal<>();
-    private static final ThreadLocal<Set<String>> SEEN_MESSAGES = ThreadLocal.withInitial(HashSet::new);
+    /**
+     * Fingerprint (FNV-1a a 64 bit) dei messaggi gia' loggati dal thread, in una tabella a indirizzamento
+     * diretto di dimensione fissa: un messaggio nuovo sovrascrive lo slot, quindi la memoria resta
+     * limitata anche sui thread dei pool che non passano mai da {@link #clearContext()}.
+     */
+    private static final ThreadLocal<long[]> SEEN_FINGERPRINTS = ThreadLocal.withInitial(() -> new long[dedupSlots]);
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static volatile int dedupSlots = 4096;
+
+    /**
+     * Imposta il numero di slot della tabella di deduplicazione, arrotondato alla potenza di 2
+     * superiore; vale per i thread che non hanno ancora loggato.
+     */
+    public static void setDedupSlots(int slots) {
+        dedupSlots = Integer.highestOneBit(Math.max(slots - 1, 1)) << 1;
+    }
 
     public static LoggingContext getContext() {
         return CONTEXT_HOLDER.get();
@@ -31,13 +47,34 @@ public class NDCHarvesterLoggerUtils {
     }
 
     public static void clearContext() {
-        SEEN_MESSAGES.get().clear();
+        Arrays.fill(SEEN_FINGERPRINTS.get(), 0L);
         CONTEXT_HOLDER.remove();
         log.info("Contexts cleared");
     }
 
-    public static boolean notSeen(String message) {
-        return SEEN_MESSAGES.get().add(message);
+    public static boolean notSeen(CharSequence message) {
+        return notSeen(fingerprint(message));
+    }
+
+    static boolean notSeen(long fingerprint) {
+        long[] seen = SEEN_FINGERPRINTS.get();
+        int slot = (int) (fingerprint ^ (fingerprint >>> 32)) & (seen.length - 1);
+        if (seen[slot] == fingerprint) {
+            return false;
+        }
+        seen[slot] = fingerprint;
+        return true;
+    }
+
+    static long fingerprint(CharSequence message) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        // 0 marks the empty slots
+        return hash == 0 ? 1 : hash;
     }
 
     public static LoggingContext mergeContexts(LoggingContext context, LoggingContext additionalContext) {
@@ -13,6 +13,8 @@ import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidationResult;
 import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -106,8 +108,9 @@ public class RepoValidationService {
 
     private void validateAsset(ValidationReportCollector collector, DiscoveredAsset asset,
                                 String repoUrl, String relativePath) {
+        Model rdfModel = ModelFactory.createDefaultModel();
         RdfSyntaxValidationResult syntaxResult =
-                rdfSyntaxValidator.validateTurtle(asset.path.getTtlPath());
+                rdfSyntaxValidator.validateTurtle(asset.path.getTtlPath(), rdfModel);
         collector.addSyntaxResult(relativePath, asset.type, syntaxResult);
 
         if (syntaxResult.hasErrors()) {
@@ -116,7 +119,7 @@ public class RepoValidationService {
         }
 
         try {
-            BaseSemanticAssetModel model = createModelForValidation(asset, repoUrl);
+            BaseSemanticAssetModel model = createModelForValidation(asset, rdfModel, repoUrl);
             SemanticAssetModelValidationContext ctx = model.validateMetadata();
             collector.addMetadataResult(relativePath, ctx);
         } catch (Exception e) {
@@ -124,12 +127,12 @@ public class RepoValidationService {
         }
     }
 
-    private BaseSemanticAssetModel createModelForValidation(DiscoveredAsset asset, String repoUrl) {
+    private BaseSemanticAssetModel createModelForValidation(DiscoveredAsset asset, Model rdfModel, String repoUrl) {
         String ttlFile = asset.path.getTtlPath();
         return switch (asset.type) {
-            case ONTOLOGY -> modelFactory.createOntologyForValidation(ttlFile, repoUrl);
-            case CONTROLLED_VOCABULARY -> modelFactory.createControlledVocabularyForValidation(ttlFile, repoUrl);
-            case SCHEMA -> modelFactory.createSchemaForValidation(ttlFile, repoUrl);
+            case ONTOLOGY -> modelFactory.createOntologyForValidation(rdfModel, ttlFile, repoUrl);
+            case CONTROLLED_VOCABULARY -> modelFactory.createControlledVocabularyForValidation(rdfModel, ttlFile, repoUrl);
+            case SCHEMA -> modelFactory.createSchemaForValidation(rdfModel, ttlFile, repoUrl);
         };
     }
 
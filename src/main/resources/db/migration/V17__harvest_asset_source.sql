@@ -0,0 +1,12 @@
+-- Asset folders processed (or carried over) by each harvester run, relative to the repository root.
+-- The next run diffs its revision against the one of the last successful run and reprocesses
+-- only the assets whose folder changed.
+create table HARVEST_ASSET_SOURCE
+(
+    ID               VARCHAR(256)  PRIMARY KEY,
+    HARVESTER_RUN_ID VARCHAR(256)  NOT NULL REFERENCES HARVESTER_RUN (ID),
+    ASSET_PATH       VARCHAR(2048) NOT NULL,
+    ASSET_TYPE       VARCHAR(32)   NOT NULL,
+    ASSET_IRI        VARCHAR(2048) NOT NULL,
+    INDEX IDX_ASSET_SOURCE_RUN (HARVESTER_RUN_ID)
+) ENGINE = InnoDB;
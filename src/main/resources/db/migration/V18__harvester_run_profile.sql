@@ -0,0 +1,11 @@
+-- Stage timings and volumes of each harvester run, one row per stage or volume. Durations are in
+-- milliseconds, summed over all the invocations of the stage during the run.
+create table HARVESTER_RUN_PROFILE
+(
+    HARVESTER_RUN_ID VARCHAR(256) NOT NULL REFERENCES HARVESTER_RUN (ID),
+    NAME             VARCHAR(64)  NOT NULL,
+    UNIT             VARCHAR(16)  NOT NULL,
+    AMOUNT           BIGINT       NOT NULL,
+    INVOCATIONS      BIGINT       NOT NULL,
+    PRIMARY KEY (HARVESTER_RUN_ID, NAME)
+) ENGINE = InnoDB;
@@ -1,6 +1,7 @@
 package it.gov.innovazione.ndc.controller;
 
 import it.gov.innovazione.ndc.eventhandler.NdcEventPublisher;
+import it.gov.innovazione.ndc.harvester.HarvestScheduler;
 import it.gov.innovazione.ndc.harvester.HarvesterJob;
 import it.gov.innovazione.ndc.harvester.HarvesterService;
 import org.junit.jupiter.api.Test;
@@ -9,7 +10,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class HarvestJobControllerTest {
@@ -20,6 +25,8 @@ class HarvestJobControllerTest {
     HarvesterService harvesterService;
     @Mock
     NdcEventPublisher eventPublisher;
+    @Mock
+    HarvestScheduler harvestScheduler;
     @InjectMocks
     HarvestJobController harvestJobController;
 
@@ -30,6 +37,19 @@ class HarvestJobControllerTest {
         verify(harvesterJob).harvest(repoUrls, "", false);
     }
 
+    @Test
+    void shouldReturnHarvestQueue() {
+        HarvestScheduler.HarvestQueueView queue = HarvestScheduler.HarvestQueueView.builder()
+                .workers(2)
+                .queueCapacity(10)
+                .queued(List.of())
+                .running(List.of())
+                .build();
+        when(harvestScheduler.getQueue()).thenReturn(queue);
+
+        assertThat(harvestJobController.getHarvestQueue()).isSameAs(queue);
+    }
+
     @Test
     void shouldSynchronouslyClearRepo() {
         String repoUrl = "http://github.com/repo.git";
@@ -0,0 +1,72 @@
+package it.gov.innovazione.ndc.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class PercentileStatsTest {
+
+    @Test
+    void shouldBeExactForSmallValues() {
+        PercentileStats stats = LongStream.of(3, 1, 2, 10).boxed()
+                .collect(PercentileStats.summarizingPercentiles(Long::longValue));
+
+        assertThat(stats.getCount()).isEqualTo(4);
+        assertThat(stats.getMin()).isEqualTo(1);
+        assertThat(stats.getMax()).isEqualTo(10);
+        assertThat(stats.getAverage()).isEqualTo(4.0);
+        assertThat(stats.getP25()).isEqualTo(1.75);
+        assertThat(stats.getMedian()).isEqualTo(2.5);
+        assertThat(stats.getP75()).isEqualTo(4.75);
+    }
+
+    @Test
+    void shouldEstimatePercentilesWithinPrecision() {
+        Random random = new Random(42);
+        long[] values = LongStream.generate(() -> 1 + (long) Math.abs(random.nextGaussian() * 3000)).limit(10_000).sorted().toArray();
+        PercentileStats stats = new PercentileStats(7);
+        LongStream.of(values).forEach(stats::add);
+
+        for (int percentile : new int[] {10, 25, 50, 75, 90, 99}) {
+            double exact = values[(int) Math.round(percentile / 100.0 * (values.length - 1))];
+            assertThat(stats.getPercentile(percentile)).isCloseTo(exact, within(exact / 64));
+        }
+        assertThat(stats.getMax()).isEqualTo(values[values.length - 1]);
+    }
+
+    @Test
+    void shouldMergeSketches() {
+        PercentileStats left = new PercentileStats().add(100).add(5000);
+        PercentileStats right = new PercentileStats().add(1).add(70_000);
+
+        PercentileStats merged = new PercentileStats().merge(left).merge(right);
+
+        assertThat(merged.getCount()).isEqualTo(4);
+        assertThat(merged.getMin()).isEqualTo(1);
+        assertThat(merged.getMax()).isEqualTo(70_000);
+        assertThat(merged.getAverage()).isEqualTo(18_775.25);
+        assertThat(left.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDescribeEmptySketch() {
+        PercentileStats stats = new PercentileStats();
+
+        assertThat(stats.getCount()).isZero();
+        assertThat(stats.getMin()).isZero();
+        assertThat(stats.getMax()).isZero();
+        assertThat(stats.getAverage()).isZero();
+        assertThat(stats.getMedian()).isNaN();
+    }
+
+    @Test
+    void shouldNotMergeSketchesOfDifferentPrecision() {
+        assertThatThrownBy(() -> new PercentileStats(7).merge(new PercentileStats(8)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,7 +1,11 @@
 package it.gov.innovazione.ndc.controller;
 
+import it.gov.innovazione.ndc.harvester.csvapis.VocabulariesDbEncoding;
+import it.gov.innovazione.ndc.harvester.csvapis.VocabulariesDbPublication;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -10,9 +14,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Objects;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,7 +33,7 @@ class VocabulariesDbControllerTest {
         Path file = tempDir.resolve("vocabularies.db");
         Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
 
-        VocabulariesDbController controller = new VocabulariesDbController(file.toString(), CACHE_MAX_AGE);
+        VocabulariesDbController controller = controllerFor(file);
         ResponseEntity<Resource> response = controller.serve(new MockHttpServletRequest());
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -45,7 +51,7 @@ class VocabulariesDbControllerTest {
     void returns404WhenFileMissing(@TempDir Path tempDir) throws IOException {
         Path missing = tempDir.resolve("not-there.db");
 
-        VocabulariesDbController controller = new VocabulariesDbController(missing.toString(), CACHE_MAX_AGE);
+        VocabulariesDbController controller = controllerFor(missing);
         ResponseEntity<Resource> response = controller.serve(new MockHttpServletRequest());
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
@@ -57,7 +63,7 @@ class VocabulariesDbControllerTest {
         Path file = tempDir.resolve("vocabularies.db");
         Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
 
-        VocabulariesDbController controller = new VocabulariesDbController(file.toString(), CACHE_MAX_AGE);
+        VocabulariesDbController controller = controllerFor(file);
         String etag = Objects.requireNonNull(
                 controller.serve(new MockHttpServletRequest()).getHeaders().getETag());
 
@@ -75,7 +81,7 @@ class VocabulariesDbControllerTest {
         Path file = tempDir.resolve("vocabularies.db");
         Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
 
-        VocabulariesDbController controller = new VocabulariesDbController(file.toString(), CACHE_MAX_AGE);
+        VocabulariesDbController controller = controllerFor(file);
         MockHttpServletRequest req = new MockHttpServletRequest();
         req.addHeader(HttpHeaders.IF_NONE_MATCH, "\"some-other-etag\"");
 
@@ -91,7 +97,7 @@ class VocabulariesDbControllerTest {
         Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
         long lastModified = Files.getLastModifiedTime(file).toMillis();
 
-        VocabulariesDbController controller = new VocabulariesDbController(file.toString(), CACHE_MAX_AGE);
+        VocabulariesDbController controller = controllerFor(file);
 
         MockHttpServletRequest req = new MockHttpServletRequest();
         req.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
@@ -105,7 +111,7 @@ class VocabulariesDbControllerTest {
         Path file = tempDir.resolve("vocabularies.db");
         Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
 
-        VocabulariesDbController controller = new VocabulariesDbController(file.toString(), CACHE_MAX_AGE);
+        VocabulariesDbController controller = controllerFor(file);
         String first = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
         String second = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
 
@@ -119,27 +125,51 @@ class VocabulariesDbControllerTest {
         Path sidecar = tempDir.resolve("vocabularies.db.aggregate-hash");
         Files.writeString(sidecar, "deadbeefcafe\n");
 
-        VocabulariesDbController controller = new VocabulariesDbController(file.toString(), CACHE_MAX_AGE);
+        VocabulariesDbController controller = controllerFor(file);
         String etag = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
 
         assertThat(etag).isEqualTo("\"deadbeefcafe\"");
     }
 
     @Test
-    void etagFollowsSidecarUpdates(@TempDir Path tempDir) throws IOException {
+    void keepsValidatorsInMemoryUntilNextPublish(@TempDir Path tempDir) throws IOException {
         Path file = tempDir.resolve("vocabularies.db");
         Files.write(file, "v1".getBytes(StandardCharsets.UTF_8));
         Path sidecar = tempDir.resolve("vocabularies.db.aggregate-hash");
         Files.writeString(sidecar, "hash-v1");
 
-        VocabulariesDbController controller = new VocabulariesDbController(file.toString(), CACHE_MAX_AGE);
+        VocabulariesDbPublication publication = new VocabulariesDbPublication(file.toString());
+        VocabulariesDbController controller = new VocabulariesDbController(publication, CACHE_MAX_AGE);
         String first = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
 
         Files.writeString(sidecar, "hash-v2");
-        String second = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
+        String cached = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
+        publication.refresh();
+        String published = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
 
         assertThat(first).isEqualTo("\"hash-v1\"");
-        assertThat(second).isEqualTo("\"hash-v2\"");
+        assertThat(cached).isEqualTo("\"hash-v1\"");
+        assertThat(published).isEqualTo("\"hash-v2\"");
+    }
+
+    @Test
+    void reloadsValidatorsWhenAggregateIsReplaced(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("vocabularies.db");
+        Files.write(file, "v1".getBytes(StandardCharsets.UTF_8));
+        Path sidecar = tempDir.resolve("vocabularies.db.aggregate-hash");
+        Files.writeString(sidecar, "hash-v1");
+
+        VocabulariesDbController controller = controllerFor(file);
+        String first = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
+
+        Files.write(file, "v2-longer".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 60_000));
+        Files.writeString(sidecar, "hash-v2");
+        ResponseEntity<Resource> second = controller.serve(new MockHttpServletRequest());
+
+        assertThat(first).isEqualTo("\"hash-v1\"");
+        assertThat(second.getHeaders().getETag()).isEqualTo("\"hash-v2\"");
+        assertThat(second.getHeaders().getContentLength()).isEqualTo(Files.size(file));
     }
 
     @Test
@@ -147,7 +177,7 @@ class VocabulariesDbControllerTest {
         Path file = tempDir.resolve("vocabularies.db");
         Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
 
-        VocabulariesDbController controller = new VocabulariesDbController(file.toString(), CACHE_MAX_AGE);
+        VocabulariesDbController controller = controllerFor(file);
         String etag = controller.serve(new MockHttpServletRequest()).getHeaders().getETag();
 
         // Bare hex sha256 of "fake-sqlite", quoted by the controller.
@@ -156,4 +186,99 @@ class VocabulariesDbControllerTest {
                 .endsWith("\"")
                 .matches("^\"[0-9a-f]{64}\"$");
     }
+
+    @Test
+    void servesGzipVariantWhenAccepted(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("vocabularies.db");
+        Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
+        Files.writeString(tempDir.resolve("vocabularies.db.aggregate-hash"), "deadbeefcafe");
+        Path gzip = tempDir.resolve("vocabularies.db.gz");
+        VocabulariesDbEncoding.GZIP.compress(file, gzip);
+
+        VocabulariesDbController controller = controllerFor(file);
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8, identity;q=0.5");
+        ResponseEntity<Resource> response = controller.serve(req);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(Files.size(gzip));
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType(SQLITE_CONTENT_TYPE));
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"deadbeefcafe-gzip\"");
+        assertThat(response.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getBody()).isInstanceOf(FileSystemResource.class);
+        assertThat(Objects.requireNonNull(response.getBody()).getFile().toPath()).isEqualTo(gzip);
+    }
+
+    @Test
+    void servesIdentityWhenVariantIsOlderThanAggregate(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("vocabularies.db");
+        Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
+        Path gzip = tempDir.resolve("vocabularies.db.gz");
+        VocabulariesDbEncoding.GZIP.compress(file, gzip);
+        Files.setLastModifiedTime(gzip, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 60_000));
+
+        VocabulariesDbController controller = controllerFor(file);
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<Resource> response = controller.serve(req);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void servesIdentityWhenEncodingIsNotAccepted(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("vocabularies.db");
+        Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
+        VocabulariesDbEncoding.GZIP.compress(file, tempDir.resolve("vocabularies.db.gz"));
+
+        VocabulariesDbController controller = controllerFor(file);
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader(HttpHeaders.ACCEPT_ENCODING, "*;q=0.5, gzip;q=0");
+        ResponseEntity<Resource> response = controller.serve(req);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void leavesRangeToSpringWhenIfRangeMatches(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("vocabularies.db");
+        Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
+        Files.writeString(tempDir.resolve("vocabularies.db.aggregate-hash"), "deadbeefcafe");
+
+        VocabulariesDbController controller = controllerFor(file);
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader(HttpHeaders.RANGE, "bytes=5-");
+        req.addHeader(HttpHeaders.IF_RANGE, "\"deadbeefcafe\"");
+        ResponseEntity<Resource> response = controller.serve(req);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isInstanceOf(FileSystemResource.class);
+    }
+
+    @Test
+    void sendsWholeFileWhenIfRangeDoesNotMatch(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("vocabularies.db");
+        Files.write(file, "fake-sqlite".getBytes(StandardCharsets.UTF_8));
+        Files.writeString(tempDir.resolve("vocabularies.db.aggregate-hash"), "deadbeefcafe");
+
+        VocabulariesDbController controller = controllerFor(file);
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader(HttpHeaders.RANGE, "bytes=5-");
+        req.addHeader(HttpHeaders.IF_RANGE, "\"previous-hash\"");
+        ResponseEntity<Resource> response = controller.serve(req);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isInstanceOf(InputStreamResource.class);
+        try (InputStream body = Objects.requireNonNull(response.getBody()).getInputStream()) {
+            assertThat(body.readAllBytes()).isEqualTo(Files.readAllBytes(file));
+        }
+    }
+
+    private static VocabulariesDbController controllerFor(Path aggregateDb) {
+        return new VocabulariesDbController(new VocabulariesDbPublication(aggregateDb.toString()), CACHE_MAX_AGE);
+    }
 }
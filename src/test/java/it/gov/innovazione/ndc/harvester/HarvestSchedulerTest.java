@@ -0,0 +1,131 @@
+package it.gov.innovazione.ndc.harvester;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.gov.innovazione.ndc.config.SimpleHarvestRepositoryProcessor;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class HarvestSchedulerTest {
+
+    @Mock
+    private SimpleHarvestRepositoryProcessor processor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HarvestScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void shouldNotRunTwoJobsOfTheSameRepositoryConcurrently() throws Exception {
+        scheduler = new HarvestScheduler(processor, meterRegistry, 2, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if ("run-1".equals(invocation.getArgument(0))) {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(processor).execute(anyString(), any(), anyString(), anyString(), anyBoolean(), anyString());
+
+        scheduler.submit(job("run-1", "repo-1"), HarvestScheduler.Priority.NORMAL);
+        scheduler.submit(job("run-2", "repo-1"), HarvestScheduler.Priority.NORMAL);
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(processor, never()).execute(eq("run-2"), any(), anyString(), anyString(), anyBoolean(), anyString());
+        assertThat(scheduler.getQueue().getQueued()).extracting(HarvestScheduler.HarvestTaskView::getRunId)
+                .containsExactly("run-2");
+
+        release.countDown();
+        verify(processor, timeout(5000)).execute(eq("run-2"), any(), anyString(), anyString(), anyBoolean(), anyString());
+    }
+
+    @Test
+    void shouldRunJobsOfDifferentRepositoriesInParallel() {
+        scheduler = new HarvestScheduler(processor, meterRegistry, 2, 10);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(processor).execute(anyString(), any(), anyString(), anyString(), anyBoolean(), anyString());
+
+        scheduler.submit(job("run-1", "repo-1"), HarvestScheduler.Priority.NORMAL);
+        scheduler.submit(job("run-2", "repo-2"), HarvestScheduler.Priority.NORMAL);
+
+        verify(processor, timeout(5000)).execute(eq("run-1"), any(), anyString(), anyString(), anyBoolean(), anyString());
+        verify(processor, timeout(5000)).execute(eq("run-2"), any(), anyString(), anyString(), anyBoolean(), anyString());
+        assertThat(scheduler.getQueue().getRunning()).extracting(HarvestScheduler.HarvestTaskView::getRepositoryId)
+                .containsExactlyInAnyOrder("repo-1", "repo-2");
+        assertThat(meterRegistry.get("harvester.jobs.running").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectJobsWhenQueueIsFull() {
+        scheduler = new HarvestScheduler(processor, meterRegistry, 1, 1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(processor).execute(anyString(), any(), anyString(), anyString(), anyBoolean(), anyString());
+
+        assertThat(scheduler.submit(job("run-1", "repo-1"), HarvestScheduler.Priority.NORMAL)).isTrue();
+        verify(processor, timeout(5000)).execute(eq("run-1"), any(), anyString(), anyString(), anyBoolean(), anyString());
+        assertThat(scheduler.submit(job("run-2", "repo-2"), HarvestScheduler.Priority.NORMAL)).isTrue();
+        assertThat(scheduler.submit(job("run-3", "repo-3"), HarvestScheduler.Priority.HIGH)).isFalse();
+
+        assertThat(meterRegistry.get("harvester.queue.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("harvester.queue.depth").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldQueueHigherPriorityJobsFirst() {
+        scheduler = new HarvestScheduler(processor, meterRegistry, 1, 10);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(processor).execute(anyString(), any(), anyString(), anyString(), anyBoolean(), anyString());
+
+        scheduler.submit(job("run-1", "repo-1"), HarvestScheduler.Priority.NORMAL);
+        verify(processor, timeout(5000)).execute(eq("run-1"), any(), anyString(), anyString(), anyBoolean(), anyString());
+        scheduler.submit(job("run-2", "repo-2"), HarvestScheduler.Priority.LOW);
+        scheduler.submit(job("run-3", "repo-3"), HarvestScheduler.Priority.NORMAL);
+        scheduler.submit(job("run-4", "repo-4"), HarvestScheduler.Priority.HIGH);
+
+        assertThat(scheduler.getQueue().getQueued()).extracting(HarvestScheduler.HarvestTaskView::getRunId)
+                .containsExactly("run-4", "run-3", "run-2");
+    }
+
+    private static HarvestScheduler.HarvestJob job(String runId, String repositoryId) {
+        return HarvestScheduler.HarvestJob.builder()
+                .runId(runId)
+                .correlationId("correlation")
+                .repository(Repository.builder()
+                        .id(repositoryId)
+                        .url("https://github.com/italia/" + repositoryId)
+                        .build())
+                .revision("abc123")
+                .force(false)
+                .currentUserLogin("user")
+                .build();
+    }
+}
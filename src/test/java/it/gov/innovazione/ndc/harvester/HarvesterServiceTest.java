@@ -1,29 +1,39 @@
 package it.gov.innovazione.ndc.harvester;
 
+import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
+import it.gov.innovazione.ndc.harvester.incremental.IncrementalHarvestPlan;
+import it.gov.innovazione.ndc.harvester.incremental.IncrementalHarvestPlanner;
+import it.gov.innovazione.ndc.harvester.incremental.IncrementalHarvestService;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.service.HarvesterRunService;
 import it.gov.innovazione.ndc.harvester.service.RepositoryService;
 import it.gov.innovazione.ndc.harvester.service.RepositoryStructureValidator;
 import it.gov.innovazione.ndc.harvester.util.FileUtils;
 import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.repository.HarvestAssetSourceRepository;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
 import it.gov.innovazione.ndc.repository.TripleStoreRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 import static it.gov.innovazione.ndc.harvester.service.RepositoryUtils.asRepo;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,6 +57,12 @@ class HarvesterServiceTest {
     private RepositoryStructureValidator repositoryStructureValidator;
     @Mock
     private HarvesterRunService harvesterRunService;
+    @Mock
+    private IncrementalHarvestPlanner incrementalHarvestPlanner;
+    @Mock
+    private IncrementalHarvestService incrementalHarvestService;
+    @Mock
+    private HarvestAssetSourceRepository harvestAssetSourceRepository;
 
     private HarvesterService harvesterService;
 
@@ -60,7 +76,15 @@ class HarvesterServiceTest {
                 repositoryService,
                 fileUtils,
                 repositoryStructureValidator,
-                harvesterRunService);
+                harvesterRunService,
+                incrementalHarvestPlanner,
+                incrementalHarvestService,
+                harvestAssetSourceRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        HarvestExecutionContextUtils.clearContext();
     }
 
     @Test
@@ -78,6 +102,75 @@ class HarvesterServiceTest {
         assertEquals(sanitizedRepoUrl, repoCaptor.getValue().getUrl());
     }
 
+    @Test
+    void shouldFlushBufferedWritesAfterHarvestingAssets() throws IOException {
+        String repoUrl = "someRepoUri";
+        when(agencyRepoService.cloneRepo(repoUrl, null, null)).thenReturn(clonedRepoPath);
+
+        harvesterService.harvest(asRepo(repoUrl));
+
+        InOrder inOrder = inOrder(tripleStoreRepository, metadataRepository, harvester);
+        inOrder.verify(tripleStoreRepository).beginBatch(repoUrl);
+        inOrder.verify(metadataRepository).beginBulkIndexing(repoUrl);
+        inOrder.verify(harvester).harvest(any(), any());
+        inOrder.verify(tripleStoreRepository).flushBatch(repoUrl);
+        inOrder.verify(metadataRepository).flushBulkIndexing(repoUrl);
+        inOrder.verify(tripleStoreRepository).discardBatch(repoUrl);
+        inOrder.verify(metadataRepository).discardBulkIndexing(repoUrl);
+    }
+
+    @Test
+    void shouldCarryOverUnchangedAssetsWhenHarvestingIncrementally() throws IOException {
+        String repoUrl = "someRepoUri";
+        Repository repo = asRepo(repoUrl);
+        IncrementalHarvestPlan plan = IncrementalHarvestPlan.builder().build();
+        when(agencyRepoService.cloneRepo(repoUrl, null, "abc123")).thenReturn(clonedRepoPath);
+        when(incrementalHarvestPlanner.plan(repo, clonedRepoPath, Instance.SECONDARY, false)).thenReturn(Optional.of(plan));
+
+        harvesterService.harvest(repo, "abc123", Instance.SECONDARY, false);
+
+        verify(harvester, never()).cleanUpBeforeHarvesting(any(), any());
+        InOrder inOrder = inOrder(tripleStoreRepository, incrementalHarvestService, harvester);
+        inOrder.verify(tripleStoreRepository).clearExistingNamedGraph(repoUrl, "tmp");
+        inOrder.verify(incrementalHarvestService).prepare(repo, plan);
+        inOrder.verify(tripleStoreRepository).beginBatch(repoUrl);
+        inOrder.verify(incrementalHarvestService).carryOverMetadata(repo, plan, Instance.SECONDARY);
+        inOrder.verify(harvester).harvest(repo, clonedRepoPath);
+        inOrder.verify(tripleStoreRepository).flushBatch(repoUrl);
+        inOrder.verify(incrementalHarvestService).carryOverRunData(plan);
+        verify(metadataRepository).deleteByRepoUrl(repoUrl, Instance.SECONDARY);
+    }
+
+    @Test
+    void shouldHarvestInFullWhenForced() throws IOException {
+        String repoUrl = "someRepoUri";
+        Repository repo = asRepo(repoUrl);
+        when(agencyRepoService.cloneRepo(repoUrl, null, "abc123")).thenReturn(clonedRepoPath);
+
+        harvesterService.harvest(repo, "abc123", Instance.SECONDARY, true);
+
+        verify(incrementalHarvestPlanner).plan(repo, clonedRepoPath, Instance.SECONDARY, true);
+        verify(harvester).cleanUpBeforeHarvesting(repoUrl, Instance.SECONDARY);
+        verify(incrementalHarvestService, never()).prepare(any(), any());
+        verify(incrementalHarvestService, never()).carryOverMetadata(any(), any(), any());
+    }
+
+    @Test
+    void shouldDiscardBufferedWritesWhenHarvestingFails() throws IOException {
+        String repoUrl = "someRepoUri";
+        Repository repo = asRepo(repoUrl);
+        when(agencyRepoService.cloneRepo(repoUrl, null, null)).thenReturn(clonedRepoPath);
+        doThrow(new RuntimeException("Something went wrong")).when(harvester).harvest(repo, clonedRepoPath);
+
+        assertThatThrownBy(() -> harvesterService.harvest(repo))
+                .hasMessage("Something went wrong");
+
+        verify(tripleStoreRepository, never()).flushBatch(repoUrl);
+        verify(tripleStoreRepository).discardBatch(repoUrl);
+        verify(metadataRepository, never()).flushBulkIndexing(repoUrl);
+        verify(metadataRepository).discardBulkIndexing(repoUrl);
+    }
+
     @Test
     void shouldGiveUpOnRepoWhenGenericExceptionIsThrown() throws IOException {
         String repoUrl = "someRepoUri";
@@ -1,7 +1,11 @@
 package it.gov.innovazione.ndc.harvester.csv;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +35,50 @@ public class CsvParserTest {
         assertThat(secondRecord.get("label_level_1")).isEqualTo("3 stelle superior");
     }
 
+    @Test
+    void shouldStreamCsvRecordsFromFile() {
+        String testCsvFile = "src/test/resources/testdata/cv.csv";
+        CsvParser csvParser = new CsvParser(nameExtractors);
+
+        try (CsvParser.CsvRecords csvRecords = csvParser.openCsvFile(testCsvFile)) {
+            assertThat(csvRecords.getIdName()).isEqualTo("code_level_1");
+            List<Map<String, String>> maps = csvRecords.getRecords().toList();
+            assertThat(maps).isEqualTo(csvParser.loadCsvDataFromFile(testCsvFile).getRecords());
+            assertThat(maps.get(1).get("label_level_1")).isEqualTo("3 stelle superior");
+        }
+    }
+
+    @Test
+    void shouldComplainWhenStreamingMissingFile() {
+        CsvParser csvParser = new CsvParser(nameExtractors);
+
+        assertThatThrownBy(() -> csvParser.openCsvFile("invalid-path.csv"))
+                .isInstanceOf(InvalidCsvException.class);
+    }
+
+    @Test
+    void shouldComplainWhenStreamingMalformedRow(@TempDir Path tempDir) throws IOException {
+        Path csvFile = Files.writeString(tempDir.resolve("malformed.csv"), "code,label\n1,one\n\"2\"x,two\n3,three\n");
+        CsvParser csvParser = new CsvParser(nameExtractors);
+
+        try (CsvParser.CsvRecords csvRecords = csvParser.openCsvFile(csvFile.toString())) {
+            assertThatThrownBy(() -> csvRecords.getRecords().toList())
+                    .isInstanceOf(InvalidCsvException.class)
+                    .hasMessageContaining(csvFile.toString())
+                    .hasCauseInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void shouldComplainWhenLoadingMalformedRow(@TempDir Path tempDir) throws IOException {
+        Path csvFile = Files.writeString(tempDir.resolve("malformed.csv"), "code,label\n1,one\n\"2\"x,two\n");
+        CsvParser csvParser = new CsvParser(nameExtractors);
+
+        assertThatThrownBy(() -> csvParser.loadCsvDataFromFile(csvFile.toString()))
+                .isInstanceOf(InvalidCsvException.class)
+                .hasMessageContaining(csvFile.toString());
+    }
+
     @Test
     void shouldLoadEmptyCsvFromFile() {
         String testCsvFile = "src/test/resources/csvs/just-header.csv";
@@ -0,0 +1,82 @@
+package it.gov.innovazione.ndc.harvester.csvapis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VocabulariesDbAggregationSchedulerTest {
+
+    @Mock
+    private VocabulariesDbAggregationService aggregationService;
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private VocabulariesDbAggregationScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void shouldAggregateOnceForABurstOfRequests() throws Exception {
+        Path aggregate = Files.writeString(tempDir.resolve("vocabularies.db"), "aggregate");
+        when(aggregationService.getAggregatePath()).thenReturn(aggregate);
+        scheduler = new VocabulariesDbAggregationScheduler(aggregationService, meterRegistry, 1, 60);
+
+        for (int i = 0; i < 5; i++) {
+            scheduler.requestAggregation();
+        }
+
+        verify(aggregationService, after(2500).times(1)).aggregateIfNeeded();
+        assertThat(scheduler.getLastSizeBytes()).isEqualTo(9);
+        assertThat(meterRegistry.get("harvester.vocabularies-db.size").gauge().value()).isEqualTo(9);
+        assertThat(meterRegistry.get("harvester.vocabularies-db.aggregation").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAggregateAgainWhenRequestedDuringAnAggregation() throws Exception {
+        when(aggregationService.getAggregatePath()).thenReturn(tempDir.resolve("missing.db"));
+        scheduler = new VocabulariesDbAggregationScheduler(aggregationService, meterRegistry, 0, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return null;
+        }).when(aggregationService).aggregateIfNeeded();
+
+        scheduler.requestAggregation();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.requestAggregation();
+        release.countDown();
+
+        verify(aggregationService, timeout(5000).times(2)).aggregateIfNeeded();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(scheduler.getLastSizeBytes()).isZero();
+    }
+}
@@ -10,11 +10,13 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +34,8 @@ class VocabulariesDbAggregationServiceTest {
 
     @Mock
     JdbcTemplate jdbcTemplate;
+    @Mock
+    VocabulariesDbPublication publication;
 
     @TempDir
     Path tempDir;
@@ -59,10 +63,29 @@ class VocabulariesDbAggregationServiceTest {
 
         newService().aggregateIfNeeded();
 
-        verify(merger).merge(eq(List.of(source)), any(Path.class));
+        verify(merger).merge(
+                eq(List.of(new VocabulariesDbMerger.Source("agencyA/cities", "hash-A", source))),
+                eq(aggregatePath), any(Path.class));
         assertThat(aggregatePath).exists();
         assertThat(hashFile).exists();
         assertThat(Files.readString(hashFile)).isNotBlank();
+        verify(publication).refresh();
+    }
+
+    @Test
+    void publishesGzipVariantNextToAggregate() throws IOException, SQLException {
+        createWorkDirEntry("agencyA", "cities", "src-A");
+        stubJdbcReturning(new VocabulariesDbAggregationService.AssetEntry("agencyA", "cities", "hash-A"));
+        stubMergerToCreateOutput();
+
+        newService().aggregateIfNeeded();
+
+        Path gzip = Path.of(aggregatePath + ".gz");
+        assertThat(gzip).exists();
+        assertThat(Files.getLastModifiedTime(gzip)).isGreaterThanOrEqualTo(Files.getLastModifiedTime(aggregatePath));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("merged");
+        }
     }
 
     @Test
@@ -73,14 +96,14 @@ class VocabulariesDbAggregationServiceTest {
         // First run produces both files.
         stubMergerToCreateOutput();
         newService().aggregateIfNeeded();
-        verify(merger).merge(anyList(), any(Path.class));
+        verify(merger).merge(anyList(), any(Path.class), any(Path.class));
 
         // Second run: same input → skip merge.
         VocabulariesDbMerger merger2 = mock(VocabulariesDbMerger.class);
-        new VocabulariesDbAggregationService(jdbcTemplate, merger2, stateService, aggregatePath.toString())
+        new VocabulariesDbAggregationService(jdbcTemplate, merger2, stateService, publication, aggregatePath.toString())
                 .aggregateIfNeeded();
 
-        verify(merger2, never()).merge(anyList(), any(Path.class));
+        verify(merger2, never()).merge(anyList(), any(Path.class), any(Path.class));
     }
 
     @Test
@@ -94,15 +117,15 @@ class VocabulariesDbAggregationServiceTest {
         stubJdbcReturning(new VocabulariesDbAggregationService.AssetEntry("agencyA", "cities", "hash-A-v2"));
         VocabulariesDbMerger merger2 = mock(VocabulariesDbMerger.class);
         doAnswer(inv -> {
-            Path output = inv.getArgument(1);
+            Path output = inv.getArgument(2);
             Files.write(output, "merged-v2".getBytes(StandardCharsets.UTF_8));
             return null;
-        }).when(merger2).merge(anyList(), any(Path.class));
+        }).when(merger2).merge(anyList(), any(Path.class), any(Path.class));
 
-        new VocabulariesDbAggregationService(jdbcTemplate, merger2, stateService, aggregatePath.toString())
+        new VocabulariesDbAggregationService(jdbcTemplate, merger2, stateService, publication, aggregatePath.toString())
                 .aggregateIfNeeded();
 
-        verify(merger2).merge(anyList(), any(Path.class));
+        verify(merger2).merge(anyList(), any(Path.class), any(Path.class));
         assertThat(Files.readString(aggregatePath)).isEqualTo("merged-v2");
     }
 
@@ -117,7 +140,9 @@ class VocabulariesDbAggregationServiceTest {
 
         newService().aggregateIfNeeded();
 
-        verify(merger).merge(eq(List.of(workDir.resolve("agencyA").resolve("cities.db"))), any(Path.class));
+        verify(merger).merge(
+                eq(List.of(new VocabulariesDbMerger.Source("agencyA/cities", "hash-A", workDir.resolve("agencyA").resolve("cities.db")))),
+                eq(aggregatePath), any(Path.class));
     }
 
     @Test
@@ -126,13 +151,14 @@ class VocabulariesDbAggregationServiceTest {
 
         newService().aggregateIfNeeded();
 
-        verify(merger, never()).merge(anyList(), any(Path.class));
+        verify(merger, never()).merge(anyList(), any(Path.class), any(Path.class));
+        verify(publication, never()).refresh();
         assertThat(aggregatePath).doesNotExist();
     }
 
     private VocabulariesDbAggregationService newService() {
         return new VocabulariesDbAggregationService(
-                jdbcTemplate, merger, stateService, aggregatePath.toString());
+                jdbcTemplate, merger, stateService, publication, aggregatePath.toString());
     }
 
     private Path createWorkDirEntry(String agency, String concept, String content) throws IOException {
@@ -149,9 +175,9 @@ class VocabulariesDbAggregationServiceTest {
 
     private void stubMergerToCreateOutput() throws IOException, SQLException {
         doAnswer(inv -> {
-            Path output = inv.getArgument(1);
+            Path output = inv.getArgument(2);
             Files.write(output, "merged".getBytes(StandardCharsets.UTF_8));
             return null;
-        }).when(merger).merge(anyList(), any(Path.class));
+        }).when(merger).merge(anyList(), any(Path.class), any(Path.class));
     }
 }
@@ -102,6 +102,97 @@ class VocabulariesDbMergerTest {
         }
     }
 
+    @Test
+    void incrementalMergeReplacesOnlyChangedSources(@TempDir Path tempDir) throws Exception {
+        Path sourceA = tempDir.resolve("a.db");
+        Path sourceB = tempDir.resolve("b.db");
+        Path sourceC = tempDir.resolve("c.db");
+        Path previous = tempDir.resolve("vocabularies.db");
+        Path output = tempDir.resolve("vocabularies.db.tmp");
+        createApiStoreSourceDb(sourceA, "https://w3id.org/italia/cv/agencyA/cities", "agencyA", "cities",
+                "{\"info\":{\"title\":\"Citta italiane\",\"description\":\"\"}}", "{}",
+                "agencyA_cities", List.of(new DataRow("rome", "Roma")));
+        createApiStoreSourceDb(sourceB, "https://w3id.org/italia/cv/agencyB/professions", "agencyB", "professions",
+                "{\"info\":{\"title\":\"Professioni\",\"description\":\"\"}}", "{}",
+                "agencyB_professions", List.of(new DataRow("doctor", "Medico")));
+        createApiStoreSourceDb(sourceC, "https://w3id.org/italia/cv/agencyC/animals", "agencyC", "animals",
+                "{\"info\":{\"title\":\"Animali\",\"description\":\"\"}}", "{}",
+                "agencyC_animals", List.of(new DataRow("cat", "Gatto")));
+        merger.merge(List.of(
+                new VocabulariesDbMerger.Source("agencyA/cities", "hash-A", sourceA),
+                new VocabulariesDbMerger.Source("agencyB/professions", "hash-B", sourceB),
+                new VocabulariesDbMerger.Source("agencyC/animals", "hash-C", sourceC)), null, previous);
+
+        // A is unchanged and must be taken from the previous aggregate, B changes, C is removed
+        java.nio.file.Files.delete(sourceA);
+        createApiStoreSourceDb(sourceB, "https://w3id.org/italia/cv/agencyB/professions", "agencyB", "professions",
+                "{\"info\":{\"title\":\"Professioni regolamentate\",\"description\":\"\"}}", "{}",
+                "agencyB_professions", List.of(new DataRow("doctor", "Medico"), new DataRow("teacher", "Insegnante")));
+        merger.merge(List.of(
+                new VocabulariesDbMerger.Source("agencyA/cities", "hash-A", sourceA),
+                new VocabulariesDbMerger.Source("agencyB/professions", "hash-B2", sourceB)), previous, output);
+
+        try (Connection conn = openOutput(output)) {
+            assertIntegrityOk(conn);
+            assertMetadataRows(conn, 2);
+            assertDataRowCount(conn, "agencyA_cities", 1);
+            assertDataRowCount(conn, "agencyB_professions", 2);
+            assertThat(queryInt(conn, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'agencyC_animals'")).isZero();
+            assertFtsCount(conn, 2);
+            assertFtsTrigramSearch(conn, "regolamentate", "Professioni regolamentate");
+            assertFtsTrigramSearch(conn, "Citta", "Citta italiane");
+            assertFtsTrigramSearch(conn, "Animali", null);
+            assertThat(queryInt(conn, "PRAGMA freelist_count")).isZero();
+        }
+    }
+
+    @Test
+    void removingASourceKeepsTheVocabularyProvidedByAnotherSource(@TempDir Path tempDir) throws Exception {
+        Path sourceA = tempDir.resolve("a.db");
+        Path sourceB = tempDir.resolve("b.db");
+        Path previous = tempDir.resolve("vocabularies.db");
+        Path output = tempDir.resolve("vocabularies.db.tmp");
+        createApiStoreSourceDb(sourceA, "https://w3id.org/italia/cv/agencyA/cities", "agencyA", "cities",
+                "{\"info\":{\"title\":\"Citta\",\"description\":\"\"}}", "{}",
+                "agencyA_cities", List.of(new DataRow("rome", "Roma")));
+        createApiStoreSourceDb(sourceB, "https://w3id.org/italia/cv/agencyA/cities", "agencyA", "cities",
+                "{\"info\":{\"title\":\"Citta italiane\",\"description\":\"\"}}", "{}",
+                "agencyA_cities", List.of(new DataRow("rome", "Roma"), new DataRow("milan", "Milano")));
+        merger.merge(List.of(
+                new VocabulariesDbMerger.Source("agencyA/cities", "hash-A", sourceA),
+                new VocabulariesDbMerger.Source("agencyA/cities-mirror", "hash-B", sourceB)), null, previous);
+
+        // the vocabulary and its table were taken over by B, so dropping A must not remove them
+        merger.merge(List.of(new VocabulariesDbMerger.Source("agencyA/cities-mirror", "hash-B", sourceB)), previous, output);
+
+        try (Connection conn = openOutput(output)) {
+            assertIntegrityOk(conn);
+            assertMetadataRows(conn, 1);
+            assertDataRowCount(conn, "agencyA_cities", 2);
+            assertFtsCount(conn, 1);
+            assertFtsTrigramSearch(conn, "italiane", "Citta italiane");
+        }
+    }
+
+    @Test
+    void rebuildsWhenPreviousAggregateCannotBeReused(@TempDir Path tempDir) throws Exception {
+        Path source = tempDir.resolve("a.db");
+        Path previous = tempDir.resolve("vocabularies.db");
+        Path output = tempDir.resolve("vocabularies.db.tmp");
+        createApiStoreSourceDb(source, "https://w3id.org/italia/cv/agencyA/cities", "agencyA", "cities",
+                "{\"info\":{\"title\":\"Citta italiane\",\"description\":\"\"}}", "{}",
+                "agencyA_cities", List.of(new DataRow("rome", "Roma")));
+        java.nio.file.Files.writeString(previous, "not a database");
+
+        merger.merge(List.of(new VocabulariesDbMerger.Source("agencyA/cities", "hash-A", source)), previous, output);
+
+        try (Connection conn = openOutput(output)) {
+            assertIntegrityOk(conn);
+            assertMetadataRows(conn, 1);
+            assertFtsCount(conn, 1);
+        }
+    }
+
     @Test
     void failsWhenSourceIsMissingMetadataTable(@TempDir Path tempDir) throws Exception {
         Path source = tempDir.resolve("bad.db");
@@ -19,15 +19,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 
 import static it.gov.innovazione.ndc.harvester.service.RepositoryUtils.asRepo;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -62,6 +68,36 @@ class BaseSemanticAssetHarvesterTest {
     @Mock
     private BiConsumer<String, SemanticAssetPath> processor;
 
+    @Test
+    void shouldProcessPathsInParallelWithCallerContext() {
+        String repoUrl = "someRepoUri";
+        Path basePath = Path.of("ontologyRoot");
+        List<SemanticAssetPath> paths = List.of(
+                SemanticAssetPath.of("test1.ttl"),
+                SemanticAssetPath.of("test2.ttl"),
+                SemanticAssetPath.of("test3.ttl"));
+        HarvestExecutionContext context = HarvestExecutionContext.builder()
+                .runId("someRunId")
+                .build();
+        Set<HarvestExecutionContext> seenContexts = ConcurrentHashMap.newKeySet();
+
+        when(configService.getFromRepoOrGlobalOrDefault(any(), any(), any())).thenReturn(4L);
+        doAnswer(invocation -> seenContexts.add(HarvestExecutionContextUtils.getContext()))
+                .when(processor).accept(eq(repoUrl), any());
+
+        HarvestExecutionContextUtils.setContext(context);
+        try {
+            new TestHarvester(paths).harvest(asRepo(repoUrl), basePath);
+        } finally {
+            HarvestExecutionContextUtils.clearContext();
+        }
+
+        verify(processor, times(3)).accept(eq(repoUrl), any());
+        verify(semanticContentStatsService, times(3)).updateStats(any());
+        verify(semanticContentStatsService).saveStats();
+        assertThat(seenContexts).containsExactly(context);
+    }
+
     @Test
     void shouldNotifyIfSizeExceed() {
         String repoUrl = "someRepoUri";
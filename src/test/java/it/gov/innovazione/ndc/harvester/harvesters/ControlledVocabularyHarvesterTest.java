@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,12 +54,12 @@ class ControlledVocabularyHarvesterTest {
     }
 
     @Test
-    void shouldCleanIndicesBeforeHarvesting() {
+    void shouldKeepIndicesOnlineBeforeHarvesting() {
         String repoUrl = "my-repo.git";
 
         harvester.cleanUpBeforeHarvesting(repoUrl, Instance.PRIMARY);
 
-        verify(pathProcessor).dropCsvIndicesForRepo(repoUrl, Instance.PRIMARY);
+        verifyNoInteractions(pathProcessor);
     }
 
     @Test
@@ -0,0 +1,115 @@
+package it.gov.innovazione.ndc.harvester.incremental;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaleTriplesCollectorTest {
+
+    private static final String PREFIXES = "@prefix ex: <http://example.org/> .\n"
+            + "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n";
+
+    @Test
+    void shouldCollectStaleTriplesNotStatedByKeptAssets() {
+        StaleTriplesCollector collector = new StaleTriplesCollector();
+        collector.remove("http://example.org/a", model("ex:a rdfs:label \"A\" . ex:shared rdfs:label \"S\" ."));
+        collector.keep(model("ex:b rdfs:label \"B\" . ex:shared rdfs:label \"S\" ."));
+
+        Optional<StaleTriplesCollector.StaleTriples> staleTriples = collector.collect();
+
+        assertThat(staleTriples).hasValueSatisfying(triples -> assertThat(triples.groundTriples())
+                .containsExactly(Triple.create(
+                        NodeFactory.createURI("http://example.org/a"),
+                        NodeFactory.createURI("http://www.w3.org/2000/01/rdf-schema#label"),
+                        NodeFactory.createLiteralString("A"))));
+    }
+
+    @Test
+    void shouldDeleteBlankNodesWithPatternAnchoredToTheirOwner() {
+        StaleTriplesCollector collector = new StaleTriplesCollector();
+        collector.remove("http://example.org/a", model("ex:a ex:contact [ ex:email \"a@example.org\" ] ."));
+        collector.keep(model("ex:b ex:contact [ ex:email \"b@example.org\" ] ."));
+
+        Optional<StaleTriplesCollector.StaleTriples> staleTriples = collector.collect();
+
+        assertThat(staleTriples).hasValueSatisfying(triples -> {
+            assertThat(triples.groundTriples()).isEmpty();
+            assertThat(triples.patterns()).hasSize(2);
+            assertThat(triples.patterns().get(0))
+                    .contains("<http://example.org/a> <http://example.org/contact> ?b0 .")
+                    .contains("?b0 <http://example.org/email> \"a@example.org\" .");
+            assertThat(triples.patterns().get(1))
+                    .isEqualTo("<http://example.org/a> <https://w3id.org/italia/onto/NDC/hasDataService> ?ds . ?ds ?p ?o .");
+        });
+    }
+
+    @Test
+    void shouldNotCollectWhenKeptAssetDescribesOwnerOfBlankNodes() {
+        StaleTriplesCollector collector = new StaleTriplesCollector();
+        collector.remove("http://example.org/a", model("ex:a ex:contact [ ex:email \"a@example.org\" ] ."));
+        collector.keep(model("ex:a ex:contact [ ex:email \"b@example.org\" ] ."));
+
+        assertThat(collector.collect()).isEmpty();
+    }
+
+    @Test
+    void shouldNotCollectWhenBlankNodesMentionNoIri() {
+        StaleTriplesCollector collector = new StaleTriplesCollector();
+        collector.remove("http://example.org/a", model("[] rdfs:label \"anonymous\" ."));
+
+        assertThat(collector.collect()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectStaleAssetsAfterKeptOnes() {
+        StaleTriplesCollector collector = new StaleTriplesCollector();
+        collector.keep(model("ex:b rdfs:label \"B\" ."));
+
+        assertThatThrownBy(() -> collector.remove("http://example.org/a", model("ex:a rdfs:label \"A\" .")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldMatchKeptAssetsOnTheLocalNamesOfStaleSubjects() {
+        StaleTriplesCollector collector = new StaleTriplesCollector();
+        collector.remove("http://example.org/Address", model("ex:Address rdfs:label \"Address\" . "
+                + "ex:Address ex:contact [ ex:email <http://example.org/mail#inbox> ] ."));
+
+        assertThat(collector.localNamesToMatch()).hasValue(Set.of("Address", "inbox"));
+    }
+
+    @Test
+    void shouldMatchEveryKeptAssetWhenALocalNameIsEmpty() {
+        StaleTriplesCollector collector = new StaleTriplesCollector();
+        collector.remove("http://example.org/", model("<http://example.org/> rdfs:label \"Root\" ."));
+
+        assertThat(collector.localNamesToMatch()).isEmpty();
+    }
+
+    @Test
+    void shouldTellWhetherTurtleMayMentionLocalNames() {
+        Set<String> localNames = Set.of("Address", "001001");
+
+        assertThat(StaleTriplesCollector.mayMention(PREFIXES + "ex:Address rdfs:label \"A\".", localNames)).isTrue();
+        assertThat(StaleTriplesCollector.mayMention("<http://example.org/cities/001001> a ex:City .", localNames)).isTrue();
+        assertThat(StaleTriplesCollector.mayMention(PREFIXES + "ex:AddressType rdfs:label \"T\" .", localNames)).isFalse();
+        assertThat(StaleTriplesCollector.mayMention("<http://example.org/\\u0041ddress> a ex:City .", localNames)).isTrue();
+        assertThat(StaleTriplesCollector.mayMention(PREFIXES + "ex:Address a ex:City .", Set.of())).isFalse();
+    }
+
+    private static Model model(String turtle) {
+        Model model = ModelFactory.createDefaultModel();
+        RDFParser.create().fromString(PREFIXES + turtle).lang(Lang.TURTLE).parse(model);
+        return model;
+    }
+}
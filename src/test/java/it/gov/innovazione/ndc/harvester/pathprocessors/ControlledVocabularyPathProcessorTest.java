@@ -3,7 +3,7 @@ package it.gov.innovazione.ndc.harvester.pathprocessors;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContext;
 import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
 import it.gov.innovazione.ndc.harvester.csv.CsvParser;
-import it.gov.innovazione.ndc.harvester.csv.CsvParser.CsvData;
+import it.gov.innovazione.ndc.harvester.csv.CsvParser.CsvRecords;
 import it.gov.innovazione.ndc.harvester.csvapis.HarvestAssetStateService;
 import it.gov.innovazione.ndc.harvester.csvapis.Sha256Hasher;
 import it.gov.innovazione.ndc.harvester.model.ControlledVocabularyModel;
@@ -37,16 +37,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -92,23 +90,22 @@ class ControlledVocabularyPathProcessorTest {
         String csvFile = "cities.csv";
         CvPath path = CvPath.of(ttlFile, csvFile);
 
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-        when(semanticAssetModelFactory.createControlledVocabulary(ttlFile, "some-repo")).thenReturn(cvModel);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+        when(semanticAssetModelFactory.createControlledVocabulary(any(), eq(ttlFile), eq("some-repo"))).thenReturn(cvModel);
         when(cvModel.getRdfModel()).thenReturn(jenaModel);
         when(cvModel.getKeyConcept()).thenReturn("keyConcept");
         when(cvModel.getAgencyId()).thenReturn(RightsHolder.builder().identifier("agencyId").build());
-        CsvData csvData = new CsvData(List.of(Map.of("key", "val")), "key");
-        when(csvParser.loadCsvDataFromFile(csvFile)).thenReturn(csvData);
+        CsvRecords csvRecords = new CsvRecords(Stream.of(Map.of("key", "val")), "key");
+        when(csvParser.openCsvFile(csvFile)).thenReturn(csvRecords);
         SemanticAssetMetadata metadata = SemanticAssetMetadata.builder().build();
         when(cvModel.extractMetadata()).thenReturn(metadata);
 
         pathProcessor.process("some-repo", path);
 
-        verify(semanticAssetModelFactory).createControlledVocabulary(ttlFile, "some-repo");
-        verify(csvParser).loadCsvDataFromFile(csvFile);
-        verify(tripleStoreRepository).save("some-repo", jenaModel);
-        verify(vocabularyDataService).indexData(new VocabularyIdentifier("agencyId", "keyConcept"),
-                new CsvData(List.of(Map.of("key", "val")), "key"));
+        verify(semanticAssetModelFactory).createControlledVocabulary(any(), eq(ttlFile), eq("some-repo"));
+        verify(csvParser).openCsvFile(csvFile);
+        verify(tripleStoreRepository).save("some-repo", jenaModel, ttlFile);
+        verify(vocabularyDataService).indexData(new VocabularyIdentifier("agencyId", "keyConcept"), csvRecords);
         verify(cvModel).extractMetadata();
         verify(metadataRepository).save(metadata);
     }
@@ -118,16 +115,16 @@ class ControlledVocabularyPathProcessorTest {
         String ttlFile = "cities.ttl";
         CvPath path = CvPath.of(ttlFile, null);
 
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-        when(semanticAssetModelFactory.createControlledVocabulary(ttlFile, "some-repo")).thenReturn(cvModel);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+        when(semanticAssetModelFactory.createControlledVocabulary(any(), eq(ttlFile), eq("some-repo"))).thenReturn(cvModel);
         when(cvModel.getRdfModel()).thenReturn(jenaModel);
         SemanticAssetMetadata metadata = SemanticAssetMetadata.builder().build();
         when(cvModel.extractMetadata()).thenReturn(metadata);
 
         pathProcessor.process("some-repo", path);
 
-        verify(semanticAssetModelFactory).createControlledVocabulary(ttlFile, "some-repo");
-        verify(tripleStoreRepository).save("some-repo", jenaModel);
+        verify(semanticAssetModelFactory).createControlledVocabulary(any(), eq(ttlFile), eq("some-repo"));
+        verify(tripleStoreRepository).save("some-repo", jenaModel, ttlFile);
         verify(cvModel).extractMetadata();
 
         verify(cvModel, never()).getAgencyId();
@@ -149,41 +146,6 @@ class ControlledVocabularyPathProcessorTest {
         verify(cvModel, never()).addNdcDataServiceProperties(baseUrl);
     }
 
-    @Test
-    void shouldDropIndicesForRepo() {
-        String agencyId = "istat";
-        String concept1 = "accomodation-ratings";
-        String concept2 = "education-levels";
-        List<SemanticAssetMetadata> vocabsMetadata = buildVocabsMetadataWithAgencyAndConcepts(agencyId, List.of(concept1, concept2));
-        when(metadataRepository.findVocabulariesForRepoUrl(REPO_URL, Instance.PRIMARY)).thenReturn(vocabsMetadata);
-
-        pathProcessor.dropCsvIndicesForRepo(REPO_URL, Instance.PRIMARY);
-
-        verify(metadataRepository).findVocabulariesForRepoUrl(REPO_URL, Instance.PRIMARY);
-        verify(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept1));
-        verify(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept2));
-    }
-
-    @Test
-    void shouldTryAndDropSubsequentIndicesEvenAfterFailingToDropOne() {
-        String agencyId = "istat";
-        String concept1 = "accomodation-ratings";
-        String concept2 = "education-levels";
-        List<SemanticAssetMetadata> vocabsMetadata = buildVocabsMetadataWithAgencyAndConcepts(agencyId, List.of(concept1, concept2));
-        when(metadataRepository.findVocabulariesForRepoUrl(REPO_URL, Instance.PRIMARY)).thenReturn(vocabsMetadata);
-        doThrow(new RuntimeException("Could not drop index")).when(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept1));
-
-        pathProcessor.dropCsvIndicesForRepo(REPO_URL, Instance.PRIMARY);
-
-        verify(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept1));
-        verify(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept2));
-    }
-
-    private List<SemanticAssetMetadata> buildVocabsMetadataWithAgencyAndConcepts(String agencyId, List<String> keyConcepts) {
-        SemanticAssetMetadata template = SemanticAssetMetadata.builder().repoUrl(REPO_URL).agencyId(agencyId).build();
-        return keyConcepts.stream().map(c -> template.toBuilder().keyConcept(c).build()).collect(Collectors.toList());
-    }
-
     @org.junit.jupiter.api.Nested
     class ApiStoreDbDiscovery {
         @TempDir
@@ -218,12 +180,12 @@ class ControlledVocabularyPathProcessorTest {
                     .instance(Instance.PRIMARY)
                     .build());
 
-            when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-            when(semanticAssetModelFactory.createControlledVocabulary(ttlFile, REPO_URL)).thenReturn(cvModel);
+            when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+            when(semanticAssetModelFactory.createControlledVocabulary(any(), eq(ttlFile), eq(REPO_URL))).thenReturn(cvModel);
             when(cvModel.getRdfModel()).thenReturn(jenaModel);
             when(cvModel.getKeyConcept()).thenReturn("keyConcept");
             when(cvModel.getAgencyId()).thenReturn(RightsHolder.builder().identifier("agencyId").build());
-            when(csvParser.loadCsvDataFromFile(csvFile)).thenReturn(new CsvData(List.of(Map.of("key", "val")), "key"));
+            when(csvParser.openCsvFile(csvFile)).thenReturn(new CsvRecords(Stream.of(Map.of("key", "val")), "key"));
             when(cvModel.extractMetadata()).thenReturn(SemanticAssetMetadata.builder().build());
 
             pathProcessor.process(REPO_URL, path);
@@ -238,8 +200,8 @@ class ControlledVocabularyPathProcessorTest {
             String ttlFile = "cv.ttl";
             CvPath path = CvPath.of(ttlFile, null);
 
-            when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-            when(semanticAssetModelFactory.createControlledVocabulary(ttlFile, REPO_URL)).thenReturn(cvModel);
+            when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+            when(semanticAssetModelFactory.createControlledVocabulary(any(), eq(ttlFile), eq(REPO_URL))).thenReturn(cvModel);
             when(cvModel.getRdfModel()).thenReturn(jenaModel);
             when(cvModel.extractMetadata()).thenReturn(SemanticAssetMetadata.builder().build());
 
@@ -262,8 +224,8 @@ class ControlledVocabularyPathProcessorTest {
                     .instance(Instance.PRIMARY)
                     .build());
 
-            when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-            when(semanticAssetModelFactory.createControlledVocabulary(ttlFile, REPO_URL)).thenReturn(cvModel);
+            when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+            when(semanticAssetModelFactory.createControlledVocabulary(any(), eq(ttlFile), eq(REPO_URL))).thenReturn(cvModel);
             when(cvModel.getRdfModel()).thenReturn(jenaModel);
             when(cvModel.extractMetadata()).thenReturn(SemanticAssetMetadata.builder().build());
 
@@ -295,8 +257,8 @@ class ControlledVocabularyPathProcessorTest {
                     .instance(Instance.PRIMARY)
                     .build());
 
-            when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-            when(semanticAssetModelFactory.createControlledVocabulary(ttlFile, REPO_URL)).thenReturn(cvModel);
+            when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+            when(semanticAssetModelFactory.createControlledVocabulary(any(), eq(ttlFile), eq(REPO_URL))).thenReturn(cvModel);
             when(cvModel.getRdfModel()).thenReturn(jenaModel);
             when(cvModel.getKeyConcept()).thenReturn("kc");
             when(cvModel.getAgencyId()).thenReturn(RightsHolder.builder().identifier("ag").build());
@@ -319,8 +281,8 @@ class ControlledVocabularyPathProcessorTest {
 
             CvPath path = CvPath.of(ttlFile, null, dbFile.toString());
 
-            when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-            when(semanticAssetModelFactory.createControlledVocabulary(ttlFile, REPO_URL)).thenReturn(cvModel);
+            when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+            when(semanticAssetModelFactory.createControlledVocabulary(any(), eq(ttlFile), eq(REPO_URL))).thenReturn(cvModel);
             when(cvModel.getRdfModel()).thenReturn(jenaModel);
             when(cvModel.extractMetadata()).thenReturn(SemanticAssetMetadata.builder().build());
 
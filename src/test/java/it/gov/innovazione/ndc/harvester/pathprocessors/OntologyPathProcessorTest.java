@@ -16,7 +16,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,8 +48,8 @@ class OntologyPathProcessorTest {
         String ttlFile = "cities.ttl";
         SemanticAssetPath path = SemanticAssetPath.of(ttlFile);
 
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-        when(modelFactory.createOntology(ttlFile, "some-repo")).thenReturn(ontologyModel);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+        when(modelFactory.createOntology(any(), eq(ttlFile), eq("some-repo"))).thenReturn(ontologyModel);
         when(ontologyModel.getMainResource()).thenReturn(ontology);
         SemanticAssetMetadata metadata = SemanticAssetMetadata.builder().build();
         when(ontologyModel.extractMetadata()).thenReturn(metadata);
@@ -55,7 +57,7 @@ class OntologyPathProcessorTest {
         pathProcessor.process("some-repo", path);
 
         verify(ontologyModel, atLeastOnce()).getMainResource();
-        verify(modelFactory).createOntology(ttlFile, "some-repo");
+        verify(modelFactory).createOntology(any(), eq(ttlFile), eq("some-repo"));
         verify(ontologyModel).extractMetadata();
         verify(metadataRepository).save(metadata);
     }
@@ -9,6 +9,8 @@ import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidationResult;
 import it.gov.innovazione.ndc.harvester.validation.RdfSyntaxValidator;
 import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
 import it.gov.innovazione.ndc.repository.TripleStoreRepository;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -17,7 +19,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -42,12 +46,13 @@ class SchemaPathProcessorTest {
 
     @Test
     void shouldLoadSchemaModel() {
-        when(modelFactory.createSchema(anyString(), anyString())).thenReturn(schemaModel);
+        Model rdfModel = ModelFactory.createDefaultModel();
+        when(modelFactory.createSchema(any(), anyString(), anyString())).thenReturn(schemaModel);
 
         SchemaModel actual =
-            schemaPathProcessor.loadModel("index.ttl", "http://example.com/");
+            schemaPathProcessor.loadModel(rdfModel, "index.ttl", "http://example.com/");
 
-        verify(modelFactory).createSchema("index.ttl", "http://example.com/");
+        verify(modelFactory).createSchema(rdfModel, "index.ttl", "http://example.com/");
         Assertions.assertThat(actual).isEqualTo(schemaModel);
     }
 
@@ -56,8 +61,8 @@ class SchemaPathProcessorTest {
         String ttlFile = "index.ttl";
         SemanticAssetPath path = SemanticAssetPath.of(ttlFile);
 
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(RdfSyntaxValidationResult.builder().build());
-        when(modelFactory.createSchema(ttlFile, "some-repo")).thenReturn(schemaModel);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(RdfSyntaxValidationResult.builder().build());
+        when(modelFactory.createSchema(any(), eq(ttlFile), eq("some-repo"))).thenReturn(schemaModel);
         when(schemaModel.getMainResource()).thenReturn(
             ResourceFactory.createResource("http://example.com/schema"));
         SemanticAssetMetadata metadata = SemanticAssetMetadata.builder().build();
@@ -66,7 +71,7 @@ class SchemaPathProcessorTest {
         schemaPathProcessor.process("some-repo", path);
 
         verify(schemaModel, atLeastOnce()).getMainResource();
-        verify(modelFactory).createSchema(ttlFile, "some-repo");
+        verify(modelFactory).createSchema(any(), eq(ttlFile), eq("some-repo"));
         verify(schemaModel).extractMetadata();
         verify(metadataRepository).save(metadata);
     }
@@ -30,7 +30,9 @@ import java.util.List;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -49,7 +51,7 @@ class SemanticAssetPathProcessorTest {
         }
 
         @Override
-        protected OntologyModel loadModel(String ttlFile, String repoUrl) {
+        protected OntologyModel loadModel(Model rdfModel, String ttlFile, String repoUrl) {
             return modelDecorator;
         }
 
@@ -59,7 +61,7 @@ class SemanticAssetPathProcessorTest {
         }
 
         @Override
-        protected SemanticAssetModelValidationContext validateMetadataForReport(String ttlFile, String repoUrl) {
+        protected SemanticAssetModelValidationContext validateMetadataForReport(Model rdfModel, String ttlFile, String repoUrl) {
             return SemanticAssetModelValidationContext.getForValidation();
         }
 
@@ -95,7 +97,7 @@ class SemanticAssetPathProcessorTest {
             new TestSemanticAssetPathProcessor(tripleStoreRepository, metadataRepository, rdfSyntaxValidator);
         SemanticAssetPath path = SemanticAssetPath.of(ttlFile);
         SemanticAssetMetadata metadata = SemanticAssetMetadata.builder().build();
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(VALID_RESULT);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(VALID_RESULT);
         when(modelDecorator.getRdfModel()).thenReturn(model);
         when(modelDecorator.extractMetadata()).thenReturn(metadata);
 
@@ -106,7 +108,7 @@ class SemanticAssetPathProcessorTest {
 
         inOrder.verify(modelDecorator).extractMetadata();
         inOrder.verify(metadataRepository).save(metadata);
-        inOrder.verify(tripleStoreRepository).save(repoUrl, model);
+        inOrder.verify(tripleStoreRepository).save(repoUrl, model, ttlFile);
     }
 
     @Test
@@ -117,18 +119,18 @@ class SemanticAssetPathProcessorTest {
             new TestSemanticAssetPathProcessor(tripleStoreRepository, metadataRepository, rdfSyntaxValidator);
         SemanticAssetPath path = SemanticAssetPath.of(ttlFile);
         SemanticAssetMetadata metadata = SemanticAssetMetadata.builder().build();
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(VALID_RESULT);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(VALID_RESULT);
         when(modelDecorator.getRdfModel()).thenReturn(model);
         TripleStoreRepositoryException repositoryException =
             new TripleStoreRepositoryException("Oops!");
-        doThrow(repositoryException).when(tripleStoreRepository).save(repoUrl, model);
+        doThrow(repositoryException).when(tripleStoreRepository).save(repoUrl, model, ttlFile);
 
         assertThatThrownBy(() -> processor.process(repoUrl, path))
             .isInstanceOf(SinglePathProcessingException.class)
                 .has(new Condition<>(e -> e.getCause().getCause() == repositoryException, "cause is the expected exception"))
                 .has(new Condition<>(e -> ((SinglePathProcessingException) e).isFatal(), "is fatal"));
 
-        verify(tripleStoreRepository).save(repoUrl, model);
+        verify(tripleStoreRepository).save(repoUrl, model, ttlFile);
         verify(metadataRepository, never()).save(metadata);
     }
 
@@ -139,10 +141,10 @@ class SemanticAssetPathProcessorTest {
         TestSemanticAssetPathProcessor processor =
             spy(new TestSemanticAssetPathProcessor(tripleStoreRepository, metadataRepository, rdfSyntaxValidator));
         SemanticAssetPath path = SemanticAssetPath.of(ttlFile);
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(VALID_RESULT);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(VALID_RESULT);
         InvalidModelException invalidModelException =
             new InvalidModelException("Cannot load model", new RuntimeException("Malformed TTL"));
-        when(processor.loadModel(ttlFile, repoUrl)).thenThrow(invalidModelException);
+        when(processor.loadModel(any(), eq(ttlFile), eq(repoUrl))).thenThrow(invalidModelException);
 
         assertThatThrownBy(() -> processor.process(repoUrl, path))
             .isInstanceOf(SinglePathProcessingException.class)
@@ -159,7 +161,7 @@ class SemanticAssetPathProcessorTest {
         TestSemanticAssetPathProcessor processor =
             new TestSemanticAssetPathProcessor(tripleStoreRepository, metadataRepository, rdfSyntaxValidator);
         SemanticAssetPath path = SemanticAssetPath.of(ttlFile);
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(VALID_RESULT);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(VALID_RESULT);
         InvalidModelException invalidModelException =
             new InvalidModelException("Cannot find main resource");
         when(modelDecorator.getMainResource()).thenThrow(invalidModelException);
@@ -179,7 +181,7 @@ class SemanticAssetPathProcessorTest {
         TestSemanticAssetPathProcessor processor =
             new TestSemanticAssetPathProcessor(tripleStoreRepository, metadataRepository, rdfSyntaxValidator);
         SemanticAssetPath path = SemanticAssetPath.of(ttlFile);
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(VALID_RESULT);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(VALID_RESULT);
         RuntimeException enrichmentException =
             new RuntimeException("Something went wrong calculating enrichments");
         doThrow(enrichmentException).when(modelEnricher).accept(modelDecorator);
@@ -206,7 +208,7 @@ class SemanticAssetPathProcessorTest {
                         .message("Expected '.' or '}', got KEYWORD")
                         .build())
                 .build();
-        when(rdfSyntaxValidator.validateTurtle(ttlFile)).thenReturn(failedResult);
+        when(rdfSyntaxValidator.validateTurtle(eq(ttlFile), any())).thenReturn(failedResult);
 
         assertThatThrownBy(() -> processor.process(repoUrl, path))
             .isInstanceOf(SinglePathProcessingException.class)
@@ -235,14 +237,14 @@ class SemanticAssetPathProcessorTest {
                         .message("Prefix 'ex' is unused")
                         .build())
                 .build();
-        when(rdfSyntaxValidator.validateTurtle(ttlFile)).thenReturn(warningResult);
+        when(rdfSyntaxValidator.validateTurtle(eq(ttlFile), any())).thenReturn(warningResult);
         when(modelDecorator.getRdfModel()).thenReturn(model);
         when(modelDecorator.extractMetadata()).thenReturn(metadata);
 
         processor.process(repoUrl, path);
 
         verify(metadataRepository).save(metadata);
-        verify(tripleStoreRepository).save(repoUrl, model);
+        verify(tripleStoreRepository).save(repoUrl, model, ttlFile);
     }
 
     @Test
@@ -253,7 +255,7 @@ class SemanticAssetPathProcessorTest {
             spy(new TestSemanticAssetPathProcessor(tripleStoreRepository, metadataRepository, rdfSyntaxValidator));
         SemanticAssetPath path = SemanticAssetPath.of(ttlFile);
         SemanticAssetMetadata metadata = SemanticAssetMetadata.builder().build();
-        when(rdfSyntaxValidator.validateTurtle(anyString())).thenReturn(VALID_RESULT);
+        when(rdfSyntaxValidator.validateTurtle(anyString(), any())).thenReturn(VALID_RESULT);
         when(modelDecorator.getRdfModel()).thenReturn(model);
         when(modelDecorator.extractMetadata()).thenReturn(metadata);
 
@@ -271,8 +273,8 @@ class SemanticAssetPathProcessorTest {
             HarvestExecutionContextUtils.clearContext();
         }
 
-        verify(processor).validateMetadataForReport(ttlFile, repoUrl);
+        verify(processor).validateMetadataForReport(any(), eq(ttlFile), eq(repoUrl));
         verify(metadataRepository).save(metadata);
-        verify(tripleStoreRepository).save(repoUrl, model);
+        verify(tripleStoreRepository).save(repoUrl, model, ttlFile);
     }
 }
@@ -0,0 +1,42 @@
+package it.gov.innovazione.ndc.harvester.service.startupjob;
+
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataLiveSwitcher;
+import it.gov.innovazione.ndc.service.InstanceManager;
+import it.gov.innovazione.ndc.service.InstanceManager.RepositoryInstance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LiveFlagBackfillStartupJobTest {
+
+    @Mock
+    private InstanceManager instanceManager;
+    @Mock
+    private SemanticAssetMetadataLiveSwitcher liveSwitcher;
+
+    @InjectMocks
+    private LiveFlagBackfillStartupJob job;
+
+    @Test
+    void shouldFlagOnlineInstanceOfEveryActiveRepo() {
+        when(instanceManager.getCurrentInstances()).thenReturn(List.of(
+                RepositoryInstance.of("http://www.example.org/repo1", Instance.PRIMARY),
+                RepositoryInstance.of("http://www.example.org/repo2", Instance.SECONDARY)));
+        when(liveSwitcher.switchLive("http://www.example.org/repo1", Instance.PRIMARY))
+                .thenThrow(new IllegalStateException("Elasticsearch unavailable"));
+
+        job.run();
+
+        verify(liveSwitcher).switchLive("http://www.example.org/repo1", Instance.PRIMARY);
+        verify(liveSwitcher).switchLive("http://www.example.org/repo2", Instance.SECONDARY);
+    }
+}
@@ -0,0 +1,78 @@
+package it.gov.innovazione.ndc.harvester.service.startupjob;
+
+import it.gov.innovazione.ndc.harvester.service.HarvesterRunService;
+import it.gov.innovazione.ndc.harvester.util.GitUtils;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UpdateRevisionCommittedAtTest {
+
+    private static final String REPO_URL = "https://github.com/agency/repo";
+    private static final Instant FIRST_COMMIT_DATE = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private GitUtils gitUtils;
+    @Mock
+    private HarvesterRunService harvesterRunService;
+    @InjectMocks
+    private UpdateRevisionCommittedAt updateRevisionCommittedAt;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldResolveAllRevisionsOfRepositoryAtOnceAndUpdateRunsInBulk() {
+        when(harvesterRunService.getAllRuns()).thenReturn(List.of(
+                run("run-1", "rev-1", HarvesterRun.Status.SUCCESS, null),
+                run("run-2", "rev-1", HarvesterRun.Status.SUCCESS, null),
+                run("run-3", "rev-2", HarvesterRun.Status.SUCCESS, null),
+                run("run-4", "rev-3", HarvesterRun.Status.FAILURE, null),
+                run("run-5", "rev-4", HarvesterRun.Status.SUCCESS, FIRST_COMMIT_DATE)));
+        when(gitUtils.getCommitDates(REPO_URL, Set.of("rev-1", "rev-2"))).thenReturn(Map.of("rev-1", FIRST_COMMIT_DATE));
+
+        updateRevisionCommittedAt.run();
+
+        ArgumentCaptor<List<HarvesterRun>> captor = ArgumentCaptor.forClass(List.class);
+        verify(harvesterRunService).updateHarvesterRunsCommittedAt(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(HarvesterRun::getId, HarvesterRun::getRevisionCommittedAt)
+                .containsExactlyInAnyOrder(
+                        tuple("run-1", FIRST_COMMIT_DATE),
+                        tuple("run-2", FIRST_COMMIT_DATE));
+    }
+
+    @Test
+    void shouldSkipRunsWithoutRevision() {
+        when(harvesterRunService.getAllRuns()).thenReturn(List.of(run("run-1", null, HarvesterRun.Status.SUCCESS, null)));
+
+        updateRevisionCommittedAt.run();
+
+        verify(gitUtils, never()).getCommitDates(any(), any());
+    }
+
+    private static HarvesterRun run(String id, String revision, HarvesterRun.Status status, Instant revisionCommittedAt) {
+        return HarvesterRun.builder()
+                .id(id)
+                .repositoryUrl(REPO_URL)
+                .revision(revision)
+                .status(status)
+                .revisionCommittedAt(revisionCommittedAt)
+                .build();
+    }
+}
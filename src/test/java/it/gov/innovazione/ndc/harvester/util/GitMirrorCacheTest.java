@@ -0,0 +1,96 @@
+package it.gov.innovazione.ndc.harvester.util;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitMirrorCacheTest {
+
+    @TempDir
+    Path upstreamDir;
+
+    @TempDir
+    Path otherUpstreamDir;
+
+    @TempDir
+    Path mirrorsDir;
+
+    @Test
+    void shouldFetchNewCommitsIntoExistingMirror() throws Exception {
+        GitMirrorCache cache = new GitMirrorCache(new FileUtils(), true, mirrorsDir.toString(), 1024);
+        try (Git upstream = Git.init().setDirectory(upstreamDir.toFile()).call()) {
+            commit(upstream, upstreamDir, "first");
+            String repoUrl = upstreamDir.toUri().toString();
+            assertThat(cache.withMirror(repoUrl, GitMirrorCacheTest::head)).isPresent();
+
+            RevCommit second = commit(upstream, upstreamDir, "second");
+
+            assertThat(cache.withMirror(repoUrl, GitMirrorCacheTest::head)).contains(second.getId());
+            assertThat(mirrors()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedMirrorsAboveQuota() throws Exception {
+        GitMirrorCache cache = new GitMirrorCache(new FileUtils(), true, mirrorsDir.toString(), 0);
+        try (Git upstream = Git.init().setDirectory(upstreamDir.toFile()).call();
+             Git otherUpstream = Git.init().setDirectory(otherUpstreamDir.toFile()).call()) {
+            commit(upstream, upstreamDir, "first");
+            commit(otherUpstream, otherUpstreamDir, "other");
+
+            cache.withMirror(upstreamDir.toUri().toString(), GitMirrorCacheTest::head);
+            Optional<ObjectId> otherHead = cache.withMirror(otherUpstreamDir.toUri().toString(), GitMirrorCacheTest::head);
+
+            assertThat(otherHead).isPresent();
+            assertThat(mirrors()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldNotUseMirrorsWhenDisabled() {
+        GitMirrorCache cache = new GitMirrorCache(new FileUtils(), false, mirrorsDir.toString(), 1024);
+
+        assertThat(cache.withMirror(upstreamDir.toUri().toString(), GitMirrorCacheTest::head)).isEmpty();
+    }
+
+    @Test
+    void shouldNotUseMirrorOfUnreachableRepository() throws Exception {
+        GitMirrorCache cache = new GitMirrorCache(new FileUtils(), true, mirrorsDir.toString(), 1024);
+
+        assertThat(cache.withMirror(upstreamDir.resolve("missing").toUri().toString(), GitMirrorCacheTest::head)).isEmpty();
+        assertThat(mirrors()).isZero();
+    }
+
+    private static ObjectId head(Repository mirror) throws IOException {
+        return mirror.resolve(Constants.HEAD);
+    }
+
+    private long mirrors() throws Exception {
+        try (Stream<Path> dirs = Files.list(mirrorsDir)) {
+            return dirs.count();
+        }
+    }
+
+    private static RevCommit commit(Git git, Path dir, String message) throws Exception {
+        Files.writeString(dir.resolve("README.md"), message);
+        git.add().addFilepattern(".").call();
+        return git.commit()
+                .setMessage(message)
+                .setAuthor("harvester", "harvester@example.org")
+                .setCommitter("harvester", "harvester@example.org")
+                .setSign(false)
+                .call();
+    }
+}
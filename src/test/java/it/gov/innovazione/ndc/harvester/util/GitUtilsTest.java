@@ -0,0 +1,130 @@
+package it.gov.innovazione.ndc.harvester.util;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitUtilsTest {
+
+    private static final String ONTOLOGY_A = "assets/ontologies/A/latest/a.ttl";
+    private static final String ONTOLOGY_B = "assets/ontologies/B/latest/b.ttl";
+    private static final String VOCABULARY_CSV = "assets/controlled-vocabularies/C/c.csv";
+
+    private final GitUtils gitUtils = new GitUtils(new FileUtils(), new GitMirrorCache(new FileUtils(), false, "unused", 0));
+
+    @TempDir
+    Path repoDir;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void shouldListPathsChangedSinceRevision() throws Exception {
+        try (Git git = Git.init().setDirectory(repoDir.toFile()).call()) {
+            write(ONTOLOGY_A, "a");
+            write(ONTOLOGY_B, "b");
+            RevCommit first = commit(git, "first");
+            write(ONTOLOGY_B, "b2");
+            write(VOCABULARY_CSV, "c");
+            Files.delete(repoDir.resolve(ONTOLOGY_A));
+            commit(git, "second");
+
+            Optional<Set<String>> changedPaths = gitUtils.getChangedPaths(repoDir, first.getName());
+
+            assertThat(changedPaths).hasValueSatisfying(paths ->
+                    assertThat(paths).containsExactlyInAnyOrder(ONTOLOGY_A, ONTOLOGY_B, VOCABULARY_CSV));
+        }
+    }
+
+    @Test
+    void shouldNotListPathsWhenRevisionIsUnknown() throws Exception {
+        try (Git git = Git.init().setDirectory(repoDir.toFile()).call()) {
+            write(ONTOLOGY_A, "a");
+            commit(git, "first");
+
+            assertThat(gitUtils.getChangedPaths(repoDir, "0123456789abcdef0123456789abcdef01234567")).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldReadFilesAtRevision() throws Exception {
+        try (Git git = Git.init().setDirectory(repoDir.toFile()).call()) {
+            write(ONTOLOGY_A, "a");
+            RevCommit first = commit(git, "first");
+            write(ONTOLOGY_A, "a2");
+            commit(git, "second");
+
+            Optional<Map<String, byte[]>> contents =
+                    gitUtils.readFilesAtRevision(repoDir, first.getName(), List.of(ONTOLOGY_A, ONTOLOGY_B));
+
+            assertThat(contents).hasValueSatisfying(files -> {
+                assertThat(files).containsOnlyKeys(ONTOLOGY_A);
+                assertThat(new String(files.get(ONTOLOGY_A), StandardCharsets.UTF_8)).isEqualTo("a");
+            });
+        }
+    }
+
+    @Test
+    void shouldCloneThroughMirrorAndReadCommitDate() throws Exception {
+        GitUtils mirroredGitUtils = new GitUtils(new FileUtils(),
+                new GitMirrorCache(new FileUtils(), true, workDir.resolve("mirrors").toString(), 1024));
+        try (Git git = Git.init().setDirectory(repoDir.toFile()).call()) {
+            write(ONTOLOGY_A, "a");
+            RevCommit first = commit(git, "first");
+            String repoUrl = repoDir.toUri().toString();
+
+            Path clone = Files.createDirectories(workDir.resolve("clone"));
+            mirroredGitUtils.cloneRepo(repoUrl, clone.toFile(), null, null);
+
+            assertThat(clone.resolve(ONTOLOGY_A)).hasContent("a");
+            assertThat(mirroredGitUtils.getCommitDates(repoUrl, List.of(first.getName())))
+                    .containsExactly(Map.entry(first.getName(), first.getAuthorIdent().getWhenAsInstant()));
+        }
+    }
+
+    @Test
+    void shouldResolveCommitDatesOfKnownRevisions() throws Exception {
+        try (Git git = Git.init().setDirectory(repoDir.toFile()).call()) {
+            write(ONTOLOGY_A, "a");
+            RevCommit first = commit(git, "first");
+            write(ONTOLOGY_A, "a2");
+            RevCommit second = commit(git, "second");
+
+            Map<String, Instant> commitDates = gitUtils.getCommitDates(repoDir.toUri().toString(),
+                    List.of(first.getName(), second.getName(), "0123456789abcdef0123456789abcdef01234567"));
+
+            assertThat(commitDates).containsOnly(
+                    Map.entry(first.getName(), first.getAuthorIdent().getWhenAsInstant()),
+                    Map.entry(second.getName(), second.getAuthorIdent().getWhenAsInstant()));
+        }
+    }
+
+    private void write(String path, String content) throws Exception {
+        Path file = repoDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static RevCommit commit(Git git, String message) throws Exception {
+        git.add().addFilepattern(".").call();
+        git.add().addFilepattern(".").setUpdate(true).call();
+        return git.commit()
+                .setMessage(message)
+                .setAuthor("harvester", "harvester@example.org")
+                .setCommitter("harvester", "harvester@example.org")
+                .setSign(false)
+                .call();
+    }
+}
@@ -1,5 +1,7 @@
 package it.gov.innovazione.ndc.harvester.validation;
 
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -40,6 +42,26 @@ class RdfSyntaxValidatorTest {
         assertThat(result.hasErrors()).isFalse();
     }
 
+    @Test
+    void shouldLoadTriplesIntoModelWhileValidating() throws IOException {
+        Path ttlFile = tempDir.resolve("valid.ttl");
+        Files.writeString(ttlFile, """
+                @prefix skos: <http://www.w3.org/2004/02/skos/core#> .
+                @prefix dct:  <http://purl.org/dc/terms/> .
+
+                <http://example.org/vocab/1>
+                    a skos:ConceptScheme ;
+                    dct:title "Test Vocabulary"@it .
+                """);
+        Model model = ModelFactory.createDefaultModel();
+
+        RdfSyntaxValidationResult result = validator.validateTurtle(ttlFile.toString(), model);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(model.size()).isEqualTo(2);
+        assertThat(model.getNsPrefixURI("skos")).isEqualTo("http://www.w3.org/2004/02/skos/core#");
+    }
+
     @Test
     void shouldFailForMalformedTurtle() throws IOException {
         Path ttlFile = tempDir.resolve("malformed.ttl");
@@ -0,0 +1,60 @@
+package it.gov.innovazione.ndc.repository;
+
+import it.gov.innovazione.ndc.model.harvester.HarvesterRunProfileEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class HarvesterRunProfileRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private HarvesterRunProfileRepository repository;
+
+    @Test
+    void shouldInsertEntriesWithBatchUpdate() {
+        List<HarvesterRunProfileEntry> entries = List.of(
+                entry("CLONE_REPO", HarvesterRunProfileEntry.MILLIS, 1500, 1),
+                entry("TRIPLES", "triples", 42000, 12));
+
+        repository.saveAll(entries);
+
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(
+                eq("INSERT INTO HARVESTER_RUN_PROFILE (HARVESTER_RUN_ID, NAME, UNIT, AMOUNT, INVOCATIONS) VALUES (?, ?, ?, ?, ?)"),
+                args.capture());
+        assertThat(args.getValue()).hasSize(2);
+        assertThat(args.getValue().get(1)).containsExactly("run-1", "TRIPLES", "triples", 42000L, 12L);
+    }
+
+    @Test
+    void shouldSkipEmptyProfiles() {
+        repository.saveAll(List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static HarvesterRunProfileEntry entry(String name, String unit, long amount, long invocations) {
+        return HarvesterRunProfileEntry.builder()
+                .harvesterRunId("run-1")
+                .name(name)
+                .unit(unit)
+                .amount(amount)
+                .invocations(invocations)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package it.gov.innovazione.ndc.repository;
+
+import it.gov.innovazione.ndc.harvester.SemanticAssetType;
+import it.gov.innovazione.ndc.model.audit.ChangeKind;
+import it.gov.innovazione.ndc.model.audit.ResourceDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceDeltaRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ResourceDeltaRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ResourceDeltaRepository(jdbcTemplate, 2);
+    }
+
+    @Test
+    void shouldInsertDeltasWithBatchUpdate() throws Exception {
+        List<ResourceDelta> deltas = List.of(delta("d1"), delta("d2"), delta("d3"));
+
+        repository.saveAll(deltas);
+
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<ResourceDelta>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(
+                eq("INSERT INTO HARVEST_RESOURCE_DELTA (ID, HARVESTER_RUN_ID, ASSET_IRI, ASSET_TYPE, CHANGE_KIND, SUMMARY_JSON, CREATED_AT) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)"),
+                eq(deltas), eq(2), setter.capture());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, deltas.get(0));
+        verify(ps).setString(1, "d1");
+        verify(ps).setString(4, "ONTOLOGY");
+        verify(ps).setString(5, "ADDED");
+        verify(ps).setTimestamp(7, Timestamp.from(Instant.EPOCH));
+    }
+
+    @Test
+    void shouldSkipEmptyDeltas() {
+        repository.saveAll(List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static ResourceDelta delta(String id) {
+        return ResourceDelta.builder()
+                .id(id)
+                .harvesterRunId("run-1")
+                .assetIri("https://w3id.org/italia/onto/" + id)
+                .assetType(SemanticAssetType.ONTOLOGY)
+                .changeKind(ChangeKind.ADDED)
+                .summaryJson("{}")
+                .createdAt(Instant.EPOCH)
+                .build();
+    }
+}
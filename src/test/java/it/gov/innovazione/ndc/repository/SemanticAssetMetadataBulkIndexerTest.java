@@ -0,0 +1,160 @@
+package it.gov.innovazione.ndc.repository;
+
+import it.gov.innovazione.ndc.harvester.exception.SinglePathProcessingException;
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SemanticAssetMetadataBulkIndexerTest {
+    private static final String REPO_URL = "http://www.example.org/repo";
+
+    @Mock
+    private ElasticsearchOperations esOps;
+    @Mock
+    private ElasticsearchOperations bulkOps;
+
+    private SemanticAssetMetadataBulkIndexer bulkIndexer;
+
+    @BeforeEach
+    void setUp() {
+        bulkIndexer = new SemanticAssetMetadataBulkIndexer(esOps, 2);
+    }
+
+    @Test
+    void shouldNotAcceptDocumentsWithoutOpenBulk() {
+        assertThat(bulkIndexer.offer(metadata("http://www.example.org/asset/1"))).isFalse();
+
+        verifyNoInteractions(esOps);
+    }
+
+    @Test
+    void shouldSendFullChunksAndRemainderOnFlush() {
+        when(esOps.withRefreshPolicy(RefreshPolicy.NONE)).thenReturn(bulkOps);
+        bulkIndexer.begin(REPO_URL);
+
+        bulkIndexer.offer(metadata("http://www.example.org/asset/1"));
+        bulkIndexer.offer(metadata("http://www.example.org/asset/2"));
+        bulkIndexer.offer(metadata("http://www.example.org/asset/3"));
+        bulkIndexer.flush(REPO_URL);
+
+        ArgumentCaptor<List<IndexQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bulkOps, times(2)).bulkIndex(captor.capture(), eq(SemanticAssetMetadata.class));
+        assertThat(captor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(captor.getAllValues().get(1).get(0).getId()).isEqualTo("http://www.example.org/asset/3-PRIMARY");
+    }
+
+    @Test
+    void shouldSaveDocumentsRejectedByBulkOneByOne() {
+        SemanticAssetMetadata accepted = metadata("http://www.example.org/asset/1");
+        SemanticAssetMetadata rejected = metadata("http://www.example.org/asset/2");
+        when(esOps.withRefreshPolicy(RefreshPolicy.NONE)).thenReturn(bulkOps);
+        when(bulkOps.bulkIndex(anyList(), any(Class.class)))
+                .thenThrow(new BulkFailureException("Bulk failed", Map.of(rejected.getElasticsearchId(),
+                        new BulkFailureException.FailureDetails(429, "es_rejected_execution_exception"))));
+        bulkIndexer.begin(REPO_URL);
+        bulkIndexer.offer(accepted);
+        bulkIndexer.offer(rejected);
+
+        bulkIndexer.flush(REPO_URL);
+
+        verify(bulkOps).save(rejected);
+        verify(bulkOps, never()).save(accepted);
+    }
+
+    @Test
+    void shouldReportDocumentsFailingAgainAsFatal() {
+        SemanticAssetMetadata accepted = metadata("http://www.example.org/asset/1");
+        SemanticAssetMetadata rejected = metadata("http://www.example.org/asset/2");
+        when(esOps.withRefreshPolicy(RefreshPolicy.NONE)).thenReturn(bulkOps);
+        SemanticAssetMetadata retried = metadata("http://www.example.org/asset/3");
+        when(bulkOps.bulkIndex(anyList(), any(Class.class)))
+                .thenThrow(new BulkFailureException("Bulk failed", Map.of(
+                        rejected.getElasticsearchId(), new BulkFailureException.FailureDetails(400, "mapper_parsing_exception"),
+                        retried.getElasticsearchId(), new BulkFailureException.FailureDetails(429, "es_rejected_execution_exception"))));
+        when(bulkOps.save(retried)).thenReturn(retried);
+        when(bulkOps.save(rejected)).thenThrow(new IllegalStateException("mapper_parsing_exception"));
+        bulkIndexer = new SemanticAssetMetadataBulkIndexer(esOps, 3);
+        bulkIndexer.begin(REPO_URL);
+        bulkIndexer.offer(accepted);
+        bulkIndexer.offer(retried);
+
+        assertThatThrownBy(() -> bulkIndexer.offer(rejected))
+                .isInstanceOf(SinglePathProcessingException.class)
+                .hasMessageContaining("http://www.example.org/asset/2")
+                .hasMessageNotContaining("http://www.example.org/asset/3")
+                .matches(e -> ((SinglePathProcessingException) e).isFatal());
+        verify(bulkOps).save(retried);
+        verify(bulkOps, never()).save(accepted);
+    }
+
+    @Test
+    void shouldFailRightAwayWhenTheWholeBulkRequestFails() {
+        when(esOps.withRefreshPolicy(RefreshPolicy.NONE)).thenReturn(bulkOps);
+        when(bulkOps.bulkIndex(anyList(), any(Class.class))).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        bulkIndexer.begin(REPO_URL);
+        bulkIndexer.offer(metadata("http://www.example.org/asset/1"));
+
+        assertThatThrownBy(() -> bulkIndexer.offer(metadata("http://www.example.org/asset/2")))
+                .isInstanceOf(SinglePathProcessingException.class)
+                .hasCauseInstanceOf(DataAccessResourceFailureException.class)
+                .matches(e -> ((SinglePathProcessingException) e).isFatal());
+        verify(bulkOps, never()).save(any(SemanticAssetMetadata.class));
+    }
+
+    @Test
+    void shouldFailRightAwayWhenTheBulkResponseReportsNoRejectedDocument() {
+        when(esOps.withRefreshPolicy(RefreshPolicy.NONE)).thenReturn(bulkOps);
+        when(bulkOps.bulkIndex(anyList(), any(Class.class))).thenThrow(new BulkFailureException("Bulk failed", Map.of()));
+        bulkIndexer.begin(REPO_URL);
+        bulkIndexer.offer(metadata("http://www.example.org/asset/1"));
+
+        assertThatThrownBy(() -> bulkIndexer.offer(metadata("http://www.example.org/asset/2")))
+                .isInstanceOf(SinglePathProcessingException.class)
+                .hasCauseInstanceOf(BulkFailureException.class);
+        verify(bulkOps, never()).save(any(SemanticAssetMetadata.class));
+    }
+
+    @Test
+    void shouldDropDiscardedDocuments() {
+        bulkIndexer.begin(REPO_URL);
+        bulkIndexer.offer(metadata("http://www.example.org/asset/1"));
+
+        bulkIndexer.discard(REPO_URL);
+        bulkIndexer.flush(REPO_URL);
+
+        verifyNoInteractions(esOps);
+    }
+
+    private static SemanticAssetMetadata metadata(String iri) {
+        return SemanticAssetMetadata.builder()
+                .iri(iri)
+                .repoUrl(REPO_URL)
+                .instance(Instance.PRIMARY.name())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package it.gov.innovazione.ndc.repository;
+
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.ByQueryResponse;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SemanticAssetMetadataLiveSwitcherTest {
+    private static final IndexCoordinates INDEX = IndexCoordinates.of("semantic-asset-metadata");
+
+    @Mock
+    private ElasticsearchOperations esOps;
+
+    @InjectMocks
+    private SemanticAssetMetadataLiveSwitcher liveSwitcher;
+
+    @Test
+    void shouldFlagOnlyDocumentsOfNewInstanceAsLive() {
+        when(esOps.getIndexCoordinatesFor(SemanticAssetMetadata.class)).thenReturn(INDEX);
+        when(esOps.updateByQuery(any(UpdateQuery.class), eq(INDEX)))
+                .thenReturn(ByQueryResponse.builder().withUpdated(3L).build());
+
+        long updated = liveSwitcher.switchLive("someRepoUrl", Instance.SECONDARY);
+
+        assertThat(updated).isEqualTo(3);
+        ArgumentCaptor<UpdateQuery> captor = ArgumentCaptor.forClass(UpdateQuery.class);
+        verify(esOps).updateByQuery(captor.capture(), eq(INDEX));
+        UpdateQuery updateQuery = captor.getValue();
+        assertThat(updateQuery.getScript()).isEqualTo("boolean live = params.instance.equals(ctx._source.instance); "
+                + "if (ctx._source.live == live) { ctx.op = 'noop' } else { ctx._source.live = live }");
+        assertThat(updateQuery.getParams()).containsEntry("instance", "SECONDARY");
+        assertThat(updateQuery.getRefresh()).isTrue();
+        assertThat(((NativeQuery) updateQuery.getQuery()).getQuery().toString())
+                .isEqualTo("Query: {\"terms\":{\"repoUrl\":[\"someRepoUrl\"]}}");
+    }
+}
@@ -3,7 +3,6 @@ package it.gov.innovazione.ndc.repository;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import it.gov.innovazione.ndc.harvester.model.Instance;
 import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
-import it.gov.innovazione.ndc.service.InstanceManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -32,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,7 +40,7 @@ class SemanticAssetMetadataRepositoryTest {
     @Mock
     private ElasticsearchOperations esOps;
     @Mock
-    private InstanceManager instanceManager;
+    private SemanticAssetMetadataBulkIndexer bulkIndexer;
 
     @Mock
     private SearchHits<SemanticAssetMetadata> searchHits;
@@ -114,9 +114,19 @@ class SemanticAssetMetadataRepositoryTest {
     }
 
     @Test
-    void shouldSearchUsingQueryStringAndFiltersAndPagination() {
-        when(instanceManager.getCurrentInstances()).thenReturn(List.of());
+    void shouldNotSaveDirectlyWhenBulkIndexingIsOpen() {
+        SemanticAssetMetadata metadata = SemanticAssetMetadata.builder()
+            .iri("http://www.example.org/asset/1")
+            .build();
+        when(bulkIndexer.offer(metadata)).thenReturn(true);
+
+        repository.save(metadata);
 
+        verify(esOps, never()).save(metadata);
+    }
+
+    @Test
+    void shouldSearchUsingQueryStringAndFiltersAndPagination() {
         ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
 
         when(esOps.search(captor.capture(), any(Class.class))).thenReturn(searchHits);
@@ -137,9 +147,10 @@ class SemanticAssetMetadataRepositoryTest {
                         .map(BoolQuery::must)
                         .orElse(null);
 
-        assertThat(must).hasSize(3);
+        assertThat(must).hasSize(4);
 
         Stream.of(
+                "Query: {\"term\":{\"live\":{\"value\":true}}}",
                 "Query: {\"multi_match\":{\"fields\":[\"rawTitle^5\",\"description^1\",\"searchableText\"],\"fuzziness\":\"AUTO\",\"prefix_length\":1,\"query\":\"query\",\"type\":\"most_fields\"}}",
                 "Query: {\"terms\":{\"type\":[\"TYPE1\"]}}",
                 "Query: {\"terms\":{\"themes\":[\"THEME1\"]}}")
@@ -148,8 +159,6 @@ class SemanticAssetMetadataRepositoryTest {
 
     @Test
     void shouldSearchWithoutFiltersAndSearchText() {
-        when(instanceManager.getCurrentInstances()).thenReturn(List.of());
-
         ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
 
         when(esOps.search(captor.capture(), any(Class.class))).thenReturn(searchHits);
@@ -160,6 +169,6 @@ class SemanticAssetMetadataRepositoryTest {
         assertThat(searchResult.getSearchHits()).isEqualTo(searchHits);
         NativeQuery query = captor.getValue();
         assertNotNull(query);
-        assertThat(query.getQuery().toString()).isEqualTo("Query: {\"bool\":{\"must\":[]}}");
+        assertThat(query.getQuery().toString()).isEqualTo("Query: {\"bool\":{\"must\":[{\"term\":{\"live\":{\"value\":true}}}]}}");
     }
 }
@@ -11,6 +11,7 @@ import org.apache.jena.update.UpdateExecution;
 import org.apache.jena.vocabulary.RDF;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -18,6 +19,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.apache.jena.rdf.model.ResourceFactory.createResource;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -38,6 +40,8 @@ class TripleStoreRepositoryTest {
     UpdateExecutionHTTPBuilder updateExecutionHttpBuilder;
     @Mock
     VirtuosoClient virtuosoClient;
+    @Mock
+    TripleStoreProperties properties;
 
     @InjectMocks
     TripleStoreRepository tripleStoreRepository;
@@ -47,7 +51,7 @@ class TripleStoreRepositoryTest {
         Model model = createSimpleModel();
         when(virtuosoClient.getConnection()).thenReturn(connection);
 
-        tripleStoreRepository.save(REPO_URL, model);
+        tripleStoreRepository.save(REPO_URL, model, "a.ttl");
 
         verify(virtuosoClient).getConnection();
         verify(connection).load(OLD_REPO_URL, model);
@@ -59,7 +63,7 @@ class TripleStoreRepositoryTest {
         doThrow(new HttpException("Something bad happened")).when(connection).load(OLD_REPO_URL, model);
         when(virtuosoClient.getConnection()).thenReturn(connection);
 
-        assertThatThrownBy(() -> tripleStoreRepository.save(REPO_URL, model))
+        assertThatThrownBy(() -> tripleStoreRepository.save(REPO_URL, model, "a.ttl"))
             .isInstanceOf(TripleStoreRepositoryException.class)
                 .hasMessage(String.format("Could not save model to '%s'", OLD_REPO_URL));
 
@@ -67,6 +71,78 @@ class TripleStoreRepositoryTest {
         verify(connection).load(OLD_REPO_URL, model);
     }
 
+    @Test
+    void shouldBufferModelsUntilBatchIsFlushed() {
+        when(virtuosoClient.getConnection()).thenReturn(connection);
+        tripleStoreRepository.beginBatch(REPO_URL);
+
+        tripleStoreRepository.save(REPO_URL, createSimpleModel(), "a.ttl");
+        tripleStoreRepository.save(REPO_URL, createOtherModel(), "b.ttl");
+        verifyNoInteractions(connection);
+
+        tripleStoreRepository.flushBatch(REPO_URL);
+
+        ArgumentCaptor<Model> loaded = ArgumentCaptor.forClass(Model.class);
+        verify(connection).load(eq(OLD_REPO_URL), loaded.capture());
+        assertThat(loaded.getValue().size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldLoadBufferedModelsWhenBatchIsFull() {
+        when(properties.getWriteBatchMaxTriples()).thenReturn(2L);
+        when(virtuosoClient.getConnection()).thenReturn(connection);
+        tripleStoreRepository.beginBatch(REPO_URL);
+
+        tripleStoreRepository.save(REPO_URL, createSimpleModel(), "a.ttl");
+        tripleStoreRepository.save(REPO_URL, createOtherModel(), "b.ttl");
+        verify(connection).load(eq(OLD_REPO_URL), any(Model.class));
+
+        tripleStoreRepository.flushBatch(REPO_URL);
+
+        verify(virtuosoClient).getConnection();
+    }
+
+    @Test
+    void shouldReportFailingBatchAgainstAllItsPaths() {
+        when(properties.getWriteBatchMaxTriples()).thenReturn(2L);
+        when(virtuosoClient.getConnection()).thenReturn(connection);
+        doThrow(new HttpException("Something bad happened")).when(connection).load(eq(OLD_REPO_URL), any(Model.class));
+        tripleStoreRepository.beginBatch(REPO_URL);
+
+        tripleStoreRepository.save(REPO_URL, createSimpleModel(), "a.ttl");
+
+        assertThatThrownBy(() -> tripleStoreRepository.save(REPO_URL, createOtherModel(), "b.ttl"))
+            .isInstanceOf(TripleStoreRepositoryException.class)
+                .hasMessage(String.format("Could not save model to '%s' for paths [a.ttl, b.ttl]", OLD_REPO_URL))
+                .hasCauseInstanceOf(TripleStoreRepositoryException.class);
+    }
+
+    @Test
+    void shouldReportFailingFlushAgainstPathsBufferedSinceLastLoad() {
+        when(properties.getWriteBatchMaxTriples()).thenReturn(2L);
+        when(virtuosoClient.getConnection()).thenReturn(connection);
+        tripleStoreRepository.beginBatch(REPO_URL);
+        tripleStoreRepository.save(REPO_URL, createSimpleModel(), "a.ttl");
+        tripleStoreRepository.save(REPO_URL, createOtherModel(), "b.ttl");
+        doThrow(new HttpException("Something bad happened")).when(connection).load(eq(OLD_REPO_URL), any(Model.class));
+        tripleStoreRepository.save(REPO_URL, createSimpleModel(), "c.ttl");
+
+        assertThatThrownBy(() -> tripleStoreRepository.flushBatch(REPO_URL))
+            .isInstanceOf(TripleStoreRepositoryException.class)
+                .hasMessage(String.format("Could not save model to '%s' for paths [c.ttl]", OLD_REPO_URL));
+    }
+
+    @Test
+    void shouldNotLoadDiscardedBatch() {
+        tripleStoreRepository.beginBatch(REPO_URL);
+        tripleStoreRepository.save(REPO_URL, createSimpleModel(), "a.ttl");
+
+        tripleStoreRepository.discardBatch(REPO_URL);
+        tripleStoreRepository.flushBatch(REPO_URL);
+
+        verifyNoInteractions(virtuosoClient);
+    }
+
     @Test
     void shouldDeleteGraphSilently() {
         when(virtuosoClient.getSparqlEndpoint()).thenReturn("http://www.sparql.org");
@@ -140,6 +216,16 @@ class TripleStoreRepositoryTest {
         return mockedStatic;
     }
 
+    private Model createOtherModel() {
+        Model model = ModelFactory.createDefaultModel();
+        model.add(
+            createResource("http://www.atptour.com/players/Rafael_Nadal"),
+            RDF.type,
+            createResource("https://schema.org/Person")
+        );
+        return model;
+    }
+
     private Model createSimpleModel() {
         Model model = ModelFactory.createDefaultModel();
         model.add(
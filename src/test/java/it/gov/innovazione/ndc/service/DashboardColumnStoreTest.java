@@ -0,0 +1,152 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.controller.PercentileStats;
+import it.gov.innovazione.ndc.controller.date.DateParameter;
+import it.gov.innovazione.ndc.harvester.SemanticAssetType;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.model.harvester.SemanticContentStats;
+import it.gov.innovazione.ndc.service.DimensionalItem.CountDataDimensionalItem;
+import it.gov.innovazione.ndc.service.DimensionalItem.Filter;
+import it.gov.innovazione.ndc.service.DimensionalItem.TimeDataDimensionalItem;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardColumnStoreTest {
+
+    private static final LocalDate Y2024 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate Y2025 = LocalDate.of(2025, 1, 1);
+
+    private final HarvesterRun firstRun = run("run-1", "repo-1", LocalDate.of(2024, 3, 1), 10);
+    private final HarvesterRun secondRun = run("run-2", "repo-1", LocalDate.of(2025, 2, 1), 20);
+    private final HarvesterRun otherRepoRun = run("run-3", "repo-2", LocalDate.of(2024, 6, 1), 60);
+
+    private final SemanticContentStats firstOntology = stats("run-1", SemanticAssetType.ONTOLOGY, true);
+    private final SemanticContentStats secondOntology = stats("run-1", SemanticAssetType.ONTOLOGY, false);
+    private final SemanticContentStats updatedOntology = stats("run-2", SemanticAssetType.ONTOLOGY, false);
+    private final SemanticContentStats vocabulary = stats("run-3", SemanticAssetType.CONTROLLED_VOCABULARY, false);
+
+    private final Map<String, Repository> activeRepoById = Map.of(
+            "repo-1", Repository.builder().id("repo-1").build(),
+            "repo-2", Repository.builder().id("repo-2").build());
+
+    private final DashboardColumnStore store = new DashboardColumnStore(
+            List.of(secondRun, otherRepoRun, firstRun),
+            List.of(firstOntology, secondOntology, updatedOntology, vocabulary),
+            activeRepoById);
+
+    private final DateParameter years = DateParameter.of(null, "2024", "2025", DateParameter.Granularity.YEARS);
+
+    @Test
+    void shouldCountStatsOfLatestRunOfEachRepository() {
+        Map<LocalDate, Map<List<String>, Long>> counts =
+                store.countLatestStats(years, List.of(CountDataDimensionalItem.RESOURCE_TYPE), List.of());
+
+        assertThat(counts).containsOnlyKeys(Y2024, Y2025);
+        assertThat(counts.get(Y2024)).containsOnly(
+                Map.entry(List.of("ONTOLOGY"), 2L),
+                Map.entry(List.of("CONTROLLED_VOCABULARY"), 1L));
+        assertThat(counts.get(Y2025)).containsOnly(
+                Map.entry(List.of("ONTOLOGY"), 1L),
+                Map.entry(List.of("CONTROLLED_VOCABULARY"), 1L));
+    }
+
+    @Test
+    void shouldCountOnlyStatsMatchingFilters() {
+        Map<LocalDate, Map<List<String>, Long>> counts = store.countLatestStats(years,
+                List.of(CountDataDimensionalItem.RESOURCE_TYPE, CountDataDimensionalItem.REPOSITORY_URL),
+                List.of(Filter.of(CountDataDimensionalItem.HAS_ERRORS, List.of("TRUE"))));
+
+        assertThat(counts.get(Y2024)).containsOnly(Map.entry(List.of("ONTOLOGY", "https://github.com/repo-1"), 1L));
+        assertThat(counts.get(Y2025)).isEmpty();
+    }
+
+    @Test
+    void shouldSummarizeRunDurationsByStartDate() {
+        Map<LocalDate, Map<List<String>, PercentileStats>> durations =
+                store.summarizeRunDurations(years, List.of(TimeDataDimensionalItem.REPOSITORY_URL), List.of());
+
+        assertThat(durations.get(Y2024)).containsOnlyKeys(List.of("https://github.com/repo-1"), List.of("https://github.com/repo-2"));
+        assertThat(durations.get(Y2024).get(List.of("https://github.com/repo-2")).getMax()).isEqualTo(60);
+        assertThat(durations.get(Y2025).get(List.of("https://github.com/repo-1")).getCount()).isEqualTo(1);
+        assertThat(durations.get(Y2025).get(List.of("https://github.com/repo-1")).getMin()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldReturnStatsOfRunsStartedBetweenDatesSortedByStart() {
+        List<SemanticContentStats> stats = store.getStatsOfRunsStartedBetween(
+                instant(Y2024), instant(Y2025), List.of());
+
+        assertThat(stats).containsExactly(firstOntology, secondOntology, vocabulary);
+    }
+
+    @Test
+    void shouldAppendFinishedRunAsAFullBuildWould() {
+        HarvesterRun runningRow = HarvesterRun.builder()
+                .id("run-2")
+                .repositoryId("repo-1")
+                .repositoryUrl("https://github.com/repo-1")
+                .status(HarvesterRun.Status.RUNNING)
+                .startedAt(secondRun.getStartedAt())
+                .build();
+        DashboardColumnStore running = new DashboardColumnStore(
+                List.of(runningRow, otherRepoRun, firstRun),
+                List.of(firstOntology, secondOntology, vocabulary),
+                activeRepoById);
+
+        DashboardColumnStore appended = running.withRun(secondRun, List.of(updatedOntology), runningRow, activeRepoById).orElseThrow();
+
+        List<CountDataDimensionalItem> countDimensions = List.of(CountDataDimensionalItem.RESOURCE_TYPE, CountDataDimensionalItem.REPOSITORY_URL);
+        assertThat(appended.countLatestStats(years, countDimensions, List.of()))
+                .isEqualTo(store.countLatestStats(years, countDimensions, List.of()));
+        assertThat(appended.getStatsOfRunsStartedBetween(instant(Y2024), instant(Y2025.plusYears(1)), List.of()))
+                .containsExactly(firstOntology, secondOntology, vocabulary, updatedOntology);
+        Map<LocalDate, Map<List<String>, PercentileStats>> durations =
+                appended.summarizeRunDurations(years, List.of(TimeDataDimensionalItem.REPOSITORY_URL), List.of());
+        assertThat(durations.get(Y2024)).containsOnlyKeys(List.of("https://github.com/repo-1"), List.of("https://github.com/repo-2"));
+        assertThat(durations.get(Y2025)).containsOnlyKeys(List.of("https://github.com/repo-1"));
+        assertThat(durations.get(Y2025).get(List.of("https://github.com/repo-1")).getCount()).isEqualTo(1);
+        assertThat(durations.get(Y2025).get(List.of("https://github.com/repo-1")).getMax()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldNotAppendRunStartedBeforeTheLatestOne() {
+        DashboardColumnStore latest = new DashboardColumnStore(List.of(firstRun, secondRun), List.of(), activeRepoById);
+
+        assertThat(latest.withRun(otherRepoRun, List.of(vocabulary), null, activeRepoById)).isEmpty();
+        assertThat(latest.withRun(otherRepoRun, List.of(vocabulary), null, Map.of())).isEmpty();
+    }
+
+    private static HarvesterRun run(String id, String repositoryId, LocalDate startedOn, long durationSeconds) {
+        return HarvesterRun.builder()
+                .id(id)
+                .repositoryId(repositoryId)
+                .repositoryUrl("https://github.com/" + repositoryId)
+                .status(HarvesterRun.Status.SUCCESS)
+                .startedAt(instant(startedOn))
+                .endedAt(instant(startedOn).plusSeconds(durationSeconds))
+                .build();
+    }
+
+    private static SemanticContentStats stats(String runId, SemanticAssetType type, boolean hasErrors) {
+        return SemanticContentStats.builder()
+                .harvesterRunId(runId)
+                .resourceUri("https://w3id.org/" + runId + "/" + type)
+                .resourceType(type)
+                .rightHolder("agency")
+                .hasErrors(hasErrors)
+                .status(List.of("Catalogued", "Published"))
+                .build();
+    }
+
+    private static Instant instant(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+}
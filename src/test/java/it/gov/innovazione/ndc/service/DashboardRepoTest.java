@@ -0,0 +1,127 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.controller.PercentileStats;
+import it.gov.innovazione.ndc.harvester.SemanticAssetType;
+import it.gov.innovazione.ndc.harvester.service.HarvesterRunService;
+import it.gov.innovazione.ndc.harvester.service.RepositoryService;
+import it.gov.innovazione.ndc.harvester.service.SemanticContentStatsService;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.model.harvester.SemanticContentStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardRepoTest {
+
+    private static final Repository REPO = Repository.builder().id("repo-1").url("http://repo-1").build();
+
+    @Mock
+    private RepositoryService repositoryService;
+    @Mock
+    private HarvesterRunService harvesterRunService;
+    @Mock
+    private SemanticContentStatsService semanticContentStatsService;
+
+    private DashboardRepo dashboardRepo;
+
+    @BeforeEach
+    void setUp() {
+        dashboardRepo = new DashboardRepo(repositoryService, harvesterRunService, semanticContentStatsService, PercentileStats.DEFAULT_PRECISION);
+    }
+
+    @Test
+    void shouldAppendFinishedRunWithoutReloading() {
+        HarvesterRun previous = run("run-1", HarvesterRun.Status.SUCCESS, Instant.parse("2025-01-01T00:00:00Z"));
+        HarvesterRun running = run("run-2", HarvesterRun.Status.RUNNING, Instant.parse("2025-02-01T00:00:00Z"));
+        HarvesterRun finished = run("run-2", HarvesterRun.Status.SUCCESS, running.getStartedAt());
+        when(harvesterRunService.getAllRuns()).thenReturn(List.of(running, previous));
+        when(semanticContentStatsService.getRawStats()).thenReturn(List.of(stats("run-1")));
+        when(repositoryService.getActiveRepos()).thenReturn(List.of(REPO));
+        when(harvesterRunService.getRun("run-2")).thenReturn(Optional.of(finished));
+        when(semanticContentStatsService.getRawStats("run-2")).thenReturn(List.of(stats("run-2"), stats("run-2")));
+
+        assertThat(dashboardRepo.getAllStats()).hasSize(1);
+        dashboardRepo.appendRun("run-2");
+
+        assertThat(dashboardRepo.getAllRuns()).containsExactly(finished, previous);
+        assertThat(dashboardRepo.getRunById()).containsOnlyKeys("run-1", "run-2");
+        assertThat(dashboardRepo.getAllStats())
+                .extracting(SemanticContentStats::getHarvesterRun)
+                .containsExactly(previous, finished, finished);
+        verify(harvesterRunService, times(1)).getAllRuns();
+        verify(semanticContentStatsService, times(1)).getRawStats();
+    }
+
+    @Test
+    void shouldNotAddStatsOfFailedRun() {
+        HarvesterRun previous = run("run-1", HarvesterRun.Status.SUCCESS, Instant.parse("2025-01-01T00:00:00Z"));
+        HarvesterRun failed = run("run-2", HarvesterRun.Status.FAILURE, Instant.parse("2025-02-01T00:00:00Z"));
+        when(harvesterRunService.getAllRuns()).thenReturn(List.of(previous));
+        when(semanticContentStatsService.getRawStats()).thenReturn(List.of(stats("run-1")));
+        when(repositoryService.getActiveRepos()).thenReturn(List.of(REPO));
+        when(harvesterRunService.getRun("run-2")).thenReturn(Optional.of(failed));
+
+        dashboardRepo.getColumnStore();
+        dashboardRepo.appendRun("run-2");
+
+        assertThat(dashboardRepo.getAllRuns()).containsExactly(failed, previous);
+        assertThat(dashboardRepo.getRunById()).containsOnlyKeys("run-1");
+        assertThat(dashboardRepo.getAllStats()).hasSize(1);
+        assertThat(dashboardRepo.getColumnStore().getStatsOfRunsStartedBetween(Instant.EPOCH, Instant.parse("2026-01-01T00:00:00Z"), List.of()))
+                .hasSize(1);
+    }
+
+    @Test
+    void shouldIgnoreAppendBeforeFirstLoad() {
+        dashboardRepo.appendRun("run-1");
+
+        verifyNoInteractions(harvesterRunService, semanticContentStatsService, repositoryService);
+    }
+
+    @Test
+    void shouldReloadOnReconcile() {
+        HarvesterRun run = run("run-1", HarvesterRun.Status.SUCCESS, Instant.parse("2025-01-01T00:00:00Z"));
+        when(harvesterRunService.getAllRuns()).thenReturn(List.of(), List.of(run));
+        when(semanticContentStatsService.getRawStats()).thenReturn(List.of(), List.of(stats("run-1")));
+        when(repositoryService.getActiveRepos()).thenReturn(List.of(REPO));
+
+        assertThat(dashboardRepo.getAllRuns()).isEmpty();
+        dashboardRepo.reconcile();
+
+        assertThat(dashboardRepo.getAllRuns()).containsExactly(run);
+        assertThat(dashboardRepo.getAllStats()).extracting(SemanticContentStats::getHarvesterRun).containsExactly(run);
+    }
+
+    private static HarvesterRun run(String id, HarvesterRun.Status status, Instant startedAt) {
+        return HarvesterRun.builder()
+                .id(id)
+                .repositoryId(REPO.getId())
+                .repositoryUrl(REPO.getUrl())
+                .status(status)
+                .startedAt(startedAt)
+                .endedAt(startedAt.plusSeconds(60))
+                .build();
+    }
+
+    private static SemanticContentStats stats(String runId) {
+        return SemanticContentStats.builder()
+                .harvesterRunId(runId)
+                .resourceUri("http://asset/" + runId)
+                .resourceType(SemanticAssetType.ONTOLOGY)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.eventhandler.event.ConfigService;
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.harvester.service.RepositoryService;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataBulkIndexer;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataDeleter;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataLiveSwitcher;
+import it.gov.innovazione.ndc.repository.TripleStoreRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static it.gov.innovazione.ndc.harvester.service.ActualConfigService.ConfigKey.ACTIVE_INSTANCE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultInstanceManagerTest {
+
+    private static final Repository REPOSITORY = Repository.builder()
+            .id("repo-id")
+            .url("http://www.example.org/repo")
+            .build();
+
+    @Mock
+    private ConfigService configService;
+    @Mock
+    private RepositoryService repositoryService;
+    @Mock
+    private TripleStoreRepository tripleStoreRepository;
+    @Mock
+    private SemanticAssetMetadataDeleter deleter;
+    @Mock
+    private SemanticAssetMetadataBulkIndexer bulkIndexer;
+    @Mock
+    private SemanticAssetMetadataLiveSwitcher liveSwitcher;
+    @Mock
+    private VocabularyIndexCleaner vocabularyIndexCleaner;
+
+    @InjectMocks
+    private DefaultInstanceManager instanceManager;
+
+    @Test
+    void shouldReadCurrentInstancesOfActiveRepos() {
+        when(repositoryService.getActiveRepos()).thenReturn(List.of(REPOSITORY));
+        when(configService.<Instance>fromRepo(ACTIVE_INSTANCE, "repo-id")).thenReturn(Optional.of(Instance.SECONDARY));
+
+        assertThat(instanceManager.getCurrentInstances())
+                .containsExactly(InstanceManager.RepositoryInstance.of(REPOSITORY.getUrl(), Instance.SECONDARY));
+    }
+
+    @Test
+    void shouldSwitchLiveDocumentsBeforeDeletingThePreviousInstance() {
+        when(configService.<Instance>fromRepo(ACTIVE_INSTANCE, "repo-id")).thenReturn(Optional.of(Instance.PRIMARY));
+
+        instanceManager.switchInstances(REPOSITORY);
+
+        InOrder inOrder = inOrder(liveSwitcher, configService, vocabularyIndexCleaner, deleter, tripleStoreRepository);
+        inOrder.verify(liveSwitcher).switchLive(REPOSITORY.getUrl(), Instance.SECONDARY);
+        inOrder.verify(configService).writeConfigKey(ACTIVE_INSTANCE, "system", Instance.SECONDARY, "repo-id");
+        inOrder.verify(vocabularyIndexCleaner).dropRemovedCsvIndices(REPOSITORY.getUrl(), Instance.SECONDARY);
+        inOrder.verify(deleter).deleteByRepoUrl(REPOSITORY.getUrl(), Instance.PRIMARY);
+        inOrder.verify(tripleStoreRepository).switchInstances(REPOSITORY);
+    }
+}
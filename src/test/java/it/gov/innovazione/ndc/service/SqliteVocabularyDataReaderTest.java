@@ -0,0 +1,233 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.controller.OffsetBasedPageRequest;
+import it.gov.innovazione.ndc.controller.exception.VocabularyItemNotFoundException;
+import it.gov.innovazione.ndc.gen.dto.VocabularyData;
+import it.gov.innovazione.ndc.harvester.csv.CsvParser;
+import it.gov.innovazione.ndc.harvester.csv.DeepestLevelExtractor;
+import it.gov.innovazione.ndc.harvester.csv.FirstColumnExtractor;
+import it.gov.innovazione.ndc.harvester.csv.HeadersToIdNameExtractor;
+import it.gov.innovazione.ndc.harvester.csvapis.VocabulariesDbMerger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SqliteVocabularyDataReaderTest {
+
+    private static final VocabularyIdentifier CITIES = new VocabularyIdentifier("agencyA", "cities");
+    private static final List<HeadersToIdNameExtractor> ID_NAME_EXTRACTORS = List.of(new DeepestLevelExtractor(), new FirstColumnExtractor());
+
+    @Mock
+    private VocabularyDataService fallback;
+
+    @TempDir
+    Path tempDir;
+
+    private Path aggregatePath;
+    private SqliteVocabularyDataReader reader;
+
+    @BeforeEach
+    void setUp() {
+        aggregatePath = tempDir.resolve("vocabularies.db");
+        reader = new SqliteVocabularyDataReader(fallback, ID_NAME_EXTRACTORS, aggregatePath.toString(), 2, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reader.close();
+    }
+
+    @Test
+    void shouldReadPagesFromAggregate() throws Exception {
+        publish("agencyA", "cities", List.of("rome", "milan", "turin"));
+
+        VocabularyData data = reader.getData(CITIES, OffsetBasedPageRequest.of(1, 1));
+
+        assertThat(data.getTotalResults()).isEqualTo(3);
+        assertThat(data.getOffset()).isEqualTo(1);
+        assertThat(data.getLimit()).isEqualTo(1);
+        assertThat(data.getData()).containsExactly(Map.of("id", "milan", "label", "label-milan"));
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void shouldReadItemsFromAggregate() throws Exception {
+        publish("agencyA", "cities", List.of("rome", "milan"));
+
+        assertThat(reader.getItem(new VocabularyIdentifier("AGENCYA", "cities"), "rome"))
+                .isEqualTo(Map.of("id", "rome", "label", "label-rome"));
+        assertThatThrownBy(() -> reader.getItem(CITIES, "paris"))
+                .isInstanceOf(VocabularyItemNotFoundException.class);
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void shouldFallBackForVocabulariesNotInAggregate() throws Exception {
+        publish("agencyA", "cities", List.of("rome"));
+        VocabularyIdentifier other = new VocabularyIdentifier("agencyB", "rivers");
+        when(fallback.getItem(other, "po")).thenReturn(Map.of("id", "po"));
+
+        assertThat(reader.getItem(other, "po")).isEqualTo(Map.of("id", "po"));
+    }
+
+    @Test
+    void shouldFallBackWhenAggregateIsNotPublished() {
+        VocabularyData expected = new VocabularyData();
+        when(fallback.getData(any(), any())).thenReturn(expected);
+
+        assertThat(reader.getData(CITIES, OffsetBasedPageRequest.of(0, 10))).isSameAs(expected);
+    }
+
+    @Test
+    void shouldReadNewAggregateOncePublished() throws Exception {
+        publish("agencyA", "cities", List.of("rome"));
+        assertThat(reader.getData(CITIES, OffsetBasedPageRequest.of(0, 10)).getTotalResults()).isEqualTo(1);
+
+        publish("agencyA", "cities", List.of("rome", "milan"));
+
+        assertThat(reader.getData(CITIES, OffsetBasedPageRequest.of(0, 10)).getTotalResults()).isEqualTo(2);
+        assertThat(reader.getItem(CITIES, "milan")).containsEntry("label", "label-milan");
+    }
+
+    @Test
+    void shouldServeTheSameRecordsAsElasticsearchForTheSameCsv() throws Exception {
+        Path csv = tempDir.resolve("cities.csv");
+        Files.writeString(csv, """
+                codice_1_livello,label_1_livello,codice_2_livello,label_2_livello
+                A,Nord,A.1,Piemonte
+                A,Nord,A.2,Lombardia
+                B,Sud,B.1,Campania
+                """);
+        CsvParser.CsvData csvData = new CsvParser(ID_NAME_EXTRACTORS).loadCsvDataFromFile(csv.toString());
+        Map<String, Map<String, String>> documents = indexIntoElasticsearch(csvData);
+        VocabularyDataService elasticsearch = new VocabularyDataService(elasticsearchOperationsServing(documents));
+        publishCsvTable(csvData);
+
+        List<Map<String, String>> page = reader.getData(CITIES, OffsetBasedPageRequest.of(0, 10)).getData();
+
+        assertThat(csvData.getIdName()).isEqualTo("codice_2_livello");
+        assertThat(page).containsExactlyElementsOf(documents.values());
+        for (String id : documents.keySet()) {
+            assertThat(reader.getItem(CITIES, id)).isEqualTo(elasticsearch.getItem(CITIES, id));
+        }
+        verifyNoInteractions(fallback);
+    }
+
+    /**
+     * Indexes the records through {@link VocabularyDataService}, returning the documents sent to
+     * Elasticsearch by id.
+     */
+    private Map<String, Map<String, String>> indexIntoElasticsearch(CsvParser.CsvData csvData) {
+        ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+        when(operations.indexOps(any(IndexCoordinates.class))).thenReturn(mock(IndexOperations.class));
+        Map<String, Map<String, String>> documents = new LinkedHashMap<>();
+        when(operations.bulkIndex(anyList(), any(IndexCoordinates.class))).thenAnswer(invocation -> {
+            List<IndexQuery> queries = invocation.getArgument(0);
+            for (IndexQuery query : queries) {
+                documents.put(query.getId(), castToRecord(query.getObject()));
+            }
+            return List.of();
+        });
+        new VocabularyDataService(operations).indexData(CITIES, csvData);
+        return documents;
+    }
+
+    private ElasticsearchOperations elasticsearchOperationsServing(Map<String, Map<String, String>> documents) {
+        ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        when(operations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOperations);
+        when(indexOperations.exists()).thenReturn(true);
+        when(operations.get(anyString(), eq(Map.class), any(IndexCoordinates.class)))
+                .thenAnswer(invocation -> documents.get(invocation.<String>getArgument(0)));
+        return operations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> castToRecord(Object object) {
+        return (Map<String, String>) object;
+    }
+
+    /**
+     * Writes the CSV records as an apistore data table, one column per CSV header.
+     */
+    private void publishCsvTable(CsvParser.CsvData csvData) throws Exception {
+        Path source = tempDir.resolve("agencyA-cities.db");
+        List<String> columns = new ArrayList<>(csvData.getRecords().get(0).keySet());
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + source.toAbsolutePath())) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE _metadata (vocabulary_uuid TEXT PRIMARY KEY, vocabulary_uri TEXT NOT NULL, "
+                        + "agency_id TEXT NOT NULL, key_concept TEXT NOT NULL, openapi TEXT NOT NULL, catalog TEXT NOT NULL)");
+                st.execute("CREATE TABLE cities (" + columns.stream().map(c -> "\"" + c + "\" TEXT").collect(Collectors.joining(", ")) + ")");
+                st.execute("INSERT INTO _metadata VALUES ('uuid-cities', 'https://w3id.org/italia/cities', 'agencyA', 'cities', "
+                        + "'{\"info\":{\"title\":\"cities\"}}', '{}')");
+            }
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO cities VALUES ("
+                    + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")")) {
+                for (Map<String, String> record : csvData.getRecords()) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        ps.setString(i + 1, record.get(columns.get(i)));
+                    }
+                    ps.executeUpdate();
+                }
+            }
+        }
+        new VocabulariesDbMerger().merge(List.of(new VocabulariesDbMerger.Source("agencyA/cities", "hash-csv", source)), null, aggregatePath);
+    }
+
+    private void publish(String agencyId, String keyConcept, List<String> ids) throws Exception {
+        Path source = tempDir.resolve(agencyId + "-" + keyConcept + ".db");
+        Files.deleteIfExists(source);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + source.toAbsolutePath())) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE _metadata (vocabulary_uuid TEXT PRIMARY KEY, vocabulary_uri TEXT NOT NULL, "
+                        + "agency_id TEXT NOT NULL, key_concept TEXT NOT NULL, openapi TEXT NOT NULL, catalog TEXT NOT NULL)");
+                st.execute("CREATE TABLE data_table (id TEXT PRIMARY KEY, label TEXT NOT NULL)");
+                st.execute("INSERT INTO _metadata VALUES ('uuid-" + keyConcept + "', 'https://w3id.org/italia/" + keyConcept + "', '"
+                        + agencyId + "', '" + keyConcept + "', '{\"info\":{\"title\":\"" + keyConcept + "\"}}', '{}')");
+            }
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO data_table(id, label) VALUES (?, ?)")) {
+                for (String id : ids) {
+                    ps.setString(1, id);
+                    ps.setString(2, "label-" + id);
+                    ps.executeUpdate();
+                }
+            }
+        }
+        Path tmp = tempDir.resolve("vocabularies.db.tmp");
+        new VocabulariesDbMerger().merge(
+                List.of(new VocabulariesDbMerger.Source(agencyId + "/" + keyConcept, "hash-" + ids.size(), source)), null, tmp);
+        Files.move(tmp, aggregatePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
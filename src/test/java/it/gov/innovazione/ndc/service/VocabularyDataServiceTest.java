@@ -12,20 +12,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexInformation;
 import org.springframework.data.elasticsearch.core.IndexOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
 import org.springframework.data.elasticsearch.core.query.Query;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -105,34 +113,67 @@ public class VocabularyDataServiceTest {
     }
 
     @Test
-    void shouldIndexTheNewDataWhenIndexIsAlreadyPresent() {
+    void shouldSwapAliasToNewVersionAndDropPreviousOne() {
         when(elasticsearchOperations.indexOps(any(IndexCoordinates.class)))
                 .thenReturn(indexOperations);
         when(indexOperations.exists()).thenReturn(true);
+        String previousVersion = "agid.testkeyconcept__v1";
+        when(indexOperations.getInformation())
+                .thenReturn(List.of(IndexInformation.of(previousVersion, null, null,
+                        List.of(AliasData.of("agid.testkeyconcept", null, null, null, null, null)))))
+                .thenReturn(List.of(IndexInformation.of(previousVersion, null, null, null)));
 
         vocabularyDataService.indexData(new VocabularyIdentifier("agid", "testKeyConcept"), CSV_DATA);
 
-        verify(elasticsearchOperations, times(3)).indexOps(
-                IndexCoordinates.of("agid.testkeyconcept"));
-        verify(indexOperations).exists();
-        verify(indexOperations).delete();
+        ArgumentCaptor<IndexCoordinates> coordinates = ArgumentCaptor.forClass(IndexCoordinates.class);
+        verify(elasticsearchOperations, atLeastOnce()).indexOps(coordinates.capture());
+        String newVersion = coordinates.getAllValues().get(0).getIndexName();
+        assertThat(newVersion).startsWith("agid.testkeyconcept__v").isNotEqualTo(previousVersion);
         verify(indexOperations).create();
-        verify(elasticsearchOperations).bulkIndex(anyList(), eq(IndexCoordinates.of("agid.testkeyconcept")));
+        verify(elasticsearchOperations).bulkIndex(anyList(), eq(IndexCoordinates.of(newVersion)));
+
+        ArgumentCaptor<AliasActions> aliasActions = ArgumentCaptor.forClass(AliasActions.class);
+        verify(indexOperations).alias(aliasActions.capture());
+        assertThat(aliasActions.getValue().getActions())
+                .extracting(a -> a.getClass().getSimpleName(), a -> List.of(a.getParameters().getIndices()))
+                .containsExactly(
+                        tuple("Remove", List.of(previousVersion)),
+                        tuple("Add", List.of(newVersion)));
+        assertThat(coordinates.getAllValues()).contains(IndexCoordinates.of(previousVersion));
+        verify(indexOperations).delete();
     }
 
     @Test
-    void shouldIndexTheNewDataWhenIndexIsNotPresent() {
-        IndexCoordinates indexCoordinates = IndexCoordinates.of("agid.testkeyconcept");
+    void shouldDropNewVersionWhenIndexingFails() {
         when(elasticsearchOperations.indexOps(any(IndexCoordinates.class)))
                 .thenReturn(indexOperations);
-        when(indexOperations.exists()).thenReturn(false);
+        when(elasticsearchOperations.bulkIndex(anyList(), any(IndexCoordinates.class)))
+                .thenThrow(new RuntimeException("bulk failed"));
 
-        vocabularyDataService.indexData(new VocabularyIdentifier("agid", "testKeyConcept"), CSV_DATA);
+        assertThatThrownBy(() -> vocabularyDataService.indexData(new VocabularyIdentifier("agid", "testKeyConcept"), CSV_DATA))
+                .hasMessage("bulk failed");
 
-        verify(elasticsearchOperations, times(2)).indexOps(indexCoordinates);
-        verify(indexOperations).exists();
-        verify(indexOperations, never()).delete();
         verify(indexOperations).create();
-        verify(elasticsearchOperations).bulkIndex(anyList(), eq(indexCoordinates));
+        verify(indexOperations).delete();
+        verify(indexOperations, never()).alias(any());
+    }
+
+    @Test
+    void shouldIndexStreamedRecordsInFixedSizeBatches() {
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class)))
+                .thenReturn(indexOperations);
+        when(indexOperations.exists()).thenReturn(false);
+        int total = VocabularyDataService.BULK_SIZE + 1;
+        Stream<Map<String, String>> records = IntStream.range(0, total)
+                .mapToObj(i -> Map.of("key", String.valueOf(i)));
+
+        vocabularyDataService.indexData(new VocabularyIdentifier("agid", "testKeyConcept"),
+                new CsvParser.CsvRecords(records, "key"));
+
+        ArgumentCaptor<List<IndexQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations, times(2)).bulkIndex(captor.capture(), eq(IndexCoordinates.of("agid.testkeyconcept")));
+        assertThat(captor.getAllValues()).extracting(List::size)
+                .containsExactly(VocabularyDataService.BULK_SIZE, 1);
+        assertThat(captor.getAllValues().get(1).get(0).getId()).isEqualTo(String.valueOf(total - 1));
     }
 }
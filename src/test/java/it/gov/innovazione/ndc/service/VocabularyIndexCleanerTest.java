@@ -0,0 +1,68 @@
+package it.gov.innovazione.ndc.service;
+
+import it.gov.innovazione.ndc.harvester.model.Instance;
+import it.gov.innovazione.ndc.harvester.model.index.SemanticAssetMetadata;
+import it.gov.innovazione.ndc.repository.SemanticAssetMetadataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VocabularyIndexCleanerTest {
+    private static final String REPO_URL = "my-repo.git";
+
+    @Mock
+    SemanticAssetMetadataRepository metadataRepository;
+    @Mock
+    VocabularyDataService vocabularyDataService;
+
+    @InjectMocks
+    VocabularyIndexCleaner vocabularyIndexCleaner;
+
+    @Test
+    void shouldDropIndicesOfRemovedVocabulariesOnly() {
+        String agencyId = "istat";
+        String concept1 = "accomodation-ratings";
+        String concept2 = "education-levels";
+        when(metadataRepository.findVocabulariesForRepoUrl(REPO_URL, Instance.SECONDARY))
+                .thenReturn(buildVocabsMetadataWithAgencyAndConcepts(agencyId, List.of(concept2)));
+        when(metadataRepository.findVocabulariesForRepoUrl(REPO_URL, Instance.PRIMARY))
+                .thenReturn(buildVocabsMetadataWithAgencyAndConcepts(agencyId, List.of(concept1, concept2)));
+
+        vocabularyIndexCleaner.dropRemovedCsvIndices(REPO_URL, Instance.SECONDARY);
+
+        verify(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept1));
+        verify(vocabularyDataService, never()).dropIndex(new VocabularyIdentifier(agencyId, concept2));
+    }
+
+    @Test
+    void shouldTryAndDropSubsequentIndicesEvenAfterFailingToDropOne() {
+        String agencyId = "istat";
+        String concept1 = "accomodation-ratings";
+        String concept2 = "education-levels";
+        when(metadataRepository.findVocabulariesForRepoUrl(REPO_URL, Instance.SECONDARY)).thenReturn(List.of());
+        when(metadataRepository.findVocabulariesForRepoUrl(REPO_URL, Instance.PRIMARY))
+                .thenReturn(buildVocabsMetadataWithAgencyAndConcepts(agencyId, List.of(concept1, concept2)));
+        doThrow(new RuntimeException("Could not drop index")).when(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept1));
+
+        vocabularyIndexCleaner.dropRemovedCsvIndices(REPO_URL, Instance.SECONDARY);
+
+        verify(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept1));
+        verify(vocabularyDataService).dropIndex(new VocabularyIdentifier(agencyId, concept2));
+    }
+
+    private List<SemanticAssetMetadata> buildVocabsMetadataWithAgencyAndConcepts(String agencyId, List<String> keyConcepts) {
+        SemanticAssetMetadata template = SemanticAssetMetadata.builder().repoUrl(REPO_URL).agencyId(agencyId).build();
+        return keyConcepts.stream().map(c -> template.toBuilder().keyConcept(c).build()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,55 @@
+package it.gov.innovazione.ndc.service.audit;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetGraphIndexTest {
+
+    private static final String ONTOLOGY = "https://w3id.org/italia/onto/CLV";
+    private static final String OTHER_ONTOLOGY = "https://w3id.org/italia/onto/POI";
+
+    @Test
+    void describesAssetNeighbourhood() {
+        Model graph = ModelFactory.createDefaultModel();
+        Resource ontology = graph.createResource(ONTOLOGY);
+        Resource prefixed = graph.createResource(ONTOLOGY + "/Address");
+        Resource definedBy = graph.createResource("https://w3id.org/italia/vocab/Street");
+        Resource linking = graph.createResource("https://w3id.org/italia/data/linking");
+        Resource linked = graph.createResource("https://w3id.org/italia/data/linked");
+        Resource unrelated = graph.createResource(OTHER_ONTOLOGY);
+
+        graph.add(ontology, RDF.type, OWL.Ontology);
+        graph.add(ontology, RDFS.seeAlso, linked);
+        graph.add(prefixed, RDF.type, OWL.Class);
+        graph.add(definedBy, RDFS.isDefinedBy, ontology);
+        graph.add(definedBy, RDFS.label, "Street");
+        graph.add(linking, RDFS.seeAlso, ontology);
+        graph.add(linked, RDFS.label, "Linked");
+        graph.add(unrelated, RDF.type, OWL.Ontology);
+
+        Model described = new AssetGraphIndex(graph).describe(ONTOLOGY);
+
+        assertThat(described.contains(ontology, RDF.type, OWL.Ontology)).isTrue();
+        assertThat(described.contains(prefixed, RDF.type, OWL.Class)).isTrue();
+        assertThat(described.contains(definedBy, RDFS.label, "Street")).isTrue();
+        assertThat(described.contains(linking, RDFS.seeAlso, ontology)).isTrue();
+        assertThat(described.contains(linked, RDFS.label, "Linked")).isTrue();
+        assertThat(described.containsResource(unrelated)).isFalse();
+        assertThat(described.size()).isEqualTo(7);
+    }
+
+    @Test
+    void describesUnknownAssetAsEmptyModel() {
+        Model graph = ModelFactory.createDefaultModel();
+        graph.add(graph.createResource(OTHER_ONTOLOGY), RDF.type, OWL.Ontology);
+
+        assertThat(new AssetGraphIndex(graph).describe(ONTOLOGY).isEmpty()).isTrue();
+    }
+}
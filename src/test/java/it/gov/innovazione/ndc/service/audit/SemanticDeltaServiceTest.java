@@ -0,0 +1,78 @@
+package it.gov.innovazione.ndc.service.audit;
+
+import it.gov.innovazione.ndc.repository.ResourceDeltaRepository;
+import it.gov.innovazione.ndc.repository.TripleStoreRepository;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SemanticDeltaServiceTest {
+
+    private static final String GRAPH = "https://github.com/italia/daf-ontologie-vocabolari-controllati";
+    private static final String ONTOLOGY = "https://w3id.org/italia/onto/CLV";
+
+    @Mock
+    private TripleStoreRepository tripleStoreRepository;
+    @Mock
+    private ResourceDeltaRepository resourceDeltaRepository;
+
+    private SemanticDeltaService service;
+    private Model graph;
+
+    @BeforeEach
+    void setUp() {
+        service = new SemanticDeltaService(tripleStoreRepository, resourceDeltaRepository, List.of(), 1000);
+        graph = ModelFactory.createDefaultModel();
+        Resource ontology = graph.createResource(ONTOLOGY);
+        graph.add(ontology, RDF.type, OWL.Ontology);
+        graph.add(ontology, RDFS.label, "CLV");
+    }
+
+    @Test
+    void shouldDescribeAssetsFromTheFetchedGraph() {
+        when(tripleStoreRepository.countTriples(GRAPH)).thenReturn(2L);
+        when(tripleStoreRepository.fetchGraph(GRAPH)).thenReturn(graph);
+
+        Model described = service.assetDescriber(GRAPH).apply(ONTOLOGY);
+
+        assertThat(described.size()).isEqualTo(2);
+        verify(tripleStoreRepository, never()).construct(anyString());
+    }
+
+    @Test
+    void shouldDescribeAssetsOneByOneWhenTheFetchedGraphIsTruncated() {
+        Model described = ModelFactory.createDefaultModel();
+        when(tripleStoreRepository.countTriples(GRAPH)).thenReturn(500L);
+        when(tripleStoreRepository.fetchGraph(GRAPH)).thenReturn(graph);
+        when(tripleStoreRepository.construct(anyString())).thenReturn(described);
+
+        assertThat(service.assetDescriber(GRAPH).apply(ONTOLOGY)).isSameAs(described);
+    }
+
+    @Test
+    void shouldDescribeAssetsOneByOneAboveTheThreshold() {
+        when(tripleStoreRepository.countTriples(GRAPH)).thenReturn(5000L);
+
+        service.assetDescriber(GRAPH).apply(ONTOLOGY);
+
+        verify(tripleStoreRepository, never()).fetchGraph(GRAPH);
+        verify(tripleStoreRepository).construct(anyString());
+    }
+}
@@ -0,0 +1,108 @@
+package it.gov.innovazione.ndc.service.logging;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.gov.innovazione.ndc.harvester.SemanticAssetType;
+import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContext;
+import it.gov.innovazione.ndc.harvester.context.HarvestExecutionContextUtils;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRunProfileEntry;
+import it.gov.innovazione.ndc.model.harvester.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HarvesterMetricsTest {
+
+    private static final String REPO_URL = "https://github.com/italia/daf-ontologie-vocabolari-controllati";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.globalRegistry.add(meterRegistry);
+        HarvestExecutionContextUtils.setContext(HarvestExecutionContext.builder()
+                .repository(Repository.builder().url(REPO_URL).build())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        HarvestExecutionContextUtils.clearContext();
+        Metrics.globalRegistry.remove(meterRegistry);
+        meterRegistry.close();
+    }
+
+    @Test
+    void shouldTimeStageWithRepoAndOutcome() {
+        String result = HarvesterMetrics.timeStage(HarvesterStage.PATH_SCANNING, SemanticAssetType.ONTOLOGY, () -> "done");
+
+        Timer timer = meterRegistry.get(HarvesterMetrics.STAGE_TIMER)
+                .tags("repo", REPO_URL, "stage", "PATH_SCANNING", "asset_type", "ONTOLOGY", "outcome", "success")
+                .timer();
+        assertThat(result).isEqualTo("done");
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeFailedStepsAndRethrow() {
+        assertThatThrownBy(() -> HarvesterMetrics.timeStage(HarvesterStage.CLONE_REPO, null, () -> {
+            throw new IOException("cannot clone");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(meterRegistry.get(HarvesterMetrics.STAGE_TIMER)
+                .tags("stage", "CLONE_REPO", "asset_type", "none", "outcome", "failure")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountStoreWrites() {
+        HarvesterMetrics.timeStoreWrite(HarvesterMetrics.VIRTUOSO, () -> {
+        });
+        HarvesterMetrics.countTriples(HarvesterMetrics.VIRTUOSO, 120);
+        HarvesterMetrics.countTriples(HarvesterMetrics.VIRTUOSO, 30);
+        HarvesterMetrics.countAssetBytes(SemanticAssetType.SCHEMA, 2048);
+
+        assertThat(meterRegistry.get(HarvesterMetrics.STORE_WRITE_TIMER).tags("store", "virtuoso").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(HarvesterMetrics.STORE_TRIPLES_COUNTER).tags("repo", REPO_URL).counter().count()).isEqualTo(150);
+        assertThat(meterRegistry.get(HarvesterMetrics.ASSET_BYTES_COUNTER).tags("asset_type", "SCHEMA").counter().count()).isEqualTo(2048);
+    }
+
+    @Test
+    void shouldAddTimingsAndVolumesToRunProfile() {
+        HarvesterMetrics.timeStage(HarvesterStage.CLONE_REPO, null, () -> "cloned");
+        HarvesterMetrics.timePath(SemanticAssetType.ONTOLOGY, () -> {
+            HarvesterMetrics.timeStoreWrite(HarvesterMetrics.VIRTUOSO, () -> {
+            });
+            HarvesterMetrics.countTriples(HarvesterMetrics.VIRTUOSO, 120);
+            return null;
+        });
+        HarvesterMetrics.timePath(SemanticAssetType.ONTOLOGY, () -> null);
+
+        List<HarvesterRunProfileEntry> entries = HarvestExecutionContextUtils.getContext().getRunProfile().toEntries("run-1");
+
+        assertThat(entries).extracting(HarvesterRunProfileEntry::getName)
+                .containsExactly("ASSETS", "CLONE_REPO", "PATH_PROCESSING", "STORE_WRITE_VIRTUOSO", "TRIPLES");
+        assertThat(entries).allMatch(entry -> entry.getHarvesterRunId().equals("run-1"));
+        assertThat(entries.get(0)).extracting(HarvesterRunProfileEntry::getUnit, HarvesterRunProfileEntry::getAmount)
+                .containsExactly("assets", 2L);
+        assertThat(entries.get(2)).extracting(HarvesterRunProfileEntry::getUnit, HarvesterRunProfileEntry::getInvocations)
+                .containsExactly(HarvesterRunProfileEntry.MILLIS, 2L);
+        assertThat(entries.get(4).getAmount()).isEqualTo(120);
+    }
+
+    @Test
+    void shouldTagWithoutHarvestContext() {
+        HarvestExecutionContextUtils.clearContext();
+
+        HarvesterMetrics.timePath(SemanticAssetType.ONTOLOGY, () -> 1);
+
+        assertThat(meterRegistry.get(HarvesterMetrics.PATH_TIMER).tags("repo", "none").timer().count()).isEqualTo(1);
+    }
+}
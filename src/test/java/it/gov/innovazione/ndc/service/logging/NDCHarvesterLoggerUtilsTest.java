@@ -0,0 +1,88 @@
+package it.gov.innovazione.ndc.service.logging;
+
+import it.gov.innovazione.ndc.alerter.entities.EventCategory;
+import it.gov.innovazione.ndc.model.harvester.HarvesterRun;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NDCHarvesterLoggerUtilsTest {
+
+    private static final String REPO_URL = "https://github.com/italia/daf-ontologie-vocabolari-controllati";
+
+    @AfterEach
+    void tearDown() {
+        NDCHarvesterLoggerUtils.clearContext();
+        LoggingContext.setMaxValueLength(120);
+    }
+
+    @Test
+    void shouldRenderLogEntry() {
+        LoggingContext.setMaxValueLength(10);
+        LoggingContext context = LoggingContext.builder()
+                .component(" harvester ")
+                .stage(HarvesterStage.CLONE_REPO)
+                .repoUrl(REPO_URL)
+                .message("  ")
+                .harvesterStatus(HarvesterRun.Status.RUNNING)
+                .eventCategory(EventCategory.SEMANTIC)
+                .additionalInfo("files", 3)
+                .build();
+
+        assertThat(context.makeLogEntry()).isEqualTo("[NDC_HARVESTER_LOGGER] [HARVESTER] [CLONE_REPO] [NO_JOB_ID] "
+                + "RepoUrl: https://gi... Status: RUNNING EventCategory: SEMANTIC files: 3");
+    }
+
+    @Test
+    void shouldRenderWithoutFields() {
+        assertThat(LoggingContext.builder().build().makeLogEntry())
+                .isEqualTo("[NDC_HARVESTER_LOGGER] [NO_COMPONENT] [NO_STAGE] [NO_JOB_ID] ");
+    }
+
+    @Test
+    void shouldRenderLikeTheMergedContext() {
+        LoggingContext threadContext = LoggingContext.builder()
+                .jobId("job-1")
+                .repoUrl(REPO_URL)
+                .path("old/path")
+                .additionalInfo("runId", "run-1")
+                .additionalInfo("revision", "abc")
+                .build();
+        LoggingContext context = LoggingContext.builder()
+                .path("Ontologie/CLV")
+                .message("Harvesting ontology")
+                .additionalInfo("revision", "def")
+                .additionalInfo("assets", 1)
+                .build();
+
+        String rendered = LoggingContext.appendLogEntry(new StringBuilder(), threadContext, context, EventCategory.SEMANTIC).toString();
+
+        assertThat(rendered)
+                .isEqualTo(NDCHarvesterLoggerUtils.mergeContexts(threadContext, context).semantic().makeLogEntry())
+                .isEqualTo("[NDC_HARVESTER_LOGGER] [NO_COMPONENT] [NO_STAGE] [JOB-1] RepoUrl: " + REPO_URL
+                        + " Path: Ontologie/CLV Message: Harvesting ontology EventCategory: SEMANTIC runId: run-1 revision: def assets: 1");
+    }
+
+    @Test
+    void shouldDropRepeatedMessagesUntilContextIsCleared() {
+        assertThat(NDCHarvesterLoggerUtils.notSeen("message")).isTrue();
+        assertThat(NDCHarvesterLoggerUtils.notSeen(new StringBuilder("message"))).isFalse();
+        assertThat(NDCHarvesterLoggerUtils.notSeen("another message")).isTrue();
+
+        NDCHarvesterLoggerUtils.clearContext();
+
+        assertThat(NDCHarvesterLoggerUtils.notSeen("message")).isTrue();
+    }
+
+    @Test
+    void shouldKeepAFixedNumberOfFingerprints() {
+        for (int i = 0; i < 100_000; i++) {
+            NDCHarvesterLoggerUtils.notSeen("message " + i);
+        }
+
+        // the older fingerprints are overwritten, the latest one is still there
+        assertThat(NDCHarvesterLoggerUtils.notSeen("message 99999")).isFalse();
+        assertThat(NDCHarvesterLoggerUtils.fingerprint("message 1")).isNotEqualTo(NDCHarvesterLoggerUtils.fingerprint("message 2"));
+    }
+}
@@ -110,7 +110,7 @@ class RepoValidationServiceTest {
                 .thenReturn(Collections.emptyList());
         when(repositoryStructureValidator.validate(clonedPath))
                 .thenReturn(Optional.empty());
-        when(rdfSyntaxValidator.validateTurtle(any()))
+        when(rdfSyntaxValidator.validateTurtle(any(), any()))
                 .thenReturn(RdfSyntaxValidationResult.builder().build());
 
         service.tryAcquire();